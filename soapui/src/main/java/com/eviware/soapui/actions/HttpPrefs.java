@@ -48,9 +48,11 @@ public class HttpPrefs implements Prefs {
     public static final String LEAVE_MOCKENGINE = "Leave MockEngine";
     public static final String CHUNKING_THRESHOLD = "Chunking Threshold";
     public static final String HTTP_VERSION = "HTTP Version";
+    public static final String HTTP2_PRIOR_KNOWLEDGE = "HTTP/2 Prior Knowledge";
     public static final String ENABLE_MOCK_WIRE_LOG = "Enable Mock HTTP Log";
     public static final String DISABLE_RESPONSE_DECOMPRESSION = "Disable Response Decompression";
     public static final String FORWARD_SLASHES = "Normalize Forward Slashes";
+    public static final String NON_BLOCKING_TRANSPORT = "Non-blocking Transport";
 
     private static TreeMap<String, String> compressionAlgs = new TreeMap<String, String>();
 
@@ -72,7 +74,10 @@ public class HttpPrefs implements Prefs {
             httpForm = new SimpleForm();
             httpForm.addSpace(5);
             httpForm.appendComboBox(HttpPrefs.HTTP_VERSION, new String[]{HttpSettings.HTTP_VERSION_1_1,
-                    HttpSettings.HTTP_VERSION_1_0}, "Select HTTP Version to use");
+                    HttpSettings.HTTP_VERSION_1_0, HttpSettings.HTTP_VERSION_2_0},
+                    "Select HTTP Version to use, 2.0 applies to HTTP and REST requests");
+            httpForm.appendCheckBox(HttpPrefs.HTTP2_PRIOR_KNOWLEDGE,
+                    "Use HTTP/2 without upgrade (h2c) for plain http endpoints", false);
             httpForm.appendTextField(HttpPrefs.USER_AGENT_HEADER,
                     "User-Agent HTTP header to send, blank will send default");
             httpForm.appendComboBox(HttpPrefs.REQUEST_COMPRESSION, compressionAlgs);
@@ -101,6 +106,8 @@ public class HttpPrefs implements Prefs {
             httpForm.appendTextField(HttpPrefs.MAX_RESPONSE_SIZE, "Maximum size to read from response (0 = no limit)");
             httpForm.appendTextField(HttpPrefs.MAX_CONNECTIONS_PER_HOST, "Maximum number of Connections Per Host");
             httpForm.appendTextField(HttpPrefs.MAX_TOTAL_CONNECTIONS, "Maximum number of Total Connections");
+            httpForm.appendCheckBox(HttpPrefs.NON_BLOCKING_TRANSPORT,
+                    "Sends HTTP requests with the non-blocking NIO client", false);
             httpForm.appendSeparator();
             httpForm.appendCheckBox(HttpPrefs.LEAVE_MOCKENGINE, "Leave MockEngine running when stopping MockServices",
                     false);
@@ -119,6 +126,7 @@ public class HttpPrefs implements Prefs {
 
     public void storeValues(StringToStringMap httpValues, Settings settings) {
         settings.setString(HttpSettings.HTTP_VERSION, httpValues.get(HTTP_VERSION));
+        settings.setString(HttpSettings.HTTP2_PRIOR_KNOWLEDGE, httpValues.get(HTTP2_PRIOR_KNOWLEDGE));
         settings.setString(HttpSettings.CHUNKING_THRESHOLD, httpValues.get(CHUNKING_THRESHOLD));
         settings.setString(HttpSettings.USER_AGENT, httpValues.get(USER_AGENT_HEADER));
         settings.setString(HttpSettings.REQUEST_COMPRESSION, httpValues.get(REQUEST_COMPRESSION));
@@ -137,6 +145,7 @@ public class HttpPrefs implements Prefs {
                 .setString(HttpSettings.INCLUDE_RESPONSE_IN_TIME_TAKEN, httpValues.get(INCLUDE_RESPONSE_IN_TIME_TAKEN));
         settings.setString(HttpSettings.MAX_CONNECTIONS_PER_HOST, httpValues.get(MAX_CONNECTIONS_PER_HOST));
         settings.setString(HttpSettings.MAX_TOTAL_CONNECTIONS, httpValues.get(MAX_TOTAL_CONNECTIONS));
+        settings.setString(HttpSettings.NON_BLOCKING_TRANSPORT, httpValues.get(NON_BLOCKING_TRANSPORT));
         settings.setString(HttpSettings.BIND_ADDRESS, httpValues.get(BIND_ADDRESS));
         settings.setString(HttpSettings.LEAVE_MOCKENGINE, httpValues.get(LEAVE_MOCKENGINE));
         settings.setString(HttpSettings.ENABLE_MOCK_WIRE_LOG, httpValues.get(ENABLE_MOCK_WIRE_LOG));
@@ -149,6 +158,7 @@ public class HttpPrefs implements Prefs {
     public StringToStringMap getValues(Settings settings) {
         StringToStringMap httpValues = new StringToStringMap();
         httpValues.put(HTTP_VERSION, settings.getString(HttpSettings.HTTP_VERSION, HttpSettings.HTTP_VERSION_1_1));
+        httpValues.put(HTTP2_PRIOR_KNOWLEDGE, settings.getString(HttpSettings.HTTP2_PRIOR_KNOWLEDGE, null));
         httpValues.put(CHUNKING_THRESHOLD, settings.getString(HttpSettings.CHUNKING_THRESHOLD, null));
         httpValues.put(USER_AGENT_HEADER, settings.getString(HttpSettings.USER_AGENT, null));
         httpValues.put(REQUEST_COMPRESSION,
@@ -168,6 +178,7 @@ public class HttpPrefs implements Prefs {
         httpValues.put(MAX_RESPONSE_SIZE, settings.getString(HttpSettings.MAX_RESPONSE_SIZE, "0"));
         httpValues.put(MAX_CONNECTIONS_PER_HOST, settings.getString(HttpSettings.MAX_CONNECTIONS_PER_HOST, "500"));
         httpValues.put(MAX_TOTAL_CONNECTIONS, settings.getString(HttpSettings.MAX_TOTAL_CONNECTIONS, "2000"));
+        httpValues.put(NON_BLOCKING_TRANSPORT, settings.getString(HttpSettings.NON_BLOCKING_TRANSPORT, null));
         httpValues.put(BIND_ADDRESS, settings.getString(HttpSettings.BIND_ADDRESS, ""));
         httpValues.put(FORWARD_SLASHES, settings.getString(HttpSettings.FORWARD_SLASHES, ""));
         httpValues.put(LEAVE_MOCKENGINE, settings.getString(HttpSettings.LEAVE_MOCKENGINE, null));
@@ -48,6 +48,7 @@ import com.eviware.soapui.model.propertyexpansion.PropertyExpander;
 import com.eviware.soapui.model.propertyexpansion.PropertyExpansionContainer;
 import com.eviware.soapui.model.testsuite.TestProperty;
 import com.eviware.soapui.model.testsuite.TestPropertyListener;
+import com.eviware.soapui.monitor.DelayableServletResponse;
 import com.eviware.soapui.settings.CommonSettings;
 import com.eviware.soapui.support.scripting.ScriptEnginePool;
 import com.eviware.soapui.support.scripting.SoapUIScriptEngine;
@@ -63,6 +64,7 @@ import javax.mail.internet.MimeBodyPart;
 import javax.mail.internet.MimeMessage;
 import javax.mail.internet.MimeMultipart;
 import javax.mail.internet.PreencodedMimeBodyPart;
+import javax.servlet.http.HttpServletResponse;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Arrays;
@@ -236,7 +238,7 @@ public abstract class AbstractMockResponse<MockResponseConfigType extends BaseMo
             getProperty("Request").setValue(request.getRequestContent());
 
             long delay = getResponseDelay();
-            if (delay > 0) {
+            if (delay > 0 && !delayResponse(request, delay)) {
                 Thread.sleep(delay);
             }
 
@@ -281,6 +283,18 @@ public abstract class AbstractMockResponse<MockResponseConfigType extends BaseMo
         }
     }
 
+    /**
+     * Hands the delay to the JettyMockEngine, which sends the response once it
+     * has passed without keeping a thread waiting; returns false if the
+     * request was not received by it
+     */
+
+    private boolean delayResponse(MockRequest request, long delay) {
+        HttpServletResponse httpResponse = request.getHttpResponse();
+        return httpResponse instanceof DelayableServletResponse
+                && ((DelayableServletResponse) httpResponse).delay(delay);
+    }
+
     public String writeResponse(MockResult result, String responseContent) throws Exception {
         MimeMultipart mp = null;
 
@@ -38,6 +38,7 @@ import com.eviware.soapui.model.mock.MockRunner;
 import com.eviware.soapui.model.mock.MockService;
 import com.eviware.soapui.model.mock.MockServiceListener;
 import com.eviware.soapui.model.support.ModelSupport;
+import com.eviware.soapui.monitor.DelayableServletResponse;
 import com.eviware.soapui.settings.HttpSettings;
 import com.eviware.soapui.settings.SSLSettings;
 import com.eviware.soapui.support.StringUtils;
@@ -565,11 +566,34 @@ public abstract class AbstractMockService<MockOperationType extends MockOperatio
 
     public abstract String getIconName();
 
+    /**
+     * Notifies the MockRunListeners of the specified result; for responses
+     * delayed by the JettyMockEngine that is done once the delay has passed
+     * and has been added to the time taken of the result
+     */
+
     public void fireOnMockResult(Object result) {
         if (result != null && result instanceof MockResult) {
-            for (MockRunListener listener : getMockRunListeners()) {
-                listener.onMockResult((MockResult) result);
+            final MockResult mockResult = (MockResult) result;
+            HttpServletResponse httpResponse = mockResult.getMockRequest() == null ? null : mockResult.getMockRequest()
+                    .getHttpResponse();
+
+            if (httpResponse instanceof DelayableServletResponse
+                    && ((DelayableServletResponse) httpResponse).afterCompletion(new Runnable() {
+                public void run() {
+                    notifyMockResult(mockResult);
+                }
+            })) {
+                return;
             }
+
+            notifyMockResult(mockResult);
+        }
+    }
+
+    private void notifyMockResult(MockResult result) {
+        for (MockRunListener listener : getMockRunListeners()) {
+            listener.onMockResult(result);
         }
     }
 
@@ -26,6 +26,8 @@ import com.eviware.soapui.support.action.swing.DefaultActionList;
 import com.eviware.soapui.support.types.StringToStringsMap;
 import org.mortbay.jetty.HttpFields;
 
+import javax.servlet.ServletResponse;
+import javax.servlet.ServletResponseWrapper;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -100,8 +102,13 @@ public class BaseMockResult<MockRequestType extends MockRequest, MockOperationTy
 
     @SuppressWarnings("unchecked")
     public void finish() {
-        if (mockRequest.getHttpResponse() instanceof org.mortbay.jetty.Response) {
-            HttpFields httpFields = ((org.mortbay.jetty.Response) mockRequest.getHttpResponse()).getHttpFields();
+        ServletResponse httpResponse = mockRequest.getHttpResponse();
+        while (httpResponse instanceof ServletResponseWrapper) {
+            httpResponse = ((ServletResponseWrapper) httpResponse).getResponse();
+        }
+
+        if (httpResponse instanceof org.mortbay.jetty.Response) {
+            HttpFields httpFields = ((org.mortbay.jetty.Response) httpResponse).getHttpFields();
 
             Enumeration<String> e = httpFields.getFieldNames();
             while (e.hasMoreElements()) {
@@ -18,7 +18,6 @@ package com.eviware.soapui.impl.support.panels;
 
 import com.eviware.soapui.SoapUI;
 import com.eviware.soapui.impl.rest.RestRequestInterface;
-import com.eviware.soapui.impl.rest.support.MediaTypeHandlerRegistry;
 import com.eviware.soapui.impl.rest.support.handlers.JsonXmlSerializer;
 import com.eviware.soapui.impl.support.components.ModelItemXmlEditor;
 import com.eviware.soapui.impl.support.http.HttpRequestInterface;
@@ -227,7 +226,7 @@ public abstract class AbstractHttpXmlRequestDesktopPanel<T extends ModelItem, T2
             } else {
                 String contentAsString;
                 if (format == Format.XML) {
-                    contentAsString = MediaTypeHandlerRegistry.getTypeHandler(response.getContentType()).createXmlRepresentation(response);
+                    contentAsString = response.getContentAsXml();
                 } else {
                     contentAsString = response.getContentAsString();
                 }
@@ -44,6 +44,7 @@ import com.eviware.soapui.impl.support.EndpointSupport;
 import com.eviware.soapui.impl.wsdl.endpoint.DefaultEndpointStrategy;
 import com.eviware.soapui.impl.wsdl.mock.WsdlMockService;
 import com.eviware.soapui.impl.wsdl.support.ExternalDependency;
+import com.eviware.soapui.impl.wsdl.support.LazyModelItemList;
 import com.eviware.soapui.impl.wsdl.support.PathUtils;
 import com.eviware.soapui.impl.wsdl.support.wsdl.UrlWsdlLoader;
 import com.eviware.soapui.impl.wsdl.support.wsdl.WsdlLoader;
@@ -135,6 +136,7 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
     public final static String BEFORE_SAVE_SCRIPT_PROPERTY = WsdlProject.class.getName() + "@tearDownScript";
     public final static String RESOURCE_ROOT_PROPERTY = WsdlProject.class.getName() + "@resourceRoot";
     public static final String ICON_NAME = "/project.png";
+    public static final String LAZY_LOADING_PROPERTY = "soapui.project.lazyLoading";
     public static final SoapUIVersionInfo VERSION_IN_READY_API_PROJECT = new SoapUIVersionInfo("6.0.0");
     protected final static Logger log = Logger.getLogger(WsdlProject.class);
     private static final String XML_FILE_TYPE = "XML Files (*.xml)";
@@ -173,6 +175,8 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
     private SoapUIScriptEngine beforeRunScriptEngine;
     private Set<ProjectRunListener> runListeners = new HashSet<ProjectRunListener>();
     private Environment environment;
+    private boolean lazyLoading;
+    private boolean lazyItemsAfterLoad;
 
     public WsdlProject() throws XmlException, IOException, SoapUIException {
         this((WorkspaceImpl) null);
@@ -377,25 +381,30 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
 
         setPropertiesConfig(getConfig().getProperties());
 
-        List<InterfaceConfig> interfaceConfigs = getConfig().getInterfaceList();
-        for (InterfaceConfig config : interfaceConfigs) {
-            AbstractInterface<?> iface = InterfaceFactoryRegistry.build(this, config);
-            interfaces.add(iface);
-        }
+        lazyLoading = Boolean.getBoolean(LAZY_LOADING_PROPERTY);
+        if (lazyLoading) {
+            initLazyModelItems();
+        } else {
+            List<InterfaceConfig> interfaceConfigs = getConfig().getInterfaceList();
+            for (InterfaceConfig config : interfaceConfigs) {
+                AbstractInterface<?> iface = InterfaceFactoryRegistry.build(this, config);
+                interfaces.add(iface);
+            }
 
-        List<TestSuiteConfig> testSuiteConfigs = getConfig().getTestSuiteList();
-        for (TestSuiteConfig config : testSuiteConfigs) {
-            testSuites.add(buildTestSuite(config));
-        }
+            List<TestSuiteConfig> testSuiteConfigs = getConfig().getTestSuiteList();
+            for (TestSuiteConfig config : testSuiteConfigs) {
+                testSuites.add(buildTestSuite(config));
+            }
 
-        List<MockServiceConfig> mockServiceConfigs = getConfig().getMockServiceList();
-        for (MockServiceConfig config : mockServiceConfigs) {
-            addWsdlMockService(new WsdlMockService(this, config));
-        }
+            List<MockServiceConfig> mockServiceConfigs = getConfig().getMockServiceList();
+            for (MockServiceConfig config : mockServiceConfigs) {
+                addWsdlMockService(new WsdlMockService(this, config));
+            }
 
-        List<RESTMockServiceConfig> restMockServiceConfigs = getConfig().getRestMockServiceList();
-        for (RESTMockServiceConfig config : restMockServiceConfigs) {
-            addRestMockService(new RestMockService(this, config));
+            List<RESTMockServiceConfig> restMockServiceConfigs = getConfig().getRestMockServiceList();
+            for (RESTMockServiceConfig config : restMockServiceConfigs) {
+                addRestMockService(new RestMockService(this, config));
+            }
         }
 
         if (!getConfig().isSetWssContainer()) {
@@ -431,6 +440,138 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
         return projectDocument;
     }
 
+    /**
+     * Sets up the interface, testsuite and mockservice lists so that their items
+     * are only built from the project configuration when first accessed
+     */
+
+    private void initLazyModelItems() {
+        interfaces = new LazyModelItemList<AbstractInterface<?>, InterfaceConfig>(getConfig().getInterfaceList()) {
+            protected AbstractInterface<?> build(InterfaceConfig config) {
+                return InterfaceFactoryRegistry.build(WsdlProject.this, config);
+            }
+
+            protected String getName(InterfaceConfig config) {
+                return config.getName();
+            }
+
+            protected void loaded(AbstractInterface<?> iface) {
+                if (endpointStrategy instanceof DefaultEndpointStrategy) {
+                    ((DefaultEndpointStrategy) endpointStrategy).interfaceLoaded(iface);
+                }
+
+                lazyModelItemLoaded(iface);
+            }
+        };
+
+        testSuites = new LazyModelItemList<WsdlTestSuite, TestSuiteConfig>(getConfig().getTestSuiteList()) {
+            protected WsdlTestSuite build(TestSuiteConfig config) {
+                return buildTestSuite(config);
+            }
+
+            protected String getName(TestSuiteConfig config) {
+                return config.getName();
+            }
+
+            protected void loaded(WsdlTestSuite testSuite) {
+                lazyModelItemLoaded(testSuite);
+            }
+        };
+
+        mockServices = new LazyModelItemList<WsdlMockService, MockServiceConfig>(getConfig().getMockServiceList()) {
+            protected WsdlMockService build(MockServiceConfig config) {
+                return new WsdlMockService(WsdlProject.this, config);
+            }
+
+            protected String getName(MockServiceConfig config) {
+                return config.getName();
+            }
+
+            protected void loaded(WsdlMockService mockService) {
+                lazyModelItemLoaded(mockService);
+            }
+        };
+
+        restMockServices = new LazyModelItemList<RestMockService, RESTMockServiceConfig>(getConfig()
+                .getRestMockServiceList()) {
+            protected RestMockService build(RESTMockServiceConfig config) {
+                return new RestMockService(WsdlProject.this, config);
+            }
+
+            protected String getName(RESTMockServiceConfig config) {
+                return config.getName();
+            }
+
+            protected void loaded(RestMockService mockService) {
+                lazyModelItemLoaded(mockService);
+            }
+        };
+    }
+
+    private void lazyModelItemLoaded(AbstractWsdlModelItem<?> modelItem) {
+        // items loaded before the project has finished loading get this call from afterLoad
+        if (lazyItemsAfterLoad) {
+            modelItem.afterLoad();
+        }
+    }
+
+    /**
+     * Lazily loaded projects only build their interfaces, testsuites and
+     * mockservices when they are first accessed, which is enabled by setting
+     * the soapui.project.lazyLoading system property to true before loading
+     */
+
+    public boolean isLazyLoading() {
+        return lazyLoading;
+    }
+
+    private static <T extends ModelItem> List<T> getLoadedItems(List<T> items) {
+        if (items instanceof LazyModelItemList) {
+            return ((LazyModelItemList<T, ?>) items).getLoadedItems();
+        }
+
+        return items;
+    }
+
+    private ModelItem findModelItemByName(List<? extends ModelItem> items, String name) {
+        if (items instanceof LazyModelItemList) {
+            return ((LazyModelItemList<?, ?>) items).getByName(name);
+        }
+
+        return getWsdlModelItemByName(items, name);
+    }
+
+    /**
+     * Returns the interfaces that have been built so far, which are all of them
+     * unless the project is lazily loaded
+     */
+
+    public List<AbstractInterface<?>> getLoadedInterfaceList() {
+        return new ArrayList<AbstractInterface<?>>(getLoadedItems(interfaces));
+    }
+
+    /**
+     * Returns the endpoints of all interfaces, without loading any interfaces
+     */
+
+    public Set<String> getInterfaceEndpoints() {
+        Set<String> endpoints = new HashSet<String>();
+
+        if (isLazyLoading()) {
+            for (InterfaceConfig config : getConfig().getInterfaceList()) {
+                if (config.getEndpoints() != null) {
+                    endpoints.addAll(config.getEndpoints().getEndpointList());
+                }
+            }
+        } else {
+            for (Interface iface : interfaces) {
+                endpoints.addAll(Arrays.asList(iface.getEndpoints()));
+            }
+        }
+
+        return endpoints;
+    }
+
     public Environment getActiveEnvironment() {
         return environment;
     }
@@ -527,7 +668,17 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
 
     @Override
     public void afterLoad() {
-        super.afterLoad();
+        if (isLazyLoading()) {
+            for (ModelItem modelItem : getLoadedChildren()) {
+                if (modelItem instanceof AbstractWsdlModelItem<?>) {
+                    ((AbstractWsdlModelItem<?>) modelItem).afterLoad();
+                }
+            }
+
+            lazyItemsAfterLoad = true;
+        } else {
+            super.afterLoad();
+        }
 
         try {
             ProjectListener[] a = projectListeners.toArray(new ProjectListener[projectListeners.size()]);
@@ -660,7 +811,7 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
     }
 
     public AbstractInterface<?> getInterfaceByName(String interfaceName) {
-        return (AbstractInterface<?>) getWsdlModelItemByName(interfaces, interfaceName);
+        return (AbstractInterface<?>) findModelItemByName(interfaces, interfaceName);
     }
 
     public AbstractInterface<?> getInterfaceByTechnicalId(String technicalId) {
@@ -902,20 +1053,20 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
             SoapUI.logError(e);
         }
 
-        // notify
-        for (AbstractInterface<?> iface : interfaces) {
+        // notify; items that have not been loaded are up to date in the configuration
+        for (AbstractInterface<?> iface : getLoadedItems(interfaces)) {
             iface.beforeSave();
         }
 
-        for (WsdlTestSuite testSuite : testSuites) {
+        for (WsdlTestSuite testSuite : getLoadedItems(testSuites)) {
             testSuite.beforeSave();
         }
 
-        for (WsdlMockService mockService : mockServices) {
+        for (WsdlMockService mockService : getLoadedItems(mockServices)) {
             mockService.beforeSave();
         }
 
-        for (RestMockService mockService : restMockServices) {
+        for (RestMockService mockService : getLoadedItems(restMockServices)) {
             mockService.beforeSave();
         }
 
@@ -1112,7 +1263,7 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
     }
 
     public WsdlTestSuite getTestSuiteByName(String testSuiteName) {
-        return (WsdlTestSuite) getWsdlModelItemByName(testSuites, testSuiteName);
+        return (WsdlTestSuite) findModelItemByName(testSuites, testSuiteName);
     }
 
     @Override
@@ -1163,19 +1314,19 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
         if (isOpen()) {
             endpointStrategy.release();
 
-            for (WsdlTestSuite testSuite : testSuites) {
+            for (WsdlTestSuite testSuite : getLoadedItems(testSuites)) {
                 testSuite.release();
             }
 
-            for (WsdlMockService mockService : mockServices) {
+            for (WsdlMockService mockService : getLoadedItems(mockServices)) {
                 mockService.release();
             }
 
-            for (RestMockService mockService : restMockServices) {
+            for (RestMockService mockService : getLoadedItems(restMockServices)) {
                 mockService.release();
             }
 
-            for (AbstractInterface<?> iface : interfaces) {
+            for (AbstractInterface<?> iface : getLoadedItems(interfaces)) {
                 iface.release();
             }
 
@@ -1241,7 +1392,7 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
     }
 
     public WsdlMockService getMockServiceByName(String mockServiceName) {
-        return (WsdlMockService) getWsdlModelItemByName(mockServices, mockServiceName);
+        return (WsdlMockService) findModelItemByName(mockServices, mockServiceName);
     }
 
     public int getMockServiceCount() {
@@ -1253,7 +1404,7 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
     }
 
     public RestMockService getRestMockServiceByName(String mockServiceName) {
-        return (RestMockService) getWsdlModelItemByName(restMockServices, mockServiceName);
+        return (RestMockService) findModelItemByName(restMockServices, mockServiceName);
     }
 
     public int getRestMockServiceCount() {
@@ -1459,6 +1610,15 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
         return list;
     }
 
+    private List<ModelItem> getLoadedChildren() {
+        ArrayList<ModelItem> list = new ArrayList<ModelItem>();
+        list.addAll(getLoadedItems(interfaces));
+        list.addAll(getLoadedItems(testSuites));
+        list.addAll(getLoadedItems(mockServices));
+        list.addAll(getLoadedItems(restMockServices));
+        return list;
+    }
+
     public String getAfterLoadScript() {
         return getConfig().isSetAfterLoadScript() ? getConfig().getAfterLoadScript().getStringValue() : null;
     }
@@ -25,6 +25,7 @@ import com.eviware.soapui.config.TestStepSecurityTestConfig;
 import com.eviware.soapui.config.TestSuiteConfig;
 import com.eviware.soapui.config.TestSuiteRunTypesConfig;
 import com.eviware.soapui.config.TestSuiteRunTypesConfig.Enum;
+import com.eviware.soapui.impl.wsdl.loadtest.LoadTestExecutor;
 import com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTest;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestSuiteRunner;
@@ -66,6 +67,7 @@ public class WsdlTestSuite extends AbstractTestPropertyHolderWsdlModelItem<TestS
     public final static String SETUP_SCRIPT_PROPERTY = WsdlTestSuite.class.getName() + "@setupScript";
     public final static String TEARDOWN_SCRIPT_PROPERTY = WsdlTestSuite.class.getName() + "@tearDownScript";
     public static final String ICON_NAME = "/test_suite.png";
+    public static final String EXECUTION_MODE_SETTING = WsdlTestSuite.class.getSimpleName() + "@execution-mode";
 
     private final WsdlProject project;
     private List<WsdlTestCase> testCases = new ArrayList<WsdlTestCase>();
@@ -129,6 +131,19 @@ public class WsdlTestSuite extends AbstractTestPropertyHolderWsdlModelItem<TestS
         }
     }
 
+    /**
+     * The threads TestCases are run on when the run type is parallel
+     */
+
+    public LoadTestExecutor.Mode getExecutionMode() {
+        return LoadTestExecutor.Mode.fromString(getSettings().getString(EXECUTION_MODE_SETTING,
+                LoadTestExecutor.Mode.SHARED.name()));
+    }
+
+    public void setExecutionMode(LoadTestExecutor.Mode mode) {
+        getSettings().setString(EXECUTION_MODE_SETTING, mode.name());
+    }
+
     public WsdlProject getProject() {
         return project;
     }
@@ -16,6 +16,7 @@
 
 package com.eviware.soapui.impl.wsdl.actions.loadtest;
 
+import com.eviware.soapui.impl.wsdl.loadtest.LoadTestExecutor;
 import com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTest;
 import com.eviware.soapui.impl.wsdl.support.HelpUrls;
 import com.eviware.soapui.model.settings.Settings;
@@ -60,6 +61,8 @@ public class LoadTestOptionsAction extends AbstractSoapUIAction<WsdlLoadTest> {
         dialog.setIntValue(SettingsForm.STRATEGY_INTERVAL, (int) loadTest.getStrategyInterval());
         dialog.setBooleanValue(SettingsForm.CANCEL_EXCESSIVE, loadTest.getCancelExcessiveThreads());
         dialog.setBooleanValue(SettingsForm.TESTSTEP_STATISTICS, loadTest.getUpdateStatisticsPerTestStep());
+        dialog.setValue(SettingsForm.EXECUTION_MODE, loadTest.getExecutionMode().getDescription());
+        dialog.setBooleanValue(SettingsForm.DISCARD_RESPONSES, loadTest.getDiscardResponseBodies());
 
         Settings settings = loadTest.getSettings();
 
@@ -72,6 +75,8 @@ public class LoadTestOptionsAction extends AbstractSoapUIAction<WsdlLoadTest> {
         dialog.setValue(LogForm.LOG_FOLDER, loadTest.getStatisticsLogFolder());
         dialog.setIntValue(LogForm.LOG_INTERVAL, (int) loadTest.getStatisticsLogInterval());
         dialog.setBooleanValue(LogForm.LOG_ON_THREADCOUNT_CHANGE, loadTest.getLogStatisticsOnThreadChange());
+        dialog.setValue(LogForm.STREAM_FOLDER, loadTest.getStatisticsStreamFolder());
+        dialog.setBooleanValue(LogForm.STREAM_CSV, loadTest.getStatisticsStreamCsv());
 
         if (dialog.show() && !loadTest.isRunning()) {
             try {
@@ -87,6 +92,8 @@ public class LoadTestOptionsAction extends AbstractSoapUIAction<WsdlLoadTest> {
                         WsdlLoadTest.DEFAULT_STRATEGY_INTERVAL));
                 loadTest.setCancelExcessiveThreads(dialog.getBooleanValue(SettingsForm.CANCEL_EXCESSIVE));
                 loadTest.setUpdateStatisticsPerTestStep(dialog.getBooleanValue(SettingsForm.TESTSTEP_STATISTICS));
+                loadTest.setExecutionMode(LoadTestExecutor.Mode.fromString(dialog.getValue(SettingsForm.EXECUTION_MODE)));
+                loadTest.setDiscardResponseBodies(dialog.getBooleanValue(SettingsForm.DISCARD_RESPONSES));
 
                 settings.setBoolean(HttpSettings.INCLUDE_REQUEST_IN_TIME_TAKEN,
                         dialog.getBooleanValue(SettingsForm.INCLUDE_REQUEST));
@@ -99,6 +106,8 @@ public class LoadTestOptionsAction extends AbstractSoapUIAction<WsdlLoadTest> {
                 loadTest.setStatisticsLogFolder(dialog.getValue(LogForm.LOG_FOLDER));
                 loadTest.setStatisticsLogInterval(dialog.getIntValue(LogForm.LOG_INTERVAL,
                         (int) loadTest.getStatisticsLogInterval()));
+                loadTest.setStatisticsStreamFolder(dialog.getValue(LogForm.STREAM_FOLDER));
+                loadTest.setStatisticsStreamCsv(dialog.getBooleanValue(LogForm.STREAM_CSV));
             } catch (NumberFormatException ex) {
                 ex.printStackTrace();
             }
@@ -107,6 +116,7 @@ public class LoadTestOptionsAction extends AbstractSoapUIAction<WsdlLoadTest> {
 
     private void buildDialog() {
         dialog = ADialogBuilder.buildTabbedDialog(WizardForm.class, null);
+        dialog.setOptions(SettingsForm.EXECUTION_MODE, LoadTestExecutor.Mode.getDescriptions());
         dialog.getFormField(SettingsForm.DISABLE_HISTORY).addFormFieldListener(new XFormFieldListener() {
             public void valueChanged(XFormField sourceField, String newValue, String oldValue) {
                 dialog.getFormField(SettingsForm.SAMPLE_INTERVAL).setEnabled(!Boolean.parseBoolean(newValue));
@@ -164,6 +174,12 @@ public class LoadTestOptionsAction extends AbstractSoapUIAction<WsdlLoadTest> {
         @AField(name = "Strategy Interval", description = "LoadTest Strategy application interval in milliseconds", type = AFieldType.INT)
         public final static String STRATEGY_INTERVAL = "Strategy Interval";
 
+        @AField(name = "Execution Mode", description = "Threads used for running virtual users", type = AFieldType.ENUMERATION)
+        public final static String EXECUTION_MODE = "Execution Mode";
+
+        @AField(name = "Discard Responses", description = "Discard response bodies not used by assertions or other TestSteps", type = AFieldType.BOOLEAN)
+        public final static String DISCARD_RESPONSES = "Discard Responses";
+
     }
 
     @AForm(name = "Logging", description = "", helpUrl = HelpUrls.LOADTESTOPTIONS_HELP_URL, icon = UISupport.OPTIONS_ICON_PATH)
@@ -176,5 +192,11 @@ public class LoadTestOptionsAction extends AbstractSoapUIAction<WsdlLoadTest> {
 
         @AField(name = "Log on ThreadCount change", description = "Log every time the number of threads changes", type = AFieldType.BOOLEAN)
         public final static String LOG_ON_THREADCOUNT_CHANGE = "Log on ThreadCount change";
+
+        @AField(name = "Stream Folder", description = "The folder to stream statistics history files to", type = AFieldType.FOLDER)
+        public final static String STREAM_FOLDER = "Stream Folder";
+
+        @AField(name = "Stream CSV", description = "Also stream statistics history as CSV", type = AFieldType.BOOLEAN)
+        public final static String STREAM_CSV = "Stream CSV";
     }
 }
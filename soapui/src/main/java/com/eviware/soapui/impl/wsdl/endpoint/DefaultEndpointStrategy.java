@@ -52,9 +52,7 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -72,18 +70,28 @@ public class DefaultEndpointStrategy implements EndpointStrategy, PropertyExpans
 
         project.addProjectListener(projectListener);
 
-        for (Interface iface : project.getInterfaceList()) {
-            for (String endpoint : iface.getEndpoints()) {
-                // ensure we have defaults
-                getEndpointDefaults(endpoint);
-            }
+        // ensure we have defaults
+        for (String endpoint : this.project.getInterfaceEndpoints()) {
+            getEndpointDefaults(endpoint);
+        }
 
+        for (Interface iface : this.project.getLoadedInterfaceList()) {
             iface.addPropertyChangeListener(AbstractInterface.ENDPOINT_PROPERTY, propertyChangeListener);
         }
 
         removeUnusedEndpoints();
     }
 
+    /**
+     * Called by lazily loaded projects when an interface is first accessed
+     */
+
+    public void interfaceLoaded(Interface iface) {
+        if (project != null) {
+            iface.addPropertyChangeListener(AbstractInterface.ENDPOINT_PROPERTY, propertyChangeListener);
+        }
+    }
+
     private void initConfig() {
         ProjectConfig projectConfig = this.project.getConfig();
 
@@ -108,11 +116,7 @@ public class DefaultEndpointStrategy implements EndpointStrategy, PropertyExpans
             return;
         }
 
-        Set<String> endpoints = new HashSet<String>();
-
-        for (Interface iface : project.getInterfaceList()) {
-            endpoints.addAll(Arrays.asList(iface.getEndpoints()));
-        }
+        Set<String> endpoints = project.getInterfaceEndpoints();
 
         StringList keys = new StringList();
 
@@ -325,7 +329,7 @@ public class DefaultEndpointStrategy implements EndpointStrategy, PropertyExpans
 
     public void release() {
         project.removeProjectListener(projectListener);
-        for (Interface iface : project.getInterfaceList()) {
+        for (Interface iface : project.getLoadedInterfaceList()) {
             iface.removePropertyChangeListener(AbstractInterface.ENDPOINT_PROPERTY, propertyChangeListener);
         }
 
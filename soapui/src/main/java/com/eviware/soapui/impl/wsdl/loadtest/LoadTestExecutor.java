@@ -0,0 +1,230 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest;
+
+import com.eviware.soapui.SoapUI;
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the virtual users of a single LoadTest run, or the TestCases of a
+ * parallel TestSuite run. Depending on the configured execution mode tasks are
+ * either submitted to the global SoapUI thread pool, to an unbounded pool of
+ * lightweight threads owned by this run, or to virtual threads when the runtime
+ * supports them. Owned pools are shut down when the run ends so that runs and
+ * MockServices never compete for the same threads.
+ */
+
+public final class LoadTestExecutor {
+    private final static Logger log = Logger.getLogger(LoadTestExecutor.class);
+
+    public static final String THREAD_STACK_SIZE_PROPERTY = "soapui.loadtest.threadstacksize";
+    public static final long DEFAULT_THREAD_STACK_SIZE = 256 * 1024;
+
+    public enum Mode {
+        SHARED("Shared Thread Pool"), DEDICATED("Dedicated Thread Pool"), VIRTUAL("Virtual Threads");
+
+        private final String description;
+
+        Mode(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public String toString() {
+            return description;
+        }
+
+        public static Mode fromString(String value) {
+            for (Mode mode : values()) {
+                if (mode.name().equals(value) || mode.description.equals(value)) {
+                    return mode;
+                }
+            }
+
+            return SHARED;
+        }
+
+        public static String[] getDescriptions() {
+            Mode[] modes = values();
+            String[] result = new String[modes.length];
+            for (int c = 0; c < modes.length; c++) {
+                result[c] = modes[c].description;
+            }
+
+            return result;
+        }
+    }
+
+    private final ExecutorService executor;
+    private final Mode mode;
+    private final boolean owned;
+
+    private LoadTestExecutor(ExecutorService executor, Mode mode, boolean owned) {
+        this.executor = executor;
+        this.mode = mode;
+        this.owned = owned;
+    }
+
+    /**
+     * Creates the executor for a new run of the specified LoadTest
+     */
+
+    public static LoadTestExecutor create(WsdlLoadTest loadTest) {
+        return create("LoadTest [" + loadTest.getName() + "]", loadTest.getExecutionMode());
+    }
+
+    /**
+     * Creates an executor for a new run in the specified mode, the name is used
+     * for logging and for naming dedicated threads
+     */
+
+    public static LoadTestExecutor create(String name, Mode mode) {
+        if (mode == Mode.VIRTUAL) {
+            ExecutorService executor = createVirtualThreadExecutor();
+            if (executor != null) {
+                return new LoadTestExecutor(executor, Mode.VIRTUAL, true);
+            }
+
+            log.warn("Virtual threads are not supported by this Java runtime, using a dedicated thread pool for "
+                    + name);
+            mode = Mode.DEDICATED;
+        }
+
+        if (mode == Mode.DEDICATED) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 30, TimeUnit.SECONDS,
+                    new SynchronousQueue<Runnable>(), new LoadTestThreadFactory(name));
+            return new LoadTestExecutor(executor, Mode.DEDICATED, true);
+        }
+
+        return new LoadTestExecutor(SoapUI.getThreadPool(), Mode.SHARED, false);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void execute(Runnable runnable) {
+        executor.execute(wrap(runnable));
+    }
+
+    /**
+     * Same as execute, returns a Future that can be used to cancel the task
+     */
+
+    public Future<?> submit(Runnable runnable) {
+        return executor.submit(wrap(runnable));
+    }
+
+    private Runnable wrap(final Runnable runnable) {
+        if (mode != Mode.VIRTUAL) {
+            return runnable;
+        }
+
+        // virtual threads inherit the loader of the creating thread, which
+        // may not be the extension loader
+        final ClassLoader classLoader = getExtensionClassLoader();
+        return new Runnable() {
+            public void run() {
+                Thread.currentThread().setContextClassLoader(classLoader);
+                runnable.run();
+            }
+        };
+    }
+
+    /**
+     * Releases owned threads once running users have finished; the shared pool
+     * is left untouched
+     */
+
+    public void shutdown() {
+        if (owned) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Waits for the threads of an owned pool to finish after shutdown, returns
+     * false on timeout; always true for the shared pool
+     */
+
+    boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return !owned || executor.awaitTermination(timeout, unit);
+    }
+
+    private static ClassLoader getExtensionClassLoader() {
+        return SoapUI.getSoapUICore() == null ? Thread.currentThread().getContextClassLoader() : SoapUI
+                .getSoapUICore().getExtensionClassLoader();
+    }
+
+    /**
+     * Creates an executor starting one virtual thread per task, using reflection
+     * since SoapUI is still compiled for Java 8
+     *
+     * @return the executor or null if virtual threads are not available
+     */
+
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static long getThreadStackSize() {
+        try {
+            return Long.parseLong(System.getProperty(THREAD_STACK_SIZE_PROPERTY));
+        } catch (Exception e) {
+            return DEFAULT_THREAD_STACK_SIZE;
+        }
+    }
+
+    /**
+     * Creates named daemon threads with a reduced stack so that a single node
+     * can run many thousand virtual users
+     */
+
+    private static final class LoadTestThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+        private final String namePrefix;
+        private final long stackSize;
+
+        private LoadTestThreadFactory(String name) {
+            namePrefix = name + " thread ";
+            stackSize = getThreadStackSize();
+        }
+
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(null, r, namePrefix + threadNumber.incrementAndGet(), stackSize);
+            thread.setDaemon(true);
+            thread.setContextClassLoader(getExtensionClassLoader());
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest;
+
+import com.eviware.soapui.impl.support.AbstractHttpRequestInterface;
+import com.eviware.soapui.impl.support.http.HttpRequest;
+import com.eviware.soapui.impl.wsdl.WsdlRequest;
+import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
+import com.eviware.soapui.impl.wsdl.teststeps.HttpTestRequestStepInterface;
+import com.eviware.soapui.impl.wsdl.teststeps.WsdlDelayTestStep;
+import com.eviware.soapui.impl.wsdl.teststeps.WsdlPropertiesTestStep;
+import com.eviware.soapui.impl.wsdl.teststeps.WsdlTestRequestStep;
+import com.eviware.soapui.impl.wsdl.teststeps.WsdlTestStep;
+import com.eviware.soapui.impl.wsdl.teststeps.assertions.basic.ResponseSLAAssertion;
+import com.eviware.soapui.model.testsuite.Assertable;
+import com.eviware.soapui.model.testsuite.TestAssertion;
+import com.eviware.soapui.model.testsuite.TestStep;
+import com.eviware.soapui.security.assertion.InvalidHttpStatusCodesAssertion;
+import com.eviware.soapui.security.assertion.ValidHttpStatusCodesAssertion;
+import com.eviware.soapui.support.StringUtils;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds the request TestSteps in a TestCase whose response bodies are never
+ * looked at, allowing the LoadTest to discard them while reading.
+ */
+
+final class ResponseBodyUsage {
+    private ResponseBodyUsage() {
+    }
+
+    /**
+     * Returns the names of all request TestSteps only asserted on status or
+     * time. Nothing is returned if the TestCase contains scripts, transfers or
+     * other steps that could read a response.
+     */
+
+    static Set<String> findUnusedResponseBodySteps(WsdlTestCase testCase) {
+        Set<String> result = new HashSet<String>();
+        if (StringUtils.hasContent(testCase.getSetupScript()) || StringUtils.hasContent(testCase.getTearDownScript())) {
+            return result;
+        }
+
+        List<TestStep> testSteps = testCase.getTestStepList();
+        for (TestStep testStep : testSteps) {
+            if (testStep.isDisabled() || testStep instanceof WsdlDelayTestStep
+                    || testStep instanceof WsdlPropertiesTestStep) {
+                continue;
+            }
+
+            AbstractHttpRequestInterface<?> request = getHttpRequest(testStep);
+            if (request == null) {
+                return new HashSet<String>();
+            }
+
+            if (isResponseBodyUnused(testStep, request, testSteps)) {
+                result.add(testStep.getName());
+            }
+        }
+
+        return result;
+    }
+
+    private static AbstractHttpRequestInterface<?> getHttpRequest(TestStep testStep) {
+        if (testStep instanceof WsdlTestRequestStep) {
+            return ((WsdlTestRequestStep) testStep).getTestRequest();
+        } else if (testStep instanceof HttpTestRequestStepInterface) {
+            return ((HttpTestRequestStepInterface) testStep).getTestRequest();
+        }
+
+        return null;
+    }
+
+    private static boolean isResponseBodyUnused(TestStep testStep, AbstractHttpRequestInterface<?> request,
+                                                List<TestStep> testSteps) {
+        if (StringUtils.hasContent(request.getDumpFile())) {
+            return false;
+        }
+
+        if (request instanceof WsdlRequest && StringUtils.hasContent(((WsdlRequest) request).getIncomingWss())) {
+            return false;
+        }
+
+        if (request instanceof HttpRequest && ((HttpRequest) request).getDownloadIncludedResources()) {
+            return false;
+        }
+
+        for (TestAssertion assertion : ((Assertable) testStep).getAssertionList()) {
+            if (!assertion.isDisabled() && !isStatusOrTimeAssertion(assertion)) {
+                return false;
+            }
+        }
+
+        // property-expansions like ${Step#Response} in other steps
+        String reference = testStep.getName() + "#";
+        for (TestStep other : testSteps) {
+            if (other instanceof WsdlTestStep) {
+                String config = ((WsdlTestStep) other).getConfig().xmlText();
+                if (config.contains(reference + "Response") || config.contains(reference + "RawResponse")) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isStatusOrTimeAssertion(TestAssertion assertion) {
+        return assertion instanceof ResponseSLAAssertion || assertion instanceof ValidHttpStatusCodesAssertion
+                || assertion instanceof InvalidHttpStatusCodesAssertion;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.impl.wsdl.loadtest;
+
+import com.eviware.soapui.config.LoadTestConfig;
+import com.eviware.soapui.config.SecurityTestConfig;
+import com.eviware.soapui.config.TestCaseConfig;
+import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
+import com.eviware.soapui.impl.wsdl.teststeps.HttpTestRequestStepInterface;
+import com.eviware.soapui.impl.wsdl.teststeps.WsdlDelayTestStep;
+import com.eviware.soapui.impl.wsdl.teststeps.WsdlTestRequestStep;
+import com.eviware.soapui.impl.wsdl.teststeps.assertions.basic.GroovyScriptAssertion;
+import com.eviware.soapui.model.testsuite.Assertable;
+import com.eviware.soapui.model.testsuite.TestAssertion;
+import com.eviware.soapui.model.testsuite.TestStep;
+import com.eviware.soapui.support.StringUtils;
+import org.apache.log4j.Logger;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlException;
+
+/**
+ * The TestCase configuration that the virtual users of a LoadTest are built
+ * from, with all LoadTests and SecurityTests removed.
+ * <p>
+ * If no step should change the configuration of the TestCase while running,
+ * all virtual users are built from one shared copy of it; they still get their
+ * own TestCase, steps and requests to hold their results. Building the first
+ * virtual user fills in the defaults of the shared configuration, after which
+ * any further change to it is detected with a change stamp of the document.
+ * Once it has changed the sharing stops: new virtual users get their own copy
+ * of the untouched blueprint and the ones built from the shared configuration
+ * are rebuilt from such a copy before their next run (see {@link #isStale}).
+ */
+
+final class VirtualUserPlan {
+    public static final String SHARE_CONFIG_PROPERTY = "soapui.loadtest.shareConfig";
+
+    private final static Logger log = Logger.getLogger(VirtualUserPlan.class);
+
+    private final TestCaseConfig blueprint;
+    private final TestCaseConfig sharedConfig;
+    private XmlCursor.ChangeStamp sharedStamp;
+    private volatile boolean diverged;
+
+    VirtualUserPlan(WsdlTestCase testCase) throws XmlException {
+        blueprint = TestCaseConfig.Factory.parse(testCase.getConfig().xmlText());
+        blueprint.setLoadTestArray(new LoadTestConfig[0]);
+        blueprint.setSecurityTestArray(new SecurityTestConfig[0]);
+
+        if (!"false".equals(System.getProperty(SHARE_CONFIG_PROPERTY)) && isConfigReadOnly(testCase)) {
+            sharedConfig = (TestCaseConfig) blueprint.copy();
+        } else {
+            sharedConfig = null;
+        }
+    }
+
+    /**
+     * Returns the configuration to build the next virtual user from, which has
+     * to be passed to {@link #accept} once the virtual user has been built and
+     * configured
+     */
+
+    synchronized TestCaseConfig createTestCaseConfig() {
+        return isShared() ? sharedConfig : (TestCaseConfig) blueprint.copy();
+    }
+
+    /**
+     * Returns false if building a virtual user changed the shared
+     * configuration, in which case it has to be built again from
+     * {@link #createTestCaseConfig}
+     */
+
+    synchronized boolean accept(TestCaseConfig config) {
+        if (config != sharedConfig) {
+            return true;
+        }
+
+        if (sharedStamp == null) {
+            XmlCursor cursor = sharedConfig.newCursor();
+            try {
+                sharedStamp = cursor.getDocChangeStamp();
+            } finally {
+                cursor.dispose();
+            }
+
+            return true;
+        }
+
+        return !isStale(config);
+    }
+
+    /**
+     * Returns true if the virtual user built from the specified configuration
+     * has to be rebuilt since it shares a configuration that has been changed
+     */
+
+    boolean isStale(TestCaseConfig config) {
+        if (config != sharedConfig) {
+            return false;
+        }
+
+        if (diverged) {
+            return true;
+        }
+
+        synchronized (this) {
+            if (!diverged && sharedStamp != null && sharedStamp.hasChanged()) {
+                log.info("Shared TestCase configuration of virtual users was changed, giving each its own copy");
+                diverged = true;
+            }
+
+            return diverged;
+        }
+    }
+
+    boolean isShared() {
+        return sharedConfig != null && !diverged;
+    }
+
+    /**
+     * Returns true if running the TestCase only reads its configuration, which
+     * is assumed for request and delay steps without script assertions as long
+     * as there are no setup or teardown scripts. Scripts, property steps and
+     * transfers could change any property.
+     */
+
+    static boolean isConfigReadOnly(WsdlTestCase testCase) {
+        if (StringUtils.hasContent(testCase.getSetupScript()) || StringUtils.hasContent(testCase.getTearDownScript())) {
+            return false;
+        }
+
+        for (TestStep testStep : testCase.getTestStepList()) {
+            if (testStep.isDisabled() || testStep instanceof WsdlDelayTestStep) {
+                continue;
+            }
+
+            if (!(testStep instanceof WsdlTestRequestStep) && !(testStep instanceof HttpTestRequestStepInterface)) {
+                return false;
+            }
+
+            for (TestAssertion assertion : ((Assertable) testStep).getAssertionList()) {
+                if (!assertion.isDisabled() && assertion instanceof GroovyScriptAssertion) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+}
@@ -86,6 +86,13 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
     public final static String LIMITTYPE_PROPERRY = WsdlLoadTest.class.getName() + "@limittype";
     public final static String SAMPLEINTERVAL_PROPERRY = WsdlLoadTest.class.getName() + "@sample-interval";
     public static final String MAXASSERTIONERRORS_PROPERTY = WsdlLoadTest.class.getName() + "@max-assertion-errors";
+    public static final String EXECUTION_MODE_SETTING = WsdlLoadTest.class.getSimpleName() + "@execution-mode";
+    public static final String STATISTICS_STREAM_FOLDER_SETTING = WsdlLoadTest.class.getSimpleName()
+            + "@statistics-stream-folder";
+    public static final String STATISTICS_STREAM_CSV_SETTING = WsdlLoadTest.class.getSimpleName()
+            + "@statistics-stream-csv";
+    public static final String DISCARD_RESPONSE_BODIES_SETTING = WsdlLoadTest.class.getSimpleName()
+            + "@discard-response-bodies";
     public final static String SETUP_SCRIPT_PROPERTY = WsdlTestCase.class.getName() + "@setupScript";
     public final static String TEARDOWN_SCRIPT_PROPERTY = WsdlTestCase.class.getName() + "@tearDownScript";
 
@@ -269,6 +276,49 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
         getConfig().setStatisticsLogFolder(value);
     }
 
+    /**
+     * Returns the folder to stream statistics to while running (see
+     * StatisticsFileSink), may contain property expansions
+     */
+
+    public String getStatisticsStreamFolder() {
+        return getSettings().getString(STATISTICS_STREAM_FOLDER_SETTING, null);
+    }
+
+    public void setStatisticsStreamFolder(String folder) {
+        getSettings().setString(STATISTICS_STREAM_FOLDER_SETTING, folder);
+    }
+
+    public boolean getStatisticsStreamCsv() {
+        return getSettings().getBoolean(STATISTICS_STREAM_CSV_SETTING, false);
+    }
+
+    public void setStatisticsStreamCsv(boolean csv) {
+        getSettings().setBoolean(STATISTICS_STREAM_CSV_SETTING, csv);
+    }
+
+    /**
+     * If response bodies not needed by any assertion or other TestStep should
+     * be discarded while reading, defaults to true
+     */
+
+    public boolean getDiscardResponseBodies() {
+        return getSettings().getBoolean(DISCARD_RESPONSE_BODIES_SETTING, true);
+    }
+
+    public void setDiscardResponseBodies(boolean discard) {
+        getSettings().setBoolean(DISCARD_RESPONSE_BODIES_SETTING, discard);
+    }
+
+    public LoadTestExecutor.Mode getExecutionMode() {
+        return LoadTestExecutor.Mode.fromString(getSettings().getString(EXECUTION_MODE_SETTING,
+                LoadTestExecutor.Mode.SHARED.name()));
+    }
+
+    public void setExecutionMode(LoadTestExecutor.Mode mode) {
+        getSettings().setString(EXECUTION_MODE_SETTING, mode.name());
+    }
+
     public boolean getCalculateTPSOnTimePassed() {
         return getConfig().getCalculateTPSOnTimePassed();
     }
@@ -726,7 +776,7 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
         }
 
         private void addHeaders(PrintWriter writer) {
-            writer.print("date,threads,elapsed,min,max,avg,last,cnt,tps,bytes,bps,err,reason\n");
+            writer.print("date,threads,elapsed,min,max,avg,last,cnt,tps,bytes,bps,err,rat,p50,p90,p99,p99.9,reason\n");
         }
 
         public void finish() {
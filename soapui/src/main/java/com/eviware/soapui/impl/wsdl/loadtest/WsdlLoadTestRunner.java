@@ -17,13 +17,15 @@
 package com.eviware.soapui.impl.wsdl.loadtest;
 
 import com.eviware.soapui.SoapUI;
-import com.eviware.soapui.config.LoadTestConfig;
 import com.eviware.soapui.config.LoadTestLimitTypesConfig;
-import com.eviware.soapui.config.SecurityTestConfig;
 import com.eviware.soapui.config.TestCaseConfig;
 import com.eviware.soapui.impl.wsdl.loadtest.log.LoadTestLogMessageEntry;
+import com.eviware.soapui.impl.wsdl.loadtest.strategy.ArrivalRateLoadStrategy;
+import com.eviware.soapui.impl.wsdl.loadtest.strategy.LoadStrategy;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.BaseHttpRequestTransport;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCaseRunner;
+import com.eviware.soapui.model.propertyexpansion.PropertyExpansionTemplateCache;
 import com.eviware.soapui.model.settings.Settings;
 import com.eviware.soapui.model.support.TestRunListenerAdapter;
 import com.eviware.soapui.model.testsuite.LoadTestRunListener;
@@ -36,8 +38,11 @@ import com.eviware.soapui.model.testsuite.TestStep;
 import com.eviware.soapui.model.testsuite.TestStepResult;
 import com.eviware.soapui.settings.HttpSettings;
 import com.eviware.soapui.settings.WsdlSettings;
+import com.eviware.soapui.support.CacheStatistics;
 import com.eviware.soapui.support.UISupport;
+import com.eviware.soapui.support.scripting.groovy.GroovyScriptClassCache;
 import com.eviware.soapui.support.types.StringToObjectMap;
+import com.eviware.soapui.support.xml.XPathExpressionCache;
 import com.eviware.x.dialogs.Worker;
 import com.eviware.x.dialogs.XProgressDialog;
 import com.eviware.x.dialogs.XProgressMonitor;
@@ -46,6 +51,7 @@ import org.apache.xmlbeans.XmlException;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -76,7 +82,10 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
     private boolean hasTearedDown;
     private TestCaseStarter testCaseStarter;
     private boolean stopped;
-    private TestCaseConfig blueprintConfig;
+    private VirtualUserPlan plan;
+    private LoadTestExecutor executor;
+    private Set<String> discardResponseBodySteps;
+    private CacheStatistics[] cacheStatisticsAtStart;
 
     public WsdlLoadTestRunner(WsdlLoadTest test) {
         this.loadTest = test;
@@ -87,8 +96,34 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
         return status;
     }
 
+    private static CacheStatistics[] getCacheStatistics() {
+        return new CacheStatistics[]{GroovyScriptClassCache.getInstance().getStatistics(),
+                XPathExpressionCache.getInstance().getStatistics(),
+                PropertyExpansionTemplateCache.getInstance().getStatistics()};
+    }
+
+    /**
+     * Adds the hit rates of the shared compilation caches during this run to
+     * the LoadTest log
+     */
+
+    private void logCacheStatistics() {
+        if (cacheStatisticsAtStart == null) {
+            return;
+        }
+
+        CacheStatistics[] current = getCacheStatistics();
+        for (int c = 0; c < current.length; c++) {
+            CacheStatistics statistics = current[c].since(cacheStatisticsAtStart[c]);
+            if (statistics.getRequestCount() > 0) {
+                loadTest.getLoadTestLog().addEntry(new LoadTestLogMessageEntry(statistics.toString()));
+            }
+        }
+    }
+
     void start() {
         loadTest.getTestCase().beforeSave();
+        cacheStatisticsAtStart = getCacheStatistics();
 
         runners.clear();
         runCount = 0;
@@ -96,6 +131,9 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
         threadsWaitingToStart = 0;
         startedCount = 0;
         context = new WsdlLoadTestContext(this);
+        executor = LoadTestExecutor.create(loadTest);
+        discardResponseBodySteps = loadTest.getDiscardResponseBodies() ? ResponseBodyUsage
+                .findUnusedResponseBodySteps(loadTest.getTestCase()) : Collections.<String>emptySet();
 
         try {
             loadTest.runSetupScript(context, this);
@@ -163,7 +201,7 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
     private InternalTestCaseRunner startTestCase(WsdlTestCase testCase) {
         InternalTestCaseRunner testCaseRunner = new InternalTestCaseRunner(testCase, threadCount++);
 
-        SoapUI.getThreadPool().submit(testCaseRunner);
+        executor.execute(testCaseRunner);
         runners.add(testCaseRunner);
         return testCaseRunner;
     }
@@ -306,6 +344,7 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
 
         loadTest.getLoadTestLog().addEntry(
                 new LoadTestLogMessageEntry("LoadTest ended at " + new Date(System.currentTimeMillis())));
+        logCacheStatistics();
 
         try {
             tearDown();
@@ -322,8 +361,9 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
         }
 
         context.clear();
+        executor.shutdown();
         stopped = true;
-        blueprintConfig = null;
+        plan = null;
     }
 
     public boolean hasStopped() {
@@ -455,7 +495,7 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
     }
 
     public class InternalTestCaseRunner implements Runnable {
-        private final WsdlTestCase testCase;
+        private WsdlTestCase testCase;
         private boolean canceled;
         private long runCount;
         private WsdlTestCaseRunner runner;
@@ -476,12 +516,31 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
                 runner = new WsdlTestCaseRunner(testCase, new StringToObjectMap());
 
                 while (!canceled) {
+                    VirtualUserPlan currentPlan = plan;
+                    if (currentPlan != null && currentPlan.isStale(testCase.getConfig())) {
+                        replaceTestCase();
+                    }
+
+                    long intendedStartTime = -1;
+                    LoadStrategy loadStrategy = loadTest.getLoadStrategy();
+                    if (loadStrategy instanceof ArrivalRateLoadStrategy) {
+                        intendedStartTime = ((ArrivalRateLoadStrategy) loadStrategy).claimNextArrival();
+                        if (!waitForArrival(intendedStartTime)) {
+                            break;
+                        }
+                    }
+
                     try {
                         runner.getRunContext().reset();
                         runner.getRunContext().setProperty(TestCaseRunContext.THREAD_INDEX, threadIndex);
                         runner.getRunContext().setProperty(TestCaseRunContext.RUN_COUNT, runCount);
                         runner.getRunContext().setProperty(TestCaseRunContext.LOAD_TEST_RUNNER, WsdlLoadTestRunner.this);
                         runner.getRunContext().setProperty(TestCaseRunContext.LOAD_TEST_CONTEXT, context);
+                        runner.getRunContext().setProperty(BaseHttpRequestTransport.DISCARD_RESPONSE_BODY_STEPS,
+                                discardResponseBodySteps);
+                        if (intendedStartTime >= 0) {
+                            runner.getRunContext().setProperty(TestCaseRunContext.INTENDED_START_TIME, intendedStartTime);
+                        }
                         synchronized (this) {
                             runner.getRunContext().setProperty(TestCaseRunContext.TOTAL_RUN_COUNT, startedCount++);
                         }
@@ -499,12 +558,47 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
                     }
                 }
             } finally {
+                loadTest.getStatisticsModel().releaseSampleBuffer();
                 finishRunner(this);
                 testCase.release();
                 testCase.removeTestRunListener(testRunListener);
             }
         }
 
+        /**
+         * Rebuilds the TestCase of this virtual user from a configuration of its
+         * own, after the configuration it shared with others was changed
+         */
+
+        private void replaceTestCase() {
+            WsdlTestCase staleTestCase = testCase;
+            testCase = createTestCase();
+            runner = new WsdlTestCaseRunner(testCase, new StringToObjectMap());
+
+            staleTestCase.removeTestRunListener(testRunListener);
+            staleTestCase.release();
+        }
+
+        /**
+         * Waits until the intended start time of an open-model run, returns false if
+         * this runner was canceled or the loadtest stopped in the meantime
+         */
+
+        private boolean waitForArrival(long arrivalTime) {
+            long delay = arrivalTime - System.currentTimeMillis();
+            while (delay > 0 && !canceled && status == Status.RUNNING) {
+                try {
+                    Thread.sleep(Math.min(delay, 100));
+                } catch (InterruptedException e) {
+                    return false;
+                }
+
+                delay = arrivalTime - System.currentTimeMillis();
+            }
+
+            return !canceled && status == Status.RUNNING;
+        }
+
         public void cancel(String reason, boolean cancelRunner) {
             if (runner != null && cancelRunner) {
                 runner.cancel(reason);
@@ -592,20 +686,33 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
 
     private synchronized WsdlTestCase createTestCase() {
         WsdlTestCase testCase = loadTest.getTestCase();
-        TestCaseConfig config = null;
 
-        if (blueprintConfig == null) {
+        if (plan == null) {
             try {
-                blueprintConfig = TestCaseConfig.Factory.parse(testCase.getConfig().xmlText());
-                blueprintConfig.setLoadTestArray(new LoadTestConfig[0]);
-                blueprintConfig.setSecurityTestArray(new SecurityTestConfig[0]);
+                plan = new VirtualUserPlan(testCase);
+                if (plan.isShared()) {
+                    loadTest.getLoadTestLog().addEntry(
+                            new LoadTestLogMessageEntry("Virtual users share one TestCase configuration"));
+                }
             } catch (XmlException e) {
                 e.printStackTrace();
             }
         }
 
-        config = (TestCaseConfig) blueprintConfig.copy();
+        TestCaseConfig config = plan.createTestCaseConfig();
+        WsdlTestCase tc = buildTestCase(testCase, config);
+
+        // building changed the shared configuration; use a copy of its own
+        if (!plan.accept(config)) {
+            tc.removeTestRunListener(testRunListener);
+            tc.release();
+            tc = buildTestCase(testCase, plan.createTestCaseConfig());
+        }
+
+        return tc;
+    }
 
+    private WsdlTestCase buildTestCase(WsdlTestCase testCase, TestCaseConfig config) {
         // clone entire testCase
         WsdlTestCase tc = testCase.getTestSuite().buildTestCase(config, true);
         tc.afterLoad();
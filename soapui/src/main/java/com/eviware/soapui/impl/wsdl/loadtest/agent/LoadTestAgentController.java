@@ -0,0 +1,392 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.agent;
+
+import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTest;
+import com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTestContext;
+import com.eviware.soapui.impl.wsdl.loadtest.data.AgentStatistics;
+import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatistics;
+import com.eviware.soapui.impl.wsdl.loadtest.log.LoadTestLogMessageEntry;
+import com.eviware.soapui.model.testsuite.LoadTest;
+import com.eviware.soapui.model.testsuite.LoadTestRunner;
+import com.eviware.soapui.model.testsuite.TestRunContext;
+import com.eviware.soapui.model.testsuite.TestRunnable;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * LoadTestRunner that runs a LoadTest on a number of remote agents (see
+ * SoapUILoadTestAgent) instead of in this JVM. Threads are split across the
+ * agents and the statistics streamed back by them are merged into the
+ * LoadTestStatistics of the LoadTest.
+ */
+
+public class LoadTestAgentController implements LoadTestRunner {
+    private final static Logger log = Logger.getLogger(LoadTestAgentController.class);
+
+    private static final int CONNECT_TIMEOUT = 10000;
+
+    private final WsdlLoadTest loadTest;
+    private final List<InetSocketAddress> agentAddresses;
+    private final String token;
+    private final List<AgentConnection> connections = new ArrayList<AgentConnection>();
+    private final WsdlLoadTestContext context;
+
+    private volatile Status status = Status.INITIALIZED;
+    private volatile String reason;
+    private volatile boolean starting;
+    private long startTime;
+    private long endTime;
+
+    /**
+     * @param token the shared token the agents were started with
+     */
+
+    public LoadTestAgentController(WsdlLoadTest loadTest, List<InetSocketAddress> agentAddresses, String token) {
+        this.loadTest = loadTest;
+        this.agentAddresses = agentAddresses;
+        this.token = token;
+        context = new WsdlLoadTestContext(this);
+    }
+
+    /**
+     * Parses a comma-separated list of host[:port] agent addresses
+     */
+
+    public static List<InetSocketAddress> parseAgentAddresses(String agents) {
+        List<InetSocketAddress> result = new ArrayList<InetSocketAddress>();
+
+        for (String agent : agents.split(",")) {
+            agent = agent.trim();
+            if (agent.length() == 0) {
+                continue;
+            }
+
+            int ix = agent.lastIndexOf(':');
+            if (ix == -1) {
+                result.add(new InetSocketAddress(agent, LoadTestAgentProtocol.DEFAULT_PORT));
+            } else {
+                result.add(new InetSocketAddress(agent.substring(0, ix), Integer.parseInt(agent.substring(ix + 1))));
+            }
+        }
+
+        return result;
+    }
+
+    public void start(boolean async) {
+        if (agentAddresses.isEmpty()) {
+            fail("No agents specified");
+            return;
+        }
+
+        loadTest.getStatisticsModel().reset();
+
+        startTime = System.currentTimeMillis();
+        status = Status.RUNNING;
+        starting = true;
+
+        LoadTestAssignment[] assignments = LoadTestAssignment.split(loadTest, agentAddresses.size());
+        for (int c = 0; c < assignments.length; c++) {
+            InetSocketAddress address = agentAddresses.get(c);
+            if (!assignments[c].hasWork()) {
+                log.info("Not using agent [" + address + "], no threads or runs left to assign");
+                continue;
+            }
+
+            try {
+                AgentConnection connection = new AgentConnection(address);
+                connection.start(assignments[c]);
+                synchronized (connections) {
+                    connections.add(connection);
+                }
+
+                log.info("Started " + assignments[c] + " on agent [" + address + "]");
+            } catch (IOException e) {
+                SoapUI.logError(e);
+                starting = false;
+                fail("Failed to start LoadTest on agent [" + address + "]; " + e.getMessage());
+                return;
+            }
+        }
+
+        starting = false;
+        checkFinished();
+
+        loadTest.getLoadTestLog().addEntry(
+                new LoadTestLogMessageEntry("LoadTest started on " + connections.size() + " agents at "
+                        + new Date(startTime)));
+
+        if (!async) {
+            waitUntilFinished();
+        }
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getTimeTaken() {
+        return (endTime == 0 ? System.currentTimeMillis() : endTime) - startTime;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public Status waitUntilFinished() {
+        while (!hasStopped()) {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                SoapUI.logError(e);
+            }
+        }
+
+        return status;
+    }
+
+    public void cancel(String reason) {
+        stop(Status.CANCELED, reason);
+    }
+
+    public void fail(String reason) {
+        stop(Status.FAILED, reason);
+    }
+
+    private synchronized void stop(Status newStatus, String reason) {
+        if (status != Status.RUNNING && status != Status.INITIALIZED) {
+            return;
+        }
+
+        this.reason = reason;
+        status = newStatus;
+
+        for (AgentConnection connection : getConnections()) {
+            connection.stop();
+        }
+
+        String msg = "LoadTest [" + loadTest.getName() + "] " + newStatus.toString().toLowerCase();
+        if (reason != null) {
+            msg += "; " + reason;
+        }
+
+        loadTest.getLoadTestLog().addEntry(new LoadTestLogMessageEntry(msg));
+        checkFinished();
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public TestRunContext getRunContext() {
+        return context;
+    }
+
+    public TestRunnable getTestRunnable() {
+        return loadTest;
+    }
+
+    public boolean isRunning() {
+        return status == Status.RUNNING;
+    }
+
+    public int getRunningThreadCount() {
+        int result = 0;
+        for (AgentConnection connection : getConnections()) {
+            result += connection.runningThreadCount;
+        }
+
+        return result;
+    }
+
+    public LoadTest getLoadTest() {
+        return loadTest;
+    }
+
+    public float getProgress() {
+        List<AgentConnection> current = getConnections();
+        if (current.isEmpty()) {
+            return 0;
+        }
+
+        float result = 0;
+        for (AgentConnection connection : current) {
+            if (connection.progress < 0) {
+                return -1;
+            }
+
+            result += connection.progress;
+        }
+
+        return result / current.size();
+    }
+
+    public boolean hasStopped() {
+        return endTime != 0 || (status != Status.RUNNING && getConnections().isEmpty());
+    }
+
+    private List<AgentConnection> getConnections() {
+        synchronized (connections) {
+            return new ArrayList<AgentConnection>(connections);
+        }
+    }
+
+    private void mergeStatistics() {
+        List<AgentStatistics> agentStatistics = new ArrayList<AgentStatistics>();
+        for (AgentConnection connection : getConnections()) {
+            if (connection.statistics != null) {
+                agentStatistics.add(connection.statistics);
+            }
+        }
+
+        LoadTestStatistics statisticsModel = loadTest.getStatisticsModel();
+        statisticsModel.mergeAgentStatistics(agentStatistics);
+    }
+
+    private synchronized void checkFinished() {
+        if (endTime != 0 || starting) {
+            return;
+        }
+
+        for (AgentConnection connection : getConnections()) {
+            if (!connection.finished) {
+                return;
+            }
+        }
+
+        if (status == Status.RUNNING) {
+            status = Status.FINISHED;
+        }
+
+        endTime = System.currentTimeMillis();
+        loadTest.getLoadTestLog().addEntry(new LoadTestLogMessageEntry("LoadTest ended at " + new Date(endTime)));
+    }
+
+    private synchronized void agentFinished(AgentConnection connection, Status agentStatus, String agentReason) {
+        connection.finished = true;
+
+        if (agentStatus == Status.FAILED && status == Status.RUNNING) {
+            fail("Agent [" + connection.address + "] failed; " + agentReason);
+        } else {
+            checkFinished();
+        }
+    }
+
+    /**
+     * Connection to a single agent, reading its messages on a separate thread
+     */
+
+    private final class AgentConnection implements Runnable {
+        private final InetSocketAddress address;
+        private final Socket socket;
+        private final DataOutputStream out;
+        private final DataInputStream in;
+
+        private volatile AgentStatistics statistics;
+        private volatile float progress;
+        private volatile int runningThreadCount;
+        private volatile boolean finished;
+
+        private AgentConnection(InetSocketAddress address) throws IOException {
+            this.address = address;
+
+            socket = new Socket();
+            socket.connect(address, CONNECT_TIMEOUT);
+            socket.setTcpNoDelay(true);
+
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        }
+
+        private void start(LoadTestAssignment assignment) throws IOException {
+            synchronized (out) {
+                LoadTestAgentProtocol.writeHeader(out);
+                LoadTestAgentProtocol.writeString(out, token);
+                out.writeByte(LoadTestAgentProtocol.START);
+                assignment.write(out);
+                out.flush();
+            }
+
+            Thread thread = new Thread(this, "LoadTest [" + loadTest.getName() + "] agent " + address);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void stop() {
+            if (finished) {
+                return;
+            }
+
+            try {
+                synchronized (out) {
+                    out.writeByte(LoadTestAgentProtocol.STOP);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                log.warn("Failed to stop agent [" + address + "]: " + e.getMessage());
+            }
+        }
+
+        public void run() {
+            Status agentStatus = Status.FAILED;
+            String agentReason = "Lost connection to agent";
+
+            try {
+                LoadTestAgentProtocol.readHeader(in);
+
+                while (true) {
+                    byte type = in.readByte();
+                    if (type == LoadTestAgentProtocol.STATISTICS) {
+                        progress = in.readFloat();
+                        runningThreadCount = in.readInt();
+                        statistics = AgentStatistics.read(in);
+                        mergeStatistics();
+                    } else if (type == LoadTestAgentProtocol.FINISHED) {
+                        agentStatus = Status.valueOf(in.readUTF());
+                        agentReason = LoadTestAgentProtocol.readString(in);
+                        break;
+                    } else {
+                        throw new IOException("Unexpected message type [" + type + "] from agent");
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Error reading from agent [" + address + "]: " + e);
+            } finally {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    SoapUI.logError(e);
+                }
+            }
+
+            runningThreadCount = 0;
+            log.info("Agent [" + address + "] finished with status " + agentStatus);
+            agentFinished(this, agentStatus, agentReason);
+        }
+    }
+}
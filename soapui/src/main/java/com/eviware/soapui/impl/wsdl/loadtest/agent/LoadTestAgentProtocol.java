@@ -0,0 +1,108 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.agent;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+
+/**
+ * Constants and framing of the socket protocol between a LoadTest controller
+ * and its agents. After a short header the controller sends the shared token
+ * the agent was started with and a START message with a LoadTestAssignment,
+ * the agent then streams STATISTICS messages until it sends a single FINISHED
+ * message. The controller may send STOP at any time to cancel the run.
+ * <p/>
+ * Agents listen on the loopback interface unless started with a bind address,
+ * and refuse to start without a token.
+ */
+
+public final class LoadTestAgentProtocol {
+    public static final int DEFAULT_PORT = 8391;
+    public static final String TOKEN_PROPERTY = "soapui.loadtest.agent.token";
+
+    public static final byte START = 1;
+    public static final byte STOP = 2;
+    public static final byte STATISTICS = 3;
+    public static final byte FINISHED = 4;
+
+    private static final int MAGIC = 0x53554c41;
+    private static final int VERSION = 2;
+
+    private LoadTestAgentProtocol() {
+    }
+
+    public static void writeHeader(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    public static void readHeader(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a LoadTest agent connection");
+        }
+
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported LoadTest agent protocol version [" + version + "], expected [" + VERSION
+                    + "]");
+        }
+    }
+
+    /**
+     * @return the token configured with the soapui.loadtest.agent.token system
+     *         property, or null
+     */
+
+    public static String getDefaultToken() {
+        return System.getProperty(TOKEN_PROPERTY);
+    }
+
+    /**
+     * Compares the token sent by a controller with the expected one in constant
+     * time
+     */
+
+    public static boolean isValidToken(String expected, String received) {
+        if (expected == null || received == null) {
+            return false;
+        }
+
+        try {
+            return MessageDigest.isEqual(expected.getBytes("UTF-8"), received.getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes a string that may be null
+     */
+
+    public static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    public static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.agent;
+
+import com.eviware.soapui.config.LoadTestLimitTypesConfig;
+import com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTest;
+import com.eviware.soapui.impl.wsdl.loadtest.strategy.ArrivalRateLoadStrategy;
+import com.eviware.soapui.impl.wsdl.loadtest.strategy.LoadStrategy;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The share of a LoadTest run by a single agent
+ */
+
+public final class LoadTestAssignment {
+    private String testSuite;
+    private String testCase;
+    private String loadTest;
+    private long threadCount;
+    private long testLimit = -1;
+    private float arrivalRate = -1;
+    private int maxThreadCount = -1;
+
+    public String getTestSuite() {
+        return testSuite;
+    }
+
+    public String getTestCase() {
+        return testCase;
+    }
+
+    public String getLoadTest() {
+        return loadTest;
+    }
+
+    public long getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * @return the limit to use or -1 to use the limit of the LoadTest
+     */
+
+    public long getTestLimit() {
+        return testLimit;
+    }
+
+    /**
+     * @return the arrival rate for an Arrival Rate strategy or -1 if not used
+     */
+
+    public float getArrivalRate() {
+        return arrivalRate;
+    }
+
+    public int getMaxThreadCount() {
+        return maxThreadCount;
+    }
+
+    /**
+     * @return false if there is nothing for the agent to run, either because
+     * there are no threads or no runs of a total run count limit left for it;
+     * such an agent must not be started since a limit of 0 means unlimited
+     */
+
+    public boolean hasWork() {
+        return threadCount > 0 && testLimit != 0;
+    }
+
+    /**
+     * Splits the threads and strategy parameters of a LoadTest across the
+     * specified number of agents, so that the agents together generate the
+     * configured load. Limits on time or runs per thread are the same for all
+     * agents, a total run count limit is split like the threads. Agents may be
+     * left without threads or runs if there are more agents than either.
+     */
+
+    public static LoadTestAssignment[] split(WsdlLoadTest loadTest, int agentCount) {
+        LoadTestAssignment[] result = new LoadTestAssignment[agentCount];
+        LoadStrategy loadStrategy = loadTest.getLoadStrategy();
+
+        for (int c = 0; c < agentCount; c++) {
+            LoadTestAssignment assignment = new LoadTestAssignment();
+            assignment.testSuite = loadTest.getTestCase().getTestSuite().getName();
+            assignment.testCase = loadTest.getTestCase().getName();
+            assignment.loadTest = loadTest.getName();
+            assignment.threadCount = share(loadTest.getThreadCount(), agentCount, c);
+
+            if (loadTest.getLimitType() == LoadTestLimitTypesConfig.COUNT && loadTest.getTestLimit() > 0) {
+                assignment.testLimit = share(loadTest.getTestLimit(), agentCount, c);
+            }
+
+            if (loadStrategy instanceof ArrivalRateLoadStrategy) {
+                ArrivalRateLoadStrategy arrivalRateStrategy = (ArrivalRateLoadStrategy) loadStrategy;
+                assignment.arrivalRate = arrivalRateStrategy.getArrivalRate() / agentCount;
+                assignment.maxThreadCount = (int) Math.max(1,
+                        share(arrivalRateStrategy.getMaxThreadCount(), agentCount, c));
+                assignment.threadCount = Math.max(1, assignment.threadCount);
+            }
+
+            result[c] = assignment;
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the part of total for the specified agent, with the remainder
+     * going to the first agents
+     */
+
+    static long share(long total, int parts, int index) {
+        return total / parts + (index < total % parts ? 1 : 0);
+    }
+
+    public void write(DataOutput out) throws IOException {
+        LoadTestAgentProtocol.writeString(out, testSuite);
+        LoadTestAgentProtocol.writeString(out, testCase);
+        LoadTestAgentProtocol.writeString(out, loadTest);
+        out.writeLong(threadCount);
+        out.writeLong(testLimit);
+        out.writeFloat(arrivalRate);
+        out.writeInt(maxThreadCount);
+    }
+
+    public static LoadTestAssignment read(DataInput in) throws IOException {
+        LoadTestAssignment assignment = new LoadTestAssignment();
+        assignment.testSuite = LoadTestAgentProtocol.readString(in);
+        assignment.testCase = LoadTestAgentProtocol.readString(in);
+        assignment.loadTest = LoadTestAgentProtocol.readString(in);
+        assignment.threadCount = in.readLong();
+        assignment.testLimit = in.readLong();
+        assignment.arrivalRate = in.readFloat();
+        assignment.maxThreadCount = in.readInt();
+        return assignment;
+    }
+
+    public String toString() {
+        return "LoadTest [" + loadTest + "] threads: " + threadCount + ", limit: " + testLimit + ", arrivalRate: "
+                + arrivalRate;
+    }
+}
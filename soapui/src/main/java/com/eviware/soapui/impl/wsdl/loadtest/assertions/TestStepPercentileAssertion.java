@@ -0,0 +1,216 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.assertions;
+
+import com.eviware.soapui.config.LoadTestAssertionConfig;
+import com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTest;
+import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatistics;
+import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatistics.Statistic;
+import com.eviware.soapui.impl.wsdl.support.Configurable;
+import com.eviware.soapui.impl.wsdl.support.HelpUrls;
+import com.eviware.soapui.model.testsuite.LoadTestRunContext;
+import com.eviware.soapui.model.testsuite.LoadTestRunner;
+import com.eviware.soapui.model.testsuite.TestCaseRunContext;
+import com.eviware.soapui.model.testsuite.TestCaseRunner;
+import com.eviware.soapui.model.testsuite.TestStep;
+import com.eviware.soapui.model.testsuite.TestStepResult;
+import com.eviware.soapui.support.UISupport;
+import com.eviware.soapui.support.types.StringToStringMap;
+import com.eviware.soapui.support.xml.XmlObjectConfigurationBuilder;
+import com.eviware.soapui.support.xml.XmlObjectConfigurationReader;
+import com.eviware.x.form.XForm;
+import com.eviware.x.form.XForm.FieldType;
+import com.eviware.x.form.XFormDialog;
+import com.eviware.x.form.XFormDialogBuilder;
+import com.eviware.x.form.XFormFactory;
+import org.apache.xmlbeans.XmlObject;
+
+/**
+ * LoadTestAssertion for asserting a percentile (p50/p90/p99/p99.9) of the
+ * step time
+ */
+
+public class TestStepPercentileAssertion extends AbstractLoadTestAssertion implements Configurable {
+    private static final String NAME_FIELD = "Name";
+    private static final String NAME_ELEMENT = "name";
+    private static final String PERCENTILE_ELEMENT = "percentile";
+    private static final String PERCENTILE_FIELD = "Percentile";
+    private static final String MAX_VALUE_ELEMENT = "max-value";
+    private static final String MAX_VALUE_FIELD = "Max Time";
+    private static final String MIN_REQUESTS_ELEMENT = "min-requests";
+    private static final String MINIMUM_REQUESTS_FIELD = "Minimum Requests";
+    private static final String MAX_ERRORS_ELEMENT = "max-errors";
+    private static final String MAX_ERRORS_FIELD = "Max Errors";
+    private static final String SAMPLE_INTERVAL_ELEMENT = "sample-interval";
+    private static final String SAMPLE_INTERVAL_FIELD = "Sample Interval";
+
+    private Statistic percentile;
+    private int minRequests;
+    private int maxValue;
+    private int maxErrors;
+    private int sampleInterval;
+    private XFormDialog dialog;
+    public static final String STEP_PERCENTILE_TYPE = "Step Percentile";
+
+    public TestStepPercentileAssertion(LoadTestAssertionConfig assertionConfig, WsdlLoadTest loadTest) {
+        super(assertionConfig, loadTest);
+
+        init(assertionConfig);
+        initIcon("/max_loadtest_assertion.gif");
+    }
+
+    private void init(LoadTestAssertionConfig assertionConfig) {
+        XmlObject configuration = assertionConfig.getConfiguration();
+
+        XmlObjectConfigurationReader reader = new XmlObjectConfigurationReader(configuration);
+        setName(reader.readString(NAME_ELEMENT, "Step Percentile"));
+        percentile = getPercentileStatistic(reader.readString(PERCENTILE_ELEMENT, Statistic.P90.getName()));
+        minRequests = reader.readInt(MIN_REQUESTS_ELEMENT, 100);
+        maxValue = reader.readInt(MAX_VALUE_ELEMENT, 1000);
+        setTargetStep(reader.readString(TEST_STEP_ELEMENT, ANY_TEST_STEP));
+        maxErrors = reader.readInt(MAX_ERRORS_ELEMENT, -1);
+        sampleInterval = reader.readInt(SAMPLE_INTERVAL_ELEMENT, 20);
+    }
+
+    private static Statistic getPercentileStatistic(String name) {
+        for (Statistic statistic : Statistic.values()) {
+            if (statistic.isPercentile() && statistic.getName().equals(name)) {
+                return statistic;
+            }
+        }
+
+        return Statistic.P90;
+    }
+
+    private static String[] getPercentileOptions() {
+        return new String[]{Statistic.P50.getName(), Statistic.P90.getName(), Statistic.P99.getName(),
+                Statistic.P999.getName()};
+    }
+
+    public String assertResult(LoadTestRunner loadTestRunner, LoadTestRunContext context, TestStepResult result,
+                               TestCaseRunner testRunner, TestCaseRunContext runContext) {
+        TestStep step = result.getTestStep();
+        if (targetStepMatches(step)) {
+            int index = step.getTestCase().getIndexOfTestStep(step);
+            return assertPercentile(loadTestRunner, context, index);
+        }
+
+        return null;
+    }
+
+    public String assertResults(LoadTestRunner loadTestRunner, LoadTestRunContext context, TestCaseRunner testRunner,
+                                TestCaseRunContext runContext) {
+        if (ALL_TEST_STEPS.equals(getTargetStep())) {
+            return assertPercentile(loadTestRunner, context, LoadTestStatistics.TOTAL);
+        }
+
+        return null;
+    }
+
+    private String assertPercentile(LoadTestRunner loadTestRunner, LoadTestRunContext context, int index) {
+        WsdlLoadTest loadTest = (WsdlLoadTest) loadTestRunner.getLoadTest();
+        LoadTestStatistics statisticsModel = loadTest.getStatisticsModel();
+
+        long count = statisticsModel.getStatistic(index, Statistic.COUNT);
+        if (count > minRequests && (sampleInterval <= 0 || count % sampleInterval == 0)) {
+            long value = statisticsModel.getStatistic(index, percentile);
+            if (value >= maxValue) {
+                return returnErrorOrFail("Percentile " + percentile.getName() + " [" + value + "] exceeds limit ["
+                        + maxValue + "]", maxErrors, loadTestRunner, context);
+            }
+        }
+
+        return null;
+    }
+
+    public String getDescription() {
+        return "testStep: " + getTargetStep() + ", percentile: " + percentile.getName() + ", minRequests: "
+                + minRequests + ", maxValue: " + maxValue + ", maxErrors: " + maxErrors + ", sampleInterval: "
+                + sampleInterval;
+    }
+
+    public boolean configure() {
+        if (dialog == null) {
+            buildDialog();
+        }
+
+        StringToStringMap values = new StringToStringMap();
+
+        values.put(NAME_FIELD, getName());
+        values.put(PERCENTILE_FIELD, percentile.getName());
+        values.put(MINIMUM_REQUESTS_FIELD, String.valueOf(minRequests));
+        values.put(MAX_VALUE_FIELD, String.valueOf(maxValue));
+        values.put(TEST_STEP_FIELD, getTargetStep());
+        values.put(MAX_ERRORS_FIELD, String.valueOf(maxErrors));
+        values.put(SAMPLE_INTERVAL_FIELD, String.valueOf(sampleInterval));
+
+        dialog.setOptions(TEST_STEP_FIELD, getTargetStepOptions(true));
+        values = dialog.show(values);
+
+        if (dialog.getReturnValue() == XFormDialog.OK_OPTION) {
+            try {
+                percentile = getPercentileStatistic(values.get(PERCENTILE_FIELD));
+                minRequests = Integer.parseInt(values.get(MINIMUM_REQUESTS_FIELD));
+                maxValue = Integer.parseInt(values.get(MAX_VALUE_FIELD));
+                maxErrors = Integer.parseInt(values.get(MAX_ERRORS_FIELD));
+                sampleInterval = Integer.parseInt(values.get(SAMPLE_INTERVAL_FIELD));
+                setName(values.get(NAME_FIELD));
+                setTargetStep(values.get(TEST_STEP_FIELD));
+            } catch (Exception e) {
+                UISupport.showErrorMessage(e.getMessage());
+            }
+
+            updateConfiguration();
+
+            return true;
+        }
+
+        return false;
+    }
+
+    protected void updateConfiguration() {
+        XmlObjectConfigurationBuilder builder = new XmlObjectConfigurationBuilder();
+
+        builder.add(NAME_ELEMENT, getName());
+        builder.add(PERCENTILE_ELEMENT, percentile.getName());
+        builder.add(MIN_REQUESTS_ELEMENT, minRequests);
+        builder.add(MAX_VALUE_ELEMENT, maxValue);
+        builder.add(TEST_STEP_ELEMENT, getTargetStep());
+        builder.add(MAX_ERRORS_ELEMENT, maxErrors);
+        builder.add(SAMPLE_INTERVAL_ELEMENT, sampleInterval);
+
+        setConfiguration(builder.finish());
+    }
+
+    private void buildDialog() {
+        XFormDialogBuilder builder = XFormFactory.createDialogBuilder("Step Percentile Assertion");
+        XForm form = builder.createForm("Basic");
+
+        form.addTextField(NAME_FIELD, "Name of this assertion", FieldType.TEXT);
+        form.addComboBox(PERCENTILE_FIELD, getPercentileOptions(), "Percentile of step times to assert");
+        form.addTextField(MINIMUM_REQUESTS_FIELD, "Minimum number of steps before asserting", FieldType.TEXT);
+        form.addTextField(MAX_VALUE_FIELD, "Maximum allowed step time at the selected percentile", FieldType.TEXT);
+        form.addTextField(MAX_ERRORS_FIELD, "Maximum number of allowed errors before failing loadtest (-1 = unlimited)",
+                FieldType.TEXT);
+        form.addTextField(SAMPLE_INTERVAL_FIELD, "Step count interval between sampling", FieldType.TEXT);
+        form.addComboBox(TEST_STEP_FIELD, new String[0], "TestStep to assert");
+
+        dialog = builder.buildDialog(
+                builder.buildOkCancelHelpActions(HelpUrls.STEP_PERCENTILE_LOAD_TEST_ASSERTION_HELP_URL),
+                "Specify options for this Step Percentile Assertion", UISupport.OPTIONS_ICON);
+    }
+}
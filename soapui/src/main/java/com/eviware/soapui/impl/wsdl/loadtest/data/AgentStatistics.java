@@ -0,0 +1,122 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Copy of the raw statistics and histograms of a LoadTest run in a remote
+ * agent, as streamed to the controller which merges the values of all agents
+ * into its own LoadTestStatistics
+ */
+
+public final class AgentStatistics {
+    private final long[][] values;
+    private final LatencyHistogram[] histograms;
+
+    AgentStatistics(long[][] values, LatencyHistogram[] histograms) {
+        this.values = new long[values.length][];
+        this.histograms = new LatencyHistogram[histograms.length];
+
+        for (int c = 0; c < values.length; c++) {
+            this.values[c] = values[c].clone();
+        }
+
+        for (int c = 0; c < histograms.length; c++) {
+            this.histograms[c] = new LatencyHistogram(histograms[c].getHighestTrackableValue());
+            this.histograms[c].add(histograms[c]);
+        }
+    }
+
+    private AgentStatistics(int rowCount) {
+        values = new long[rowCount][];
+        histograms = new LatencyHistogram[rowCount];
+    }
+
+    public int getRowCount() {
+        return values.length;
+    }
+
+    long getValue(int row, int column) {
+        return values[row][column];
+    }
+
+    LatencyHistogram getHistogram(int row) {
+        return histograms[row];
+    }
+
+    /**
+     * Writes the statistics; histograms are written sparsely as only a few of
+     * their buckets are usually in use
+     */
+
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(values.length);
+
+        for (int row = 0; row < values.length; row++) {
+            out.writeInt(values[row].length);
+            for (long value : values[row]) {
+                out.writeLong(value);
+            }
+
+            LatencyHistogram histogram = histograms[row];
+            int bucketCount = histogram.getBucketCount();
+
+            int used = 0;
+            for (int c = 0; c < bucketCount; c++) {
+                if (histogram.getCountAt(c) > 0) {
+                    used++;
+                }
+            }
+
+            out.writeLong(histogram.getHighestTrackableValue());
+            out.writeInt(used);
+            for (int c = 0; c < bucketCount && used > 0; c++) {
+                long count = histogram.getCountAt(c);
+                if (count > 0) {
+                    out.writeInt(c);
+                    out.writeLong(count);
+                    used--;
+                }
+            }
+        }
+    }
+
+    public static AgentStatistics read(DataInput in) throws IOException {
+        AgentStatistics result = new AgentStatistics(in.readInt());
+
+        for (int row = 0; row < result.values.length; row++) {
+            long[] rowValues = new long[in.readInt()];
+            for (int c = 0; c < rowValues.length; c++) {
+                rowValues[c] = in.readLong();
+            }
+
+            LatencyHistogram histogram = new LatencyHistogram(in.readLong());
+            int used = in.readInt();
+            for (int c = 0; c < used; c++) {
+                histogram.addCountAt(in.readInt(), in.readLong());
+            }
+
+            result.values[row] = rowValues;
+            result.histograms[row] = histogram;
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Fixed-capacity list that drops its oldest element when full, used to keep
+ * the in-memory history of long-running LoadTests bounded. Not thread-safe.
+ */
+
+final class HistoryRing<T> implements Iterable<T> {
+    private final Object[] elements;
+    private int head;
+    private int size;
+
+    HistoryRing(int capacity) {
+        elements = new Object[Math.max(1, capacity)];
+    }
+
+    int getCapacity() {
+        return elements.length;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Appends an element
+     *
+     * @return true if the oldest element was dropped to make room
+     */
+
+    boolean add(T element) {
+        if (size < elements.length) {
+            elements[(head + size) % elements.length] = element;
+            size++;
+            return false;
+        }
+
+        elements[head] = element;
+        head = (head + 1) % elements.length;
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        return (T) elements[(head + index) % elements.length];
+    }
+
+    void set(int index, T element) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        elements[(head + index) % elements.length] = element;
+    }
+
+    void clear() {
+        for (int c = 0; c < elements.length; c++) {
+            elements[c] = null;
+        }
+
+        head = 0;
+        size = 0;
+    }
+
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int index;
+
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            public T next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+
+                return get(index++);
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, lock-free high dynamic range histogram for step times. Values
+ * are kept in log-linear buckets so that every recorded value is resolved with
+ * a relative error below 1%, while the memory footprint only depends on the
+ * highest trackable value and never on the number of samples recorded.
+ */
+
+public final class LatencyHistogram {
+    public static final long DEFAULT_HIGHEST_TRACKABLE_VALUE = 60L * 60L * 1000L;
+
+    // 2^8 sub buckets, half of which are used per bucket above the first one,
+    // limit the relative error to 1/128 (0.78%)
+    private static final int SUB_BUCKET_BITS = 8;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT_MAGNITUDE = SUB_BUCKET_BITS - 1;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+    private static final long SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+
+    private final long highestTrackableValue;
+    private final AtomicLongArray counts;
+    private final AtomicLong totalCount = new AtomicLong();
+
+    public LatencyHistogram() {
+        this(DEFAULT_HIGHEST_TRACKABLE_VALUE);
+    }
+
+    public LatencyHistogram(long highestTrackableValue) {
+        if (highestTrackableValue < SUB_BUCKET_COUNT) {
+            highestTrackableValue = SUB_BUCKET_COUNT;
+        }
+
+        this.highestTrackableValue = highestTrackableValue;
+        counts = new AtomicLongArray(countsIndexFor(highestTrackableValue) + 1);
+    }
+
+    /**
+     * Records a value; values outside [0, highestTrackableValue] are clamped
+     */
+
+    public void recordValue(long value) {
+        recordValue(value, 1);
+    }
+
+    public void recordValue(long value, long count) {
+        if (count <= 0) {
+            return;
+        }
+
+        counts.addAndGet(countsIndexFor(clamp(value)), count);
+        totalCount.addAndGet(count);
+    }
+
+    /**
+     * Adds all counts from the specified histogram to this one
+     */
+
+    public void add(LatencyHistogram other) {
+        int length = Math.min(counts.length(), other.counts.length());
+        long added = 0;
+
+        for (int c = 0; c < length; c++) {
+            long count = other.counts.get(c);
+            if (count > 0) {
+                counts.addAndGet(c, count);
+                added += count;
+            }
+        }
+
+        totalCount.addAndGet(added);
+    }
+
+    public long getTotalCount() {
+        return totalCount.get();
+    }
+
+    public long getHighestTrackableValue() {
+        return highestTrackableValue;
+    }
+
+    /**
+     * Returns the value at the given percentile (0-100), or 0 if nothing has
+     * been recorded yet
+     */
+
+    public long getValueAtPercentile(double percentile) {
+        long total = totalCount.get();
+        if (total == 0) {
+            return 0;
+        }
+
+        double requested = Math.min(Math.max(percentile, 0), 100);
+        long countAtPercentile = Math.max(1, (long) Math.ceil((requested / 100) * total));
+
+        long sum = 0;
+        int length = counts.length();
+        for (int c = 0; c < length; c++) {
+            sum += counts.get(c);
+            if (sum >= countAtPercentile) {
+                return Math.min(highestEquivalentValue(c), highestTrackableValue);
+            }
+        }
+
+        return highestTrackableValue;
+    }
+
+    public void reset() {
+        for (int c = 0; c < counts.length(); c++) {
+            counts.set(c, 0);
+        }
+
+        totalCount.set(0);
+    }
+
+    /**
+     * Number of counters backing this histogram, mainly for serializing it
+     */
+
+    public int getBucketCount() {
+        return counts.length();
+    }
+
+    public long getCountAt(int index) {
+        return counts.get(index);
+    }
+
+    public void addCountAt(int index, long count) {
+        if (count > 0 && index >= 0 && index < counts.length()) {
+            counts.addAndGet(index, count);
+            totalCount.addAndGet(count);
+        }
+    }
+
+    private long clamp(long value) {
+        if (value < 0) {
+            return 0;
+        }
+
+        return value > highestTrackableValue ? highestTrackableValue : value;
+    }
+
+    private static int countsIndexFor(long value) {
+        int pow2Ceiling = 64 - Long.numberOfLeadingZeros(value | SUB_BUCKET_MASK);
+        int bucketIndex = pow2Ceiling - (SUB_BUCKET_HALF_COUNT_MAGNITUDE + 1);
+        int subBucketIndex = (int) (value >>> bucketIndex);
+
+        return ((bucketIndex + 1) << SUB_BUCKET_HALF_COUNT_MAGNITUDE) + (subBucketIndex - SUB_BUCKET_HALF_COUNT);
+    }
+
+    private static long lowestEquivalentValue(int index) {
+        int bucketIndex = (index >> SUB_BUCKET_HALF_COUNT_MAGNITUDE) - 1;
+        int subBucketIndex = (index & (SUB_BUCKET_HALF_COUNT - 1)) + SUB_BUCKET_HALF_COUNT;
+
+        if (bucketIndex < 0) {
+            subBucketIndex -= SUB_BUCKET_HALF_COUNT;
+            bucketIndex = 0;
+        }
+
+        return ((long) subBucketIndex) << bucketIndex;
+    }
+
+    private static long highestEquivalentValue(int index) {
+        int bucketIndex = Math.max((index >> SUB_BUCKET_HALF_COUNT_MAGNITUDE) - 1, 0);
+        return lowestEquivalentValue(index) + (1L << bucketIndex) - 1;
+    }
+}
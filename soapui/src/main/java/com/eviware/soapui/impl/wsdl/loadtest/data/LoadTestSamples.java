@@ -40,8 +40,9 @@ import java.util.List;
 
 public class LoadTestSamples extends AbstractTableModel {
     private final LoadTest loadTest;
-    private List<List<LoadTestStepSample[]>> samples = new ArrayList<List<LoadTestStepSample[]>>();
-    private List<Long> timestamps = new ArrayList<Long>();
+    private HistoryRing<List<LoadTestStepSample[]>> samples = new HistoryRing<List<LoadTestStepSample[]>>(
+            StatisticsHistory.getHistorySize(-1));
+    private HistoryRing<Long> timestamps = new HistoryRing<Long>(StatisticsHistory.getHistorySize(-1));
     private InternalLoadTestRunListener loadTestRunListener = new InternalLoadTestRunListener();
     private InternalTestSuiteListener testSuiteListener = new InternalTestSuiteListener();
     private final static Logger log = Logger.getLogger(LoadTestSamples.class);
@@ -145,8 +146,12 @@ public class LoadTestSamples extends AbstractTableModel {
             }
 
             synchronized (this) {
-                samples.add(s);
+                boolean dropped = samples.add(s);
                 timestamps.add(timestamp);
+
+                if (dropped) {
+                    fireTableRowsDeleted(0, 0);
+                }
                 fireTableRowsInserted(samples.size() - 1, samples.size() - 1);
             }
         }
@@ -19,6 +19,7 @@ package com.eviware.soapui.impl.wsdl.loadtest.data;
 import com.eviware.soapui.SoapUI;
 import com.eviware.soapui.impl.wsdl.loadtest.ColorPalette;
 import com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTest;
+import com.eviware.soapui.impl.wsdl.loadtest.strategy.ArrivalRateLoadStrategy;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
 import com.eviware.soapui.model.support.LoadTestRunListenerAdapter;
 import com.eviware.soapui.model.support.TestSuiteListenerAdapter;
@@ -27,6 +28,7 @@ import com.eviware.soapui.model.testsuite.LoadTestRunner;
 import com.eviware.soapui.model.testsuite.TestCase;
 import com.eviware.soapui.model.testsuite.TestCaseRunContext;
 import com.eviware.soapui.model.testsuite.TestCaseRunner;
+import com.eviware.soapui.model.testsuite.TestRunContext;
 import com.eviware.soapui.model.testsuite.TestRunner;
 import com.eviware.soapui.model.testsuite.TestStep;
 import com.eviware.soapui.model.testsuite.TestStepResult;
@@ -37,12 +39,13 @@ import javax.swing.table.AbstractTableModel;
 import java.awt.Color;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
-import java.util.EmptyStackException;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Model holding statistics.. should be refactored into interface for different
@@ -51,12 +54,13 @@ import java.util.concurrent.ConcurrentLinkedQueue;
  * @author Ole.Matzura
  */
 
-public final class LoadTestStatistics extends AbstractTableModel implements Runnable {
+public final class LoadTestStatistics extends AbstractTableModel {
     public final static String NO_STATS_TESTCASE_CANCEL_REASON = "NO_STATS_TESTCASE_CANCEL_REASON";
     private final static Logger log = Logger.getLogger(LoadTestStatistics.class);
 
     private final WsdlLoadTest loadTest;
     private long[][] data;
+    private LatencyHistogram[] histograms;
 
     private final static int MIN_COLUMN = 0;
     private final static int MAX_COLUMN = 1;
@@ -70,6 +74,10 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
     private final static int SUM_COLUMN = 9;
     private final static int CURRENT_CNT_COLUMN = 10;
     private final static int RATIO_COLUMN = 11;
+    private final static int P50_COLUMN = 12;
+    private final static int P90_COLUMN = 13;
+    private final static int P99_COLUMN = 14;
+    private final static int P999_COLUMN = 15;
 
     public static final int TOTAL = -1;
 
@@ -84,6 +92,15 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
     private boolean changed;
     private long updateFrequency = DEFAULT_SAMPLE_INTERVAL;
     private Queue<SamplesHolder> samplesStack = new ConcurrentLinkedQueue<SamplesHolder>();
+    private final ThreadLocal<SampleBuffer> sampleBuffer = new ThreadLocal<SampleBuffer>();
+    private final List<SampleBuffer> sampleBuffers = new CopyOnWriteArrayList<SampleBuffer>();
+    private final SampleBuffer.Consumer sampleConsumer = new SampleBuffer.Consumer() {
+        public void consume(long[] samples, long[] sizes, long[] sampleCounts, long startTime, long timeTaken,
+                            boolean complete) {
+            addSamples(samples, sizes, sampleCounts, startTime, timeTaken, complete);
+        }
+    };
+    private volatile int sampleBufferGeneration;
     private long currentThreadCountStartTime;
     private long totalAverageSum;
     private boolean resetStatistics;
@@ -113,6 +130,13 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
 
     private void init() {
         data = new long[getRowCount()][11];
+
+        LatencyHistogram[] newHistograms = new LatencyHistogram[getRowCount()];
+        for (int c = 0; c < newHistograms.length; c++) {
+            newHistograms[c] = new LatencyHistogram();
+        }
+
+        histograms = newHistograms;
     }
 
     public StatisticsHistory getHistory() {
@@ -128,7 +152,7 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
     }
 
     public int getColumnCount() {
-        return 12;
+        return 16;
     }
 
     public String getColumnName(int columnIndex) {
@@ -157,6 +181,14 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 return Statistic.ERRORS.getName();
             case 11:
                 return Statistic.ERRORRATIO.getName();
+            case 12:
+                return Statistic.P50.getName();
+            case 13:
+                return Statistic.P90.getName();
+            case 14:
+                return Statistic.P99.getName();
+            case 15:
+                return Statistic.P999.getName();
         }
         return null;
     }
@@ -192,11 +224,31 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 return data[stepIndex][Statistic.COUNT.getIndex()] == 0 ? 0
                         : (long) ((((float) data[stepIndex][Statistic.ERRORS.getIndex()] / (float) data[stepIndex][Statistic.COUNT
                         .getIndex()]) + 0.5) * 100);
+            case P50:
+            case P90:
+            case P99:
+            case P999:
+                return getPercentile(stepIndex, statistic.getPercentile());
             default:
                 return data[stepIndex][statistic.getIndex()];
         }
     }
 
+    /**
+     * Returns the step time at the specified percentile (0-100) for the given
+     * step, calculated from a fixed-size histogram of all samples since the last
+     * statistics reset
+     */
+
+    public long getPercentile(int stepIndex, double percentile) {
+        LatencyHistogram[] current = histograms;
+        if (stepIndex == TOTAL) {
+            stepIndex = current.length - 1;
+        }
+
+        return stepIndex < 0 || stepIndex >= current.length ? 0 : current[stepIndex].getValueAtPercentile(percentile);
+    }
+
     public Object getValueAt(int rowIndex, int columnIndex) {
         WsdlTestCase testCase = loadTest.getTestCase();
 
@@ -218,6 +270,11 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 return data[rowIndex][Statistic.COUNT.getIndex()] == 0 ? 0
                         : (long) (((float) data[rowIndex][Statistic.ERRORS.getIndex()] / (float) data[rowIndex][Statistic.COUNT
                         .getIndex()]) * 100);
+            case 12:
+            case 13:
+            case 14:
+            case 15:
+                return new Long(getPercentile(rowIndex, Statistic.forIndex(columnIndex).getPercentile()));
             default: {
                 return data == null || rowIndex >= data.length ? new Long(0) : new Long(data[rowIndex][columnIndex - 2]);
             }
@@ -233,27 +290,134 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
         samplesStack.add(new SamplesHolder(samples, sizes, sampleCounts, startTime, timeTaken, complete));
     }
 
-    public void run() {
-        Thread.currentThread().setName(loadTest.getName() + " LoadTestStatistics");
+    /**
+     * Returns the sample buffer of the calling loadtest thread, creating it on
+     * first use in a run or when the number of steps has changed
+     */
 
-        while (running || !samplesStack.isEmpty()) {
-            try {
-                while (!samplesStack.isEmpty()) {
-                    SamplesHolder holder = samplesStack.poll();
-                    if (holder != null) {
-                        addSamples(holder);
-                    }
+    private SampleBuffer getSampleBuffer(int stepCount) {
+        SampleBuffer buffer = sampleBuffer.get();
+        int generation = sampleBufferGeneration;
+
+        if (buffer == null || buffer.getStepCount() != stepCount || buffer.getGeneration() != generation) {
+            buffer = new SampleBuffer(stepCount, generation);
+            sampleBuffers.add(buffer);
+            sampleBuffer.set(buffer);
+        }
+
+        return buffer;
+    }
+
+    /**
+     * Publishes samples filled into a claimed buffer slot, or falls back to the
+     * shared queue if the buffer was full (slot < 0)
+     */
+
+    private void publishSamples(SampleBuffer buffer, int slot, long[] samples, long[] sizes, long[] sampleCounts,
+                                long startTime, long timeTaken, boolean complete) {
+        if (slot < 0) {
+            pushSamples(samples, sizes, sampleCounts, startTime, timeTaken, complete);
+        } else {
+            buffer.publish(slot, startTime, timeTaken, complete);
+        }
+    }
+
+    /**
+     * Releases the sample buffer of the calling loadtest thread, called when
+     * the thread stops running the TestCase; remaining samples are still
+     * merged on the next update
+     */
+
+    public void releaseSampleBuffer() {
+        SampleBuffer buffer = sampleBuffer.get();
+        if (buffer != null) {
+            buffer.retire();
+            sampleBuffer.remove();
+        }
+    }
+
+    private void resetSampleBuffers() {
+        samplesStack.clear();
+        sampleBufferGeneration++;
+        sampleBuffers.clear();
+    }
+
+    private boolean hasPendingSamples() {
+        if (!samplesStack.isEmpty()) {
+            return true;
+        }
+
+        for (SampleBuffer buffer : sampleBuffers) {
+            if (!buffer.isEmpty()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Merges all samples published by the loadtest threads since the last call
+     * into the statistics
+     */
+
+    private synchronized void drainSamples() {
+        SamplesHolder holder = samplesStack.poll();
+        while (holder != null) {
+            addSamples(holder.samples, holder.sizes, holder.sampleCounts, holder.startTime, holder.timeTaken,
+                    holder.complete);
+            holder = samplesStack.poll();
+        }
+
+        int stepCount = data.length - 1;
+        for (SampleBuffer buffer : sampleBuffers) {
+            // check before draining so that the last samples of a retired buffer are not lost
+            boolean retired = buffer.isRetired();
+
+            if (buffer.getStepCount() != stepCount) {
+                // samples from before a step was added/removed
+                buffer.clear();
+            } else if (!buffer.isEmpty()) {
+                buffer.drain(sampleConsumer);
+            }
+
+            if (retired) {
+                sampleBuffers.remove(buffer);
+            }
+        }
+    }
+
+    /**
+     * Records the samples in the per-step histograms; only called from
+     * addSamples when the per-thread sample buffers are merged, so the loadtest
+     * threads never write to the shared histograms
+     */
+
+    private void recordHistograms(long[] samples, long[] sampleCounts, boolean complete) {
+        LatencyHistogram[] current = histograms;
+        int totalIndex = current.length - 1;
+        if (samples.length != totalIndex) {
+            return;
+        }
+
+        long totalTime = 0;
+        for (int c = 0; c < samples.length; c++) {
+            if (sampleCounts[c] > 0) {
+                if (complete != loadTest.getUpdateStatisticsPerTestStep()) {
+                    current[c].recordValue(samples[c] / sampleCounts[c], sampleCounts[c]);
                 }
 
-                Thread.sleep(200);
-            } catch (EmptyStackException e) {
-            } catch (Exception e) {
-                SoapUI.logError(e);
+                totalTime += samples[c];
             }
         }
+
+        if (complete) {
+            current[totalIndex].recordValue(totalTime);
+        }
     }
 
-    private synchronized void addSamples(SamplesHolder holder) {
+    private synchronized void addSamples(long[] samples, long[] sizes, long[] sampleCounts, long startTime,
+                                         long timeTaken, boolean complete) {
         if (adding) {
             throw new RuntimeException("Already adding!");
         }
@@ -261,20 +425,20 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
         adding = true;
 
         int totalIndex = data.length - 1;
-        if (holder.samples.length != totalIndex || holder.sizes.length != totalIndex) {
+        if (samples.length != totalIndex || sizes.length != totalIndex) {
             adding = false;
-            throw new RuntimeException("Unexpected number of samples: " + holder.samples.length + ", exptected "
+            throw new RuntimeException("Unexpected number of samples: " + samples.length + ", exptected "
                     + (totalIndex));
         }
 
         // discard "old" results
-        if (holder.startTime < currentThreadCountStartTime) {
+        if (startTime < currentThreadCountStartTime) {
             adding = false;
             return;
         }
 
         // first check that this is not a
-        long timePassed = (holder.startTime + holder.timeTaken) - currentThreadCountStartTime;
+        long timePassed = (startTime + timeTaken) - currentThreadCountStartTime;
 
         if (resetStatistics) {
             for (int c = 0; c < data.length; c++) {
@@ -285,10 +449,16 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 data[c][BYTES_COLUMN] = 0;
             }
 
+            for (LatencyHistogram histogram : histograms) {
+                histogram.reset();
+            }
+
             totalAverageSum = 0;
             resetStatistics = false;
         }
 
+        recordHistograms(samples, sampleCounts, complete);
+
         long totalMin = 0;
         long totalMax = 0;
         long totalBytes = 0;
@@ -298,16 +468,16 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
 
         long threadCount = loadTest.getThreadCount();
 
-        for (int c = 0; c < holder.samples.length; c++) {
-            if (holder.sampleCounts[c] > 0) {
+        for (int c = 0; c < samples.length; c++) {
+            if (sampleCounts[c] > 0) {
                 // only update when appropriate
-                if (holder.complete != loadTest.getUpdateStatisticsPerTestStep()) {
-                    long sampleAvg = holder.samples[c] / holder.sampleCounts[c];
+                if (complete != loadTest.getUpdateStatisticsPerTestStep()) {
+                    long sampleAvg = samples[c] / sampleCounts[c];
 
                     data[c][LAST_COLUMN] = sampleAvg;
-                    data[c][CNT_COLUMN] += holder.sampleCounts[c];
-                    data[c][CURRENT_CNT_COLUMN] += holder.sampleCounts[c];
-                    data[c][SUM_COLUMN] += holder.samples[c];
+                    data[c][CNT_COLUMN] += sampleCounts[c];
+                    data[c][CURRENT_CNT_COLUMN] += sampleCounts[c];
+                    data[c][SUM_COLUMN] += samples[c];
 
                     if (sampleAvg > 0 && (sampleAvg < data[c][MIN_COLUMN] || data[c][MIN_COLUMN] == 0)) {
                         data[c][MIN_COLUMN] = sampleAvg;
@@ -320,7 +490,7 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                     float average = (float) data[c][SUM_COLUMN] / (float) data[c][CURRENT_CNT_COLUMN];
 
                     data[c][AVG_COLUMN] = (long) (average * 100);
-                    data[c][BYTES_COLUMN] += holder.sizes[c];
+                    data[c][BYTES_COLUMN] += sizes[c];
 
                     if (timePassed > 0) {
                         if (loadTest.getCalculateTPSOnTimePassed()) {
@@ -335,12 +505,12 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                     }
                 }
 
-                totalMin += data[c][MIN_COLUMN] * holder.sampleCounts[c];
-                totalMax += data[c][MAX_COLUMN] * holder.sampleCounts[c];
-                totalBytes += data[c][BYTES_COLUMN] * holder.sampleCounts[c];
-                totalAvg += data[c][AVG_COLUMN] * holder.sampleCounts[c];
-                totalSum += data[c][SUM_COLUMN] * holder.sampleCounts[c];
-                totalLast += data[c][LAST_COLUMN] * holder.sampleCounts[c];
+                totalMin += data[c][MIN_COLUMN] * sampleCounts[c];
+                totalMax += data[c][MAX_COLUMN] * sampleCounts[c];
+                totalBytes += data[c][BYTES_COLUMN] * sampleCounts[c];
+                totalAvg += data[c][AVG_COLUMN] * sampleCounts[c];
+                totalSum += data[c][SUM_COLUMN] * sampleCounts[c];
+                totalLast += data[c][LAST_COLUMN] * sampleCounts[c];
             } else {
                 totalMin += data[c][MIN_COLUMN];
                 totalMax += data[c][MAX_COLUMN];
@@ -348,7 +518,7 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
             }
         }
 
-        if (holder.complete) {
+        if (complete) {
             data[totalIndex][CNT_COLUMN]++;
             data[totalIndex][CURRENT_CNT_COLUMN]++;
 
@@ -392,18 +562,24 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
             Thread.currentThread().setName(loadTest.getName() + " LoadTestStatistics Updater");
 
             // check all these for catching threading issues
-            while (running || changed || !samplesStack.isEmpty()) {
+            while (running || changed || hasPendingSamples()) {
+                try {
+                    drainSamples();
+                } catch (Exception e) {
+                    SoapUI.logError(e);
+                }
+
                 if (changed) {
                     fireTableDataChanged();
                     changed = false;
                 }
 
-                if (!running && samplesStack.isEmpty()) {
+                if (!running && !hasPendingSamples()) {
                     break;
                 }
 
                 try {
-                    Thread.sleep(updateFrequency < 1 ? 1000 : updateFrequency);
+                    Thread.sleep(updateFrequency < 1 ? 200 : updateFrequency);
                 } catch (InterruptedException e) {
                     SoapUI.logError(e);
                 }
@@ -423,11 +599,10 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
 
     private class InternalTestRunListener extends LoadTestRunListenerAdapter {
         public void beforeLoadTest(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
-            samplesStack.clear();
+            resetSampleBuffers();
 
             running = true;
             SoapUI.getThreadPool().submit(updater);
-            SoapUI.getThreadPool().submit(LoadTestStatistics.this);
 
             currentThreadCountStartTime = System.currentTimeMillis();
             totalAverageSum = 0;
@@ -444,9 +619,17 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                     return;
                 }
 
-                long[] samples = new long[testCase.getTestStepCount()];
-                long[] sizes = new long[samples.length];
-                long[] sampleCounts = new long[samples.length];
+                int stepCount = testCase.getTestStepCount();
+                if (!running || stepCount == 0) {
+                    return;
+                }
+
+                SampleBuffer buffer = getSampleBuffer(stepCount);
+                int slot = buffer.claim();
+
+                long[] samples = slot < 0 ? new long[stepCount] : buffer.getSamples(slot);
+                long[] sizes = slot < 0 ? new long[stepCount] : buffer.getSizes(slot);
+                long[] sampleCounts = slot < 0 ? new long[stepCount] : buffer.getSampleCounts(slot);
 
                 int index = testCase.getIndexOfTestStep(testStepResult.getTestStep());
                 sampleCounts[index]++;
@@ -454,7 +637,16 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 samples[index] += testStepResult.getTimeTaken();
                 sizes[index] += testStepResult.getSize();
 
-                pushSamples(samples, sizes, sampleCounts, testRunner.getStartTime(), testRunner.getTimeTaken(), false);
+                // the first step of a scheduled run also accounts for the time it
+                // was started too late
+                long startTime = getIntendedStartTime(testRunner, runContext);
+                long scheduleDelay = testRunner.getStartTime() - startTime;
+                if (testRunner.getResults().size() <= 1) {
+                    samples[index] += scheduleDelay;
+                }
+
+                publishSamples(buffer, slot, samples, sizes, sampleCounts, startTime, testRunner.getTimeTaken()
+                        + scheduleDelay, false);
             }
         }
 
@@ -468,9 +660,22 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
             List<TestStepResult> results = testRunner.getResults();
             TestCase testCase = testRunner.getTestCase();
 
-            long[] samples = new long[testCase.getTestStepCount()];
-            long[] sizes = new long[samples.length];
-            long[] sampleCounts = new long[samples.length];
+            int stepCount = testCase.getTestStepCount();
+            if (!running || stepCount == 0) {
+                return;
+            }
+
+            // fill a preallocated slot of this thread's buffer; only allocate if
+            // the updater has fallen behind and the buffer is full
+            SampleBuffer buffer = getSampleBuffer(stepCount);
+            int slot = buffer.claim();
+
+            long[] samples = slot < 0 ? new long[stepCount] : buffer.getSamples(slot);
+            long[] sizes = slot < 0 ? new long[stepCount] : buffer.getSizes(slot);
+            long[] sampleCounts = slot < 0 ? new long[stepCount] : buffer.getSampleCounts(slot);
+
+            long startTime = getIntendedStartTime(testRunner, runContext);
+            long scheduleDelay = testRunner.getStartTime() - startTime;
 
             for (int c = 0; c < results.size(); c++) {
                 TestStepResult testStepResult = results.get(c);
@@ -483,12 +688,29 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 if (index >= 0) {
                     sampleCounts[index]++;
 
-                    samples[index] += testStepResult.getTimeTaken();
+                    samples[index] += testStepResult.getTimeTaken() + scheduleDelay;
                     sizes[index] += testStepResult.getSize();
+                    scheduleDelay = 0;
                 }
             }
 
-            pushSamples(samples, sizes, sampleCounts, testRunner.getStartTime(), testRunner.getTimeTaken(), true);
+            publishSamples(buffer, slot, samples, sizes, sampleCounts, startTime, testRunner.getTimeTaken()
+                    + (testRunner.getStartTime() - startTime), true);
+        }
+
+        /**
+         * Returns the time a run was scheduled to start by an open-model strategy,
+         * so samples are measured from there instead of from the actual start
+         * (correcting for coordinated omission)
+         */
+
+        private long getIntendedStartTime(TestCaseRunner testRunner, TestCaseRunContext runContext) {
+            Object intendedStartTime = runContext.getProperty(TestRunContext.INTENDED_START_TIME);
+            if (intendedStartTime instanceof Long) {
+                return Math.min((Long) intendedStartTime, testRunner.getStartTime());
+            }
+
+            return testRunner.getStartTime();
         }
 
         @Override
@@ -542,7 +764,10 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
     private class InternalPropertyChangeListener implements PropertyChangeListener {
         public void propertyChange(PropertyChangeEvent evt) {
             if (evt.getSource() == loadTest && evt.getPropertyName().equals(WsdlLoadTest.THREADCOUNT_PROPERTY)) {
-                if (loadTest.getResetStatisticsOnThreadCountChange()) {
+                // an open-model strategy only grows its worker pool, the offered load
+                // stays the same so there is nothing to reset
+                if (loadTest.getResetStatisticsOnThreadCountChange()
+                        && !(loadTest.getLoadStrategy() instanceof ArrivalRateLoadStrategy)) {
                     resetStatistics = true;
                     currentThreadCountStartTime = System.currentTimeMillis();
                 }
@@ -584,6 +809,69 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
         changed = true;
     }
 
+    /**
+     * Copies the current values for streaming them to a LoadTest controller
+     */
+
+    public synchronized AgentStatistics createAgentStatistics() {
+        return new AgentStatistics(data, histograms);
+    }
+
+    /**
+     * Replaces the current values with the combined statistics of all agents
+     * running this LoadTest; counts, throughput and errors are added up while
+     * averages are weighted by the number of samples of each agent
+     */
+
+    public synchronized void mergeAgentStatistics(Collection<AgentStatistics> agentStatistics) {
+        long[][] merged = new long[data.length][data[0].length];
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+
+        for (AgentStatistics agent : agentStatistics) {
+            if (agent.getRowCount() != merged.length) {
+                log.warn("Ignoring agent statistics with " + agent.getRowCount() + " rows, expected " + merged.length);
+                continue;
+            }
+
+            for (int c = 0; c < merged.length; c++) {
+                long[] row = merged[c];
+
+                long min = agent.getValue(c, MIN_COLUMN);
+                if (min > 0 && (row[MIN_COLUMN] == 0 || min < row[MIN_COLUMN])) {
+                    row[MIN_COLUMN] = min;
+                }
+
+                row[MAX_COLUMN] = Math.max(row[MAX_COLUMN], agent.getValue(c, MAX_COLUMN));
+
+                long currentCount = agent.getValue(c, CURRENT_CNT_COLUMN);
+                if (currentCount > 0) {
+                    // weighted sum for now, divided below
+                    row[AVG_COLUMN] += agent.getValue(c, AVG_COLUMN) * currentCount;
+                    row[LAST_COLUMN] = agent.getValue(c, LAST_COLUMN);
+                }
+
+                row[CNT_COLUMN] += agent.getValue(c, CNT_COLUMN);
+                row[TPS_COLUMN] += agent.getValue(c, TPS_COLUMN);
+                row[BYTES_COLUMN] += agent.getValue(c, BYTES_COLUMN);
+                row[BPS_COLUMN] += agent.getValue(c, BPS_COLUMN);
+                row[ERR_COLUMN] += agent.getValue(c, ERR_COLUMN);
+                row[SUM_COLUMN] += agent.getValue(c, SUM_COLUMN);
+                row[CURRENT_CNT_COLUMN] += currentCount;
+
+                histograms[c].add(agent.getHistogram(c));
+            }
+        }
+
+        for (long[] row : merged) {
+            row[AVG_COLUMN] = row[CURRENT_CNT_COLUMN] == 0 ? 0 : row[AVG_COLUMN] / row[CURRENT_CNT_COLUMN];
+        }
+
+        data = merged;
+        fireTableDataChanged();
+    }
+
     public synchronized StringList[] getSnapshot() {
         long[][] clone = data.clone();
 
@@ -596,10 +884,10 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 switch (columnIndex) {
                     case 4:
                     case 7:
-                        values.add(String.valueOf((float) data[c][columnIndex - 2] / 100));
+                        values.add(String.valueOf((float) clone[c][columnIndex - 2] / 100));
                         break;
                     default:
-                        values.add(String.valueOf(data[c][columnIndex - 2]));
+                        values.add(String.valueOf(getValueAt(c, columnIndex)));
                 }
             }
 
@@ -623,20 +911,42 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 "the number of bytes per second returned by this teststep"), ERRORS(ERR_COLUMN, "err",
                 "the total number of assertion errors for this teststep"), SUM(SUM_COLUMN, "sum", "internal sum"), CURRENT_CNT(
                 CURRENT_CNT_COLUMN, "ccnt", "internal cnt"), ERRORRATIO(RATIO_COLUMN, "rat",
-                "the ratio between exections and failures");
+                "the ratio between exections and failures"), P50(P50_COLUMN, "p50",
+                "the median measured teststep time", 50), P90(P90_COLUMN, "p90",
+                "the 90th percentile of measured teststep times", 90), P99(P99_COLUMN, "p99",
+                "the 99th percentile of measured teststep times", 99), P999(P999_COLUMN, "p99.9",
+                "the 99.9th percentile of measured teststep times", 99.9);
 
         private final String description;
         private final String name;
         private final int index;
+        private final double percentile;
 
         Statistic(int index, String name, String description) {
+            this(index, name, description, -1);
+        }
+
+        Statistic(int index, String name, String description, double percentile) {
             this.index = index;
             this.name = name;
             this.description = description;
+            this.percentile = percentile;
 
             statisticIndexMap.put(index, this);
         }
 
+        /**
+         * @return the percentile for percentile statistics, -1 for all others
+         */
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public boolean isPercentile() {
+            return percentile >= 0;
+        }
+
         public String getDescription() {
             return description;
         }
@@ -682,11 +992,6 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
 
     public synchronized void finish() {
         // push leftover samples
-        while (!samplesStack.isEmpty()) {
-            SamplesHolder holder = samplesStack.poll();
-            if (holder != null) {
-                addSamples(holder);
-            }
-        }
+        drainSamples();
     }
 }
@@ -0,0 +1,172 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-producer/single-consumer ring of reusable sample slots, one per
+ * loadtest thread. Slots are allocated on first use and then reused, so the
+ * owning thread fills and publishes them without locking or allocating; the
+ * statistics updater drains them on each sample interval. A buffer is retired
+ * when its thread stops running the TestCase and is dropped once drained.
+ */
+
+final class SampleBuffer {
+    static final int DEFAULT_CAPACITY = 32;
+
+    private final int stepCount;
+    private final int generation;
+    private final int mask;
+
+    private final long[][] samples;
+    private final long[][] sizes;
+    private final long[][] sampleCounts;
+    private final long[] startTimes;
+    private final long[] timeTakens;
+    private final boolean[] complete;
+    private volatile boolean retired;
+
+    private final AtomicLong readIndex = new AtomicLong();
+    private final AtomicLong writeIndex = new AtomicLong();
+
+    SampleBuffer(int stepCount, int generation) {
+        this(stepCount, generation, DEFAULT_CAPACITY);
+    }
+
+    SampleBuffer(int stepCount, int generation, int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+
+        this.stepCount = stepCount;
+        this.generation = generation;
+        this.mask = capacity - 1;
+
+        samples = new long[capacity][];
+        sizes = new long[capacity][];
+        sampleCounts = new long[capacity][];
+        startTimes = new long[capacity];
+        timeTakens = new long[capacity];
+        complete = new boolean[capacity];
+    }
+
+    int getStepCount() {
+        return stepCount;
+    }
+
+    int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Claims the next free slot and clears it, called by the owning thread only
+     *
+     * @return the slot index or -1 if the buffer is full
+     */
+
+    int claim() {
+        long write = writeIndex.get();
+        if (write - readIndex.get() > mask) {
+            return -1;
+        }
+
+        int slot = (int) (write & mask);
+        if (samples[slot] == null) {
+            samples[slot] = new long[stepCount];
+            sizes[slot] = new long[stepCount];
+            sampleCounts[slot] = new long[stepCount];
+        } else {
+            Arrays.fill(samples[slot], 0);
+            Arrays.fill(sizes[slot], 0);
+            Arrays.fill(sampleCounts[slot], 0);
+        }
+        return slot;
+    }
+
+    long[] getSamples(int slot) {
+        return samples[slot];
+    }
+
+    long[] getSizes(int slot) {
+        return sizes[slot];
+    }
+
+    long[] getSampleCounts(int slot) {
+        return sampleCounts[slot];
+    }
+
+    /**
+     * Makes a claimed slot visible to the consumer, called by the owning thread
+     * only
+     */
+
+    void publish(int slot, long startTime, long timeTaken, boolean isComplete) {
+        startTimes[slot] = startTime;
+        timeTakens[slot] = timeTaken;
+        complete[slot] = isComplete;
+
+        writeIndex.lazySet(writeIndex.get() + 1);
+    }
+
+    /**
+     * Marks this buffer as no longer written to, called by the owning thread
+     * after its last publish
+     */
+
+    void retire() {
+        retired = true;
+    }
+
+    boolean isRetired() {
+        return retired;
+    }
+
+    boolean isEmpty() {
+        return readIndex.get() >= writeIndex.get();
+    }
+
+    /**
+     * Passes all published slots to the consumer, called by the statistics
+     * updater only
+     */
+
+    void drain(Consumer consumer) {
+        long read = readIndex.get();
+        long write = writeIndex.get();
+
+        for (; read < write; read++) {
+            int slot = (int) (read & mask);
+            try {
+                consumer.consume(samples[slot], sizes[slot], sampleCounts[slot], startTimes[slot], timeTakens[slot],
+                        complete[slot]);
+            } finally {
+                readIndex.lazySet(read + 1);
+            }
+        }
+    }
+
+    void clear() {
+        readIndex.set(writeIndex.get());
+    }
+
+    interface Consumer {
+        void consume(long[] samples, long[] sizes, long[] sampleCounts, long startTime, long timeTaken,
+                     boolean complete);
+    }
+}
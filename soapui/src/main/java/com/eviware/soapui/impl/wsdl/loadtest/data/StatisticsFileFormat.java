@@ -0,0 +1,67 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Constants and encoding helpers of the binary statistics files written by
+ * StatisticsFileSink. A file starts with a header naming the rows and
+ * statistics, followed by blocks of records stored column by column, each
+ * value as a zig-zag encoded variable-length delta to the previous value in
+ * the same column.
+ */
+
+final class StatisticsFileFormat {
+    static final int MAGIC = 0x53554953;
+    static final int VERSION = 1;
+    static final String BINARY_EXTENSION = ".bin";
+    static final String CSV_EXTENSION = ".csv";
+
+    private StatisticsFileFormat() {
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        long zigZag = (value << 1) ^ (value >> 63);
+        while ((zigZag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+
+        out.writeByte((int) zigZag);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long zigZag = 0;
+        int shift = 0;
+        byte b;
+
+        do {
+            if (shift > 63) {
+                throw new IOException("Malformed variable-length value");
+            }
+
+            b = in.readByte();
+            zigZag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+}
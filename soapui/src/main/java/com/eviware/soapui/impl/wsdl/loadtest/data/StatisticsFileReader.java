@@ -0,0 +1,238 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatistics.Statistic;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads the binary statistics files written by a StatisticsFileSink, for
+ * rebuilding LoadTest reports and diagrams offline. A block that was only
+ * partially written (for example because the JVM died) ends the file.
+ */
+
+public class StatisticsFileReader implements Closeable {
+    private final List<File> files;
+    private int fileIndex;
+    private DataInputStream in;
+
+    private String loadTestName;
+    private String[] rowNames;
+    private Statistic[] statistics;
+
+    private StatisticsRecord[] block = new StatisticsRecord[0];
+    private int blockIndex;
+
+    public StatisticsFileReader(List<File> files) throws IOException {
+        if (files.isEmpty()) {
+            throw new IOException("No statistics files to read");
+        }
+
+        this.files = new ArrayList<File>(files);
+        openFile(0);
+    }
+
+    /**
+     * Creates a reader for all files written by a sink with the specified
+     * folder and base name
+     */
+
+    public static StatisticsFileReader open(File folder, String baseName) throws IOException {
+        List<File> result = new ArrayList<File>();
+        File file = StatisticsFileSink.getBinaryFile(folder, baseName, 0);
+        while (file.exists()) {
+            result.add(file);
+            file = StatisticsFileSink.getBinaryFile(folder, baseName, result.size());
+        }
+
+        return new StatisticsFileReader(result);
+    }
+
+    public String getLoadTestName() {
+        return loadTestName;
+    }
+
+    /**
+     * Returns the names of the TestSteps followed by the name of the TestCase
+     */
+
+    public String[] getRowNames() {
+        return rowNames.clone();
+    }
+
+    /**
+     * Returns the statistics contained in the files; statistics that are not
+     * known by this version are skipped and read as 0
+     */
+
+    public List<Statistic> getStatistics() {
+        List<Statistic> result = new ArrayList<Statistic>();
+        for (Statistic statistic : statistics) {
+            if (statistic != null) {
+                result.add(statistic);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the next record or null if all files have been read
+     */
+
+    public StatisticsRecord next() throws IOException {
+        while (blockIndex == block.length) {
+            if (!readBlock()) {
+                if (fileIndex + 1 >= files.size()) {
+                    return null;
+                }
+
+                openFile(fileIndex + 1);
+            }
+        }
+
+        return block[blockIndex++];
+    }
+
+    public List<StatisticsRecord> readAll() throws IOException {
+        List<StatisticsRecord> result = new ArrayList<StatisticsRecord>();
+        for (StatisticsRecord record = next(); record != null; record = next()) {
+            result.add(record);
+        }
+
+        return result;
+    }
+
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+            in = null;
+        }
+    }
+
+    private void openFile(int index) throws IOException {
+        close();
+
+        fileIndex = index;
+        File file = files.get(index);
+        in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+
+        if (in.readInt() != StatisticsFileFormat.MAGIC) {
+            throw new IOException("[" + file + "] is not a statistics file");
+        }
+
+        int version = in.readInt();
+        if (version != StatisticsFileFormat.VERSION) {
+            throw new IOException("Unsupported statistics file version [" + version + "] in [" + file + "]");
+        }
+
+        String name = in.readUTF();
+        String[] names = new String[in.readInt()];
+        for (int c = 0; c < names.length; c++) {
+            names[c] = in.readUTF();
+        }
+
+        Statistic[] fileStatistics = new Statistic[in.readInt()];
+        for (int c = 0; c < fileStatistics.length; c++) {
+            fileStatistics[c] = forName(in.readUTF());
+        }
+
+        if (rowNames != null && !Arrays.equals(rowNames, names)) {
+            throw new IOException("[" + file + "] contains different TestSteps than previous files");
+        }
+
+        loadTestName = name;
+        rowNames = names;
+        statistics = fileStatistics;
+    }
+
+    private static Statistic forName(String name) {
+        for (Statistic statistic : Statistic.values()) {
+            if (statistic.getName().equals(name)) {
+                return statistic;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Reads the next block of the current file
+     *
+     * @return false at the end of the file or of its last complete block
+     */
+
+    private boolean readBlock() throws IOException {
+        byte[] bytes;
+        int count;
+
+        try {
+            count = in.readInt();
+            bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+        } catch (EOFException e) {
+            return false;
+        }
+
+        DataInputStream blockIn = new DataInputStream(new ByteArrayInputStream(bytes));
+        long[] timestamps = readColumn(blockIn, count);
+        long[] threadCounts = readColumn(blockIn, count);
+
+        long[][][] values = new long[count][rowNames.length][Statistic.values().length];
+        for (int row = 0; row < rowNames.length; row++) {
+            for (Statistic statistic : statistics) {
+                long value = 0;
+                for (int c = 0; c < count; c++) {
+                    value += StatisticsFileFormat.readVarLong(blockIn);
+                    if (statistic != null) {
+                        values[c][row][statistic.getIndex()] = value;
+                    }
+                }
+            }
+        }
+
+        block = new StatisticsRecord[count];
+        for (int c = 0; c < count; c++) {
+            block[c] = new StatisticsRecord(timestamps[c], threadCounts[c], values[c]);
+        }
+
+        blockIndex = 0;
+        return true;
+    }
+
+    private static long[] readColumn(DataInputStream blockIn, int count) throws IOException {
+        long[] result = new long[count];
+        long value = 0;
+        for (int c = 0; c < count; c++) {
+            value += StatisticsFileFormat.readVarLong(blockIn);
+            result[c] = value;
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatistics.Statistic;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * StatisticsSink that appends statistics to rolling binary files (see
+ * StatisticsFileFormat) and optionally to CSV files, so that long-running
+ * LoadTests can be analyzed afterwards with a StatisticsFileReader without
+ * keeping their history in memory.
+ * <p/>
+ * Binary records are buffered and written column by column in blocks. A block
+ * is written and flushed when it holds blockSize records
+ * (soapui.statistics.blockSize, default 256), when its first record is older
+ * than the max block age (soapui.statistics.maxBlockAge in milliseconds,
+ * default 60 seconds), when the files roll over and on close. If the JVM dies,
+ * at most the records of one unwritten block are lost. CSV lines are flushed
+ * as they are written.
+ */
+
+public class StatisticsFileSink implements StatisticsSink {
+    private final static Logger log = Logger.getLogger(StatisticsFileSink.class);
+
+    public static final long DEFAULT_MAX_FILE_SIZE = 64L * 1024 * 1024;
+    public static final String BLOCK_SIZE_PROPERTY = "soapui.statistics.blockSize";
+    public static final int DEFAULT_BLOCK_SIZE = 256;
+    public static final String MAX_BLOCK_AGE_PROPERTY = "soapui.statistics.maxBlockAge";
+    public static final long DEFAULT_MAX_BLOCK_AGE = 60000;
+
+    private final File folder;
+    private final String baseName;
+    private final boolean writeCsv;
+    private final long maxFileSize;
+    private final int blockSize;
+    private final long maxBlockAge;
+
+    private String loadTestName;
+    private String[] rowNames;
+    private Statistic[] statistics;
+
+    private int fileIndex;
+    private DataOutputStream binaryOut;
+    private long binarySize;
+    private Writer csvOut;
+    private long csvSize;
+
+    private long[] timestamps;
+    private long[] threadCounts;
+    private long[][][] blockValues;
+    private int blockCount;
+
+    public StatisticsFileSink(File folder, String baseName, boolean writeCsv) {
+        this(folder, baseName, writeCsv, DEFAULT_MAX_FILE_SIZE, Integer.getInteger(BLOCK_SIZE_PROPERTY,
+                DEFAULT_BLOCK_SIZE), Long.getLong(MAX_BLOCK_AGE_PROPERTY, DEFAULT_MAX_BLOCK_AGE));
+    }
+
+    public StatisticsFileSink(File folder, String baseName, boolean writeCsv, long maxFileSize, int blockSize) {
+        this(folder, baseName, writeCsv, maxFileSize, blockSize, DEFAULT_MAX_BLOCK_AGE);
+    }
+
+    public StatisticsFileSink(File folder, String baseName, boolean writeCsv, long maxFileSize, int blockSize,
+                              long maxBlockAge) {
+        this.folder = folder;
+        this.baseName = baseName;
+        this.writeCsv = writeCsv;
+        this.maxFileSize = maxFileSize;
+        this.blockSize = Math.max(1, blockSize);
+        this.maxBlockAge = maxBlockAge;
+    }
+
+    /**
+     * Returns the binary file with the specified index, files are numbered from
+     * 0 as they roll over
+     */
+
+    public static File getBinaryFile(File folder, String baseName, int index) {
+        return new File(folder, baseName + "-" + index + StatisticsFileFormat.BINARY_EXTENSION);
+    }
+
+    public static File getCsvFile(File folder, String baseName, int index) {
+        return new File(folder, baseName + "-" + index + StatisticsFileFormat.CSV_EXTENSION);
+    }
+
+    public synchronized void open(String loadTestName, String[] rowNames, Statistic[] statistics) throws IOException {
+        this.loadTestName = loadTestName;
+        this.rowNames = rowNames;
+        this.statistics = statistics;
+
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Failed to create statistics folder [" + folder + "]");
+        }
+
+        timestamps = new long[blockSize];
+        threadCounts = new long[blockSize];
+        blockValues = new long[blockSize][][];
+        blockCount = 0;
+        fileIndex = 0;
+
+        openBinaryFile();
+        if (writeCsv) {
+            openCsvFile();
+        }
+
+        log.info("Streaming statistics of LoadTest [" + loadTestName + "] to [" + getBinaryFile(folder, baseName, 0)
+                + "]");
+    }
+
+    public synchronized void write(long timestamp, long threadCount, long[][] values) throws IOException {
+        if (binaryOut == null) {
+            return;
+        }
+
+        timestamps[blockCount] = timestamp;
+        threadCounts[blockCount] = threadCount;
+        blockValues[blockCount] = values;
+        blockCount++;
+
+        // the age is measured in record time, records arrive once per sample interval
+        if (blockCount == blockSize || timestamp - timestamps[0] >= maxBlockAge) {
+            writeBlock();
+        }
+
+        if (csvOut != null) {
+            writeCsvLine(timestamp, threadCount, values);
+        }
+
+        if (binarySize >= maxFileSize || (csvOut != null && csvSize >= maxFileSize)) {
+            roll();
+        }
+    }
+
+    public synchronized void close() throws IOException {
+        try {
+            if (binaryOut != null) {
+                writeBlock();
+                binaryOut.close();
+            }
+        } finally {
+            binaryOut = null;
+
+            if (csvOut != null) {
+                csvOut.close();
+                csvOut = null;
+            }
+        }
+    }
+
+    private void openBinaryFile() throws IOException {
+        binaryOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(getBinaryFile(folder, baseName,
+                fileIndex))));
+
+        binaryOut.writeInt(StatisticsFileFormat.MAGIC);
+        binaryOut.writeInt(StatisticsFileFormat.VERSION);
+        binaryOut.writeUTF(loadTestName);
+        binaryOut.writeInt(rowNames.length);
+        for (String rowName : rowNames) {
+            binaryOut.writeUTF(rowName);
+        }
+
+        binaryOut.writeInt(statistics.length);
+        for (Statistic statistic : statistics) {
+            binaryOut.writeUTF(statistic.getName());
+        }
+
+        binaryOut.flush();
+        binarySize = binaryOut.size();
+    }
+
+    private void openCsvFile() throws IOException {
+        csvOut = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(getCsvFile(folder, baseName,
+                fileIndex)), "UTF-8"));
+
+        StringBuilder buf = new StringBuilder("timestamp,threads");
+        for (String rowName : rowNames) {
+            for (Statistic statistic : statistics) {
+                buf.append(',').append(rowName.replace(',', ' ')).append(':').append(statistic.getName());
+            }
+        }
+
+        buf.append('\n');
+        String header = buf.toString();
+        csvOut.write(header);
+        csvOut.flush();
+        csvSize = header.getBytes("UTF-8").length;
+    }
+
+    /**
+     * Writes the buffered records column by column
+     */
+
+    private void writeBlock() throws IOException {
+        if (blockCount == 0) {
+            return;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream block = new DataOutputStream(bytes);
+
+        writeColumn(block, timestamps);
+        writeColumn(block, threadCounts);
+
+        for (int row = 0; row < rowNames.length; row++) {
+            for (Statistic statistic : statistics) {
+                long previous = 0;
+                for (int c = 0; c < blockCount; c++) {
+                    long[][] values = blockValues[c];
+                    long value = row < values.length ? values[row][statistic.getIndex()] : 0;
+                    StatisticsFileFormat.writeVarLong(block, value - previous);
+                    previous = value;
+                }
+            }
+        }
+
+        block.flush();
+        binaryOut.writeInt(blockCount);
+        binaryOut.writeInt(bytes.size());
+        bytes.writeTo(binaryOut);
+        binaryOut.flush();
+
+        binarySize += 8 + bytes.size();
+
+        for (int c = 0; c < blockCount; c++) {
+            blockValues[c] = null;
+        }
+
+        blockCount = 0;
+    }
+
+    private void writeColumn(DataOutputStream block, long[] column) throws IOException {
+        long previous = 0;
+        for (int c = 0; c < blockCount; c++) {
+            StatisticsFileFormat.writeVarLong(block, column[c] - previous);
+            previous = column[c];
+        }
+    }
+
+    private void writeCsvLine(long timestamp, long threadCount, long[][] values) throws IOException {
+        StringBuilder buf = new StringBuilder();
+        buf.append(timestamp).append(',').append(threadCount);
+
+        for (int row = 0; row < rowNames.length; row++) {
+            for (Statistic statistic : statistics) {
+                buf.append(',').append(row < values.length ? values[row][statistic.getIndex()] : 0);
+            }
+        }
+
+        buf.append('\n');
+        csvOut.write(buf.toString());
+        csvOut.flush();
+        // only digits and separators, so chars and bytes are the same
+        csvSize += buf.length();
+    }
+
+    /**
+     * Continues in new files; binary and csv files always roll together so
+     * they share the same index
+     */
+
+    private void roll() throws IOException {
+        writeBlock();
+        binaryOut.close();
+        if (csvOut != null) {
+            csvOut.close();
+        }
+
+        fileIndex++;
+        openBinaryFile();
+        if (writeCsv) {
+            openCsvFile();
+        }
+    }
+}
@@ -22,16 +22,22 @@ import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatistics.Statistic;
 import com.eviware.soapui.model.support.LoadTestRunListenerAdapter;
 import com.eviware.soapui.model.testsuite.LoadTestRunContext;
 import com.eviware.soapui.model.testsuite.LoadTestRunner;
+import com.eviware.soapui.support.StringUtils;
 import org.apache.log4j.Logger;
 
 import javax.swing.event.TableModelEvent;
 import javax.swing.event.TableModelListener;
 import javax.swing.table.AbstractTableModel;
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Collector of statistics to be exposed as TableModels
@@ -40,14 +46,18 @@ import java.util.Map;
  */
 
 public class StatisticsHistory {
+    public static final String HISTORY_SIZE_PROPERTY = "soapui.loadtest.history.size";
+    public static final int DEFAULT_HISTORY_SIZE = 10000;
+
     private final LoadTestStatistics statistics;
-    private List<long[][]> data = new ArrayList<long[][]>();
-    private List<Long> threadCounts = new ArrayList<Long>();
+    private HistoryRing<long[][]> data = new HistoryRing<long[][]>(getHistorySize(-1));
+    private HistoryRing<Long> threadCounts = new HistoryRing<Long>(getHistorySize(-1));
+    private List<StatisticsSink> sinks = new CopyOnWriteArrayList<StatisticsSink>();
+    private List<StatisticsSink> openSinks = new CopyOnWriteArrayList<StatisticsSink>();
     private Map<Integer, TestStepStatisticsHistory> testStepStatisticHistories = new HashMap<Integer, TestStepStatisticsHistory>();
     private EnumMap<Statistic, StatisticsValueHistory> statisticsValueHistories = new EnumMap<Statistic, StatisticsValueHistory>(
             Statistic.class);
 
-    @SuppressWarnings("unused")
     private final static Logger logger = Logger.getLogger(StatisticsHistory.class);
     private long resolution = 0;
     private InternalTableModelListener internalTableModelListener = new InternalTableModelListener();
@@ -60,14 +70,102 @@ public class StatisticsHistory {
         statistics.getLoadTest().addLoadTestRunListener(new LoadTestRunListenerAdapter() {
 
             public void beforeLoadTest(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
+                openSinks(context);
+
                 if (resolution > 0) {
                     new Thread(updater, StatisticsHistory.this.statistics.getLoadTest().getName()
                             + " StatisticsHistory Updater").start();
                 }
             }
+
+            public void afterLoadTest(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
+                writeFinalValues();
+                closeSinks();
+            }
         });
     }
 
+    /**
+     * Returns the maximum number of intervals kept in memory; older ones are
+     * dropped
+     */
+
+    static int getHistorySize(long historyLimit) {
+        if (historyLimit > 0) {
+            return (int) Math.min(historyLimit, Integer.MAX_VALUE);
+        }
+
+        try {
+            return Integer.parseInt(System.getProperty(HISTORY_SIZE_PROPERTY));
+        } catch (Exception e) {
+            return DEFAULT_HISTORY_SIZE;
+        }
+    }
+
+    /**
+     * Adds a sink that will receive the statistics of all following runs
+     */
+
+    public void addStatisticsSink(StatisticsSink sink) {
+        sinks.add(sink);
+    }
+
+    public void removeStatisticsSink(StatisticsSink sink) {
+        sinks.remove(sink);
+    }
+
+    private void openSinks(LoadTestRunContext context) {
+        closeSinks();
+
+        WsdlLoadTest loadTest = statistics.getLoadTest();
+        List<StatisticsSink> runSinks = new ArrayList<StatisticsSink>(sinks);
+
+        String streamFolder = context.expand(loadTest.getStatisticsStreamFolder());
+        if (StringUtils.hasContent(streamFolder)) {
+            String baseName = StringUtils.createFileName(loadTest.getName(), '_') + "-"
+                    + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+            runSinks.add(new StatisticsFileSink(new File(streamFolder), baseName, loadTest.getStatisticsStreamCsv()));
+        }
+
+        String[] rowNames = new String[statistics.getRowCount()];
+        for (int c = 0; c < rowNames.length - 1; c++) {
+            rowNames[c] = loadTest.getTestCase().getTestStepAt(c).getName();
+        }
+        rowNames[rowNames.length - 1] = loadTest.getTestCase().getName();
+
+        for (StatisticsSink sink : runSinks) {
+            try {
+                sink.open(loadTest.getName(), rowNames, Statistic.values());
+                openSinks.add(sink);
+            } catch (IOException e) {
+                logger.error("Failed to open statistics sink: " + e);
+                SoapUI.logError(e);
+            }
+        }
+    }
+
+    private synchronized void writeFinalValues() {
+        if (!openSinks.isEmpty() && statistics.getStatistic(LoadTestStatistics.TOTAL, Statistic.COUNT) > 0) {
+            writeToSinks(createValues(), statistics.getLoadTest().getThreadCount());
+        }
+    }
+
+    private synchronized void closeSinks() {
+        for (StatisticsSink sink : openSinks) {
+            try {
+                sink.close();
+            } catch (IOException e) {
+                SoapUI.logError(e);
+            }
+        }
+
+        openSinks.clear();
+    }
+
+    private boolean isHistoryEnabled() {
+        return statistics.getLoadTest().getHistoryLimit() != 0;
+    }
+
     public Map<Integer, TestStepStatisticsHistory> getTestStepStatisticHistories() {
         return testStepStatisticHistories;
     }
@@ -113,9 +211,15 @@ public class StatisticsHistory {
         return statisticsValueHistories.get(statistic);
     }
 
-    public void reset() {
-        data.clear();
-        threadCounts.clear();
+    public synchronized void reset() {
+        int historySize = getHistorySize(statistics.getLoadTest().getHistoryLimit());
+        if (data.getCapacity() != historySize) {
+            data = new HistoryRing<long[][]>(historySize);
+            threadCounts = new HistoryRing<Long>(historySize);
+        } else {
+            data.clear();
+            threadCounts.clear();
+        }
 
         for (StatisticsValueHistory history : statisticsValueHistories.values()) {
             history.fireTableDataChanged();
@@ -132,36 +236,71 @@ public class StatisticsHistory {
         if (statistics.getStatistic(LoadTestStatistics.TOTAL, Statistic.COUNT) == 0) {
             reset();
         } else {
-            int columnCount = statistics.getColumnCount();
-            int rowCount = statistics.getRowCount();
+            long[][] values = createValues();
+            long threadCount = statistics.getLoadTest().getThreadCount();
+            writeToSinks(values, threadCount);
 
-            long[][] values = new long[rowCount][columnCount - 2];
-
-            for (int c = 0; c < rowCount; c++) {
-                for (int i = 2; i < columnCount; i++) {
-                    try {
-                        values[c][i - 2] = Long.parseLong(statistics.getValueAt(c, i).toString());
-                    } catch (NumberFormatException ex) {
-                        values[c][i - 2] = (long) Float.parseFloat(statistics.getValueAt(c, i).toString());
-                    }
-                }
+            if (!isHistoryEnabled()) {
+                return;
             }
 
-            data.add(values);
-            threadCounts.add(statistics.getLoadTest().getThreadCount());
+            boolean dropped = data.add(values);
+            threadCounts.add(threadCount);
 
             // notify!
             int sz = data.size() - 1;
             for (StatisticsValueHistory history : statisticsValueHistories.values()) {
+                if (dropped) {
+                    history.fireTableRowsDeleted(0, 0);
+                }
                 history.fireTableRowsInserted(sz, sz);
             }
 
             for (TestStepStatisticsHistory history : testStepStatisticHistories.values()) {
+                if (dropped) {
+                    history.fireTableRowsDeleted(0, 0);
+                }
                 history.fireTableRowsInserted(sz, sz);
             }
         }
     }
 
+    private long[][] createValues() {
+        int rowCount = statistics.getRowCount();
+        Statistic[] statisticValues = Statistic.values();
+
+        // values are stored by statistic index so they can be looked up
+        // directly with Statistic.getIndex()
+        long[][] values = new long[rowCount][statisticValues.length];
+
+        for (int c = 0; c < rowCount; c++) {
+            for (Statistic statistic : statisticValues) {
+                values[c][statistic.getIndex()] = statistics.getStatistic(c, statistic);
+            }
+        }
+
+        return values;
+    }
+
+    private void writeToSinks(long[][] values, long threadCount) {
+        long timestamp = System.currentTimeMillis();
+
+        for (StatisticsSink sink : openSinks) {
+            try {
+                sink.write(timestamp, threadCount, values);
+            } catch (IOException e) {
+                logger.error("Failed to write statistics, closing sink: " + e);
+                openSinks.remove(sink);
+
+                try {
+                    sink.close();
+                } catch (IOException e1) {
+                    SoapUI.logError(e1);
+                }
+            }
+        }
+    }
+
     public abstract class StatisticsHistoryModel extends AbstractTableModel {
         public abstract void release();
     }
@@ -182,7 +321,7 @@ public class StatisticsHistory {
         }
 
         public int getColumnCount() {
-            return statistics.getColumnCount() - 1;
+            return Statistic.values().length + 1;
         }
 
         public Object getValueAt(int rowIndex, int columnIndex) {
@@ -263,7 +402,7 @@ public class StatisticsHistory {
     private class InternalTableModelListener implements TableModelListener {
         public synchronized void tableChanged(TableModelEvent e) {
             if ((resolution > 0 && statistics.getLoadTest().isRunning()) || e.getType() != TableModelEvent.UPDATE
-                    || statistics.getLoadTest().getHistoryLimit() == 0) {
+                    || (!isHistoryEnabled() && openSinks.isEmpty())) {
                 return;
             }
 
@@ -277,7 +416,7 @@ public class StatisticsHistory {
 
             while (resolution > 0 && loadTest.isRunning()) {
                 try {
-                    if (loadTest.getHistoryLimit() != 0) {
+                    if (isHistoryEnabled() || !openSinks.isEmpty()) {
                         updateHistory();
                     }
 
@@ -0,0 +1,65 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatistics.Statistic;
+
+/**
+ * The statistics of one interval as read back by a StatisticsFileReader
+ */
+
+public final class StatisticsRecord {
+    private final long timestamp;
+    private final long threadCount;
+    private final long[][] values;
+
+    StatisticsRecord(long timestamp, long threadCount, long[][] values) {
+        this.timestamp = timestamp;
+        this.threadCount = threadCount;
+        this.values = values;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getThreadCount() {
+        return threadCount;
+    }
+
+    public int getRowCount() {
+        return values.length;
+    }
+
+    /**
+     * Returns the value of a statistic, with row being the TestStep index or
+     * LoadTestStatistics.TOTAL
+     */
+
+    public long getValue(int row, Statistic statistic) {
+        return values[row == LoadTestStatistics.TOTAL ? values.length - 1 : row][statistic.getIndex()];
+    }
+
+    /**
+     * Returns the values indexed by row and Statistic.getIndex() like in
+     * StatisticsHistory.getHistoryAt
+     */
+
+    public long[][] getValues() {
+        return values;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatistics.Statistic;
+
+import java.io.IOException;
+
+/**
+ * Receives the statistics of a running LoadTest once per history interval,
+ * for example to stream them to disk. Sinks are added to the StatisticsHistory
+ * of a LoadTest and are opened and closed with each run.
+ */
+
+public interface StatisticsSink {
+    /**
+     * Called before the first values of a run are written
+     *
+     * @param rowNames   the names of the TestSteps followed by the TestCase total
+     * @param statistics the statistics of each row, in the order they are
+     *                   indexed in the written values
+     */
+
+    public void open(String loadTestName, String[] rowNames, Statistic[] statistics) throws IOException;
+
+    /**
+     * Writes the values of one interval, indexed by row and by
+     * Statistic.getIndex()
+     */
+
+    public void write(long timestamp, long threadCount, long[][] values) throws IOException;
+
+    public void close() throws IOException;
+}
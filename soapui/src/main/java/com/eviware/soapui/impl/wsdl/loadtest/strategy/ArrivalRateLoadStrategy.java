@@ -0,0 +1,278 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.strategy;
+
+import com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTest;
+import com.eviware.soapui.model.testsuite.LoadTestRunContext;
+import com.eviware.soapui.model.testsuite.LoadTestRunner;
+import com.eviware.soapui.model.testsuite.TestRunner.Status;
+import com.eviware.soapui.support.DocumentListenerAdapter;
+import com.eviware.soapui.support.UISupport;
+import com.eviware.soapui.support.swing.ComponentBag;
+import com.eviware.soapui.support.xml.XmlObjectConfigurationBuilder;
+import com.eviware.soapui.support.xml.XmlObjectConfigurationReader;
+import com.jgoodies.forms.builder.ButtonBarBuilder;
+import org.apache.log4j.Logger;
+import org.apache.xmlbeans.XmlObject;
+
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JSpinner;
+import javax.swing.JTextField;
+import javax.swing.SpinnerNumberModel;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.text.Document;
+
+/**
+ * Open-model LoadStrategy that starts TestCases at a constant arrival rate
+ * instead of letting a fixed number of threads loop. Each run is assigned an
+ * intended start time from a fixed schedule; the WsdlLoadTestRunner waits for
+ * that time before starting the run and the statistics measure from it, so
+ * that runs delayed by a slow target are not hidden (coordinated omission).
+ * The thread count is treated as an elastic worker pool that is grown up to
+ * the configured maximum whenever the schedule falls behind.
+ */
+
+public class ArrivalRateLoadStrategy extends AbstractLoadStrategy {
+    private final static Logger log = Logger.getLogger(ArrivalRateLoadStrategy.class);
+
+    private static final String ARRIVAL_RATE_ELEMENT = "arrivalRate";
+    private static final String MAX_THREAD_COUNT_ELEMENT = "maxThreadCount";
+    private static final float DEFAULT_ARRIVAL_RATE = 10;
+    private static final int DEFAULT_MAX_THREAD_COUNT = 100;
+    public static final String STRATEGY_TYPE = "Arrival Rate";
+
+    private float arrivalRate = DEFAULT_ARRIVAL_RATE;
+    private int maxThreadCount = DEFAULT_MAX_THREAD_COUNT;
+
+    private long scheduleStartTime;
+    private long scheduleStartSlot;
+    private long intervalNanos;
+    private long nextSlot;
+    private long threadCount;
+
+    private JPanel configPanel;
+    private JTextField arrivalRateField;
+    private SpinnerNumberModel maxThreadCountSpinnerNumberModel;
+    private ComponentBag stateDependantComponents = new ComponentBag();
+
+    public ArrivalRateLoadStrategy(XmlObject config, WsdlLoadTest loadTest) {
+        super(STRATEGY_TYPE, loadTest);
+
+        if (config != null) {
+            XmlObjectConfigurationReader reader = new XmlObjectConfigurationReader(config);
+            arrivalRate = reader.readFloat(ARRIVAL_RATE_ELEMENT, DEFAULT_ARRIVAL_RATE);
+            maxThreadCount = reader.readInt(MAX_THREAD_COUNT_ELEMENT, DEFAULT_MAX_THREAD_COUNT);
+        }
+    }
+
+    public XmlObject getConfig() {
+        XmlObjectConfigurationBuilder builder = new XmlObjectConfigurationBuilder();
+        builder.add(ARRIVAL_RATE_ELEMENT, arrivalRate);
+        builder.add(MAX_THREAD_COUNT_ELEMENT, maxThreadCount);
+        return builder.finish();
+    }
+
+    public void beforeLoadTest(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
+        super.beforeLoadTest(loadTestRunner, context);
+        stateDependantComponents.setEnabled(false);
+
+        WsdlLoadTest wsdlLoadTest = (WsdlLoadTest) loadTestRunner.getLoadTest();
+        threadCount = wsdlLoadTest.getThreadCount();
+        if (threadCount > maxThreadCount) {
+            wsdlLoadTest.setThreadCount(maxThreadCount);
+        }
+
+        synchronized (this) {
+            scheduleStartTime = System.currentTimeMillis();
+            scheduleStartSlot = 0;
+            nextSlot = 0;
+            intervalNanos = calculateIntervalNanos(arrivalRate);
+        }
+    }
+
+    public void afterLoadTest(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
+        stateDependantComponents.setEnabled(true);
+
+        // restore threadcount to original
+        WsdlLoadTest wsdlLoadTest = (WsdlLoadTest) loadTestRunner.getLoadTest();
+        wsdlLoadTest.setThreadCount(threadCount);
+    }
+
+    /**
+     * This flag only controls whether the user may edit the thread count while
+     * the LoadTest runs. The thread count is owned by this strategy during a
+     * run: it grows the pool towards the max thread count when arrivals fall
+     * behind and restores the configured count afterwards, so a manual change
+     * would be overwritten. Burst and Variance strategies return false for the
+     * same reason.
+     */
+
+    public boolean allowThreadCountChangeDuringRun() {
+        return false;
+    }
+
+    /**
+     * Claims the next free slot in the arrival schedule
+     *
+     * @return the intended start time of the claimed slot in milliseconds
+     */
+
+    public synchronized long claimNextArrival() {
+        return getSlotTime(nextSlot++);
+    }
+
+    /**
+     * Grows the worker pool when the next unclaimed arrival is already overdue,
+     * meaning that all threads are busy and the target rate can not be held
+     */
+
+    @Override
+    public void recalculate(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
+        if (loadTestRunner.getStatus() != Status.RUNNING) {
+            return;
+        }
+
+        long overdue;
+        synchronized (this) {
+            long behind = System.currentTimeMillis() - getSlotTime(nextSlot);
+            overdue = behind <= 0 ? 0 : (behind * 1000000 / intervalNanos) + 1;
+        }
+
+        if (overdue > 0) {
+            WsdlLoadTest wsdlLoadTest = (WsdlLoadTest) loadTestRunner.getLoadTest();
+            synchronized (wsdlLoadTest) {
+                long current = wsdlLoadTest.getThreadCount();
+                long newThreadCount = Math.min(maxThreadCount, current + overdue);
+                if (newThreadCount > current) {
+                    log.debug("Growing thread pool to " + newThreadCount + ", " + overdue + " arrivals overdue");
+                    wsdlLoadTest.setThreadCount(newThreadCount);
+                }
+            }
+        }
+    }
+
+    private long getSlotTime(long slot) {
+        return scheduleStartTime + ((slot - scheduleStartSlot) * intervalNanos) / 1000000;
+    }
+
+    private static long calculateIntervalNanos(float rate) {
+        return rate <= 0 ? 1000000000L : Math.max(1, (long) (1000000000D / rate));
+    }
+
+    /**
+     * Changes the rate from the next unclaimed slot onward; the rate field in
+     * the configuration panel is disabled while the LoadTest runs, so during a
+     * run this is only called from scripts
+     */
+
+    public synchronized void setArrivalRate(float arrivalRate) {
+        if (intervalNanos > 0) {
+            scheduleStartTime = getSlotTime(nextSlot);
+            scheduleStartSlot = nextSlot;
+            intervalNanos = calculateIntervalNanos(arrivalRate);
+        }
+
+        this.arrivalRate = arrivalRate;
+    }
+
+    public synchronized float getArrivalRate() {
+        return arrivalRate;
+    }
+
+    public int getMaxThreadCount() {
+        return maxThreadCount;
+    }
+
+    public void setMaxThreadCount(int maxThreadCount) {
+        this.maxThreadCount = maxThreadCount;
+
+        if (maxThreadCountSpinnerNumberModel != null) {
+            maxThreadCountSpinnerNumberModel.setValue(maxThreadCount);
+        }
+    }
+
+    public JComponent getConfigurationPanel() {
+        if (configPanel == null) {
+            ButtonBarBuilder builder = new ButtonBarBuilder();
+
+            arrivalRateField = new JTextField(5);
+            UISupport.setPreferredHeight(arrivalRateField, 18);
+            arrivalRateField.setHorizontalAlignment(JTextField.RIGHT);
+            arrivalRateField.setText(String.valueOf(arrivalRate));
+            arrivalRateField.setToolTipText("Sets the number of TestCase runs to start per second");
+            arrivalRateField.getDocument().addDocumentListener(new DocumentListenerAdapter() {
+
+                public void update(Document doc) {
+                    try {
+                        setArrivalRate(Float.parseFloat(arrivalRateField.getText().replace(',', '.')));
+                        notifyConfigurationChanged();
+                    } catch (NumberFormatException e) {
+                    }
+                }
+            });
+
+            builder.addFixed(new JLabel("Rate/Sec"));
+            builder.addRelatedGap();
+            builder.addFixed(arrivalRateField);
+            builder.addRelatedGap();
+
+            maxThreadCountSpinnerNumberModel = new SpinnerNumberModel(maxThreadCount, 1, 10000, 1);
+            JSpinner maxThreadCountSpinner = new JSpinner(maxThreadCountSpinnerNumberModel);
+            UISupport.setPreferredHeight(maxThreadCountSpinner, 18);
+            maxThreadCountSpinner.setToolTipText("Sets the maximum number of threads the pool may grow to");
+            maxThreadCountSpinnerNumberModel.addChangeListener(new ChangeListener() {
+
+                public void stateChanged(ChangeEvent e) {
+                    maxThreadCount = maxThreadCountSpinnerNumberModel.getNumber().intValue();
+                    notifyConfigurationChanged();
+                }
+            });
+
+            builder.addFixed(new JLabel("Max Threads"));
+            builder.addRelatedGap();
+            builder.addFixed(maxThreadCountSpinner);
+
+            configPanel = builder.getPanel();
+
+            stateDependantComponents.add(arrivalRateField);
+            stateDependantComponents.add(maxThreadCountSpinner);
+        }
+
+        return configPanel;
+    }
+
+    /**
+     * Factory for ArrivalRateLoadStrategy class
+     */
+
+    public static class Factory implements LoadStrategyFactory {
+        public String getType() {
+            return STRATEGY_TYPE;
+        }
+
+        public LoadStrategy build(XmlObject config, WsdlLoadTest loadTest) {
+            return new ArrivalRateLoadStrategy(config, loadTest);
+        }
+
+        public LoadStrategy create(WsdlLoadTest loadTest) {
+            return new ArrivalRateLoadStrategy(null, loadTest);
+        }
+    }
+}
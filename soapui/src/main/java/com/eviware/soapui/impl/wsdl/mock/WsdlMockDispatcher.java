@@ -22,6 +22,7 @@ import com.eviware.soapui.impl.rest.RestRequestInterface;
 import com.eviware.soapui.impl.support.definition.export.WsdlDefinitionExporter;
 import com.eviware.soapui.impl.wsdl.WsdlInterface;
 import com.eviware.soapui.impl.wsdl.WsdlOperation;
+import com.eviware.soapui.impl.wsdl.support.soap.SoapEnvelopePeek;
 import com.eviware.soapui.impl.wsdl.support.soap.SoapUtils;
 import com.eviware.soapui.impl.wsdl.support.soap.SoapVersion;
 import com.eviware.soapui.impl.wsdl.support.wsdl.WsdlUtils;
@@ -188,26 +189,30 @@ public class WsdlMockDispatcher extends AbstractMockDispatcher {
                     operation = faultMockOperation.getOperation();
                 }
             } else {
-                try {
-                    operation = SoapUtils.findOperationForRequest(soapVersion, soapAction,
-                            mockRequest.getRequestXmlObject(), mockService.getMockedOperations(),
-                            mockService.isRequireSoapVersion(), mockService.isRequireSoapAction(),
-                            mockRequest.getRequestAttachments());
-                } catch (Exception e) {
-                    if (mockService.isDispatchResponseMessages()) {
-                        try {
-                            operation = SoapUtils.findOperationForResponse(soapVersion, soapAction,
-                                    mockRequest.getRequestXmlObject(), mockService.getMockedOperations(),
-                                    mockService.isRequireSoapVersion(), mockService.isRequireSoapAction());
-
-                            if (operation != null) {
-                                mockRequest.setResponseMessage(true);
+                operation = findIndexedOperation(mockRequest);
+
+                if (operation == null) {
+                    try {
+                        operation = SoapUtils.findOperationForRequest(soapVersion, soapAction,
+                                mockRequest.getRequestXmlObject(), mockService.getMockedOperations(),
+                                mockService.isRequireSoapVersion(), mockService.isRequireSoapAction(),
+                                mockRequest.getRequestAttachments());
+                    } catch (Exception e) {
+                        if (mockService.isDispatchResponseMessages()) {
+                            try {
+                                operation = SoapUtils.findOperationForResponse(soapVersion, soapAction,
+                                        mockRequest.getRequestXmlObject(), mockService.getMockedOperations(),
+                                        mockService.isRequireSoapVersion(), mockService.isRequireSoapAction());
+
+                                if (operation != null) {
+                                    mockRequest.setResponseMessage(true);
+                                }
+                            } catch (Exception e2) {
+                                throw e;
                             }
-                        } catch (Exception e2) {
+                        } else {
                             throw e;
                         }
-                    } else {
-                        throw e;
                     }
                 }
             }
@@ -243,6 +248,23 @@ public class WsdlMockDispatcher extends AbstractMockDispatcher {
         }
     }
 
+    /**
+     * Looks up the operation for the request in the operation index of the
+     * MockService, using only its SOAPAction and first body element; returns
+     * null if the request has to be matched by parsing it
+     */
+
+    private WsdlOperation findIndexedOperation(WsdlMockRequest mockRequest) {
+        SoapEnvelopePeek peek = mockRequest.getEnvelopePeek();
+        if (peek == null || !peek.hasBody() || peek.getSoapVersion() != mockRequest.getSoapVersion()) {
+            return null;
+        }
+
+        return mockService.getOperationIndex().findOperationForRequest(mockRequest.getSoapVersion(),
+                mockRequest.getSoapAction(), peek.getContentElementName(), mockService.isRequireSoapVersion(),
+                mockService.isRequireSoapAction());
+    }
+
     public MockResult dispatchHeadRequest(HttpServletRequest request, HttpServletResponse response)
             throws DispatchException {
         response.setStatus(HttpServletResponse.SC_OK);
@@ -111,6 +111,7 @@ public class WsdlMockOperation extends AbstractMockOperation<MockOperationConfig
             operation.getInterface().getProject().addProjectListener(projectListener);
             operation.getInterface().addInterfaceListener(interfaceListener);
             operation.getInterface().addPropertyChangeListener(WsdlInterface.NAME_PROPERTY, this);
+            operation.addPropertyChangeListener(Operation.ACTION_PROPERTY, this);
         }
     }
 
@@ -244,6 +245,7 @@ public class WsdlMockOperation extends AbstractMockOperation<MockOperationConfig
             operation.getInterface().getProject().removeProjectListener(projectListener);
             operation.getInterface().removeInterfaceListener(interfaceListener);
             operation.getInterface().removePropertyChangeListener(WsdlInterface.NAME_PROPERTY, this);
+            operation.removePropertyChangeListener(Operation.ACTION_PROPERTY, this);
         }
     }
 
@@ -259,6 +261,8 @@ public class WsdlMockOperation extends AbstractMockOperation<MockOperationConfig
             }
         } else if (arg0.getPropertyName().equals(WsdlInterface.NAME_PROPERTY)) {
             getConfig().setInterface(arg0.getNewValue().toString());
+        } else if (arg0.getPropertyName().equals(Operation.ACTION_PROPERTY)) {
+            getMockService().resetOperationIndex();
         }
     }
 
@@ -274,6 +278,7 @@ public class WsdlMockOperation extends AbstractMockOperation<MockOperationConfig
         }
 
         this.operation = operation;
+        getMockService().resetOperationIndex();
 
         notifyPropertyChanged(OPERATION_PROPERTY, oldOperation, operation);
     }
@@ -289,6 +294,7 @@ public class WsdlMockOperation extends AbstractMockOperation<MockOperationConfig
             // such wow - works? equals?
             if (operation == WsdlMockOperation.this.operation) {
                 getConfig().setOperation(operation.getName());
+                getMockService().resetOperationIndex();
             }
         }
 
@@ -313,6 +319,7 @@ public class WsdlMockOperation extends AbstractMockOperation<MockOperationConfig
         public void interfaceUpdated(Interface iface) {
             if (operation.getInterface() == iface) {
                 getConfig().setInterface(iface.getName());
+                getMockService().resetOperationIndex();
             }
         }
     }
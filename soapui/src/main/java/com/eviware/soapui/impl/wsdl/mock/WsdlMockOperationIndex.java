@@ -0,0 +1,170 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.impl.wsdl.mock;
+
+import com.eviware.soapui.impl.wsdl.WsdlOperation;
+import com.eviware.soapui.impl.wsdl.support.soap.SoapVersion;
+import com.eviware.soapui.impl.wsdl.support.wsdl.WsdlUtils;
+import org.apache.log4j.Logger;
+
+import javax.wsdl.BindingOperation;
+import javax.wsdl.Message;
+import javax.wsdl.Part;
+import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the mocked operations of a WsdlMockService by request body element
+ * and SOAPAction, so requests can be dispatched without parsing them and
+ * checking every operation as SoapUtils.findOperationForRequest does.
+ * <p/>
+ * The index only answers when the result is certain to be the same as that of
+ * SoapUtils.findOperationForRequest; operations that need the request content
+ * to be inspected (RPC parts, attachments) make it return null, in which case
+ * the request has to be matched the usual way.
+ */
+
+public class WsdlMockOperationIndex {
+    private final static Logger log = Logger.getLogger(WsdlMockOperationIndex.class);
+
+    private final Map<QName, List<IndexEntry>> operationsByRequestElement = new HashMap<QName, List<IndexEntry>>();
+    private final Map<String, WsdlOperation> operationsWithoutInputByAction = new HashMap<String, WsdlOperation>();
+    private boolean complete = true;
+
+    public WsdlMockOperationIndex(List<WsdlOperation> operations) {
+        for (WsdlOperation operation : operations) {
+            if (operation == null) {
+                continue;
+            }
+
+            try {
+                addOperation(operation);
+            } catch (Exception e) {
+                log.debug("Failed to index operation [" + operation.getName() + "]: " + e);
+                complete = false;
+            }
+        }
+    }
+
+    private void addOperation(WsdlOperation operation) throws Exception {
+        String action = operation.getAction();
+        BindingOperation bindingOperation = operation.getBindingOperation();
+        Message message = bindingOperation.getOperation().getInput().getMessage();
+
+        if (action != null && message.getParts().isEmpty() && !operationsWithoutInputByAction.containsKey(action)) {
+            operationsWithoutInputByAction.put(action, operation);
+        }
+
+        QName elementName = operation.getRequestBodyElementQName();
+        if (elementName == null) {
+            return;
+        }
+
+        List<IndexEntry> entries = operationsByRequestElement.get(elementName);
+        if (entries == null) {
+            entries = new ArrayList<IndexEntry>();
+            operationsByRequestElement.put(elementName, entries);
+        }
+
+        entries.add(new IndexEntry(operation, action, operation.getInterface().getSoapVersion(),
+                isDirectMatch(operation, bindingOperation, message)));
+    }
+
+    /**
+     * Document style operations without attachment parts match any request
+     * with their body element; everything else depends on the request content
+     */
+
+    @SuppressWarnings("unchecked")
+    private static boolean isDirectMatch(WsdlOperation operation, BindingOperation bindingOperation, Message message) {
+        if (!WsdlOperation.STYLE_DOCUMENT.equals(operation.getStyle())) {
+            return false;
+        }
+
+        List<Part> parts = message.getOrderedParts(null);
+        for (Part part : parts) {
+            if (WsdlUtils.isAttachmentInputPart(part, bindingOperation)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the operation SoapUtils.findOperationForRequest would return for
+     * a request with the specified body element, or null if that can't be
+     * decided without the request content or no operation matches.
+     *
+     * @param contentElementName the first element in the SOAP Body, null if the Body is empty
+     */
+
+    public WsdlOperation findOperationForRequest(SoapVersion soapVersion, String soapAction, QName contentElementName,
+                                                 boolean requireSoapVersionMatch, boolean requireSoapActionMatch) {
+        if (!complete) {
+            return null;
+        }
+
+        if (contentElementName == null) {
+            return soapAction == null ? null : operationsWithoutInputByAction.get(soapAction);
+        }
+
+        List<IndexEntry> entries = operationsByRequestElement.get(contentElementName);
+        if (entries == null) {
+            return null;
+        }
+
+        for (IndexEntry entry : entries) {
+            if (requireSoapActionMatch && !entry.matchesAction(soapAction)) {
+                continue;
+            }
+
+            if (requireSoapVersionMatch && entry.soapVersion != soapVersion) {
+                continue;
+            }
+
+            // the first candidate decides; if it needs the content it has to be parsed
+            return entry.directMatch ? entry.operation : null;
+        }
+
+        return null;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    private static class IndexEntry {
+        private final WsdlOperation operation;
+        private final String action;
+        private final SoapVersion soapVersion;
+        private final boolean directMatch;
+
+        public IndexEntry(WsdlOperation operation, String action, SoapVersion soapVersion, boolean directMatch) {
+            this.operation = operation;
+            this.action = action;
+            this.soapVersion = soapVersion;
+            this.directMatch = directMatch;
+        }
+
+        public boolean matchesAction(String soapAction) {
+            return action == null ? soapAction == null : action.equals(soapAction);
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.eviware.soapui.impl.wsdl.mock;
 
 import com.eviware.soapui.SoapUI;
 import com.eviware.soapui.impl.support.AbstractMockRequest;
+import com.eviware.soapui.impl.wsdl.support.soap.SoapEnvelopePeek;
 import com.eviware.soapui.impl.wsdl.support.soap.SoapUtils;
 import com.eviware.soapui.impl.wsdl.support.soap.SoapVersion;
 import com.eviware.soapui.impl.wsdl.support.wss.IncomingWss;
@@ -29,6 +30,7 @@ import org.w3c.dom.Document;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.util.Vector;
@@ -43,6 +45,8 @@ public class WsdlMockRequest extends AbstractMockRequest {
     private SoapVersion soapVersion;
     private String soapAction;
     private Vector<Object> wssResult;
+    private SoapEnvelopePeek envelopePeek;
+    private String peekedContent;
 
     public WsdlMockRequest(HttpServletRequest request, HttpServletResponse response, WsdlMockRunContext context)
             throws Exception {
@@ -81,6 +85,27 @@ public class WsdlMockRequest extends AbstractMockRequest {
     }
 
 
+    /**
+     * Returns the envelope namespace and first body element of the current
+     * request content, read without parsing the whole request, or null if it
+     * is not a well-formed SOAP message
+     */
+
+    public SoapEnvelopePeek getEnvelopePeek() {
+        String content = getRequestContent();
+        if (content != peekedContent) {
+            try {
+                envelopePeek = SoapEnvelopePeek.peek(content);
+            } catch (XMLStreamException e) {
+                envelopePeek = null;
+            }
+
+            peekedContent = content;
+        }
+
+        return envelopePeek;
+    }
+
     public XmlObject getContentElement() throws XmlException {
         return SoapUtils.getContentElement(getRequestXmlObject(), soapVersion);
     }
@@ -128,10 +153,15 @@ public class WsdlMockRequest extends AbstractMockRequest {
     }
 
     private void initSoapVersion(String contentType) {
-        try {
-            soapVersion = SoapUtils.deduceSoapVersion(contentType, getRequestXmlObject());
-        } catch (Exception e) {
-            // ignore non xml requests
+        SoapEnvelopePeek peek = getEnvelopePeek();
+        if (peek != null) {
+            soapVersion = peek.getSoapVersion();
+        } else {
+            try {
+                soapVersion = SoapUtils.deduceSoapVersion(contentType, getRequestXmlObject());
+            } catch (Exception e) {
+                // ignore non xml requests
+            }
         }
 
         if (soapVersion == null) {
@@ -60,6 +60,7 @@ public class WsdlMockService extends AbstractMockService<WsdlMockOperation, Mock
 
     private WsdlMockOperation faultMockOperation;
     private String mockServiceEndpoint;
+    private volatile WsdlMockOperationIndex operationIndex;
     public static final String ICON_NAME = "/soap_virt.png";
     public static final String STRING_ID = "MOCK";
 
@@ -249,6 +250,43 @@ public class WsdlMockService extends AbstractMockService<WsdlMockOperation, Mock
         notifyPropertyChanged(OUTGOING_WSS, old, outgoingWss);
     }
 
+    /**
+     * Returns the index used for dispatching requests to the mocked
+     * operations, building it if the operations have changed since it was
+     * last used
+     */
+
+    public WsdlMockOperationIndex getOperationIndex() {
+        WsdlMockOperationIndex index = operationIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = operationIndex;
+                if (index == null) {
+                    index = new WsdlMockOperationIndex(getMockedOperations());
+                    operationIndex = index;
+                }
+            }
+        }
+
+        return index;
+    }
+
+    public void resetOperationIndex() {
+        operationIndex = null;
+    }
+
+    @Override
+    public void fireMockOperationAdded(MockOperation mockOperation) {
+        resetOperationIndex();
+        super.fireMockOperationAdded(mockOperation);
+    }
+
+    @Override
+    public void fireMockOperationRemoved(MockOperation mockOperation) {
+        resetOperationIndex();
+        super.fireMockOperationRemoved(mockOperation);
+    }
+
     public List<WsdlOperation> getMockedOperations() {
         List<WsdlOperation> result = new ArrayList<WsdlOperation>();
 
@@ -34,6 +34,7 @@ import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.UISupport;
 import com.eviware.soapui.support.components.JXToolBar;
 import com.eviware.soapui.support.components.SimpleBindingForm;
+import com.eviware.soapui.support.xml.XPathExpressionCache;
 import com.eviware.soapui.support.xml.XmlUtils;
 import com.eviware.soapui.ui.support.ModelItemDesktopPanel;
 import com.jgoodies.binding.PresentationModel;
@@ -225,7 +226,7 @@ public class QueryMatchMockOperationDispatcher extends AbstractMockOperationDisp
                     XmlCursor cursor = cursorCache.get(path);
                     if (cursor == null && !cursorCache.containsKey(path)) {
                         cursor = xmlObject.newCursor();
-                        cursor.selectPath(path);
+                        XPathExpressionCache.selectPath(cursor, path);
                         if (!cursor.toNextSelection()) {
                             cursor.dispose();
                             cursor = null;
@@ -52,6 +52,7 @@ import com.eviware.soapui.support.components.JInspectorPanel;
 import com.eviware.soapui.support.components.JInspectorPanelFactory;
 import com.eviware.soapui.support.components.JXToolBar;
 import com.eviware.soapui.support.types.StringList;
+import com.eviware.soapui.support.types.RingBuffer;
 import com.eviware.soapui.support.types.StringToStringsMap;
 import com.eviware.x.form.XFormDialog;
 import com.eviware.x.form.XFormField;
@@ -92,7 +93,8 @@ import java.net.URL;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
-import java.util.Stack;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A SOAP Monitor..
@@ -101,6 +103,8 @@ import java.util.Stack;
 @SuppressWarnings("serial")
 public class SoapMonitor extends JPanel {
     private static final String ALL_FILTER_OPTION = "- all -";
+    public static final String MAX_PENDING_EXCHANGES_PROPERTY = "soapui.monitor.maxPendingExchanges";
+    public static final int DEFAULT_MAX_PENDING_EXCHANGES = 1000;
     private JProgressBar progressBar;
     private JButton stopButton = null;
 
@@ -125,8 +129,9 @@ public class SoapMonitor extends JPanel {
     // private JButton addToRestTestCaseButton;
     private JButton createRequestButton;
     private JButton addToMockServiceButton;
-    private Stack<WsdlMonitorMessageExchange> messageExchangeStack = new Stack<WsdlMonitorMessageExchange>();
-    private StackProcessor stackProcessor = new StackProcessor();
+    private RingBuffer<WsdlMonitorMessageExchange> pendingMessageExchanges = new RingBuffer<WsdlMonitorMessageExchange>(
+            Integer.getInteger(MAX_PENDING_EXCHANGES_PROPERTY, DEFAULT_MAX_PENDING_EXCHANGES));
+    private MessageExchangeProcessor messageExchangeProcessor = new MessageExchangeProcessor();
     private PatternFilter operationFilter;
     private PatternFilter interfaceFilter;
     private PatternFilter targetHostFilter;
@@ -1028,35 +1033,99 @@ public class SoapMonitor extends JPanel {
         return listenPort;
     }
 
-    public synchronized void addMessageExchange(WsdlMonitorMessageExchange messageExchange) {
-        messageExchangeStack.push(messageExchange);
+    /**
+     * Queues the exchange for the log without locking; if exchanges arrive faster
+     * than they can be processed the oldest pending ones are dropped, which is
+     * logged and counted. The number of pending exchanges is set with the
+     * soapui.monitor.maxPendingExchanges system property.
+     */
 
-        if (!stackProcessor.isRunning()) {
-            new Thread(stackProcessor, "SoapMonitor StackProcessor for project [" + getProject().getName() + "]")
-                    .start();
-        }
+    public void addMessageExchange(WsdlMonitorMessageExchange messageExchange) {
+        pendingMessageExchanges.add(messageExchange);
+        messageExchangeProcessor.start();
+    }
+
+    /**
+     * Number of exchanges dropped before they could be added to the log
+     */
+
+    public long getDroppedMessageExchangeCount() {
+        return messageExchangeProcessor.droppedCount.get();
     }
 
-    private class StackProcessor implements Runnable {
-        private boolean canceled;
-        private boolean running;
+    private class MessageExchangeProcessor implements Runnable {
+        private volatile boolean canceled;
+        private final AtomicBoolean running = new AtomicBoolean();
+        private final AtomicLong droppedCount = new AtomicLong();
+        private long nextSequence;
+
+        public void start() {
+            if (running.compareAndSet(false, true)) {
+                new Thread(this, "SoapMonitor MessageExchangeProcessor for project [" + getProject().getName() + "]")
+                        .start();
+            }
+        }
 
         public void run() {
-            running = true;
-            SoapUI.log.info("Started stackprocessor for soapmonitor in project [" + getProject().getName() + "]");
-            while (!canceled && messageExchangeStack.size() > 0) {
-                WsdlMonitorMessageExchange messageExchange = messageExchangeStack.pop();
-                if (messageExchange != null) {
-                    processMessage(messageExchange);
+            SoapUI.log.info("Started message exchange processor for soapmonitor in project [" + getProject().getName()
+                    + "]");
+
+            while (!canceled) {
+                if (!processPendingMessages()) {
+                    running.set(false);
+
+                    // an exchange may have been added after the last check but before running was reset
+                    if (nextSequence >= pendingMessageExchanges.getSequence() || !running.compareAndSet(false, true)) {
+                        break;
+                    }
                 }
 
+                // processes in batches to keep the table from repainting for every exchange
                 try {
                     Thread.sleep(100);
                 } catch (InterruptedException e) {
                     e.printStackTrace();
                 }
             }
-            running = false;
+
+            if (canceled) {
+                running.set(false);
+            }
+        }
+
+        private boolean processPendingMessages() {
+            boolean processed = false;
+
+            while (!canceled && nextSequence < pendingMessageExchanges.getSequence()) {
+                long firstSequence = pendingMessageExchanges.getFirstSequence();
+                if (nextSequence < firstSequence) {
+                    long dropped = firstSequence - nextSequence;
+                    SoapUI.log.warn("SoapMonitor for project [" + getProject().getName() + "] dropped " + dropped
+                            + " message exchanges (" + droppedCount.addAndGet(dropped)
+                            + " in total) that arrived faster than they could be logged, set the "
+                            + MAX_PENDING_EXCHANGES_PROPERTY + " system property to keep more pending");
+                    nextSequence = firstSequence;
+                }
+
+                WsdlMonitorMessageExchange messageExchange = pendingMessageExchanges.get(nextSequence);
+                if (messageExchange == null && nextSequence >= pendingMessageExchanges.getFirstSequence()) {
+                    // claimed by a producer that has not stored it yet
+                    Thread.yield();
+                    continue;
+                }
+
+                if (messageExchange != null) {
+                    processMessage(messageExchange);
+                    processed = true;
+                } else {
+                    // overwritten while being read
+                    droppedCount.incrementAndGet();
+                }
+
+                nextSequence++;
+            }
+
+            return processed;
         }
 
         private synchronized void processMessage(WsdlMonitorMessageExchange messageExchange) {
@@ -1079,7 +1148,7 @@ public class SoapMonitor extends JPanel {
         }
 
         protected boolean isRunning() {
-            return running;
+            return running.get();
         }
     }
 
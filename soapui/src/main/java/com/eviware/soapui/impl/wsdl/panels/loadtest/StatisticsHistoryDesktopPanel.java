@@ -121,6 +121,10 @@ public class StatisticsHistoryDesktopPanel extends DefaultDesktopPanel {
         model.addElement(Statistic.TPS);
         model.addElement(Statistic.ERRORS);
         model.addElement(Statistic.BPS);
+        model.addElement(Statistic.P50);
+        model.addElement(Statistic.P90);
+        model.addElement(Statistic.P99);
+        model.addElement(Statistic.P999);
 
         selectStatisticCombo = new JComboBox(model);
         selectStatisticCombo.addItemListener(new ItemListener() {
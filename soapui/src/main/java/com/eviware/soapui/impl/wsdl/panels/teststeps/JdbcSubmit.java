@@ -28,9 +28,8 @@ import com.eviware.soapui.model.propertyexpansion.PropertyExpander;
 import com.eviware.soapui.model.testsuite.TestProperty;
 import com.eviware.soapui.support.SoapUIException;
 import com.eviware.soapui.support.StringUtils;
-import com.eviware.soapui.support.jdbc.JdbcUtils;
+import com.eviware.soapui.support.jdbc.JdbcConnectionPool;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -48,7 +47,7 @@ public class JdbcSubmit implements Submit, Runnable {
     private long timestamp;
     protected ResultSet resultSet;
     protected PreparedStatement statement;
-    private Connection connection;
+    private JdbcConnectionPool.PooledConnection pooledConnection;
     private long timeTaken;
     private final JdbcRequest request;
     private JdbcResponse response;
@@ -170,9 +169,27 @@ public class JdbcSubmit implements Submit, Runnable {
     }
 
     private void runQuery() throws Exception {
-        prepare();
-        load();
-        createResponse();
+        boolean failed = true;
+        try {
+            prepare();
+            load();
+            createResponse();
+            failed = status == Status.CANCELED;
+        } finally {
+            releaseConnection(failed);
+        }
+    }
+
+    private void releaseConnection(boolean discard) {
+        if (pooledConnection != null) {
+            if (discard) {
+                pooledConnection.discard();
+            } else {
+                pooledConnection.release();
+            }
+            pooledConnection = null;
+            statement = null;
+        }
     }
 
     public void cancelQuery() {
@@ -187,8 +204,8 @@ public class JdbcSubmit implements Submit, Runnable {
 
     private void getDatabaseConnection() throws SQLException, SoapUIException {
         JdbcRequestTestStep testStep = request.getTestStep();
-        connection = JdbcUtils.initConnection(context, testStep.getDriver(), testStep.getConnectionString(),
-                testStep.getPassword());
+        pooledConnection = JdbcConnectionPool.getInstance().getConnection(context, testStep.getDriver(),
+                testStep.getConnectionString(), testStep.getPassword());
         // IMPORTANT: setting as readOnly raises an exception in calling stored
         // procedures!
         // connection.setReadOnly( true );
@@ -231,7 +248,7 @@ public class JdbcSubmit implements Submit, Runnable {
         } else {
             rawSql = PropertyExpander.expandProperties(context, testStep.getQuery());
         }
-        NamedParameterStatement p = new NamedParameterStatement(connection, rawSql);
+        NamedParameterStatement p = pooledConnection.prepareStatement(rawSql);
         for (TestProperty testProperty : props) {
             String value = PropertyExpander.expandProperties(context, testProperty.getValue());
             if (!testProperty.getName().equals(WsdlTestStepWithProperties.RESPONSE_AS_XML)) {
@@ -240,10 +257,13 @@ public class JdbcSubmit implements Submit, Runnable {
         }
         statement = p.getStatement();
 
+        // statements are reused, so settings that are not configured are reset to their defaults
         try {
             if (!StringUtils.isNullOrEmpty(testStep.getQueryTimeout())) {
                 String queryTimeout = PropertyExpander.expandProperties(testStep, testStep.getQueryTimeout());
                 statement.setQueryTimeout(Integer.parseInt(queryTimeout));
+            } else {
+                statement.setQueryTimeout(0);
             }
         } catch (NumberFormatException e) {
             SoapUI.logError(e, "Problem setting timeout");
@@ -253,6 +273,8 @@ public class JdbcSubmit implements Submit, Runnable {
             if (!StringUtils.isNullOrEmpty(testStep.getMaxRows())) {
                 String maxRows = PropertyExpander.expandProperties(testStep, testStep.getMaxRows());
                 statement.setMaxRows(Integer.parseInt(maxRows));
+            } else {
+                statement.setMaxRows(0);
             }
         } catch (NumberFormatException e) {
             SoapUI.logError(e, "Problem setting maxRows");
@@ -261,6 +283,8 @@ public class JdbcSubmit implements Submit, Runnable {
             if (!StringUtils.isNullOrEmpty(testStep.getFetchSize())) {
                 String fetchSize = PropertyExpander.expandProperties(testStep, testStep.getFetchSize());
                 statement.setFetchSize(Integer.parseInt(fetchSize));
+            } else {
+                statement.setFetchSize(0);
             }
         } catch (NumberFormatException e) {
             SoapUI.logError(e, "Problem setting fetchSize");
@@ -279,13 +303,8 @@ public class JdbcSubmit implements Submit, Runnable {
         } catch (Exception e) {
             SoapUI.logError(e);
         } finally {
+            // the connection and its statement go back to the pool in runQuery
             try {
-                if (connection != null) {
-                    connection.close();
-                }
-                if (statement != null) {
-                    statement.close();
-                }
                 if (resultSet != null) {
                     resultSet.close();
                 }
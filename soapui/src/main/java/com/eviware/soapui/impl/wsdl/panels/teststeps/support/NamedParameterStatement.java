@@ -221,6 +221,16 @@ public class NamedParameterStatement {
         }
     }
 
+    /**
+     * Clears the current parameter values, so that the statement can be reused.
+     *
+     * @throws SQLException if an error occurred
+     * @see PreparedStatement#clearParameters()
+     */
+    public void clearParameters() throws SQLException {
+        statement.clearParameters();
+    }
+
     /**
      * Returns the underlying statement.
      *
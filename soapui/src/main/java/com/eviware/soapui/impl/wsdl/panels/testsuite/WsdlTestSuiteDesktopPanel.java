@@ -22,6 +22,7 @@ import com.eviware.soapui.analytics.SoapUIActions;
 import com.eviware.soapui.impl.support.actions.ShowOnlineHelpAction;
 import com.eviware.soapui.impl.wsdl.WsdlTestSuite;
 import com.eviware.soapui.impl.wsdl.actions.testsuite.AddNewTestCaseAction;
+import com.eviware.soapui.impl.wsdl.loadtest.LoadTestExecutor;
 import com.eviware.soapui.impl.wsdl.panels.support.MockTestSuiteRunner;
 import com.eviware.soapui.impl.wsdl.panels.testcase.JTestRunLog;
 import com.eviware.soapui.impl.wsdl.panels.testcase.TestRunLogTestRunListener;
@@ -57,6 +58,7 @@ import javax.swing.AbstractAction;
 import javax.swing.Action;
 import javax.swing.BorderFactory;
 import javax.swing.ButtonGroup;
+import javax.swing.JComboBox;
 import javax.swing.JComponent;
 import javax.swing.JPanel;
 import javax.swing.JProgressBar;
@@ -88,6 +90,7 @@ public class WsdlTestSuiteDesktopPanel extends KeySensitiveModelItemDesktopPanel
     private CancelAction cancelAction = new CancelAction();
     private JToggleButton sequentialButton;
     private JToggleButton parallellButton;
+    private JComboBox executionModeCombo;
     private final InternalTestSuiteListener testSuiteListener = new InternalTestSuiteListener();
     private final InternalTestSuiteRunListener testSuiteRunListener = new InternalTestSuiteRunListener();
     private JTextArea descriptionArea;
@@ -191,6 +194,19 @@ public class WsdlTestSuiteDesktopPanel extends KeySensitiveModelItemDesktopPanel
 
         toolbar.add(sequentialButton);
         toolbar.add(parallellButton);
+
+        executionModeCombo = new JComboBox(LoadTestExecutor.Mode.values());
+        executionModeCombo.setSelectedItem(getModelItem().getExecutionMode());
+        executionModeCombo.setToolTipText("Sets the threads that TestCases are run on when run in parallel");
+        executionModeCombo.addActionListener(new ActionListener() {
+
+            public void actionPerformed(ActionEvent e) {
+                getModelItem().setExecutionMode((LoadTestExecutor.Mode) executionModeCombo.getSelectedItem());
+            }
+        });
+
+        toolbar.addRelatedGap();
+        toolbar.addFixed(executionModeCombo);
     }
 
     private JComponent buildTabs() {
@@ -307,6 +323,7 @@ public class WsdlTestSuiteDesktopPanel extends KeySensitiveModelItemDesktopPanel
         runAction.setEnabled(false);
         cancelAction.setEnabled(testSuiteRunner != null);
         testCaseList.setEnabled(false);
+        executionModeCombo.setEnabled(false);
         progressBar.setForeground(Color.GREEN.darker());
     }
 
@@ -314,6 +331,7 @@ public class WsdlTestSuiteDesktopPanel extends KeySensitiveModelItemDesktopPanel
         runAction.setEnabled(true);
         cancelAction.setEnabled(false);
         testCaseList.setEnabled(true);
+        executionModeCombo.setEnabled(true);
 
         progressBar.setString(String.valueOf(testSuiteRunner.getStatus()));
         progressBar.setForeground(testSuiteRunner.isFailed() ? Color.RED : Color.GREEN.darker());
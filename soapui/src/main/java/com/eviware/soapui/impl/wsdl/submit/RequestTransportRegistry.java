@@ -37,8 +37,10 @@ import com.eviware.soapui.impl.wsdl.submit.filters.WsrmRequestFilter;
 import com.eviware.soapui.impl.wsdl.submit.filters.WssAuthenticationRequestFilter;
 import com.eviware.soapui.impl.wsdl.submit.filters.WssRequestFilter;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.HttpClientRequestTransport;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.NioHttpClientRequestTransport;
 import com.eviware.soapui.impl.wsdl.submit.transports.jms.HermesJmsRequestTransport;
 import com.eviware.soapui.model.iface.SubmitContext;
+import com.eviware.soapui.settings.HttpSettings;
 import com.eviware.soapui.support.factory.SoapUIFactoryRegistryListener;
 
 import java.util.ArrayList;
@@ -57,6 +59,7 @@ public class RequestTransportRegistry {
     public static final String HTTP = "http";
     public static final String HTTPS = "https";
     public static final String JMS = "jms";
+    public static final String HTTP_NIO = "http-nio";
 
     private static Map<String, RequestTransport> transports = new HashMap<String, RequestTransport>();
     private static Map<String, List<RequestFilter>> addedCustomRequestFilters = new HashMap<String, List<RequestFilter>>();
@@ -106,6 +109,7 @@ public class RequestTransportRegistry {
 
         transports.put(HTTP, httpTransport);
         transports.put(HTTPS, httpTransport);
+        transports.put(HTTP_NIO, new NioHttpClientRequestTransport(httpTransport));
 
         jmsTransport.addRequestFilter(new WssAuthenticationRequestFilter());
         jmsTransport.addRequestFilter(new PropertyExpansionRequestFilter());
@@ -220,6 +224,10 @@ public class RequestTransportRegistry {
         }
 
         String protocol = endpoint.substring(0, ix).toLowerCase();
+        if ((protocol.equals(HTTP) || protocol.equals(HTTPS))
+                && SoapUI.getSettings().getBoolean(HttpSettings.NON_BLOCKING_TRANSPORT)) {
+            protocol = HTTP_NIO;
+        }
 
         RequestTransport transport = transports.get(protocol);
 
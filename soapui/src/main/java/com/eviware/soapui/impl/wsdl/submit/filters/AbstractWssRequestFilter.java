@@ -38,6 +38,19 @@ public abstract class AbstractWssRequestFilter extends AbstractRequestFilter {
     protected static DocumentBuilderFactory dbf;
     protected static DocumentBuilder db;
 
+    // one builder per thread, so that concurrent requests do not serialize on parsing
+    private static final ThreadLocal<DocumentBuilder> documentBuilder = new ThreadLocal<DocumentBuilder>() {
+        @Override
+        protected DocumentBuilder initialValue() {
+            try {
+                return dbf.newDocumentBuilder();
+            } catch (ParserConfigurationException e) {
+                SoapUI.logError(e);
+                return null;
+            }
+        }
+    };
+
     static {
         dbf = DocumentBuilderFactory.newInstance();
         dbf.setValidating(false);
@@ -54,14 +67,11 @@ public abstract class AbstractWssRequestFilter extends AbstractRequestFilter {
         String request = (String) context.getProperty(BaseHttpRequestTransport.REQUEST_CONTENT);
         Document doc = (Document) context.getProperty(WSS_DOC);
 
-        // this should be solved with pooling for performance-reasons..
         if (doc == null
                 || ((Integer) context.getProperty(REQUEST_CONTENT_HASH_CODE)).intValue() != request.hashCode()) {
-            synchronized (db) {
-                doc = db.parse(new InputSource(new StringReader(request)));
-                context.setProperty(REQUEST_CONTENT_HASH_CODE, new Integer(request.hashCode()));
-                context.setProperty(WSS_DOC, doc);
-            }
+            doc = documentBuilder.get().parse(new InputSource(new StringReader(request)));
+            context.setProperty(REQUEST_CONTENT_HASH_CODE, new Integer(request.hashCode()));
+            context.setProperty(WSS_DOC, doc);
         }
 
         return doc;
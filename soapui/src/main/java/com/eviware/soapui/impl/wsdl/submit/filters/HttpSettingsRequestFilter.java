@@ -18,9 +18,11 @@ package com.eviware.soapui.impl.wsdl.submit.filters;
 
 import com.eviware.soapui.SoapUI;
 import com.eviware.soapui.impl.support.AbstractHttpRequest;
+import com.eviware.soapui.impl.support.http.HttpRequestInterface;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.BaseHttpRequestTransport;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.ExtendedHttpMethod;
 import com.eviware.soapui.impl.wsdl.support.CompressionSupport;
+import com.eviware.soapui.impl.wsdl.support.http.Http2ClientSupport;
 import com.eviware.soapui.impl.wsdl.support.http.HttpClientSupport;
 import com.eviware.soapui.model.iface.SubmitContext;
 import com.eviware.soapui.model.settings.Settings;
@@ -73,6 +75,13 @@ public class HttpSettingsRequestFilter extends AbstractRequestFilter {
             httpMethod.getParams().setParameter(CoreProtocolPNames.PROTOCOL_VERSION, HttpVersion.HTTP_1_0);
         } else if (httpVersion.equals(HttpSettings.HTTP_VERSION_0_9)) {
             httpMethod.getParams().setParameter(CoreProtocolPNames.PROTOCOL_VERSION, HttpVersion.HTTP_1_1);
+        } else if (httpVersion.equals(HttpSettings.HTTP_VERSION_2_0)) {
+            httpMethod.getParams().setParameter(CoreProtocolPNames.PROTOCOL_VERSION, HttpVersion.HTTP_1_1);
+
+            // only HTTP and REST requests are sent over HTTP/2
+            if (httpRequest instanceof HttpRequestInterface) {
+                Http2ClientSupport.setHttp2(httpMethod, settings.getBoolean(HttpSettings.HTTP2_PRIOR_KNOWLEDGE));
+            }
         }
 
         // max size..
@@ -21,12 +21,12 @@ import com.eviware.soapui.impl.wsdl.WsdlRequest;
 import com.eviware.soapui.impl.wsdl.endpoint.DefaultEndpointStrategy;
 import com.eviware.soapui.impl.wsdl.endpoint.DefaultEndpointStrategy.EndpointDefaults;
 import com.eviware.soapui.impl.wsdl.submit.RequestFilter;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.BaseHttpRequestTransport;
 import com.eviware.soapui.impl.wsdl.support.wss.IncomingWss;
 import com.eviware.soapui.impl.wsdl.support.wss.OutgoingWss;
 import com.eviware.soapui.impl.wsdl.support.wss.WssContainer;
 import com.eviware.soapui.model.iface.SubmitContext;
 import com.eviware.soapui.support.StringUtils;
-import com.eviware.soapui.support.xml.XmlUtils;
 import org.w3c.dom.Document;
 
 public class WssRequestFilter extends AbstractWssRequestFilter implements RequestFilter {
@@ -52,7 +52,10 @@ public class WssRequestFilter extends AbstractWssRequestFilter implements Reques
             try {
                 Document wssDocument = getWssDocument(context);
                 if (!"true".equals(System.getProperty("soapui.savewss"))) {
-                    context.setProperty("PreWssProcessedDocument", XmlUtils.serialize(wssDocument));
+                    // the document was parsed from (or last serialized to) the request content, so that
+                    // string is the pre-WSS snapshot and the DOM does not have to be serialized for it
+                    context.setProperty("PreWssProcessedDocument",
+                            context.getProperty(BaseHttpRequestTransport.REQUEST_CONTENT));
                 }
 
                 outgoingWss.processOutgoing(wssDocument, context);
@@ -33,5 +33,6 @@ public interface BaseHttpRequestTransport extends RequestTransport {
     public static final String REQUEST_CONTENT = "requestContent";
     public static final String RESPONSE = "httpResponse";
     public static final String RESPONSE_PROPERTIES = "httpResponseProperties";
+    public static final String DISCARD_RESPONSE_BODY_STEPS = "discardResponseBodySteps";
     //public static final String SOAPUI_SSL_CONFIG = "soapui.sslConfig";
 }
@@ -59,6 +59,7 @@ public abstract class BaseHttpResponse implements HttpResponse {
     private byte[] rawResponseBody;
     private int requestContentPos = -1;
     private String xmlContent;
+    private String xmlContentSource;
     private Attachment[] attachments = new Attachment[0];
     protected HTMLPageSourceDownloader downloader;
     private int statusCode;
@@ -376,10 +377,17 @@ public abstract class BaseHttpResponse implements HttpResponse {
                 rawRequestData.length - requestContentPos);
     }
 
-    public String getContentAsXml() {
-        if (xmlContent == null) {
+    /**
+     * Creates the XML representation on first access only and keeps it until
+     * the content is changed, so that for example JSON responses that are only
+     * looked at with JSONPath are never converted
+     */
+    public synchronized String getContentAsXml() {
+        String content = getContentAsString();
+        if (xmlContent == null || xmlContentSource != content) {
             MediaTypeHandler typeHandler = MediaTypeHandlerRegistry.getTypeHandler(getContentType());
             xmlContent = (typeHandler == null) ? "<xml/>" : typeHandler.createXmlRepresentation(this);
+            xmlContentSource = content;
         }
         return xmlContent;
     }
@@ -65,6 +65,10 @@ public interface ExtendedHttpMethod extends HttpRequest, HttpUriRequest {
 
     void setDecompress(boolean decompress);
 
+    boolean isDiscardResponseBody();
+
+    void setDiscardResponseBody(boolean discardResponseBody);
+
     void setURI(URI uri);
 
     void setHttpResponse(org.apache.http.HttpResponse httpResponse);
@@ -40,9 +40,11 @@ import com.eviware.soapui.impl.wsdl.submit.transports.http.support.methods.Exten
 import com.eviware.soapui.impl.wsdl.submit.transports.http.support.methods.ExtendedUnlockMethod;
 import com.eviware.soapui.impl.wsdl.support.PathUtils;
 import com.eviware.soapui.impl.wsdl.support.http.HeaderRequestInterceptor;
+import com.eviware.soapui.impl.wsdl.support.http.Http2ClientSupport;
 import com.eviware.soapui.impl.wsdl.support.http.HttpClientSupport;
 import com.eviware.soapui.impl.wsdl.support.http.SoapUIHttpRoute;
 import com.eviware.soapui.impl.wsdl.support.wss.WssCrypto;
+import com.eviware.soapui.impl.wsdl.teststeps.TestRequest;
 import com.eviware.soapui.model.iface.Request;
 import com.eviware.soapui.model.iface.Response;
 import com.eviware.soapui.model.iface.SubmitContext;
@@ -66,6 +68,7 @@ import java.io.IOException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -80,6 +83,15 @@ public class HttpClientRequestTransport implements BaseHttpRequestTransport {
     public HttpClientRequestTransport() {
     }
 
+    /**
+     * Creates a transport sharing the RequestFilters of the specified one, so
+     * filters added to either are applied by both
+     */
+
+    protected HttpClientRequestTransport(HttpClientRequestTransport filterSource) {
+        filters = filterSource.filters;
+    }
+
     public void addRequestFilter(RequestFilter filter) {
         filters.add(filter);
     }
@@ -150,6 +162,7 @@ public class HttpClientRequestTransport implements BaseHttpRequestTransport {
 
         HttpClientSupport.SoapUIHttpClient httpClient = getSoapUIHttpClient();
         ExtendedHttpMethod httpMethod = createHttpMethod(httpRequest);
+        httpMethod.setDiscardResponseBody(isDiscardResponseBody(submitContext, httpRequest));
 
         boolean createdContext = false;
         HttpContext httpContext = (HttpContext) submitContext.getProperty(SubmitContext.HTTP_STATE_PROPERTY);
@@ -297,7 +310,22 @@ public class HttpClientRequestTransport implements BaseHttpRequestTransport {
         return (Response) submitContext.getProperty(BaseHttpRequestTransport.RESPONSE);
     }
 
+    /**
+     * Checks if the LoadTest running this request has determined that nobody
+     * will look at the response body of its TestStep
+     */
+
+    private boolean isDiscardResponseBody(SubmitContext submitContext, AbstractHttpRequestInterface<?> httpRequest) {
+        Object steps = submitContext.getProperty(DISCARD_RESPONSE_BODY_STEPS);
+        return steps instanceof Collection && httpRequest instanceof TestRequest
+                && ((Collection<?>) steps).contains(((TestRequest) httpRequest).getTestStep().getName());
+    }
+
     protected org.apache.http.HttpResponse submitRequest(ExtendedHttpMethod httpMethod, HttpContext httpContext) throws IOException {
+        if (Http2ClientSupport.isHttp2(httpMethod) && Http2ClientSupport.canExecute(httpMethod, httpContext)) {
+            return Http2ClientSupport.execute(httpMethod, httpContext);
+        }
+
         return HttpClientSupport.execute(httpMethod, httpContext);
     }
 
@@ -340,6 +368,7 @@ public class HttpClientRequestTransport implements BaseHttpRequestTransport {
 			getMethod = new ExtendedGetMethod();
 		}
 
+		getMethod.setDiscardResponseBody(httpMethod.isDiscardResponseBody());
 		submitContext.setProperty("httpMethod", getMethod);
 		AbstractHttpRequestInterface<?> httpRequest = (AbstractHttpRequestInterface<?>)submitContext.getProperty(WSDL_REQUEST);
 		filterRequest(submitContext, httpRequest);
@@ -46,6 +46,14 @@ import java.io.InputStream;
  */
 
 public class HttpMethodSupport {
+    private static final byte[] EMPTY_BODY = new byte[0];
+    private static final ThreadLocal<byte[]> drainBuffer = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[8192];
+        }
+    };
+
     private long timeTaken;
     private long startTime;
     private long maxSize;
@@ -57,6 +65,7 @@ public class HttpMethodSupport {
     private String dumpFile;
     private Throwable failureCause;
     private boolean decompress;
+    private boolean discardResponseBody;
     private org.apache.http.HttpResponse httpResponse;
 
     private SoapUIMetrics metrics;
@@ -74,6 +83,20 @@ public class HttpMethodSupport {
         this.decompress = decompress;
     }
 
+    public boolean isDiscardResponseBody() {
+        return discardResponseBody;
+    }
+
+    /**
+     * When set the response entity is only drained and counted, the body
+     * returned by getResponseBody will be empty. Used by LoadTests for
+     * requests whose response content is never looked at.
+     */
+
+    public void setDiscardResponseBody(boolean discardResponseBody) {
+        this.discardResponseBody = discardResponseBody;
+    }
+
     public String getDumpFile() {
         return dumpFile;
     }
@@ -233,6 +256,11 @@ public class HttpMethodSupport {
         }
 
         if (hasHttpResponse() && httpResponse.getEntity() != null) {
+            if (discardResponseBody) {
+                responseBody = drainResponseBody(httpResponse.getEntity());
+                return responseBody;
+            }
+
             long now = System.nanoTime();
             HttpEntity bufferedEntity = new BufferedHttpEntity(httpResponse.getEntity());
             long contentLength = bufferedEntity.getContentLength();
@@ -302,6 +330,36 @@ public class HttpMethodSupport {
         return responseBody;
     }
 
+    /**
+     * Reads the entity into a reusable per-thread buffer, only keeping track of
+     * the number of bytes and the time it took
+     */
+
+    private byte[] drainResponseBody(HttpEntity entity) throws IOException {
+        long now = System.nanoTime();
+        long contentLength = 0;
+
+        InputStream instream = entity.getContent();
+        if (instream != null) {
+            try {
+                byte[] buffer = drainBuffer.get();
+                int count;
+                while ((count = instream.read(buffer)) != -1) {
+                    contentLength += count;
+                }
+            } finally {
+                instream.close();
+            }
+        }
+
+        responseReadTime = System.nanoTime() - now;
+        if (metrics != null) {
+            metrics.setContentLength(contentLength);
+        }
+
+        return EMPTY_BODY;
+    }
+
     public SoapUIMetrics getMetrics() {
         return metrics;
     }
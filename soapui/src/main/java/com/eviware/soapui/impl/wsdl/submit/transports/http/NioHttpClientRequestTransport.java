@@ -0,0 +1,47 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.submit.transports.http;
+
+import com.eviware.soapui.impl.wsdl.support.http.Http2ClientSupport;
+import com.eviware.soapui.impl.wsdl.support.http.NioHttpClientSupport;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+
+/**
+ * HTTP transport that submits requests through the non-blocking
+ * NioHttpClientSupport instead of the pooled blocking HttpClient. The same
+ * RequestFilters and metrics are used as for the blocking transport; HTTP/2
+ * requests and requests the non-blocking client can not handle are sent just
+ * as the blocking transport sends them.
+ */
+
+public class NioHttpClientRequestTransport extends HttpClientRequestTransport {
+    public NioHttpClientRequestTransport(HttpClientRequestTransport filterSource) {
+        super(filterSource);
+    }
+
+    @Override
+    protected org.apache.http.HttpResponse submitRequest(ExtendedHttpMethod httpMethod, HttpContext httpContext)
+            throws IOException {
+        if (Http2ClientSupport.isHttp2(httpMethod) || !NioHttpClientSupport.canExecute(httpMethod, httpContext)) {
+            return super.submitRequest(httpMethod, httpContext);
+        }
+
+        return NioHttpClientSupport.getInstance().execute(httpMethod, httpContext);
+    }
+}
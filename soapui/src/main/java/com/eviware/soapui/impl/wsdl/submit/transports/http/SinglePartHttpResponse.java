@@ -38,6 +38,9 @@ public class SinglePartHttpResponse extends BaseHttpResponse {
     private String requestContent;
     private boolean prettyPrint;
     private long responseSize;
+    private byte[] responseBody;
+    private int contentOffset;
+    private String charset;
 
     public SinglePartHttpResponse(AbstractHttpRequestInterface<?> httpRequest, ExtendedHttpMethod httpMethod,
                                   String requestContent, PropertyExpansionContext context) {
@@ -48,19 +51,21 @@ public class SinglePartHttpResponse extends BaseHttpResponse {
         }
 
         try {
-            byte[] responseBody = httpMethod.getResponseBody();
-            int contentOffset = 0;
+            responseBody = httpMethod.getResponseBody();
             if (responseBody == null) {
                 responseBody = new byte[0];
             }
 
             responseSize = responseBody.length;
+            if (httpMethod.isDiscardResponseBody() && httpMethod.getMetrics() != null) {
+                responseSize = httpMethod.getMetrics().getContentLength();
+            }
 
             String contentType = httpMethod.getResponseContentType();
-            String charset = httpMethod.getResponseCharSet();
+            charset = httpMethod.getResponseCharSet();
 
             if (contentType != null && contentType.toLowerCase().endsWith("xml")) {
-                if (responseSize > 3 && responseBody[0] == (byte) 239 && responseBody[1] == (byte) 187
+                if (responseBody.length > 3 && responseBody[0] == (byte) 239 && responseBody[1] == (byte) 187
                         && responseBody[2] == (byte) 191) {
                     charset = "UTF-8";
                     contentOffset = 3;
@@ -73,22 +78,36 @@ public class SinglePartHttpResponse extends BaseHttpResponse {
 
             charset = StringUtils.unquote(charset);
 
-            try {
-                responseContent = responseBody.length == 0 ? null : charset == null ? new String(responseBody,
-                        contentOffset, (int) (responseSize - contentOffset)) : new String(responseBody, contentOffset,
-                        (int) (responseSize - contentOffset), charset);
-            } catch (UnsupportedEncodingException e) {
-                SoapUI.getErrorLog().warn(e.toString());
-                responseContent = new String(responseBody, contentOffset, (int) (responseSize - contentOffset));
-            }
-
             prettyPrint = httpRequest.getSettings().getBoolean(WsdlSettings.PRETTY_PRINT_RESPONSE_MESSAGES);
         } catch (Exception e) {
             SoapUI.logError(e);
         }
     }
 
+    /**
+     * Decodes the response body on first access only, so responses that are
+     * never looked at (for example in LoadTests) are not turned into Strings
+     */
+
+    private synchronized void decodeResponseContent() {
+        if (responseBody == null) {
+            return;
+        }
+
+        int length = responseBody.length - contentOffset;
+        try {
+            responseContent = responseBody.length == 0 ? null : charset == null ? new String(responseBody,
+                    contentOffset, length) : new String(responseBody, contentOffset, length, charset);
+        } catch (UnsupportedEncodingException e) {
+            SoapUI.getErrorLog().warn(e.toString());
+            responseContent = new String(responseBody, contentOffset, length);
+        }
+
+        responseBody = null;
+    }
+
     public String getContentAsString() {
+        decodeResponseContent();
         if (prettyPrint) {
             responseContent = XmlUtils.prettyPrintXml(responseContent);
             prettyPrint = false;
@@ -98,6 +117,7 @@ public class SinglePartHttpResponse extends BaseHttpResponse {
     }
 
     protected String getResponseContent() {
+        decodeResponseContent();
         return responseContent;
     }
 
@@ -110,6 +130,7 @@ public class SinglePartHttpResponse extends BaseHttpResponse {
     }
 
     public void setResponseContent(String responseContent) {
+        decodeResponseContent();
         String oldContent = this.responseContent;
         this.responseContent = responseContent;
 
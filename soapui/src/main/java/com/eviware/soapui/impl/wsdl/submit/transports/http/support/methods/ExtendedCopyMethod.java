@@ -111,6 +111,14 @@ public class ExtendedCopyMethod extends HttpCopyMethod implements ExtendedHttpMe
         httpMethodSupport.setDecompress(decompress);
     }
 
+    public boolean isDiscardResponseBody() {
+        return httpMethodSupport.isDiscardResponseBody();
+    }
+
+    public void setDiscardResponseBody(boolean discardResponseBody) {
+        httpMethodSupport.setDiscardResponseBody(discardResponseBody);
+    }
+
     @Override
     public void setHttpResponse(HttpResponse httpResponse) {
         httpMethodSupport.setHttpResponse(httpResponse);
@@ -139,6 +139,14 @@ public final class ExtendedDeleteMethod extends HttpDeleteWithBody implements Ex
         httpMethodSupport.setDecompress(decompress);
     }
 
+    public boolean isDiscardResponseBody() {
+        return httpMethodSupport.isDiscardResponseBody();
+    }
+
+    public void setDiscardResponseBody(boolean discardResponseBody) {
+        httpMethodSupport.setDiscardResponseBody(discardResponseBody);
+    }
+
     public void setHttpResponse(HttpResponse httpResponse) {
         httpMethodSupport.setHttpResponse(httpResponse);
     }
@@ -148,6 +148,14 @@ public final class ExtendedGenericMethod extends HttpPost implements ExtendedEnt
         httpMethodSupport.setDecompress(decompress);
     }
 
+    public boolean isDiscardResponseBody() {
+        return httpMethodSupport.isDiscardResponseBody();
+    }
+
+    public void setDiscardResponseBody(boolean discardResponseBody) {
+        httpMethodSupport.setDiscardResponseBody(discardResponseBody);
+    }
+
     public void setHttpResponse(HttpResponse httpResponse) {
         httpMethodSupport.setHttpResponse(httpResponse);
     }
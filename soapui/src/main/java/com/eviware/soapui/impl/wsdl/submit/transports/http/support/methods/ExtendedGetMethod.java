@@ -134,6 +134,14 @@ public final class ExtendedGetMethod extends HttpGet implements ExtendedHttpMeth
         httpMethodSupport.setDecompress(decompress);
     }
 
+    public boolean isDiscardResponseBody() {
+        return httpMethodSupport.isDiscardResponseBody();
+    }
+
+    public void setDiscardResponseBody(boolean discardResponseBody) {
+        httpMethodSupport.setDiscardResponseBody(discardResponseBody);
+    }
+
     public HttpEntity getEntity() {
         return null;
     }
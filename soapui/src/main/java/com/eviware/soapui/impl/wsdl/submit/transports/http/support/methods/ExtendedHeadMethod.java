@@ -135,6 +135,14 @@ public final class ExtendedHeadMethod extends HttpHead implements ExtendedHttpMe
         httpMethodSupport.setDecompress(decompress);
     }
 
+    public boolean isDiscardResponseBody() {
+        return httpMethodSupport.isDiscardResponseBody();
+    }
+
+    public void setDiscardResponseBody(boolean discardResponseBody) {
+        httpMethodSupport.setDiscardResponseBody(discardResponseBody);
+    }
+
     public void setHttpResponse(HttpResponse httpResponse) {
         httpMethodSupport.setHttpResponse(httpResponse);
     }
@@ -25,15 +25,11 @@ import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageConsumer;
 import javax.jms.Queue;
-import javax.jms.Session;
 import javax.jms.Topic;
 
 public class HermesJmsRequestPublishReceiveTransport extends HermesJmsRequestTransport {
 
     public Response execute(SubmitContext submitContext, Request request, long timeStarted) throws Exception {
-        Session topicSession = null;
-        Session queueSession = null;
-
         JMSConnectionHolder jmsConnectionHolderTopic = null;
         JMSConnectionHolder jmsConnectionHolderQueue = null;
         try {
@@ -41,36 +37,31 @@ public class HermesJmsRequestPublishReceiveTransport extends HermesJmsRequestTra
             jmsConnectionHolderTopic = new JMSConnectionHolder(jmsEndpoint, hermes, true, clientID, username, password);
             jmsConnectionHolderQueue = new JMSConnectionHolder(jmsEndpoint, hermes, false, null, username, password);
 
-            // session
-            topicSession = jmsConnectionHolderTopic.getSession();
-            queueSession = jmsConnectionHolderQueue.getSession();
-
             // destination
             Topic topicPublish = jmsConnectionHolderTopic.getTopic(jmsConnectionHolderTopic.getJmsEndpoint().getSend());
             Queue queueReceive = jmsConnectionHolderQueue
                     .getQueue(jmsConnectionHolderQueue.getJmsEndpoint().getReceive());
 
-            Message messagePublish = messagePublish(submitContext, request, topicSession,
-                    jmsConnectionHolderTopic.getHermes(), topicPublish, queueReceive);
-
-            MessageConsumer messageConsumer = queueSession.createConsumer(queueReceive,
+            // consumer is created before publishing so that the reply cannot be missed
+            MessageConsumer messageConsumer = jmsConnectionHolderQueue.getConsumer(queueReceive,
                     submitContext.expand(messageSelector));
 
+            Message messagePublish = messagePublish(submitContext, request, jmsConnectionHolderTopic, topicPublish,
+                    queueReceive);
+
             return makeResponse(submitContext, request, timeStarted, messagePublish, messageConsumer);
         } catch (JMSException jmse) {
-            return errorResponse(submitContext, request, timeStarted, jmse);
+            return errorResponse(submitContext, request, timeStarted, jmse, jmsConnectionHolderTopic,
+                    jmsConnectionHolderQueue);
         } catch (Throwable t) {
             SoapUI.logError(t);
         } finally {
             if (jmsConnectionHolderQueue != null) {
                 jmsConnectionHolderQueue.closeAll();
             }
-
-            closeSessionAndConnection(jmsConnectionHolderQueue != null ? jmsConnectionHolderQueue.getConnection() : null,
-                    queueSession);
-            closeSessionAndConnection(jmsConnectionHolderTopic != null ? jmsConnectionHolderTopic.getConnection() : null,
-                    topicSession);
-
+            if (jmsConnectionHolderTopic != null) {
+                jmsConnectionHolderTopic.closeAll();
+            }
         }
         return null;
 
@@ -24,14 +24,12 @@ import com.eviware.soapui.support.StringUtils;
 
 import javax.jms.JMSException;
 import javax.jms.Message;
-import javax.jms.Session;
 import javax.jms.Topic;
 import javax.jms.TopicSubscriber;
 
 public class HermesJmsRequestPublishSubscribeTransport extends HermesJmsRequestTransport {
 
     public Response execute(SubmitContext submitContext, Request request, long timeStarted) throws Exception {
-        Session topicSession = null;
         TopicSubscriber topicDurableSubsriber = null;
         JMSConnectionHolder jmsConnectionHolder = null;
         try {
@@ -40,32 +38,26 @@ public class HermesJmsRequestPublishSubscribeTransport extends HermesJmsRequestT
                     + jmsEndpoint.getReceive();
             jmsConnectionHolder = new JMSConnectionHolder(jmsEndpoint, hermes, true, clientIDString, username, password);
 
-            // session
-            topicSession = jmsConnectionHolder.getSession();
-
             // destination
             Topic topicPublish = jmsConnectionHolder.getTopic(jmsConnectionHolder.getJmsEndpoint().getSend());
             Topic topicSubscribe = jmsConnectionHolder.getTopic(jmsConnectionHolder.getJmsEndpoint().getReceive());
 
-            topicDurableSubsriber = createDurableSubscription(submitContext, topicSession, jmsConnectionHolder);
+            topicDurableSubsriber = createDurableSubscription(submitContext, jmsConnectionHolder.getSession(),
+                    jmsConnectionHolder);
 
-            Message messagePublish = messagePublish(submitContext, request, topicSession,
-                    jmsConnectionHolder.getHermes(), topicPublish, topicSubscribe);
+            Message messagePublish = messagePublish(submitContext, request, jmsConnectionHolder, topicPublish,
+                    topicSubscribe);
 
             return makeResponse(submitContext, request, timeStarted, messagePublish, topicDurableSubsriber);
         } catch (JMSException jmse) {
-            return errorResponse(submitContext, request, timeStarted, jmse);
+            return errorResponse(submitContext, request, timeStarted, jmse, jmsConnectionHolder);
         } catch (Throwable t) {
             SoapUI.logError(t);
         } finally {
-            if (topicDurableSubsriber != null) {
-                topicDurableSubsriber.close();
-            }
+            closeDurableSubscriber(topicDurableSubsriber, jmsConnectionHolder);
             if (jmsConnectionHolder != null) {
                 jmsConnectionHolder.closeAll();
             }
-            closeSessionAndConnection(jmsConnectionHolder != null ? jmsConnectionHolder.getConnection() : null,
-                    topicSession);
         }
         return null;
     }
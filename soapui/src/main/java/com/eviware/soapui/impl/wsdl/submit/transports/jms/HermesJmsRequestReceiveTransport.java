@@ -24,38 +24,32 @@ import com.eviware.soapui.model.iface.SubmitContext;
 import javax.jms.JMSException;
 import javax.jms.MessageConsumer;
 import javax.jms.Queue;
-import javax.jms.Session;
 
 public class HermesJmsRequestReceiveTransport extends HermesJmsRequestTransport {
 
     public Response execute(SubmitContext submitContext, Request request, long timeStarted) throws Exception {
-        Session queueSession = null;
         JMSConnectionHolder jmsConnectionHolder = null;
         try {
             init(submitContext, request);
             jmsConnectionHolder = new JMSConnectionHolder(jmsEndpoint, hermes, false, clientID, username, password);
 
-            // session
-            queueSession = jmsConnectionHolder.getSession();
-
             // destination
             Queue queue = jmsConnectionHolder.getQueue(jmsConnectionHolder.getJmsEndpoint().getReceive());
 
             // consumer
-            MessageConsumer messageConsumer = queueSession.createConsumer(queue, submitContext.expand(messageSelector));
+            MessageConsumer messageConsumer = jmsConnectionHolder.getConsumer(queue,
+                    submitContext.expand(messageSelector));
 
             return makeResponse(submitContext, request, timeStarted, null, messageConsumer);
 
         } catch (JMSException jmse) {
-            return errorResponse(submitContext, request, timeStarted, jmse);
+            return errorResponse(submitContext, request, timeStarted, jmse, jmsConnectionHolder);
         } catch (Throwable t) {
             SoapUI.logError(t);
         } finally {
             if (jmsConnectionHolder != null) {
                 jmsConnectionHolder.closeAll();
             }
-            closeSessionAndConnection(jmsConnectionHolder != null ? jmsConnectionHolder.getConnection() : null,
-                    queueSession);
         }
         return null;
     }
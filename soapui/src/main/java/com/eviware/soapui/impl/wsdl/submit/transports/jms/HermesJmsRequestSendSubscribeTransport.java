@@ -25,15 +25,12 @@ import com.eviware.soapui.support.StringUtils;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.Queue;
-import javax.jms.Session;
 import javax.jms.Topic;
 import javax.jms.TopicSubscriber;
 
 public class HermesJmsRequestSendSubscribeTransport extends HermesJmsRequestTransport {
 
     public Response execute(SubmitContext submitContext, Request request, long timeStarted) throws Exception {
-        Session topicSession = null;
-        Session queueSession = null;
         TopicSubscriber topicDurableSubsriber = null;
         JMSConnectionHolder jmsConnectionHolderTopic = null;
         JMSConnectionHolder jmsConnectionHolderQueue = null;
@@ -44,38 +41,31 @@ public class HermesJmsRequestSendSubscribeTransport extends HermesJmsRequestTran
             jmsConnectionHolderTopic = new JMSConnectionHolder(jmsEndpoint, hermes, true, clientIDString, username,
                     password);
             jmsConnectionHolderQueue = new JMSConnectionHolder(jmsEndpoint, hermes, false, null, username, password);
-            // session
-            topicSession = jmsConnectionHolderTopic.getSession();
-            queueSession = jmsConnectionHolderQueue.getSession();
 
             Queue queueSend = jmsConnectionHolderQueue.getQueue(jmsConnectionHolderQueue.getJmsEndpoint().getSend());
 
             Topic topicSubscribe = jmsConnectionHolderTopic.getTopic(jmsConnectionHolderTopic.getJmsEndpoint()
                     .getReceive());
-            topicDurableSubsriber = createDurableSubscription(submitContext, topicSession, jmsConnectionHolderTopic);
+            topicDurableSubsriber = createDurableSubscription(submitContext, jmsConnectionHolderTopic.getSession(),
+                    jmsConnectionHolderTopic);
 
-            Message textMessageSend = messageSend(submitContext, request, queueSession,
-                    jmsConnectionHolderQueue.getHermes(), queueSend, topicSubscribe);
+            Message textMessageSend = messageSend(submitContext, request, jmsConnectionHolderQueue, queueSend,
+                    topicSubscribe);
 
             return makeResponse(submitContext, request, timeStarted, textMessageSend, topicDurableSubsriber);
         } catch (JMSException jmse) {
-            return errorResponse(submitContext, request, timeStarted, jmse);
+            return errorResponse(submitContext, request, timeStarted, jmse, jmsConnectionHolderTopic,
+                    jmsConnectionHolderQueue);
         } catch (Throwable t) {
             SoapUI.logError(t);
         } finally {
-            if (topicDurableSubsriber != null) {
-                topicDurableSubsriber.close();
-            }
+            closeDurableSubscriber(topicDurableSubsriber, jmsConnectionHolderTopic);
             if (jmsConnectionHolderQueue != null) {
                 jmsConnectionHolderQueue.closeAll();
             }
             if (jmsConnectionHolderTopic != null) {
                 jmsConnectionHolderTopic.closeAll();
             }
-            closeSessionAndConnection(jmsConnectionHolderQueue != null ? jmsConnectionHolderQueue.getConnection() : null,
-                    queueSession);
-            closeSessionAndConnection(jmsConnectionHolderTopic != null ? jmsConnectionHolderTopic.getConnection() : null,
-                    topicSession);
         }
         return null;
     }
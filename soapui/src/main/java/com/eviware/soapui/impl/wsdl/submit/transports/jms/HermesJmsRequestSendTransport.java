@@ -24,37 +24,29 @@ import com.eviware.soapui.model.iface.SubmitContext;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.Queue;
-import javax.jms.Session;
 
 public class HermesJmsRequestSendTransport extends HermesJmsRequestTransport {
 
     public Response execute(SubmitContext submitContext, Request request, long timeStarted) throws Exception {
-        Session queueSession = null;
         JMSConnectionHolder jmsConnectionHolder = null;
         try {
             init(submitContext, request);
             jmsConnectionHolder = new JMSConnectionHolder(jmsEndpoint, hermes, false, clientID, username, password);
 
-            // session
-            queueSession = jmsConnectionHolder.getSession();
-
             // queue
             Queue queueSend = jmsConnectionHolder.getQueue(jmsConnectionHolder.getJmsEndpoint().getSend());
 
-            Message messageSend = messageSend(submitContext, request, queueSession, jmsConnectionHolder.getHermes(),
-                    queueSend, null);
+            Message messageSend = messageSend(submitContext, request, jmsConnectionHolder, queueSend, null);
 
             return makeEmptyResponse(submitContext, request, timeStarted, messageSend);
         } catch (JMSException jmse) {
-            return errorResponse(submitContext, request, timeStarted, jmse);
+            return errorResponse(submitContext, request, timeStarted, jmse, jmsConnectionHolder);
         } catch (Throwable t) {
             SoapUI.logError(t);
         } finally {
             if (jmsConnectionHolder != null) {
                 jmsConnectionHolder.closeAll();
             }
-            closeSessionAndConnection(jmsConnectionHolder != null ? jmsConnectionHolder.getConnection() : null,
-                    queueSession);
         }
         return null;
     }
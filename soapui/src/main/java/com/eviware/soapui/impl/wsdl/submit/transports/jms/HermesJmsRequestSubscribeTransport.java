@@ -23,13 +23,11 @@ import com.eviware.soapui.model.iface.SubmitContext;
 import com.eviware.soapui.support.StringUtils;
 
 import javax.jms.JMSException;
-import javax.jms.Session;
 import javax.jms.TopicSubscriber;
 
 public class HermesJmsRequestSubscribeTransport extends HermesJmsRequestTransport {
 
     public Response execute(SubmitContext submitContext, Request request, long timeStarted) throws Exception {
-        Session topicSession = null;
         TopicSubscriber topicDurableSubsriber = null;
         JMSConnectionHolder jmsConnectionHolder = null;
         try {
@@ -38,25 +36,20 @@ public class HermesJmsRequestSubscribeTransport extends HermesJmsRequestTranspor
                     + jmsEndpoint.getReceive();
             jmsConnectionHolder = new JMSConnectionHolder(jmsEndpoint, hermes, true, clientIDString, username, password);
 
-            // session
-            topicSession = jmsConnectionHolder.getSession();
             // destination
-            topicDurableSubsriber = createDurableSubscription(submitContext, topicSession, jmsConnectionHolder);
+            topicDurableSubsriber = createDurableSubscription(submitContext, jmsConnectionHolder.getSession(),
+                    jmsConnectionHolder);
 
             return makeResponse(submitContext, request, timeStarted, null, topicDurableSubsriber);
         } catch (JMSException jmse) {
-            return errorResponse(submitContext, request, timeStarted, jmse);
+            return errorResponse(submitContext, request, timeStarted, jmse, jmsConnectionHolder);
         } catch (Throwable t) {
             SoapUI.logError(t);
         } finally {
-            if (topicDurableSubsriber != null) {
-                topicDurableSubsriber.close();
-            }
+            closeDurableSubscriber(topicDurableSubsriber, jmsConnectionHolder);
             if (jmsConnectionHolder != null) {
                 jmsConnectionHolder.closeAll();
             }
-            closeSessionAndConnection(jmsConnectionHolder != null ? jmsConnectionHolder.getConnection() : null,
-                    topicSession);
         }
         return null;
     }
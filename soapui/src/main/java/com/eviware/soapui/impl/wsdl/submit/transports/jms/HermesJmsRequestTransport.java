@@ -228,27 +228,37 @@ public class HermesJmsRequestTransport implements RequestTransport {
         }
     }
 
-    protected Response errorResponse(SubmitContext submitContext, Request request, long timeStarted, JMSException jmse) {
+    protected Response errorResponse(SubmitContext submitContext, Request request, long timeStarted, JMSException jmse,
+                                     JMSConnectionHolder... jmsConnectionHolders) {
         JMSResponse response;
         SoapUI.logError(jmse);
+        for (JMSConnectionHolder jmsConnectionHolder : jmsConnectionHolders) {
+            if (jmsConnectionHolder != null) {
+                jmsConnectionHolder.invalidate();
+            }
+        }
         submitContext.setProperty(JMS_ERROR, jmse);
         response = new JMSResponse("", null, null, request, timeStarted);
         submitContext.setProperty(JMS_RESPONSE, response);
         return response;
     }
 
-    protected Message messageSend(SubmitContext submitContext, Request request, Session session, Hermes hermes,
-                                  Queue queueSend, Destination replyToDestination) throws JMSException {
-        MessageProducer messageProducer = session.createProducer(queueSend);
-        Message messageSend = createMessage(submitContext, request, session);
-        return send(submitContext, request, hermes, messageProducer, messageSend, replyToDestination);
+    protected Message messageSend(SubmitContext submitContext, Request request,
+                                  JMSConnectionHolder jmsConnectionHolder, Queue queueSend,
+                                  Destination replyToDestination) throws JMSException {
+        MessageProducer messageProducer = jmsConnectionHolder.getProducer(queueSend);
+        Message messageSend = createMessage(submitContext, request, jmsConnectionHolder.getSession());
+        return send(submitContext, request, jmsConnectionHolder.getHermes(), messageProducer, messageSend,
+                replyToDestination);
     }
 
-    protected Message messagePublish(SubmitContext submitContext, Request request, Session topicSession, Hermes hermes,
-                                     Topic topicPublish, Destination replyToDestination) throws JMSException {
-        MessageProducer topicPublisher = topicSession.createProducer(topicPublish);
-        Message messagePublish = createMessage(submitContext, request, topicSession);
-        return send(submitContext, request, hermes, topicPublisher, messagePublish, replyToDestination);
+    protected Message messagePublish(SubmitContext submitContext, Request request,
+                                     JMSConnectionHolder jmsConnectionHolder, Topic topicPublish,
+                                     Destination replyToDestination) throws JMSException {
+        MessageProducer topicPublisher = jmsConnectionHolder.getProducer(topicPublish);
+        Message messagePublish = createMessage(submitContext, request, jmsConnectionHolder.getSession());
+        return send(submitContext, request, jmsConnectionHolder.getHermes(), topicPublisher, messagePublish,
+                replyToDestination);
     }
 
     private Message send(SubmitContext submitContext, Request request, Hermes hermes, MessageProducer messageProducer,
@@ -262,7 +272,7 @@ public class HermesJmsRequestTransport implements RequestTransport {
     protected Response makeResponse(SubmitContext submitContext, Request request, long timeStarted,
                                     Message messageSend, MessageConsumer messageConsumer) throws JMSException {
         long timeout = getTimeout(submitContext, request);
-        Message messageReceive = messageConsumer.receive(timeout);
+        Message messageReceive = receiveReply(messageConsumer, messageSend, timeout);
         if (messageReceive != null) {
             JMSResponse response = resolveMessage(request, timeStarted, messageSend, messageReceive);
             submitContext.setProperty(IS_JMS_MESSAGE_RECEIVED, true);
@@ -273,6 +283,41 @@ public class HermesJmsRequestTransport implements RequestTransport {
         }
     }
 
+    /**
+     * Receives the reply to the sent message. On the reused temporary reply
+     * destination of a pooled session, replies correlated with another message
+     * are skipped; these are late replies to earlier requests that timed out
+     */
+
+    static Message receiveReply(MessageConsumer messageConsumer, Message messageSend, long timeout)
+            throws JMSException {
+        long deadline = System.currentTimeMillis() + timeout;
+        Message messageReceive = messageConsumer.receive(timeout);
+        if (messageSend == null || !JMSConnectionPool.isReplyConsumer(messageConsumer)) {
+            return messageReceive;
+        }
+
+        while (messageReceive != null && !isReplyTo(messageSend, messageReceive)) {
+            SoapUI.log.warn("Discarded JMS reply with JMSCorrelationID [" + messageReceive.getJMSCorrelationID()
+                    + "] not matching the sent message [" + messageSend.getJMSMessageID() + "]");
+
+            long remaining = deadline - System.currentTimeMillis();
+            if (timeout > 0 && remaining <= 0) {
+                return null;
+            }
+
+            messageReceive = messageConsumer.receive(timeout > 0 ? remaining : timeout);
+        }
+
+        return messageReceive;
+    }
+
+    private static boolean isReplyTo(Message messageSend, Message messageReceive) throws JMSException {
+        String correlationID = messageReceive.getJMSCorrelationID();
+        return correlationID == null || correlationID.equals(messageSend.getJMSMessageID())
+                || correlationID.equals(messageSend.getJMSCorrelationID());
+    }
+
     private JMSResponse resolveMessage(Request request, long timeStarted, Message messageSend, Message messageReceive)
             throws JMSException {
         if (messageReceive instanceof TextMessage) {
@@ -452,6 +497,22 @@ public class HermesJmsRequestTransport implements RequestTransport {
         return topicDurableSubsriber;
     }
 
+    protected void closeDurableSubscriber(TopicSubscriber topicDurableSubsriber,
+                                          JMSConnectionHolder jmsConnectionHolder) {
+        if (topicDurableSubsriber == null) {
+            return;
+        }
+
+        try {
+            topicDurableSubsriber.close();
+        } catch (JMSException e) {
+            SoapUI.logError(e);
+            if (jmsConnectionHolder != null) {
+                jmsConnectionHolder.invalidate();
+            }
+        }
+    }
+
     @SuppressWarnings("serial")
     public static class UnresolvedJMSEndpointException extends Exception {
         public UnresolvedJMSEndpointException(String msg) {
@@ -23,14 +23,21 @@ import hermes.Hermes;
 
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
 import javax.jms.JMSException;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
 import javax.jms.Queue;
 import javax.jms.Session;
 import javax.jms.Topic;
 import javax.naming.NamingException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * class that holds jms connections and sessions
+ * class that holds jms connections and sessions; unless pooling is disabled
+ * these are borrowed from the {@link JMSConnectionPool} and returned by
+ * {@link #closeAll()}
  *
  * @author nebojsa.tasic
  */
@@ -38,6 +45,10 @@ public class JMSConnectionHolder {
     private ConnectionFactory connectionFactory = null;
     private Connection connection = null;
     private Session session = null;
+    private JMSConnectionPool.PooledConnection pooledConnection;
+    private JMSConnectionPool.PooledSession pooledSession;
+    private List<MessageConsumer> consumers = new ArrayList<MessageConsumer>();
+    private boolean invalid;
 
     private JMSEndpoint jmsEndpoint;
     private Hermes hermes;
@@ -61,14 +72,20 @@ public class JMSConnectionHolder {
             this.clientID = clientID;
 
             connectionFactory = (ConnectionFactory) hermes.getConnectionFactory();
-            connection = createConnection(connectionFactory, isTopicDomain ? Domain.TOPIC : Domain.QUEUE, clientID,
-                    username, password);
-            connection.start();
+            if (JMSConnectionPool.isPoolingEnabled()) {
+                pooledConnection = JMSConnectionPool.getInstance().getConnection(hermes, connectionFactory,
+                        isTopicDomain, clientID, username, password);
+                connection = pooledConnection.getConnection();
+            } else {
+                connection = createConnection(connectionFactory, isTopicDomain ? Domain.TOPIC : Domain.QUEUE, clientID,
+                        username, password);
+                connection.start();
+            }
 
         } catch (Throwable t) {
             SoapUI.logError(t);
 
-            if (connection != null) {
+            if (connection != null && pooledConnection == null) {
                 connection.close();
             }
 
@@ -120,7 +137,8 @@ public class JMSConnectionHolder {
      */
     public Topic getTopic(String name) throws JMSException, NamingException {
         if (name == null || name.isEmpty()) {
-            return getSession().createTemporaryTopic();
+            getSession();
+            return pooledSession != null ? pooledSession.getTemporaryTopic() : session.createTemporaryTopic();
         } else {
             return (Topic) getHermes().getDestination(name, Domain.TOPIC);
         }
@@ -134,7 +152,8 @@ public class JMSConnectionHolder {
      */
     public Queue getQueue(String name) throws JMSException, NamingException {
         if (name == null || name.isEmpty()) {
-            return getSession().createTemporaryQueue();
+            getSession();
+            return pooledSession != null ? pooledSession.getTemporaryQueue() : session.createTemporaryQueue();
         } else {
             return (Queue) getHermes().getDestination(name, Domain.QUEUE);
         }
@@ -146,15 +165,77 @@ public class JMSConnectionHolder {
      */
     public Session getSession() throws JMSException {
         if (session == null) {
+            if (pooledConnection != null) {
+                pooledSession = pooledConnection.borrowSession();
+                return session = pooledSession.getSession();
+            }
             return session = getConnection().createSession(false, Session.AUTO_ACKNOWLEDGE);
         }
         return session;
     }
 
     /**
-     * closes sessions and connections
+     * returns a producer for the destination, cached by the session when pooled
+     *
+     * @return MessageProducer
+     * @throws JMSException
+     */
+    public MessageProducer getProducer(Destination destination) throws JMSException {
+        getSession();
+        return pooledSession != null ? pooledSession.getProducer(destination) : session.createProducer(destination);
+    }
+
+    /**
+     * returns a consumer for the destination; consumers of the temporary reply
+     * destinations of a pooled session are shared between requests, all others
+     * are closed by {@link #closeAll()}
+     *
+     * @return MessageConsumer
+     * @throws JMSException
+     */
+    public MessageConsumer getConsumer(Destination destination, String messageSelector) throws JMSException {
+        getSession();
+        if (pooledSession != null && pooledSession.isReplyDestination(destination)) {
+            return pooledSession.getReplyConsumer(destination, messageSelector);
+        }
+
+        MessageConsumer consumer = session.createConsumer(destination, messageSelector);
+        consumers.add(consumer);
+        return consumer;
+    }
+
+    /**
+     * marks the session as failed so that it is not returned to the pool
+     */
+    public void invalidate() {
+        invalid = true;
+    }
+
+    /**
+     * closes sessions and connections, or returns them to the pool
      */
     public void closeAll() {
+        try {
+            for (MessageConsumer consumer : consumers) {
+                consumer.close();
+            }
+        } catch (JMSException e) {
+            invalid = true;
+            SoapUI.logError(e);
+        } finally {
+            consumers.clear();
+        }
+
+        if (pooledConnection != null) {
+            if (pooledSession != null) {
+                pooledConnection.returnSession(pooledSession, invalid);
+                pooledSession = null;
+            }
+            session = null;
+            connection = null;
+            return;
+        }
+
         try {
             if (session != null) {
                 session.close();
@@ -0,0 +1,573 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.impl.wsdl.submit.transports.jms;
+
+import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.support.StringUtils;
+import org.apache.log4j.Logger;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import javax.jms.ExceptionListener;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.jms.TemporaryQueue;
+import javax.jms.TemporaryTopic;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TimerTask;
+
+/**
+ * Pool of started JMS connections shared by the Hermes request transports.
+ * Connections are keyed by Hermes session, domain, client ID and credentials
+ * and keep a bounded number of idle sessions, which in turn cache their
+ * producers and the consumers of their temporary reply destinations.
+ * <p/>
+ * Idle and broken connections are closed by a task on the SoapUI timer that
+ * runs while there are pooled connections, or when the pool is used before
+ * the task gets to them. Pooling can be switched off with
+ * -Dsoapui.jms.pool=false.
+ */
+
+public class JMSConnectionPool {
+    public static final String POOL_ENABLED_PROPERTY = "soapui.jms.pool";
+    public static final String MAX_IDLE_SESSIONS_PROPERTY = "soapui.jms.pool.maxIdleSessions";
+    public static final String IDLE_TIMEOUT_PROPERTY = "soapui.jms.pool.idleTimeout";
+    public static final int DEFAULT_MAX_IDLE_SESSIONS = 8;
+    public static final long DEFAULT_IDLE_TIMEOUT = 60000;
+
+    private static final int MAX_CACHED_PRODUCERS = 16;
+    private static final long MIN_REAPER_PERIOD = 1000;
+    private static final Logger log = Logger.getLogger(JMSConnectionPool.class);
+    private static final JMSConnectionPool instance = new JMSConnectionPool(Integer.getInteger(
+            MAX_IDLE_SESSIONS_PROPERTY, DEFAULT_MAX_IDLE_SESSIONS), Long.getLong(IDLE_TIMEOUT_PROPERTY,
+            DEFAULT_IDLE_TIMEOUT));
+
+    private final Map<PoolKey, PooledConnection> connections = new HashMap<PoolKey, PooledConnection>();
+    private final int maxIdleSessions;
+    private final long idleTimeout;
+    private TimerTask reaper;
+
+    public JMSConnectionPool(int maxIdleSessions, long idleTimeout) {
+        this.maxIdleSessions = maxIdleSessions;
+        this.idleTimeout = idleTimeout;
+    }
+
+    public static JMSConnectionPool getInstance() {
+        return instance;
+    }
+
+    public static boolean isPoolingEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty(POOL_ENABLED_PROPERTY));
+    }
+
+    /**
+     * Returns the started connection for the specified key, creating it with
+     * the connection factory if there is none or the pooled one has failed
+     *
+     * @param owner the Hermes session the connection belongs to, compared by identity
+     */
+
+    public PooledConnection getConnection(Object owner, ConnectionFactory connectionFactory, boolean isTopicDomain,
+                                          String clientID, String username, String password) throws JMSException {
+        PoolKey key = new PoolKey(owner, isTopicDomain, clientID, username, password);
+        List<PooledConnection> expired = new ArrayList<PooledConnection>();
+
+        try {
+            synchronized (connections) {
+                removeExpired(expired);
+
+                PooledConnection pooledConnection = connections.get(key);
+                if (pooledConnection == null) {
+                    pooledConnection = new PooledConnection(createConnection(connectionFactory, isTopicDomain,
+                            clientID, username, password));
+                    connections.put(key, pooledConnection);
+                    scheduleReaper();
+                }
+
+                pooledConnection.touch();
+                return pooledConnection;
+            }
+        } finally {
+            for (PooledConnection pooledConnection : expired) {
+                pooledConnection.close();
+            }
+        }
+    }
+
+    private void removeExpired(List<PooledConnection> expired) {
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> iterator = connections.values().iterator();
+        while (iterator.hasNext()) {
+            PooledConnection pooledConnection = iterator.next();
+            if (pooledConnection.isExpired(now)) {
+                iterator.remove();
+                expired.add(pooledConnection);
+            }
+        }
+    }
+
+    /**
+     * Starts the task closing expired connections unless it is running; called
+     * while holding the connections lock
+     */
+
+    private void scheduleReaper() {
+        if (reaper != null) {
+            return;
+        }
+
+        reaper = new TimerTask() {
+            @Override
+            public void run() {
+                closeExpiredConnections();
+            }
+        };
+
+        long period = Math.max(idleTimeout, MIN_REAPER_PERIOD);
+        try {
+            SoapUI.getSoapUITimer().schedule(reaper, period, period);
+        } catch (IllegalStateException e) {
+            // the timer has been cancelled while shutting down
+            log.debug("Failed to schedule closing of idle JMS connections: " + e.getMessage());
+            reaper = null;
+        }
+    }
+
+    /**
+     * Closes the connections that are broken or have not been used for the
+     * idle timeout, and stops the reaper task once no connections are left
+     */
+
+    void closeExpiredConnections() {
+        List<PooledConnection> expired = new ArrayList<PooledConnection>();
+        synchronized (connections) {
+            removeExpired(expired);
+            if (connections.isEmpty()) {
+                cancelReaper();
+            }
+        }
+
+        for (PooledConnection pooledConnection : expired) {
+            pooledConnection.close();
+        }
+    }
+
+    private void cancelReaper() {
+        if (reaper != null) {
+            reaper.cancel();
+            reaper = null;
+        }
+    }
+
+    private Connection createConnection(ConnectionFactory connectionFactory, boolean isTopicDomain, String clientID,
+                                        String username, String password) throws JMSException {
+        Connection connection = StringUtils.hasContent(username) ? connectionFactory.createConnection(username,
+                password) : connectionFactory.createConnection();
+
+        try {
+            if (!StringUtils.isNullOrEmpty(clientID) && isTopicDomain) {
+                connection.setClientID(clientID);
+            }
+
+            connection.start();
+            return connection;
+        } catch (JMSException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    public int getConnectionCount() {
+        synchronized (connections) {
+            return connections.size();
+        }
+    }
+
+    /**
+     * Closes all pooled connections, including sessions currently in use
+     */
+
+    public void closeAll() {
+        List<PooledConnection> closed;
+        synchronized (connections) {
+            closed = new ArrayList<PooledConnection>(connections.values());
+            connections.clear();
+            cancelReaper();
+        }
+
+        for (PooledConnection pooledConnection : closed) {
+            pooledConnection.close();
+        }
+    }
+
+    private static final class PoolKey {
+        private final Object owner;
+        private final boolean isTopicDomain;
+        private final String clientID;
+        private final String username;
+        private final String password;
+
+        private PoolKey(Object owner, boolean isTopicDomain, String clientID, String username, String password) {
+            this.owner = owner;
+            this.isTopicDomain = isTopicDomain;
+            this.clientID = StringUtils.hasContent(clientID) && isTopicDomain ? clientID : null;
+            this.username = StringUtils.hasContent(username) ? username : null;
+            this.password = this.username == null ? null : password;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof PoolKey)) {
+                return false;
+            }
+
+            PoolKey other = (PoolKey) obj;
+            return owner == other.owner && isTopicDomain == other.isTopicDomain && equal(clientID, other.clientID)
+                    && equal(username, other.username) && equal(password, other.password);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(owner);
+            result = 31 * result + (isTopicDomain ? 1 : 0);
+            result = 31 * result + (clientID == null ? 0 : clientID.hashCode());
+            result = 31 * result + (username == null ? 0 : username.hashCode());
+            return 31 * result + (password == null ? 0 : password.hashCode());
+        }
+
+        private static boolean equal(String a, String b) {
+            return a == null ? b == null : a.equals(b);
+        }
+    }
+
+    /**
+     * A shared connection together with its idle sessions
+     */
+
+    public final class PooledConnection implements ExceptionListener {
+        private final Connection connection;
+        private final LinkedList<PooledSession> idleSessions = new LinkedList<PooledSession>();
+        private int activeSessions;
+        private long lastUsed;
+        private boolean closed;
+        private volatile boolean broken;
+
+        private PooledConnection(Connection connection) throws JMSException {
+            this.connection = connection;
+            connection.setExceptionListener(this);
+        }
+
+        public Connection getConnection() {
+            return connection;
+        }
+
+        public synchronized PooledSession borrowSession() throws JMSException {
+            if (closed) {
+                throw new JMSException("Pooled connection has been closed");
+            }
+
+            PooledSession pooledSession = idleSessions.poll();
+            if (pooledSession == null) {
+                pooledSession = new PooledSession(connection.createSession(false, Session.AUTO_ACKNOWLEDGE));
+            }
+
+            activeSessions++;
+            touch();
+            return pooledSession;
+        }
+
+        /**
+         * Returns a session to the pool; discarded sessions, sessions that
+         * timed out waiting for a reply and sessions exceeding the idle limit
+         * are closed instead
+         */
+
+        public void returnSession(PooledSession pooledSession, boolean discard) {
+            boolean keep;
+            synchronized (this) {
+                activeSessions--;
+                touch();
+
+                keep = !discard && !pooledSession.hasMissedReply() && !closed && !broken
+                        && idleSessions.size() < maxIdleSessions;
+                if (keep) {
+                    idleSessions.addFirst(pooledSession);
+                }
+            }
+
+            if (!keep) {
+                pooledSession.close();
+            }
+        }
+
+        public synchronized int getIdleSessionCount() {
+            return idleSessions.size();
+        }
+
+        public boolean isBroken() {
+            return broken;
+        }
+
+        public void onException(JMSException exception) {
+            log.warn("Pooled JMS connection failed and will be replaced: " + exception.getMessage());
+            broken = true;
+        }
+
+        private synchronized void touch() {
+            lastUsed = System.currentTimeMillis();
+        }
+
+        private synchronized boolean isExpired(long now) {
+            return broken || (activeSessions == 0 && now - lastUsed > idleTimeout);
+        }
+
+        private void close() {
+            List<PooledSession> sessions;
+            synchronized (this) {
+                closed = true;
+                sessions = new ArrayList<PooledSession>(idleSessions);
+                idleSessions.clear();
+            }
+
+            for (PooledSession pooledSession : sessions) {
+                pooledSession.close();
+            }
+
+            try {
+                connection.close();
+            } catch (JMSException e) {
+                log.debug("Failed to close pooled JMS connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * A session with its cached producers, temporary destinations and reply
+     * consumers. Like the underlying session it is used by one thread at a time.
+     * <p/>
+     * A reply that arrives after its request timed out would be taken for the
+     * reply to the next request on the same temporary destination, so a session
+     * whose reply consumer timed out is not returned to the pool.
+     */
+
+    public static final class PooledSession {
+        private final Session session;
+        private final Map<Destination, MessageProducer> producers = new LinkedHashMap<Destination, MessageProducer>(
+                16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Destination, MessageProducer> eldest) {
+                if (size() > MAX_CACHED_PRODUCERS) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+
+                return false;
+            }
+        };
+        private final Map<String, MessageConsumer> replyConsumers = new HashMap<String, MessageConsumer>();
+        private TemporaryQueue temporaryQueue;
+        private TemporaryTopic temporaryTopic;
+        private boolean missedReply;
+
+        private PooledSession(Session session) {
+            this.session = session;
+        }
+
+        public Session getSession() {
+            return session;
+        }
+
+        public MessageProducer getProducer(Destination destination) throws JMSException {
+            MessageProducer producer = producers.get(destination);
+            if (producer == null) {
+                producer = session.createProducer(destination);
+                producers.put(destination, producer);
+            }
+
+            return producer;
+        }
+
+        public TemporaryQueue getTemporaryQueue() throws JMSException {
+            if (temporaryQueue == null) {
+                temporaryQueue = session.createTemporaryQueue();
+            }
+
+            return temporaryQueue;
+        }
+
+        public TemporaryTopic getTemporaryTopic() throws JMSException {
+            if (temporaryTopic == null) {
+                temporaryTopic = session.createTemporaryTopic();
+            }
+
+            return temporaryTopic;
+        }
+
+        public boolean isReplyDestination(Destination destination) {
+            return destination != null && (destination == temporaryQueue || destination == temporaryTopic);
+        }
+
+        /**
+         * Returns the cached consumer for one of this session's temporary
+         * destinations, after draining replies left over from earlier requests
+         * that timed out.
+         */
+
+        public MessageConsumer getReplyConsumer(Destination destination, String messageSelector) throws JMSException {
+            if (!isReplyDestination(destination)) {
+                throw new JMSException("Destination [" + destination + "] is not a reply destination of this session");
+            }
+
+            String selector = StringUtils.hasContent(messageSelector) ? messageSelector : null;
+            String key = (destination == temporaryQueue ? "queue:" : "topic:") + (selector == null ? "" : selector);
+
+            MessageConsumer consumer = replyConsumers.get(key);
+            if (consumer == null) {
+                consumer = new ReplyConsumer(this, session.createConsumer(destination, selector));
+                replyConsumers.put(key, consumer);
+            } else {
+                while (consumer.receiveNoWait() != null) {
+                    log.debug("Discarded stale reply on " + destination);
+                }
+            }
+
+            return consumer;
+        }
+
+        /**
+         * Returns true if a reply consumer of this session timed out, in which
+         * case the reply may still arrive later
+         */
+
+        public boolean hasMissedReply() {
+            return missedReply;
+        }
+
+        private void close() {
+            for (MessageConsumer consumer : replyConsumers.values()) {
+                closeQuietly(consumer);
+            }
+            replyConsumers.clear();
+            producers.clear();
+
+            try {
+                session.close();
+            } catch (JMSException e) {
+                log.debug("Failed to close pooled JMS session: " + e.getMessage());
+            }
+
+            try {
+                if (temporaryQueue != null) {
+                    temporaryQueue.delete();
+                }
+                if (temporaryTopic != null) {
+                    temporaryTopic.delete();
+                }
+            } catch (JMSException e) {
+                log.debug("Failed to delete temporary destination: " + e.getMessage());
+            }
+        }
+
+        private static void closeQuietly(MessageProducer producer) {
+            try {
+                producer.close();
+            } catch (JMSException e) {
+                log.debug("Failed to close JMS producer: " + e.getMessage());
+            }
+        }
+
+        private static void closeQuietly(MessageConsumer consumer) {
+            try {
+                consumer.close();
+            } catch (JMSException e) {
+                log.debug("Failed to close JMS consumer: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns true if the consumer was returned by
+     * {@link PooledSession#getReplyConsumer}; its temporary destination is
+     * reused by the requests of the session, so it may receive late replies to
+     * earlier requests
+     */
+
+    public static boolean isReplyConsumer(MessageConsumer consumer) {
+        return consumer instanceof ReplyConsumer;
+    }
+
+    /**
+     * Consumer of a temporary reply destination that marks its session when a
+     * receive times out
+     */
+
+    private static final class ReplyConsumer implements MessageConsumer {
+        private final PooledSession pooledSession;
+        private final MessageConsumer consumer;
+
+        private ReplyConsumer(PooledSession pooledSession, MessageConsumer consumer) {
+            this.pooledSession = pooledSession;
+            this.consumer = consumer;
+        }
+
+        public String getMessageSelector() throws JMSException {
+            return consumer.getMessageSelector();
+        }
+
+        public MessageListener getMessageListener() throws JMSException {
+            return consumer.getMessageListener();
+        }
+
+        public void setMessageListener(MessageListener listener) throws JMSException {
+            consumer.setMessageListener(listener);
+        }
+
+        public Message receive() throws JMSException {
+            return received(consumer.receive());
+        }
+
+        public Message receive(long timeout) throws JMSException {
+            return received(consumer.receive(timeout));
+        }
+
+        public Message receiveNoWait() throws JMSException {
+            return consumer.receiveNoWait();
+        }
+
+        public void close() throws JMSException {
+            consumer.close();
+        }
+
+        private Message received(Message message) {
+            if (message == null) {
+                pooledSession.missedReply = true;
+            }
+
+            return message;
+        }
+    }
+}
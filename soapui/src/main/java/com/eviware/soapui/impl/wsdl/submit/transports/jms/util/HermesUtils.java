@@ -21,6 +21,7 @@ import com.eviware.soapui.SoapUIExtensionClassLoader;
 import com.eviware.soapui.SoapUIExtensionClassLoader.SoapUIClassLoaderState;
 import com.eviware.soapui.actions.SoapUIPreferencesAction;
 import com.eviware.soapui.impl.wsdl.WsdlProject;
+import com.eviware.soapui.impl.wsdl.submit.transports.jms.JMSConnectionPool;
 import com.eviware.soapui.model.propertyexpansion.PropertyExpander;
 import com.eviware.soapui.settings.ToolsSettings;
 import com.eviware.soapui.support.Tools;
@@ -127,6 +128,7 @@ public class HermesUtils {
 
     public static void flushHermesCache() {
         contextMap.clear();
+        JMSConnectionPool.getInstance().closeAll();
     }
 
     private static String createHermesHomeSetting() {
@@ -17,6 +17,7 @@
 package com.eviware.soapui.impl.wsdl.support;
 
 import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.impl.wsdl.loadtest.LoadTestExecutor;
 import com.eviware.soapui.model.testsuite.TestRunContext;
 import com.eviware.soapui.model.testsuite.TestRunnable;
 import com.eviware.soapui.model.testsuite.TestRunner;
@@ -77,6 +78,16 @@ public abstract class AbstractTestRunner<T extends TestRunnable, T2 extends Test
         }
     }
 
+    /**
+     * Starts this runner asynchronously on the specified executor instead of the
+     * SoapUI thread pool
+     */
+
+    public void start(LoadTestExecutor executor) {
+        status = Status.RUNNING;
+        future = executor.submit(this);
+    }
+
     public void cancel(String reason) {
         if (status == Status.CANCELED || status == Status.FINISHED || status == Status.FAILED || runContext == null) {
             return;
@@ -177,6 +177,7 @@ public interface HelpUrls {
     public static final String STATISTICSGRAPH_HELP_URL = "/load-testing/reference/loadtest-graph.html";
     public static final String STEP_AVERAGE_LOAD_TEST_ASSERTION_HELP_URL = "/load-testing/reference/assertion.html";
     public static final String STEP_MAXIMUM_LOAD_TEST_ASSERTION_HELP_URL = "/load-testing/reference/assertion.html";
+    public static final String STEP_PERCENTILE_LOAD_TEST_ASSERTION_HELP_URL = "/load-testing/reference/assertion.html";
     public static final String STEP_STATUS_LOAD_TEST_ASSERTION_HELP_URL = "/load-testing/reference/assertion.html";
     public static final String STEP_TPS_LOAD_TEST_ASSERTION_HELP_URL = "/load-testing/reference/assertion.html";
     public static final String STAY_TUNED = "/getting-started/help-in-soapui/help-in-soapui.html";
@@ -0,0 +1,190 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.impl.wsdl.support;
+
+import com.eviware.soapui.model.ModelItem;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * List of model items that are only built from their configuration when first
+ * accessed, used by lazily loaded projects. Looking up items by name and
+ * finding the index of an item do not build any items.
+ */
+
+public abstract class LazyModelItemList<T extends ModelItem, C> extends AbstractList<T> implements RandomAccess {
+    private final List<Entry<T, C>> entries;
+
+    public LazyModelItemList(List<C> configs) {
+        entries = new ArrayList<Entry<T, C>>(configs.size());
+        for (C config : configs) {
+            entries.add(new Entry<T, C>(config));
+        }
+    }
+
+    /**
+     * Builds the model item for the specified configuration
+     */
+
+    protected abstract T build(C config);
+
+    protected abstract String getName(C config);
+
+    /**
+     * Called after an item has been built on first access
+     */
+
+    protected void loaded(T item) {
+    }
+
+    @Override
+    public T get(int index) {
+        Entry<T, C> entry = entries.get(index);
+        T item = entry.item;
+        return item == null ? load(entry) : item;
+    }
+
+    private T load(Entry<T, C> entry) {
+        T item;
+
+        synchronized (entry) {
+            item = entry.item;
+            if (item != null) {
+                return item;
+            }
+
+            item = build(entry.config);
+            entry.item = item;
+            entry.config = null;
+        }
+
+        loaded(item);
+        return item;
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public T set(int index, T item) {
+        Entry<T, C> entry = entries.get(index);
+        T result = entry.item;
+        entry.item = item;
+        entry.config = null;
+        return result;
+    }
+
+    @Override
+    public void add(int index, T item) {
+        Entry<T, C> entry = new Entry<T, C>(null);
+        entry.item = item;
+        entries.add(index, entry);
+        modCount++;
+    }
+
+    /**
+     * Removes the entry at the specified index, returning null if its item had
+     * not been built
+     */
+
+    @Override
+    public T remove(int index) {
+        Entry<T, C> entry = entries.remove(index);
+        modCount++;
+        return entry.item;
+    }
+
+    @Override
+    public int indexOf(Object item) {
+        for (int c = 0; c < entries.size(); c++) {
+            T loaded = entries.get(c).item;
+            if (loaded != null && loaded.equals(item)) {
+                return c;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object item) {
+        return indexOf(item) >= 0;
+    }
+
+    @Override
+    public boolean remove(Object item) {
+        int index = indexOf(item);
+        if (index == -1) {
+            return false;
+        }
+
+        remove(index);
+        return true;
+    }
+
+    public boolean isLoaded(int index) {
+        return entries.get(index).item != null;
+    }
+
+    /**
+     * Returns the first item with the specified name, building only that one
+     */
+
+    public T getByName(String name) {
+        for (int c = 0; c < entries.size(); c++) {
+            Entry<T, C> entry = entries.get(c);
+            C config = entry.config;
+            T item = entry.item;
+            String itemName = item == null ? getName(config) : item.getName();
+            if (itemName != null && itemName.equals(name)) {
+                return item == null ? load(entry) : item;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the items that have been built so far, in list order
+     */
+
+    public List<T> getLoadedItems() {
+        List<T> result = new ArrayList<T>();
+        for (int c = 0; c < entries.size(); c++) {
+            T item = entries.get(c).item;
+            if (item != null) {
+                result.add(item);
+            }
+        }
+
+        return result;
+    }
+
+    private static final class Entry<T, C> {
+        // item is set before config is cleared, so a null item always comes with a config
+        private volatile T item;
+        private volatile C config;
+
+        private Entry(C config) {
+            this.config = config;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.support.assertions;
+
+import com.eviware.soapui.model.propertyexpansion.PropertyExpansionContext;
+import com.eviware.soapui.support.JsonUtil;
+import com.eviware.soapui.support.xml.XmlUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+
+/**
+ * Parsed XML and JSON documents shared by all assertions run on a single
+ * message exchange, so that a response is parsed once no matter how many XPath,
+ * XQuery, JSONPath, SOAP Fault or WS-A assertions look at it. A cache is attached to
+ * the SubmitContext while the assertions of a TestStep are run; without one
+ * content is parsed on every call, just as before.
+ * <p/>
+ * The returned documents are shared and must not be modified.
+ */
+
+public class ParsedContentCache {
+    public static final String PARSED_CONTENT_CACHE_PROPERTY = ParsedContentCache.class.getName();
+
+    private static final int MAX_ENTRIES = 4;
+
+    private final Entry[] entries = new Entry[MAX_ENTRIES];
+    private int next;
+    private final JsonEntry[] jsonEntries = new JsonEntry[MAX_ENTRIES];
+    private int nextJson;
+    private int hitCount;
+    private int missCount;
+
+    /**
+     * Attaches a new cache to the specified context, returns null if one is
+     * already attached; pass the result to detach when done
+     */
+
+    public static ParsedContentCache attach(PropertyExpansionContext context) {
+        if (context == null || context.getProperty(PARSED_CONTENT_CACHE_PROPERTY) instanceof ParsedContentCache) {
+            return null;
+        }
+
+        ParsedContentCache cache = new ParsedContentCache();
+        context.setProperty(PARSED_CONTENT_CACHE_PROPERTY, cache);
+        return cache;
+    }
+
+    public static void detach(PropertyExpansionContext context, ParsedContentCache cache) {
+        if (cache != null && context.getProperty(PARSED_CONTENT_CACHE_PROPERTY) == cache) {
+            context.removeProperty(PARSED_CONTENT_CACHE_PROPERTY);
+        }
+    }
+
+    public static ParsedContentCache get(PropertyExpansionContext context) {
+        Object cache = context == null ? null : context.getProperty(PARSED_CONTENT_CACHE_PROPERTY);
+        return cache instanceof ParsedContentCache ? (ParsedContentCache) cache : null;
+    }
+
+    /**
+     * Returns the parsed content, from the cache attached to the context if
+     * there is one
+     */
+
+    public static XmlObject getXmlObject(PropertyExpansionContext context, String content, boolean stripComments)
+            throws XmlException {
+        ParsedContentCache cache = get(context);
+        return cache == null ? parse(content, stripComments) : cache.getXmlObject(content, stripComments);
+    }
+
+    public synchronized XmlObject getXmlObject(String content, boolean stripComments) throws XmlException {
+        for (Entry entry : entries) {
+            if (entry != null && entry.matches(content, stripComments)) {
+                hitCount++;
+                return entry.getXmlObject();
+            }
+        }
+
+        missCount++;
+
+        Entry entry;
+        try {
+            entry = new Entry(content, stripComments, parse(content, stripComments), null);
+        } catch (XmlException e) {
+            // remember failures too, content that is not xml fails for every assertion
+            entry = new Entry(content, stripComments, null, e);
+        }
+
+        entries[next] = entry;
+        next = (next + 1) % MAX_ENTRIES;
+
+        return entry.getXmlObject();
+    }
+
+    /**
+     * Returns the parsed JSON content or null if it is not valid JSON, from the
+     * cache attached to the context if there is one
+     */
+
+    public static JsonNode getJsonNode(PropertyExpansionContext context, String content) {
+        ParsedContentCache cache = get(context);
+        return cache == null ? JsonUtil.getValidJson(content) : cache.getJsonNode(content);
+    }
+
+    public synchronized JsonNode getJsonNode(String content) {
+        for (JsonEntry entry : jsonEntries) {
+            if (entry != null && entry.matches(content)) {
+                hitCount++;
+                return entry.jsonNode;
+            }
+        }
+
+        missCount++;
+
+        // invalid content is remembered as null, it fails for every assertion
+        JsonEntry entry = new JsonEntry(content, JsonUtil.getValidJson(content));
+        jsonEntries[nextJson] = entry;
+        nextJson = (nextJson + 1) % MAX_ENTRIES;
+
+        return entry.jsonNode;
+    }
+
+    public synchronized int getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized int getMissCount() {
+        return missCount;
+    }
+
+    private static XmlObject parse(String content, boolean stripComments) throws XmlException {
+        XmlOptions options = new XmlOptions();
+        if (stripComments) {
+            options.setLoadStripComments();
+        }
+
+        return XmlUtils.createXmlObject(content, options);
+    }
+
+    private static class Entry {
+        private final String content;
+        private final boolean stripComments;
+        private final XmlObject xmlObject;
+        private final XmlException exception;
+
+        public Entry(String content, boolean stripComments, XmlObject xmlObject, XmlException exception) {
+            this.content = content;
+            this.stripComments = stripComments;
+            this.xmlObject = xmlObject;
+            this.exception = exception;
+        }
+
+        public boolean matches(String content, boolean stripComments) {
+            return this.stripComments == stripComments
+                    && (this.content == content || (this.content != null && this.content.equals(content)));
+        }
+
+        public XmlObject getXmlObject() throws XmlException {
+            if (exception != null) {
+                throw exception;
+            }
+
+            return xmlObject;
+        }
+    }
+
+    private static class JsonEntry {
+        private final String content;
+        private final JsonNode jsonNode;
+
+        public JsonEntry(String content, JsonNode jsonNode) {
+            this.content = content;
+            this.jsonNode = jsonNode;
+        }
+
+        public boolean matches(String content) {
+            return this.content == content || (this.content != null && this.content.equals(content));
+        }
+    }
+}
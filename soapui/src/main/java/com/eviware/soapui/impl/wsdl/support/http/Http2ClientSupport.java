@@ -0,0 +1,420 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.support.http;
+
+import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.ExtendedHttpMethod;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.support.metrics.SoapUIMetrics;
+import com.eviware.soapui.model.settings.SettingsListener;
+import com.eviware.soapui.settings.SSLSettings;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpException;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.protocol.RequestAddCookies;
+import org.apache.http.client.protocol.ResponseProcessCookies;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.concurrent.Cancellable;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.impl.EnglishReasonPhraseCatalog;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.protocol.HttpContext;
+import org.apache.log4j.Logger;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.X509TrustManager;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends HTTP and REST requests over HTTP/2; HttpClient 4 only speaks HTTP/1.x
+ * so requests are bridged to OkHttp, which multiplexes concurrent requests to
+ * the same host over a single connection. HTTPS endpoints negotiate h2 with
+ * ALPN and fall back to HTTP/1.1, plain http endpoints use h2c with prior
+ * knowledge when enabled and HTTP/1.1 otherwise.
+ * <p/>
+ * Cookies of the HttpContext are sent and updated through the cookie
+ * interceptors of HttpClient. Requests that go through a proxy or may be
+ * challenged for credentials are sent with the blocking HttpClient over
+ * HTTP/1.1 instead; see canExecute. The OkHttp clients are rebuilt when the
+ * keystore settings change.
+ */
+
+public class Http2ClientSupport {
+    public static final String USE_HTTP2 = "soapui.http2";
+    public static final String HTTP2_PRIOR_KNOWLEDGE = "soapui.http2.priorKnowledge";
+
+    public static final ProtocolVersion HTTP_2_0 = new ProtocolVersion("HTTP", 2, 0);
+
+    private final static Logger log = Logger.getLogger(Http2ClientSupport.class);
+
+    private static final Set<String> SKIPPED_HEADERS = new HashSet<String>(Arrays.asList("connection", "host",
+            "content-length", "transfer-encoding", "keep-alive", "proxy-connection", "upgrade", "expect", "te"));
+
+    private static final Set<String> reportedFallbacks = Collections.synchronizedSet(new HashSet<String>());
+    private static final RequestAddCookies requestAddCookies = new RequestAddCookies();
+    private static final ResponseProcessCookies responseProcessCookies = new ResponseProcessCookies();
+
+    private static Http2ClientSupport instance;
+    private static boolean listeningToSettings;
+
+    private final OkHttpClient client;
+    private final OkHttpClient priorKnowledgeClient;
+
+    private Http2ClientSupport() {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder().protocols(
+                Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)).followRedirects(false).followSslRedirects(false)
+                .retryOnConnectionFailure(false).eventListenerFactory(new MetricsEventListenerFactory());
+
+        initSSL(builder);
+
+        client = builder.build();
+        priorKnowledgeClient = client.newBuilder().protocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE))
+                .build();
+    }
+
+    public static synchronized Http2ClientSupport getInstance() {
+        if (!listeningToSettings) {
+            SoapUI.getSettings().addSettingsListener(new SSLSettingsListener());
+            listeningToSettings = true;
+        }
+
+        if (instance == null) {
+            instance = new Http2ClientSupport();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Discards the current clients so that the next request creates them with
+     * the current SSL settings; calls in progress are completed on the pooled
+     * connections of the discarded clients, idle ones are closed
+     */
+
+    public static synchronized void reset() {
+        if (instance != null) {
+            instance.client.connectionPool().evictAll();
+            instance.priorKnowledgeClient.connectionPool().evictAll();
+            instance = null;
+        }
+    }
+
+    /**
+     * Uses the SSLContext of the SoapUISSLSocketFactory for the global keystore,
+     * so client certificates are presented just as for HTTP/1.x requests; the
+     * trust manager given to OkHttp is only used for certificate pinning and
+     * trusts all certificates, just as the one of that SSLContext does
+     */
+
+    private static void initSSL(OkHttpClient.Builder builder) {
+        try {
+            SSLContext sslContext = HttpClientSupport.createSSLSocketFactory().getSSLContext();
+            X509TrustManager trustManager = new X509TrustManager() {
+                public void checkClientTrusted(X509Certificate[] chain, String authType) {
+                }
+
+                public void checkServerTrusted(X509Certificate[] chain, String authType) {
+                }
+
+                public X509Certificate[] getAcceptedIssuers() {
+                    return new X509Certificate[0];
+                }
+            };
+
+            builder.sslSocketFactory(sslContext.getSocketFactory(), trustManager).hostnameVerifier(
+                    new HostnameVerifier() {
+                        public boolean verify(String hostname, SSLSession session) {
+                            return true;
+                        }
+                    });
+        } catch (Exception e) {
+            SoapUI.logError(e, "Failed to initialize SSL for HTTP/2 client");
+        }
+    }
+
+    public static void setHttp2(ExtendedHttpMethod method, boolean priorKnowledge) {
+        method.getParams().setBooleanParameter(USE_HTTP2, true);
+        method.getParams().setBooleanParameter(HTTP2_PRIOR_KNOWLEDGE, priorKnowledge);
+    }
+
+    public static boolean isHttp2(ExtendedHttpMethod method) {
+        return method.getParams().getBooleanParameter(USE_HTTP2, false);
+    }
+
+    /**
+     * Checks if the specified method can be sent by this client, methods that
+     * go through a proxy or may be challenged for credentials have to be sent
+     * with the blocking HttpClientSupport instead
+     */
+
+    public static boolean canExecute(ExtendedHttpMethod method, HttpContext httpContext) {
+        String reason = NioHttpClientSupport.getUnsupportedReason(method, httpContext);
+        if (reason != null) {
+            if (reportedFallbacks.add(reason)) {
+                log.warn("Sending HTTP/2 requests over HTTP/1.1 with the blocking HTTP client since " + reason
+                        + ", which the HTTP/2 client does not support");
+            }
+            return false;
+        }
+
+        return true;
+    }
+
+    public static HttpResponse execute(ExtendedHttpMethod method, HttpContext httpContext) throws IOException {
+        return getInstance().executeRequest(method, httpContext);
+    }
+
+    private HttpResponse executeRequest(ExtendedHttpMethod method, HttpContext httpContext) throws IOException {
+        URI uri = method.getURI();
+        boolean priorKnowledge = method.getParams().getBooleanParameter(HTTP2_PRIOR_KNOWLEDGE, false)
+                && "http".equalsIgnoreCase(uri.getScheme());
+
+        OkHttpClient httpClient = priorKnowledge ? priorKnowledgeClient : client;
+        int timeout = HttpConnectionParams.getSoTimeout(method.getParams());
+        int connectTimeout = HttpConnectionParams.getConnectionTimeout(method.getParams());
+        if (timeout > 0 || connectTimeout > 0) {
+            OkHttpClient.Builder builder = httpClient.newBuilder();
+            if (timeout > 0) {
+                builder.readTimeout(timeout, TimeUnit.MILLISECONDS).writeTimeout(timeout, TimeUnit.MILLISECONDS);
+            }
+            builder.connectTimeout(connectTimeout > 0 ? connectTimeout : timeout, TimeUnit.MILLISECONDS);
+            httpClient = builder.build();
+        }
+
+        HttpClientContext context = null;
+        if (httpContext != null) {
+            context = NioHttpClientSupport.createClientContext(URIUtils.extractHost(uri), httpContext);
+            try {
+                requestAddCookies.process(method, context);
+            } catch (HttpException e) {
+                throw new IOException("Failed to add cookies to request to [" + uri + "]", e);
+            }
+        }
+
+        method.afterWriteRequest();
+        if (method.getMetrics() != null) {
+            method.getMetrics().getConnectTimer().start();
+        }
+
+        final Call call = httpClient.newCall(createRequest(method, uri));
+        if (method instanceof HttpRequestBase) {
+            ((HttpRequestBase) method).setCancellable(new Cancellable() {
+                public boolean cancel() {
+                    call.cancel();
+                    return true;
+                }
+            });
+        }
+
+        HttpResponse httpResponse = createResponse(call.execute());
+        if (context != null) {
+            try {
+                responseProcessCookies.process(httpResponse, context);
+            } catch (HttpException e) {
+                throw new IOException("Failed to process cookies of response from [" + uri + "]", e);
+            }
+        }
+        method.setHttpResponse(httpResponse);
+
+        return httpResponse;
+    }
+
+    private static Request createRequest(ExtendedHttpMethod method, URI uri) {
+        Request.Builder builder = new Request.Builder().url(uri.toString()).tag(ExtendedHttpMethod.class, method);
+
+        for (Header header : method.getAllHeaders()) {
+            if (!SKIPPED_HEADERS.contains(header.getName().toLowerCase(Locale.ENGLISH))) {
+                builder.addHeader(header.getName(), header.getValue());
+            }
+        }
+
+        RequestBody body = null;
+        HttpEntity entity = method.getRequestEntity();
+        if (entity != null) {
+            body = new EntityRequestBody(entity);
+        } else if (requiresBody(method.getMethod())) {
+            body = RequestBody.create(null, new byte[0]);
+        }
+
+        return builder.method(method.getMethod(), body).build();
+    }
+
+    private static boolean requiresBody(String method) {
+        return "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method)
+                || "PROPPATCH".equals(method) || "REPORT".equals(method);
+    }
+
+    private static HttpResponse createResponse(Response response) {
+        ProtocolVersion version = response.protocol() == Protocol.HTTP_2
+                || response.protocol() == Protocol.H2_PRIOR_KNOWLEDGE ? HTTP_2_0 : HttpVersion.HTTP_1_1;
+
+        String reason = response.message();
+        if (reason == null || reason.length() == 0) {
+            reason = EnglishReasonPhraseCatalog.INSTANCE.getReason(response.code(), Locale.ENGLISH);
+        }
+
+        BasicHttpResponse httpResponse = new BasicHttpResponse(new BasicStatusLine(version, response.code(), reason));
+
+        Headers headers = response.headers();
+        for (int c = 0; c < headers.size(); c++) {
+            httpResponse.addHeader(headers.name(c), headers.value(c));
+        }
+
+        ResponseBody body = response.body();
+        if (body != null) {
+            MediaType mediaType = body.contentType();
+            InputStreamEntity entity = new InputStreamEntity(body.byteStream(), body.contentLength(),
+                    mediaType == null ? null : ContentType.parse(mediaType.toString()));
+            entity.setContentEncoding(response.header("Content-Encoding"));
+            httpResponse.setEntity(entity);
+        }
+
+        return httpResponse;
+    }
+
+    private static final class SSLSettingsListener implements SettingsListener {
+        @Override
+        public void settingChanged(String name, String newValue, String oldValue) {
+            if (name.equals(SSLSettings.KEYSTORE) || name.equals(SSLSettings.KEYSTORE_PASSWORD)) {
+                log.info("Updating keyStore for HTTP/2 client..");
+                reset();
+            }
+        }
+
+        @Override
+        public void settingsReloaded() {
+            reset();
+        }
+    }
+
+    private static class EntityRequestBody extends RequestBody {
+        private final HttpEntity entity;
+
+        public EntityRequestBody(HttpEntity entity) {
+            this.entity = entity;
+        }
+
+        @Override
+        public MediaType contentType() {
+            Header contentType = entity.getContentType();
+            return contentType == null ? null : MediaType.parse(contentType.getValue());
+        }
+
+        @Override
+        public long contentLength() {
+            return entity.getContentLength();
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            entity.writeTo(sink.outputStream());
+        }
+    }
+
+    /**
+     * Maps the OkHttp call events of each stream onto the SoapUIMetrics of the
+     * method that started it
+     */
+
+    private static class MetricsEventListenerFactory implements EventListener.Factory {
+        public EventListener create(Call call) {
+            ExtendedHttpMethod method = call.request().tag(ExtendedHttpMethod.class);
+            if (method == null || method.getMetrics() == null) {
+                return EventListener.NONE;
+            }
+
+            return new MetricsEventListener(method.getMetrics());
+        }
+    }
+
+    private static class MetricsEventListener extends EventListener {
+        private final SoapUIMetrics metrics;
+
+        public MetricsEventListener(SoapUIMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            metrics.getDNSTimer().start();
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+            metrics.getDNSTimer().stop();
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            metrics.getConnectTimer().stop();
+
+            InetSocketAddress address = connection.route().socketAddress();
+            if (address.getAddress() != null) {
+                metrics.setIpAddress(address.getAddress().getHostAddress());
+            }
+            metrics.setPort(address.getPort(), call.request().isHttps() ? 443 : 80);
+        }
+
+        @Override
+        public void requestHeadersStart(Call call) {
+            metrics.getTimeToFirstByteTimer().start();
+        }
+
+        @Override
+        public void responseHeadersStart(Call call) {
+            metrics.getTimeToFirstByteTimer().stop();
+            metrics.getReadTimer().start();
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            log.debug("HTTP/2 call to [" + call.request().url() + "] failed: " + ioe);
+        }
+    }
+}
@@ -314,6 +314,16 @@ public class HttpClientSupport {
         return helper.getHttpClient();
     }
 
+    /**
+     * Creates an SSL socket factory for the currently configured global
+     * keystore
+     */
+
+    public static SoapUISSLSocketFactory createSSLSocketFactory() throws KeyStoreException, NoSuchAlgorithmException,
+            CertificateException, IOException, UnrecoverableKeyException, KeyManagementException {
+        return helper.initSocketFactory();
+    }
+
     public static void setProxySelector(ProxySelector proxySelector) {
         getHttpClient().setRoutePlanner(new OverridableProxySelectorRoutePlanner(helper.getRegistry(), proxySelector));
     }
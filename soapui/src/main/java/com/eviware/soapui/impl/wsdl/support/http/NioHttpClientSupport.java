@@ -0,0 +1,513 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.support.http;
+
+import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.ExtendedHttpMethod;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.support.metrics.SoapUIMetrics;
+import com.eviware.soapui.model.settings.Settings;
+import com.eviware.soapui.model.settings.SettingsListener;
+import com.eviware.soapui.settings.HttpSettings;
+import com.eviware.soapui.settings.SSLSettings;
+import org.apache.http.HttpConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.protocol.RequestAddCookies;
+import org.apache.http.client.protocol.RequestClientConnControl;
+import org.apache.http.client.protocol.ResponseProcessCookies;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.Cancellable;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.config.ConnectionConfig;
+import org.apache.http.conn.params.ConnRouteParams;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CookieSpecRegistries;
+import org.apache.http.impl.nio.DefaultHttpClientIODispatch;
+import org.apache.http.impl.nio.pool.BasicNIOConnFactory;
+import org.apache.http.impl.nio.pool.BasicNIOConnPool;
+import org.apache.http.impl.nio.pool.BasicNIOPoolEntry;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.message.BasicHttpEntityEnclosingRequest;
+import org.apache.http.message.BasicHttpRequest;
+import org.apache.http.nio.protocol.BasicAsyncRequestProducer;
+import org.apache.http.nio.protocol.BasicAsyncResponseConsumer;
+import org.apache.http.nio.protocol.HttpAsyncRequestExecutor;
+import org.apache.http.nio.protocol.HttpAsyncRequester;
+import org.apache.http.nio.reactor.IOEventDispatch;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpCoreContext;
+import org.apache.http.protocol.HttpProcessor;
+import org.apache.http.protocol.HttpProcessorBuilder;
+import org.apache.http.protocol.RequestContent;
+import org.apache.http.protocol.RequestExpectContinue;
+import org.apache.http.protocol.RequestTargetHost;
+import org.apache.http.protocol.RequestUserAgent;
+import org.apache.http.util.VersionInfo;
+import org.apache.log4j.Logger;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TimerTask;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Non-blocking counterpart of HttpClientSupport; requests are multiplexed over
+ * a small number of I/O reactor threads using httpcore-nio, so the number of
+ * requests in flight is not limited by the number of threads waiting for
+ * responses.
+ * <p/>
+ * Proxies and challenge-based authentication are not supported by this
+ * client, preemptive authentication headers and cookies are; see canExecute.
+ * Requests are not pipelined, each pooled connection carries one request at a
+ * time.
+ * <p/>
+ * Requests go through the same request interceptors as the blocking client, so
+ * the headers actually sent are captured by HeaderRequestInterceptor, and the
+ * socket and connect timeouts of each method are applied to its connection.
+ * The connection pool is built with the SSL settings current at the time; when
+ * the keystore settings change a new client is created and the previous one is
+ * shut down once its requests have completed.
+ */
+
+public class NioHttpClientSupport {
+    public static final String IO_THREADS_PROPERTY = "soapui.http.nio.threads";
+    public static final String SOCKET_TIMEOUT_ATTRIBUTE = "soapui.nio.socket.timeout";
+
+    private static final long RETIRE_CHECK_PERIOD = 5000;
+
+    private final static Logger log = Logger.getLogger(NioHttpClientSupport.class);
+    private static final Set<String> reportedFallbacks = Collections.synchronizedSet(new HashSet<String>());
+    private static NioHttpClientSupport instance;
+    private static boolean listeningToSettings;
+
+    private final DefaultConnectingIOReactor ioReactor;
+    private final BasicNIOConnPool connectionPool;
+    private final HttpAsyncRequester requester;
+
+    private NioHttpClientSupport() throws IOReactorException {
+        Settings settings = SoapUI.getSettings();
+        int socketTimeout = (int) settings.getLong(HttpSettings.SOCKET_TIMEOUT, HttpSettings.DEFAULT_SOCKET_TIMEOUT);
+
+        IOReactorConfig config = IOReactorConfig.custom()
+                .setIoThreadCount(Integer.getInteger(IO_THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()))
+                .setSoTimeout(socketTimeout).setConnectTimeout(socketTimeout).setTcpNoDelay(true).build();
+
+        ioReactor = new DefaultConnectingIOReactor(config);
+        connectionPool = new BasicNIOConnPool(ioReactor, new BasicNIOConnFactory(createSSLContext(), null,
+                ConnectionConfig.DEFAULT), socketTimeout);
+        connectionPool.setMaxTotal((int) settings.getLong(HttpSettings.MAX_TOTAL_CONNECTIONS, 2000));
+        connectionPool.setDefaultMaxPerRoute((int) settings.getLong(HttpSettings.MAX_CONNECTIONS_PER_HOST, 500));
+
+        // same chain as the blocking client, HeaderRequestInterceptor last
+        HttpProcessor processor = HttpProcessorBuilder.create().add(new RequestContent(true))
+                .add(new RequestTargetHost()).add(new RequestClientConnControl())
+                .add(new RequestUserAgent(VersionInfo.getUserAgent("Apache-HttpClient", "org.apache.http.client",
+                        HttpClientSupport.class))).add(new RequestExpectContinue(true)).add(new RequestAddCookies())
+                .add(new ResponseProcessCookies()).add(new SocketTimeoutInterceptor())
+                .add(new HeaderRequestInterceptor()).build();
+        requester = new HttpAsyncRequester(processor);
+    }
+
+    public static synchronized NioHttpClientSupport getInstance() throws IOReactorException {
+        if (!listeningToSettings) {
+            SoapUI.getSettings().addSettingsListener(new SSLSettingsListener());
+            listeningToSettings = true;
+        }
+
+        if (instance == null) {
+            instance = new NioHttpClientSupport();
+            instance.start();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Discards the current client so that the next request creates one with
+     * the current SSL settings, the discarded client is shut down when its
+     * requests have completed
+     */
+
+    public static synchronized void reset() {
+        if (instance != null) {
+            instance.retire();
+            instance = null;
+        }
+    }
+
+    private static SSLContext createSSLContext() {
+        try {
+            return HttpClientSupport.createSSLSocketFactory().getSSLContext();
+        } catch (Exception e) {
+            SoapUI.logError(e, "Failed to initialize SSL for non-blocking HTTP client");
+            return null;
+        }
+    }
+
+    /**
+     * Checks if the specified method can be sent by this client, methods that
+     * go through a proxy or may be challenged for credentials have to be sent
+     * with the blocking HttpClientSupport instead
+     */
+
+    public static boolean canExecute(ExtendedHttpMethod method, HttpContext httpContext) {
+        String reason = getUnsupportedReason(method, httpContext);
+        if (reason != null) {
+            reportFallback(reason);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns why the specified method has to be sent by the blocking
+     * HttpClient, or null if it can be sent by a client that only supports
+     * direct connections, cookies and preemptive authentication
+     */
+
+    static String getUnsupportedReason(ExtendedHttpMethod method, HttpContext httpContext) {
+        if (isProxied(method)) {
+            return "a proxy is configured";
+        }
+
+        if (httpContext != null && httpContext.getAttribute(HttpClientContext.CREDS_PROVIDER) != null
+                && method.getFirstHeader("Authorization") == null) {
+            return "challenge-based authentication is configured";
+        }
+
+        return null;
+    }
+
+    /**
+     * Adapts the specified context for sending a request directly to the
+     * target, as the cookie interceptors expect
+     */
+
+    static HttpClientContext createClientContext(HttpHost target, HttpContext httpContext) {
+        HttpClientContext context = HttpClientContext.adapt(httpContext);
+        context.setAttribute(HttpCoreContext.HTTP_TARGET_HOST, target);
+        context.setAttribute(HttpClientContext.HTTP_ROUTE, new HttpRoute(target, null,
+                "https".equalsIgnoreCase(target.getSchemeName())));
+        if (context.getAttribute(HttpClientContext.COOKIESPEC_REGISTRY) == null) {
+            context.setAttribute(HttpClientContext.COOKIESPEC_REGISTRY, CookieSpecRegistries.createDefault());
+        }
+
+        return context;
+    }
+
+    private static boolean isProxied(ExtendedHttpMethod method) {
+        if (ConnRouteParams.getDefaultProxy(method.getParams()) != null) {
+            return true;
+        }
+
+        ProxySelector proxySelector = ProxySelector.getDefault();
+        if (!ProxyUtils.isProxyEnabled() || proxySelector == null
+                || OverridableProxySelectorRoutePlanner.isForceDirectConnection(method.getParams())) {
+            return false;
+        }
+
+        for (Proxy proxy : proxySelector.select(method.getURI())) {
+            if (proxy.type() != Proxy.Type.DIRECT) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static void reportFallback(String reason) {
+        if (reportedFallbacks.add(reason)) {
+            log.warn("Sending requests with the blocking HTTP client since " + reason
+                    + ", which the non-blocking client does not support");
+        }
+    }
+
+    private void start() {
+        final IOEventDispatch dispatch = new DefaultHttpClientIODispatch(new HttpAsyncRequestExecutor(),
+                ConnectionConfig.DEFAULT);
+
+        Thread reactorThread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    ioReactor.execute(dispatch);
+                } catch (InterruptedIOException e) {
+                    log.info("Non-blocking HTTP client interrupted");
+                } catch (IOException e) {
+                    SoapUI.logError(e, "Non-blocking HTTP client stopped");
+                }
+            }
+        }, "SoapUI NIO HTTP Reactor");
+
+        reactorThread.setDaemon(true);
+        reactorThread.start();
+    }
+
+    /**
+     * Starts executing the specified method, the returned Future is completed
+     * by an I/O reactor thread when the response has been read
+     */
+
+    public Future<HttpResponse> executeAsync(final ExtendedHttpMethod method, HttpContext httpContext) {
+        URI uri = method.getURI();
+        final HttpHost target = URIUtils.extractHost(uri);
+
+        int socketTimeout = HttpConnectionParams.getSoTimeout(method.getParams());
+        int connectTimeout = HttpConnectionParams.getConnectionTimeout(method.getParams());
+        if (connectTimeout <= 0) {
+            connectTimeout = socketTimeout;
+        }
+
+        final HttpClientContext context = createClientContext(target, httpContext);
+        context.setAttribute(SOCKET_TIMEOUT_ATTRIBUTE, socketTimeout);
+
+        method.afterWriteRequest();
+        if (method.getMetrics() != null) {
+            method.getMetrics().getConnectTimer().start();
+        }
+
+        final HttpRequest request = createRequest(method, uri);
+        final BasicFuture<HttpResponse> future = new BasicFuture<HttpResponse>(null);
+        final AtomicReference<Future<HttpResponse>> exchange = new AtomicReference<Future<HttpResponse>>();
+
+        // lease explicitly so that the connect timeout of the method is used
+        final Future<BasicNIOPoolEntry> lease = connectionPool.lease(target, null, connectTimeout,
+                TimeUnit.MILLISECONDS, new FutureCallback<BasicNIOPoolEntry>() {
+                    public void completed(BasicNIOPoolEntry entry) {
+                        if (future.isCancelled()) {
+                            connectionPool.release(entry, true);
+                            return;
+                        }
+
+                        exchange.set(requester.execute(new MetricsRequestProducer(target, request, method),
+                                new MetricsResponseConsumer(method), entry, connectionPool, context,
+                                new FutureCallback<HttpResponse>() {
+                                    public void completed(HttpResponse response) {
+                                        future.completed(response);
+                                    }
+
+                                    public void failed(Exception e) {
+                                        future.failed(e);
+                                    }
+
+                                    public void cancelled() {
+                                        future.cancel(true);
+                                    }
+                                }));
+
+                        if (future.isCancelled()) {
+                            exchange.get().cancel(true);
+                        }
+                    }
+
+                    public void failed(Exception e) {
+                        future.failed(e);
+                    }
+
+                    public void cancelled() {
+                        future.cancel(true);
+                    }
+                });
+
+        if (method instanceof HttpRequestBase) {
+            ((HttpRequestBase) method).setCancellable(new Cancellable() {
+                public boolean cancel() {
+                    lease.cancel(true);
+                    Future<HttpResponse> exchangeFuture = exchange.get();
+                    if (exchangeFuture != null) {
+                        exchangeFuture.cancel(true);
+                    }
+
+                    return future.cancel(true);
+                }
+            });
+        }
+
+        return future;
+    }
+
+    /**
+     * Executes the specified method and waits for its response; only the
+     * calling thread is blocked, not a connection or reactor thread
+     */
+
+    public HttpResponse execute(ExtendedHttpMethod method, HttpContext httpContext) throws IOException {
+        Future<HttpResponse> future = executeAsync(method, httpContext);
+
+        try {
+            HttpResponse httpResponse = future.get();
+            method.setHttpResponse(httpResponse);
+            return httpResponse;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Request to [" + method.getURI() + "] was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+
+            throw new IOException("Request to [" + method.getURI() + "] failed", e.getCause());
+        }
+    }
+
+    /**
+     * Creates a request with an origin-form request line from the absolute URI
+     * of the method
+     */
+
+    private static HttpRequest createRequest(ExtendedHttpMethod method, URI uri) {
+        String path = uri.getRawPath();
+        if (path == null || path.length() == 0) {
+            path = "/";
+        }
+
+        if (uri.getRawQuery() != null) {
+            path += "?" + uri.getRawQuery();
+        }
+
+        HttpRequest request;
+        HttpEntity entity = method.getRequestEntity();
+        if (entity != null) {
+            BasicHttpEntityEnclosingRequest enclosingRequest = new BasicHttpEntityEnclosingRequest(method.getMethod(),
+                    path, method.getProtocolVersion());
+            enclosingRequest.setEntity(entity);
+            request = enclosingRequest;
+        } else {
+            request = new BasicHttpRequest(method.getMethod(), path, method.getProtocolVersion());
+        }
+
+        request.setHeaders(method.getAllHeaders());
+        return request;
+    }
+
+    public void shutdown() throws IOException {
+        connectionPool.shutdown(1000);
+        ioReactor.shutdown(1000);
+    }
+
+    private void retire() {
+        connectionPool.closeIdle(0, TimeUnit.MILLISECONDS);
+
+        SoapUI.getSoapUITimer().schedule(new TimerTask() {
+            @Override
+            public void run() {
+                PoolStats stats = connectionPool.getTotalStats();
+                if (stats.getLeased() > 0 || stats.getPending() > 0) {
+                    return;
+                }
+
+                cancel();
+                try {
+                    shutdown();
+                } catch (IOException e) {
+                    SoapUI.logError(e, "Failed to shut down non-blocking HTTP client");
+                }
+            }
+        }, RETIRE_CHECK_PERIOD, RETIRE_CHECK_PERIOD);
+    }
+
+    private static final class SSLSettingsListener implements SettingsListener {
+        @Override
+        public void settingChanged(String name, String newValue, String oldValue) {
+            if (name.equals(SSLSettings.KEYSTORE) || name.equals(SSLSettings.KEYSTORE_PASSWORD)) {
+                log.info("Updating keyStore for non-blocking HTTP client..");
+                reset();
+            }
+        }
+
+        @Override
+        public void settingsReloaded() {
+            reset();
+        }
+    }
+
+    /**
+     * Applies the socket timeout of the method being sent to the connection it
+     * is sent on, pooled connections are reused by methods with other timeouts
+     */
+
+    private static class SocketTimeoutInterceptor implements HttpRequestInterceptor {
+        public void process(HttpRequest request, HttpContext context) throws HttpException, IOException {
+            Object timeout = context.getAttribute(SOCKET_TIMEOUT_ATTRIBUTE);
+            HttpConnection connection = HttpCoreContext.adapt(context).getConnection();
+            if (timeout instanceof Integer && connection != null) {
+                connection.setSocketTimeout((Integer) timeout);
+            }
+        }
+    }
+
+    private static class MetricsRequestProducer extends BasicAsyncRequestProducer {
+        private final ExtendedHttpMethod method;
+
+        public MetricsRequestProducer(HttpHost target, HttpRequest request, ExtendedHttpMethod method) {
+            super(target, request);
+            this.method = method;
+        }
+
+        @Override
+        public HttpRequest generateRequest() {
+            SoapUIMetrics metrics = method.getMetrics();
+            if (metrics != null) {
+                metrics.getConnectTimer().stop();
+                metrics.getTimeToFirstByteTimer().start();
+            }
+
+            return super.generateRequest();
+        }
+    }
+
+    private static class MetricsResponseConsumer extends BasicAsyncResponseConsumer {
+        private final ExtendedHttpMethod method;
+
+        public MetricsResponseConsumer(ExtendedHttpMethod method) {
+            this.method = method;
+        }
+
+        @Override
+        protected void onResponseReceived(HttpResponse response) throws IOException {
+            SoapUIMetrics metrics = method.getMetrics();
+            if (metrics != null) {
+                metrics.getTimeToFirstByteTimer().stop();
+                metrics.getReadTimer().start();
+            }
+
+            super.onResponseReceived(response);
+        }
+    }
+}
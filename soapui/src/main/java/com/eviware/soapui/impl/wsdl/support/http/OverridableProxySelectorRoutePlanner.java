@@ -41,6 +41,10 @@ public class OverridableProxySelectorRoutePlanner extends ProxySelectorRoutePlan
         params.setBooleanParameter(FORCE_DIRECT_CONNECTION, true);
     }
 
+    static boolean isForceDirectConnection(HttpParams params) {
+        return params.getBooleanParameter(FORCE_DIRECT_CONNECTION, false);
+    }
+
     public OverridableProxySelectorRoutePlanner(SchemeRegistry registry, ProxySelector proxySelector) {
         super(registry, proxySelector);
     }
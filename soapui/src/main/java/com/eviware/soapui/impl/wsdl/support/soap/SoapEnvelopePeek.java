@@ -0,0 +1,148 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.impl.wsdl.support.soap;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+
+/**
+ * Reads the envelope namespace and the name of the first element in the SOAP
+ * Body with a streaming parser, without building the message. Only the
+ * content up to the start of that element is read.
+ */
+
+public final class SoapEnvelopePeek {
+    private static final String ENVELOPE = "Envelope";
+    private static final String BODY = "Body";
+
+    private static final XMLInputFactory inputFactory;
+
+    static {
+        inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+    }
+
+    private final String envelopeNamespace;
+    private final boolean hasBody;
+    private final QName contentElementName;
+
+    private SoapEnvelopePeek(String envelopeNamespace, boolean hasBody, QName contentElementName) {
+        this.envelopeNamespace = envelopeNamespace;
+        this.hasBody = hasBody;
+        this.contentElementName = contentElementName;
+    }
+
+    /**
+     * Peeks into the specified message; returns null if the content is empty
+     * or its root element is not a SOAP Envelope
+     *
+     * @throws XMLStreamException if the content read up to the first Body element is not well-formed
+     */
+
+    public static SoapEnvelopePeek peek(String content) throws XMLStreamException {
+        if (content == null || content.length() == 0) {
+            return null;
+        }
+
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(new StringReader(content));
+        try {
+            if (reader.nextTag() != XMLStreamConstants.START_ELEMENT || !ENVELOPE.equals(reader.getLocalName())) {
+                return null;
+            }
+
+            String envelopeNamespace = reader.getNamespaceURI();
+            if (!SoapVersion.Soap11.getEnvelopeNamespace().equals(envelopeNamespace)
+                    && !SoapVersion.Soap12.getEnvelopeNamespace().equals(envelopeNamespace)) {
+                return null;
+            }
+
+            // children of the Envelope
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    break;
+                }
+
+                if (event != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+
+                if (BODY.equals(reader.getLocalName()) && envelopeNamespace.equals(reader.getNamespaceURI())) {
+                    return new SoapEnvelopePeek(envelopeNamespace, true, readFirstChildElementName(reader));
+                }
+
+                skipElement(reader);
+            }
+
+            return new SoapEnvelopePeek(envelopeNamespace, false, null);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static QName readFirstChildElementName(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String namespaceURI = reader.getNamespaceURI();
+                return new QName(namespaceURI == null ? "" : namespaceURI, reader.getLocalName());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return null;
+            }
+        }
+
+        return null;
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    public String getEnvelopeNamespace() {
+        return envelopeNamespace;
+    }
+
+    public SoapVersion getSoapVersion() {
+        return SoapVersion.Soap12.getEnvelopeNamespace().equals(envelopeNamespace) ? SoapVersion.Soap12
+                : SoapVersion.Soap11;
+    }
+
+    public boolean hasBody() {
+        return hasBody;
+    }
+
+    /**
+     * The name of the first element in the Body, or null if the Body is empty
+     */
+
+    public QName getContentElementName() {
+        return contentElementName;
+    }
+}
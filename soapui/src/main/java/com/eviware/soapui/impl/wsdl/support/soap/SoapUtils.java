@@ -46,24 +46,32 @@ import java.util.List;
 
 public class SoapUtils {
     public static boolean isSoapFault(String responseContent, SoapVersion soapVersion) throws XmlException {
-        if (StringUtils.isNullOrEmpty(responseContent)) {
-            return false;
-        }
-
         // check manually before resource intensive xpath
-        if (responseContent.indexOf(":Fault") > 0 || responseContent.indexOf("<Fault") > 0) {
+        if (mayBeSoapFault(responseContent)) {
             // XmlObject xml = XmlObject.Factory.parse( responseContent );
             XmlObject xml = XmlUtils.createXmlObject(responseContent);
-            XmlObject[] paths = xml.selectPath("declare namespace env='" + soapVersion.getEnvelopeNamespace() + "';"
-                    + "//env:Fault");
-            if (paths.length > 0) {
-                return true;
-            }
+            return isSoapFault(xml, soapVersion);
         }
 
         return false;
     }
 
+    /**
+     * Quick textual check if the specified content could contain a SOAP Fault
+     * at all, to avoid parsing content that can't
+     */
+
+    public static boolean mayBeSoapFault(String responseContent) {
+        return StringUtils.hasContent(responseContent)
+                && (responseContent.indexOf(":Fault") > 0 || responseContent.indexOf("<Fault") > 0);
+    }
+
+    public static boolean isSoapFault(XmlObject xml, SoapVersion soapVersion) {
+        XmlObject[] paths = xml.selectPath("declare namespace env='" + soapVersion.getEnvelopeNamespace() + "';"
+                + "//env:Fault");
+        return paths.length > 0;
+    }
+
     public static boolean isSoapFault(String responseContent) throws XmlException {
         return isSoapFault(responseContent, SoapVersion.Soap12) || isSoapFault(responseContent, SoapVersion.Soap11);
     }
@@ -234,14 +234,21 @@ public class WsaValidator {
     }
 
     public void validateWsAddressingResponse() throws AssertionException, XmlException {
+        // XmlObject xmlObject = XmlObject.Factory.parse( content );
+        validateWsAddressingResponse(XmlUtils.createXmlObject(messageExchange.getResponseContent()));
+    }
+
+    /**
+     * Validates the response using an already parsed response document
+     */
+
+    public void validateWsAddressingResponse(XmlObject xmlObject) throws AssertionException, XmlException {
         String content = messageExchange.getResponseContent();
         SoapVersion soapVersion = messageExchange.getOperation().getInterface().getSoapVersion();
 
         // XmlObject requestXmlObject = XmlObject.Factory.parse(
         // messageExchange.getRequestContent() );
         XmlObject requestXmlObject = XmlUtils.createXmlObject(messageExchange.getRequestContent());
-        // XmlObject xmlObject = XmlObject.Factory.parse( content );
-        XmlObject xmlObject = XmlUtils.createXmlObject(content);
         header = (Element) SoapUtils.getHeaderElement(xmlObject, soapVersion, true).getDomNode();
 
         wsaVersionNameSpace = getWsaVersion(xmlObject, soapVersion);
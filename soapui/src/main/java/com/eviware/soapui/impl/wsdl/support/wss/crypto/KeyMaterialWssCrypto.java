@@ -63,6 +63,9 @@ public class KeyMaterialWssCrypto implements WssCrypto {
     private KeyMaterialCryptoConfig config;
     private final WssContainer container;
     private KeyStore keyStore;
+    private String keyStoreSource;
+    private Merlin crypto;
+    private String cryptoKey;
     private BeanPathPropertySupport sourceProperty;
 
     private static final Logger log = Logger.getLogger(KeyMaterialWssCrypto.class);
@@ -88,29 +91,47 @@ public class KeyMaterialWssCrypto implements WssCrypto {
         };
     }
 
-    public Merlin getCrypto() {
+    /*
+     * The crypto is built once and reused by all requests until the
+     * configuration changes or the source expands to another file.
+     */
+    public synchronized Merlin getCrypto() {
+        String source = sourceProperty.expand();
+        String key = getType() + "|" + source + "|" + getDefaultAlias();
+        if (crypto != null && key.equals(cryptoKey)) {
+            return crypto;
+        }
+
         try {
             Properties properties = new Properties();
 
             properties.put("org.apache.ws.security.crypto.merlin.keystore.provider", "this");
 
             if (getType() == CryptoType.TRUSTSTORE) {
-                properties.put("org.apache.ws.security.crypto.merlin.truststore.file", sourceProperty.expand());
+                properties.put("org.apache.ws.security.crypto.merlin.truststore.file", source);
             } else {
-                properties.put("org.apache.ws.security.crypto.merlin.keystore.file", sourceProperty.expand());
+                properties.put("org.apache.ws.security.crypto.merlin.keystore.file", source);
                 if (StringUtils.hasContent(getDefaultAlias())) {
                     properties.put("org.apache.ws.security.crypto.merlin.keystore.alias", getDefaultAlias());
                 }
             }
 
-            KeyMaterialCrypto keyMaterialCrypto = new KeyMaterialCrypto(properties);
-            return keyMaterialCrypto;
+            crypto = new KeyMaterialCrypto(properties);
+            cryptoKey = key;
+            return crypto;
         } catch (Exception e) {
             e.printStackTrace();
         }
         return null;
     }
 
+    private synchronized void invalidate() {
+        keyStore = null;
+        keyStoreSource = null;
+        crypto = null;
+        cryptoKey = null;
+    }
+
     public String getLabel() {
         String source = getSource();
 
@@ -133,26 +154,27 @@ public class KeyMaterialWssCrypto implements WssCrypto {
     public void udpateConfig(KeyMaterialCryptoConfig config) {
         this.config = config;
         sourceProperty.setConfig(config);
+        invalidate();
     }
 
     public void setSource(String source) {
         sourceProperty.set(source, true);
-        keyStore = null;
+        invalidate();
     }
 
     /*
      * This loads the keystore / truststore file
      */
     // FIXME Why is this method called like times in a row?
-    public KeyStore load() throws Exception {
-        if (keyStore != null) {
+    public synchronized KeyStore load() throws Exception {
+        String crypotFilePath = sourceProperty.expand();
+        if (keyStore != null && crypotFilePath.equals(keyStoreSource)) {
             return keyStore;
         }
 
         try {
             UISupport.setHourglassCursor();
 
-            String crypotFilePath = sourceProperty.expand();
             String fileExtension = Files.getFileExtension(crypotFilePath);
             String keystoreType = fileExtensionToKeystoreType(fileExtension);
 
@@ -167,12 +189,14 @@ public class KeyMaterialWssCrypto implements WssCrypto {
             }
 
             keyStore.load(input, password);
+            keyStoreSource = crypotFilePath;
 
             return keyStore;
         } catch (Exception exceptionFromNormalLoad) {
             log.warn("Using fallback method to load keystore/truststore due to: " + exceptionFromNormalLoad.getMessage());
             try {
                 keyStore = fallbackLoad();
+                keyStoreSource = crypotFilePath;
                 return keyStore;
             } catch (Exception exceptionFromFallbackLoad) {
                 keyStore = null;
@@ -245,15 +269,17 @@ public class KeyMaterialWssCrypto implements WssCrypto {
 
     public void setAliasPassword(String arg0) {
         config.setAliasPassword(arg0);
+        invalidate();
     }
 
     public void setDefaultAlias(String arg0) {
         config.setDefaultAlias(arg0);
+        invalidate();
     }
 
     public void setPassword(String arg0) {
         config.setPassword(arg0);
-        keyStore = null;
+        invalidate();
         getWssContainer().fireCryptoUpdated(this);
     }
 
@@ -296,7 +322,7 @@ public class KeyMaterialWssCrypto implements WssCrypto {
 
     public void setCryptoProvider(String provider) {
         config.setCryptoProvider(provider);
-        keyStore = null;
+        invalidate();
         getWssContainer().fireCryptoUpdated(this);
     }
 
@@ -314,6 +340,7 @@ public class KeyMaterialWssCrypto implements WssCrypto {
 
     public void setType(@Nonnull CryptoType type) {
         config.setType(type.name());
+        invalidate();
     }
 
     public void resolve(ResolveContext<?> context) {
@@ -29,7 +29,6 @@ import com.eviware.soapui.support.components.SimpleBindingForm;
 import com.eviware.soapui.support.types.StringToStringMap;
 import com.eviware.soapui.support.xml.XmlObjectConfigurationBuilder;
 import com.eviware.soapui.support.xml.XmlObjectConfigurationReader;
-import com.eviware.soapui.support.xml.XmlUtils;
 import com.jgoodies.binding.PresentationModel;
 import org.apache.ws.security.WSConstants;
 import org.apache.ws.security.WSEncryptionPart;
@@ -38,13 +37,13 @@ import org.apache.ws.security.components.crypto.Crypto;
 import org.apache.ws.security.message.WSSecEncrypt;
 import org.apache.ws.security.message.WSSecHeader;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 
 import javax.swing.JComponent;
 import javax.swing.JScrollPane;
 import javax.swing.JTextField;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
-import java.io.StringWriter;
 import java.util.List;
 import java.util.Vector;
 
@@ -231,7 +230,7 @@ public class EncryptionEntry extends WssEntryBase {
     }
 
     public void process(WSSecHeader secHeader, Document doc, PropertyExpansionContext context) {
-        StringWriter writer = null;
+        Element backup = null;
 
         try {
             WssCrypto wssCrypto = getWssContainer().getCryptoByName(crypto);
@@ -276,18 +275,16 @@ public class EncryptionEntry extends WssEntryBase {
             }
 
             // create backup
-            writer = new StringWriter();
-            XmlUtils.serialize(doc, writer);
+            backup = (Element) doc.getDocumentElement().cloneNode(true);
 
             wsEncrypt.build(doc, crypto, secHeader);
         } catch (Exception e) {
             SoapUI.logError(e);
 
-            if (writer != null && writer.getBuffer().length() > 0) {
+            if (backup != null) {
                 try {
                     // try to restore..
-                    doc.replaceChild(doc.importNode(XmlUtils.parseXml(writer.toString()).getDocumentElement(), true),
-                            doc.getDocumentElement());
+                    doc.replaceChild(backup, doc.getDocumentElement());
                 } catch (Exception e1) {
                     SoapUI.logError(e1);
                 }
@@ -30,7 +30,6 @@ import com.eviware.soapui.support.components.SimpleBindingForm;
 import com.eviware.soapui.support.types.StringToStringMap;
 import com.eviware.soapui.support.xml.XmlObjectConfigurationBuilder;
 import com.eviware.soapui.support.xml.XmlObjectConfigurationReader;
-import com.eviware.soapui.support.xml.XmlUtils;
 import com.jgoodies.binding.PresentationModel;
 import org.apache.ws.security.WSConstants;
 import org.apache.ws.security.WSEncryptionPart;
@@ -53,7 +52,6 @@ import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.dom.DOMSource;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
-import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -191,7 +189,7 @@ public class SignatureEntry extends WssEntryBase {
     }
 
     public void process(WSSecHeader secHeader, Document doc, PropertyExpansionContext context) {
-        StringWriter writer = null;
+        Element backup = null;
 
         try {
             WssCrypto wssCrypto = getWssContainer().getCryptoByName(crypto);
@@ -239,18 +237,16 @@ public class SignatureEntry extends WssEntryBase {
                 wssSign.setParts(wsParts);
             }
 
-            writer = new StringWriter();
-            XmlUtils.serialize(doc, writer);
+            backup = (Element) doc.getDocumentElement().cloneNode(true);
 
             wssSign.setCallbackLookup(new BinarySecurityTokenDOMCallbackLookup(doc, wssSign));
             wssSign.build(doc, wssCrypto.getCrypto(), secHeader);
         } catch (Exception e) {
             SoapUI.logError(e);
 
-            if (writer != null && writer.getBuffer().length() > 0) {
+            if (backup != null) {
                 try {
-                    doc.replaceChild(doc.importNode(XmlUtils.parseXml(writer.toString()).getDocumentElement(), true),
-                            doc.getDocumentElement());
+                    doc.replaceChild(backup, doc.getDocumentElement());
                 } catch (Exception e1) {
                     SoapUI.logError(e1);
                 }
@@ -0,0 +1,444 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.impl.wsdl.support.xsd;
+
+import com.eviware.soapui.support.CacheStatistics;
+import org.apache.log4j.Logger;
+import org.apache.xmlbeans.SchemaTypeSystem;
+import org.apache.xmlbeans.XmlBeans;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * On-disk cache of compiled SchemaTypeSystems, keyed by a content hash of the
+ * schemas they were compiled from, so that loading the same definitions again
+ * (in a new SoapUI session or command-line run) can skip XmlBeans.compileXsd.
+ * <p/>
+ * Each entry is a directory holding the .xsb files written by
+ * SchemaTypeSystem.saveToDirectory, which is loaded again through its own
+ * classloader. That classloader reads the files of the entry into memory when
+ * XmlBeans asks for them, so it holds no open file handles and there is
+ * nothing to close when the type system is released. The cache lives in ~/.soapuios/schemacache unless the
+ * soapui.schema.cache.dir system property says otherwise, and is disabled by
+ * setting soapui.schema.cache.disabled to true.
+ * <p/>
+ * The size of the directory is bounded by soapui.schema.cache.maxSize (in MB,
+ * 100 by default); whenever an entry is added the least recently used entries
+ * are deleted until the cache fits, skipping those loaded by this session.
+ * Entries left behind by sessions that were killed while saving are deleted
+ * after an hour.
+ */
+
+public class SchemaTypeSystemCache {
+    public static final String CACHE_DIR_PROPERTY = "soapui.schema.cache.dir";
+    public static final String CACHE_DISABLED_PROPERTY = "soapui.schema.cache.disabled";
+    public static final String MAX_SIZE_PROPERTY = "soapui.schema.cache.maxSize";
+    public static final long DEFAULT_MAX_SIZE = 100;
+
+    private final static Logger log = Logger.getLogger(SchemaTypeSystemCache.class);
+    private final static SchemaTypeSystemCache instance = create();
+
+    private static final String INDEX_FILE = "typesystem.properties";
+    private static final String NAME_KEY = "name";
+    private static final String TEMP_DIR_SUFFIX = ".tmp";
+    private static final long TEMP_DIR_MAX_AGE = 60 * 60 * 1000;
+
+    private final File cacheDir;
+    private final long maxSize;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final ReferenceQueue<SchemaTypeSystem> releasedTypeSystems = new ReferenceQueue<SchemaTypeSystem>();
+    private final Set<LoadedTypeSystem> loadedTypeSystems = Collections
+            .synchronizedSet(new HashSet<LoadedTypeSystem>());
+
+    public SchemaTypeSystemCache(File cacheDir) {
+        this(cacheDir, DEFAULT_MAX_SIZE * 1024 * 1024);
+    }
+
+    /**
+     * Creates a cache in the specified directory, which is pruned to the
+     * specified size in bytes
+     */
+
+    public SchemaTypeSystemCache(File cacheDir, long maxSize) {
+        this.cacheDir = cacheDir;
+        this.maxSize = maxSize;
+    }
+
+    private static SchemaTypeSystemCache create() {
+        if (Boolean.getBoolean(CACHE_DISABLED_PROPERTY)) {
+            return null;
+        }
+
+        String dir = System.getProperty(CACHE_DIR_PROPERTY);
+        File cacheDir = dir == null || dir.trim().length() == 0 ? new File(new File(System.getProperty("user.home",
+                "."), ".soapuios"), "schemacache") : new File(dir);
+
+        return new SchemaTypeSystemCache(cacheDir, Long.getLong(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE) * 1024 * 1024);
+    }
+
+    /**
+     * Returns the shared cache, or null if it has been disabled
+     */
+
+    public static SchemaTypeSystemCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns the type system cached for the specified key, or null if there is
+     * none or it could not be loaded
+     */
+
+    public SchemaTypeSystem get(String key) {
+        SchemaTypeSystem schemaTypes = load(key);
+        if (schemaTypes == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+
+        return schemaTypes;
+    }
+
+    /**
+     * Saves the specified type system for later sessions; failures are logged
+     * and otherwise ignored
+     */
+
+    public void put(String key, SchemaTypeSystem schemaTypes) {
+        File entryDir = new File(cacheDir, key);
+        if (new File(entryDir, INDEX_FILE).exists()) {
+            return;
+        }
+
+        // left behind by an entry that could only partly be deleted
+        if (entryDir.exists()) {
+            deleteDirectory(entryDir);
+        }
+
+        File tempDir = new File(cacheDir, key + TEMP_DIR_SUFFIX + System.nanoTime());
+        try {
+            if (!tempDir.mkdirs()) {
+                throw new IOException("Failed to create directory [" + tempDir + "]");
+            }
+
+            schemaTypes.saveToDirectory(tempDir);
+
+            Properties index = new Properties();
+            index.setProperty(NAME_KEY, schemaTypes.getName());
+            OutputStream out = new FileOutputStream(new File(tempDir, INDEX_FILE));
+            try {
+                index.store(out, null);
+            } finally {
+                out.close();
+            }
+
+            // another session may have stored the same entry in the meantime
+            if (!tempDir.renameTo(entryDir)) {
+                deleteDirectory(tempDir);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to cache schema types in [" + entryDir + "]: " + e);
+            deleteDirectory(tempDir);
+        }
+
+        prune(key);
+    }
+
+    private SchemaTypeSystem load(String key) {
+        purgeReleasedTypeSystems();
+
+        File entryDir = new File(cacheDir, key);
+        File indexFile = new File(entryDir, INDEX_FILE);
+        if (!indexFile.exists()) {
+            return null;
+        }
+
+        try {
+            Properties index = new Properties();
+            InputStream in = new FileInputStream(indexFile);
+            try {
+                index.load(in);
+            } finally {
+                in.close();
+            }
+
+            ClassLoader classLoader = new EntryClassLoader(entryDir, SchemaTypeSystemCache.class.getClassLoader());
+            SchemaTypeSystem schemaTypes = XmlBeans.typeSystemForClassLoader(classLoader, index.getProperty(NAME_KEY));
+            if (schemaTypes == null) {
+                return null;
+            }
+
+            // types are read lazily, so the entry must not be pruned while in use
+            loadedTypeSystems.add(new LoadedTypeSystem(schemaTypes, key, releasedTypeSystems));
+
+            // last use decides what is pruned first
+            entryDir.setLastModified(System.currentTimeMillis());
+            return schemaTypes;
+        } catch (Throwable e) {
+            log.warn("Failed to load cached schema types from [" + entryDir + "], discarding: " + e);
+            deleteDirectory(entryDir);
+            return null;
+        }
+    }
+
+    /**
+     * Deletes abandoned temporary directories and the least recently used
+     * entries until the cache is no larger than its maximum size; entries
+     * loaded by this session are kept
+     */
+
+    public void prune() {
+        prune(null);
+    }
+
+    private void prune(String addedKey) {
+        purgeReleasedTypeSystems();
+
+        File[] files = cacheDir.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long totalSize = 0;
+        List<File> entryDirs = new ArrayList<File>();
+        for (File file : files) {
+            if (!file.isDirectory()) {
+                continue;
+            }
+
+            if (file.getName().contains(TEMP_DIR_SUFFIX)) {
+                if (now - file.lastModified() > TEMP_DIR_MAX_AGE) {
+                    deleteDirectory(file);
+                }
+                continue;
+            }
+
+            totalSize += sizeOf(file);
+            entryDirs.add(file);
+        }
+
+        if (totalSize <= maxSize) {
+            return;
+        }
+
+        Collections.sort(entryDirs, new Comparator<File>() {
+            public int compare(File file1, File file2) {
+                long lastModified1 = file1.lastModified();
+                long lastModified2 = file2.lastModified();
+                return lastModified1 < lastModified2 ? -1 : lastModified1 == lastModified2 ? 0 : 1;
+            }
+        });
+
+        Set<String> loadedKeys = getLoadedKeys();
+        loadedKeys.add(addedKey);
+        for (File entryDir : entryDirs) {
+            if (totalSize <= maxSize) {
+                break;
+            }
+
+            if (!loadedKeys.contains(entryDir.getName())) {
+                totalSize -= sizeOf(entryDir);
+                deleteDirectory(entryDir);
+                evictionCount.incrementAndGet();
+            }
+        }
+
+        if (totalSize > maxSize) {
+            log.info("Schema cache in [" + cacheDir + "] exceeds its maximum size, all remaining entries are in use");
+        }
+    }
+
+    private Set<String> getLoadedKeys() {
+        Set<String> result = new HashSet<String>();
+        synchronized (loadedTypeSystems) {
+            for (LoadedTypeSystem loaded : loadedTypeSystems) {
+                if (loaded.get() != null) {
+                    result.add(loaded.key);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private void purgeReleasedTypeSystems() {
+        Reference<? extends SchemaTypeSystem> reference;
+        while ((reference = releasedTypeSystems.poll()) != null) {
+            loadedTypeSystems.remove(reference);
+        }
+    }
+
+    private static long sizeOf(File file) {
+        if (!file.isDirectory()) {
+            return file.length();
+        }
+
+        long size = 0;
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                size += sizeOf(child);
+            }
+        }
+
+        return size;
+    }
+
+    public File getCacheDir() {
+        return cacheDir;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Number of entries deleted to keep the cache within its maximum size
+     */
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics("Schema Type Systems", hitCount.get(), missCount.get());
+    }
+
+    private static void deleteDirectory(File dir) {
+        // without the index a partly deleted entry is not loaded again
+        new File(dir, INDEX_FILE).delete();
+
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    deleteDirectory(file);
+                } else {
+                    file.delete();
+                }
+            }
+        }
+
+        dir.delete();
+    }
+
+    private static byte[] readFile(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] data = new byte[(int) file.length()];
+            int offset = 0;
+            int read;
+            while (offset < data.length && (read = in.read(data, offset, data.length - offset)) >= 0) {
+                offset += read;
+            }
+
+            return data;
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Type system loaded from the cache, referenced weakly so that it is only
+     * kept from being pruned while it is in use
+     */
+
+    private static class LoadedTypeSystem extends WeakReference<SchemaTypeSystem> {
+        private final String key;
+
+        public LoadedTypeSystem(SchemaTypeSystem schemaTypes, String key, ReferenceQueue<SchemaTypeSystem> queue) {
+            super(schemaTypes, queue);
+            this.key = key;
+        }
+    }
+
+    /**
+     * Loads the classes and .xsb files of a cache entry, reading each file
+     * into memory and closing it right away
+     */
+
+    private static class EntryClassLoader extends ClassLoader {
+        private final File entryDir;
+
+        public EntryClassLoader(File entryDir, ClassLoader parent) {
+            super(parent);
+            this.entryDir = entryDir;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            File file = new File(entryDir, name.replace('.', '/') + ".class");
+            if (!file.isFile()) {
+                throw new ClassNotFoundException(name);
+            }
+
+            try {
+                byte[] data = readFile(file);
+                return defineClass(name, data, 0, data.length);
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+
+        @Override
+        protected URL findResource(String name) {
+            File file = new File(entryDir, name);
+            try {
+                return file.isFile() ? file.toURI().toURL() : null;
+            } catch (MalformedURLException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public InputStream getResourceAsStream(String name) {
+            InputStream in = getParent().getResourceAsStream(name);
+            if (in != null) {
+                return in;
+            }
+
+            File file = new File(entryDir, name);
+            try {
+                return file.isFile() ? new ByteArrayInputStream(readFile(file)) : null;
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    }
+}
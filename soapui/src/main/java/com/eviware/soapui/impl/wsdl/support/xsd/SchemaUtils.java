@@ -49,8 +49,10 @@ import org.w3c.dom.Node;
 import javax.xml.namespace.QName;
 import java.io.File;
 import java.io.IOException;
+import java.math.BigInteger;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -59,6 +61,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * XML-Schema related tools
@@ -69,6 +72,7 @@ import java.util.Set;
 public class SchemaUtils {
     private final static Logger log = Logger.getLogger(SchemaUtils.class);
     private static Map<String, XmlObject> defaultSchemas = new HashMap<String, XmlObject>();
+    private static volatile String defaultSchemasDigest;
 
     static {
         initDefaultSchemas();
@@ -95,6 +99,7 @@ public class SchemaUtils {
 
         try {
             defaultSchemas.clear();
+            defaultSchemasDigest = null;
 
             String root = "/com/eviware/soapui/resources/xsds";
 
@@ -172,9 +177,26 @@ public class SchemaUtils {
 
         try {
             log.info("Loading schema types from [" + wsdlUrl + "]");
-            ArrayList<XmlObject> schemas = new ArrayList<XmlObject>(getSchemas(wsdlUrl, loader).values());
+            Map<String, XmlObject> schemaMap = getSchemas(wsdlUrl, loader);
+
+            SchemaTypeSystemCache cache = SchemaTypeSystemCache.getInstance();
+            String cacheKey = cache == null ? null : createCacheKey(schemaMap);
+            if (cacheKey != null) {
+                SchemaTypeSystem sts = cache.get(cacheKey);
+                if (sts != null) {
+                    log.info("Using cached schema types for [" + wsdlUrl + "]; " + cache.getStatistics());
+                    return sts;
+                }
+            }
+
+            // building modifies the schemas, so the key has to be created before
+            SchemaTypeSystem sts = buildSchemaTypes(new ArrayList<XmlObject>(schemaMap.values()));
+            if (cacheKey != null) {
+                cache.put(cacheKey, sts);
+                log.info("Compiled schema types for [" + wsdlUrl + "]; " + cache.getStatistics());
+            }
 
-            return buildSchemaTypes(schemas);
+            return sts;
         } catch (Exception e) {
             SoapUI.logError(e);
             if (e instanceof SchemaException) {
@@ -275,6 +297,53 @@ public class SchemaUtils {
         }
     }
 
+    /**
+     * Creates a key for the SchemaTypeSystemCache from the content of the
+     * specified schemas, the default schemas and the settings affecting
+     * compilation; returns null if no key could be created
+     */
+
+    private static String createCacheKey(Map<String, XmlObject> schemas) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(XmlBeans.getVersion().getBytes("UTF-8"));
+            digest.update(String.valueOf(SoapUI.getSettings().getBoolean(WsdlSettings.STRICT_SCHEMA_TYPES)).getBytes(
+                    "UTF-8"));
+            digest.update(getDefaultSchemasDigest().getBytes("UTF-8"));
+
+            for (Map.Entry<String, XmlObject> entry : new TreeMap<String, XmlObject>(schemas).entrySet()) {
+                digest.update(entry.getKey().getBytes("UTF-8"));
+                if (entry.getValue() != null) {
+                    digest.update(entry.getValue().xmlText().getBytes("UTF-8"));
+                }
+            }
+
+            return toHex(digest.digest());
+        } catch (Exception e) {
+            log.warn("Failed to create schema cache key: " + e);
+            return null;
+        }
+    }
+
+    private static String getDefaultSchemasDigest() throws Exception {
+        String result = defaultSchemasDigest;
+        if (result == null) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            for (Map.Entry<String, XmlObject> entry : new TreeMap<String, XmlObject>(defaultSchemas).entrySet()) {
+                digest.update(entry.getKey().getBytes("UTF-8"));
+                digest.update(entry.getValue().xmlText().getBytes("UTF-8"));
+            }
+
+            result = defaultSchemasDigest = toHex(digest.digest());
+        }
+
+        return result;
+    }
+
+    private static String toHex(byte[] bytes) {
+        return String.format("%0" + (bytes.length * 2) + "x", new BigInteger(1, bytes));
+    }
+
     public static boolean toNextContainer(XmlCursor cursor) {
         while (!cursor.isContainer() && !cursor.isEnddoc()) {
             cursor.toNextToken();
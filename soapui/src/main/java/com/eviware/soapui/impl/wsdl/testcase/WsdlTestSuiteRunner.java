@@ -18,6 +18,7 @@ package com.eviware.soapui.impl.wsdl.testcase;
 
 import com.eviware.soapui.SoapUI;
 import com.eviware.soapui.impl.wsdl.WsdlTestSuite;
+import com.eviware.soapui.impl.wsdl.loadtest.LoadTestExecutor;
 import com.eviware.soapui.impl.wsdl.support.AbstractTestRunner;
 import com.eviware.soapui.model.propertyexpansion.DefaultPropertyExpansionContext;
 import com.eviware.soapui.model.support.TestRunListenerAdapter;
@@ -51,6 +52,7 @@ public class WsdlTestSuiteRunner extends AbstractTestRunner<WsdlTestSuite, WsdlT
     private int currentTestCaseIndex;
     private WsdlTestCase currentTestCase;
     private TestRunListener parallellTestRunListener = new ParallellTestRunListener();
+    private LoadTestExecutor executor;
 
     public WsdlTestSuiteRunner(WsdlTestSuite testSuite, StringToObjectMap properties) {
         super(testSuite, properties);
@@ -61,17 +63,23 @@ public class WsdlTestSuiteRunner extends AbstractTestRunner<WsdlTestSuite, WsdlT
     }
 
     public void onCancel(String reason) {
-        for (TestCaseRunner runner : activeRunners.toArray(new TestCaseRunner[activeRunners.size()])) {
+        for (TestCaseRunner runner : getActiveRunners()) {
             runner.cancel(reason);
         }
     }
 
     public void onFail(String reason) {
-        for (TestCaseRunner runner : activeRunners.toArray(new TestCaseRunner[activeRunners.size()])) {
+        for (TestCaseRunner runner : getActiveRunners()) {
             runner.fail(reason);
         }
     }
 
+    private TestCaseRunner[] getActiveRunners() {
+        synchronized (activeRunners) {
+            return activeRunners.toArray(new TestCaseRunner[activeRunners.size()]);
+        }
+    }
+
     public void internalRun(WsdlTestSuiteRunContext runContext) throws Exception {
         WsdlTestSuite testSuite = getTestRunnable();
 
@@ -100,6 +108,7 @@ public class WsdlTestSuiteRunner extends AbstractTestRunner<WsdlTestSuite, WsdlT
     private void runParallel(WsdlTestSuite testSuite, WsdlTestSuiteRunContext runContext) {
         currentTestCaseIndex = -1;
         currentTestCase = null;
+        executor = LoadTestExecutor.create("TestSuite [" + testSuite.getName() + "]", testSuite.getExecutionMode());
 
         for (TestCase testCase : testSuite.getTestCaseList()) {
             if (!testCase.isDisabled()) {
@@ -111,7 +120,9 @@ public class WsdlTestSuiteRunner extends AbstractTestRunner<WsdlTestSuite, WsdlT
 
         try {
             synchronized (activeRunners) {
-                activeRunners.wait();
+                while (!activeRunners.isEmpty()) {
+                    activeRunners.wait();
+                }
             }
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -147,9 +158,18 @@ public class WsdlTestSuiteRunner extends AbstractTestRunner<WsdlTestSuite, WsdlT
         DefaultPropertyExpansionContext properties = (DefaultPropertyExpansionContext) getRunContext().getProperties();
         properties.put("#TestSuiteRunner#", this);
 
-        TestCaseRunner currentRunner = testCaseAt.run(properties, true);
-        activeRunners.add(currentRunner);
-        if (!async) {
+        TestCaseRunner currentRunner;
+        if (async) {
+            // register before starting so that a fast TestCase can not finish first
+            WsdlTestCaseRunner runner = new WsdlTestCaseRunner(testCaseAt, properties);
+            synchronized (activeRunners) {
+                activeRunners.add(runner);
+            }
+            runner.start(executor);
+            currentRunner = runner;
+        } else {
+            currentRunner = testCaseAt.run(properties, true);
+            activeRunners.add(currentRunner);
             currentRunner.waitUntilFinished();
         }
 
@@ -159,6 +179,11 @@ public class WsdlTestSuiteRunner extends AbstractTestRunner<WsdlTestSuite, WsdlT
     protected void internalFinally(WsdlTestSuiteRunContext runContext) {
         WsdlTestSuite testSuite = getTestRunnable();
 
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+
         try {
             testSuite.runTearDownScript(runContext, this);
         } catch (Exception e) {
@@ -232,15 +257,14 @@ public class WsdlTestSuiteRunner extends AbstractTestRunner<WsdlTestSuite, WsdlT
         public void afterRun(TestCaseRunner testRunner, TestCaseRunContext runContext) {
             notifyAfterRunTestCase(testRunner);
 
-            activeRunners.remove(testRunner);
-            finishedRunners.add(testRunner);
-
             testRunner.getTestCase().removeTestRunListener(parallellTestRunListener);
 
-            if (activeRunners.isEmpty()) {
-                updateStatus();
+            synchronized (activeRunners) {
+                activeRunners.remove(testRunner);
+                finishedRunners.add(testRunner);
 
-                synchronized (activeRunners) {
+                if (activeRunners.isEmpty()) {
+                    updateStatus();
                     activeRunners.notify();
                 }
             }
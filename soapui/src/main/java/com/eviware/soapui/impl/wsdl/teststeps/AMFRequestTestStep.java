@@ -29,6 +29,7 @@ import com.eviware.soapui.impl.wsdl.support.XmlBeansPropertiesTestPropertyHolder
 import com.eviware.soapui.impl.wsdl.support.assertions.AssertableConfig;
 import com.eviware.soapui.impl.wsdl.support.assertions.AssertedXPathsContainer;
 import com.eviware.soapui.impl.wsdl.support.assertions.AssertionsSupport;
+import com.eviware.soapui.impl.wsdl.support.assertions.ParsedContentCache;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestRunContext;
 import com.eviware.soapui.impl.wsdl.teststeps.assertions.TestAssertionRegistry.AssertableType;
@@ -451,8 +452,13 @@ public class AMFRequestTestStep extends WsdlTestStepWithProperties implements As
             AMFMessageExchange messageExchange = new AMFMessageExchange(this, getAMFRequest().getResponse());
 
             // assert!
-            for (WsdlMessageAssertion assertion : assertionsSupport.getAssertionList()) {
-                assertion.assertResponse(messageExchange, context);
+            ParsedContentCache cache = ParsedContentCache.attach(context);
+            try {
+                for (WsdlMessageAssertion assertion : assertionsSupport.getAssertionList()) {
+                    assertion.assertResponse(messageExchange, context);
+                }
+            } finally {
+                ParsedContentCache.detach(context, cache);
             }
 
             notifier.notifyChange();
@@ -219,8 +219,7 @@ public class HttpTestRequestStep extends WsdlTestStepWithProperties implements H
             if (event.getNewValue() instanceof SinglePartHttpResponse) {
                 SinglePartHttpResponse response = (SinglePartHttpResponse) event.getNewValue();
                 firePropertyValueChanged("Response", String.valueOf(response), null);
-                String XMLCOntent = response.getContentAsXml();
-                firePropertyValueChanged("ResponseAsXml", String.valueOf(XMLCOntent), null);
+                firePropertyValueChanged("ResponseAsXml");
             }
 
             if (event.getPropertyName().equals("domain")) {
@@ -39,6 +39,7 @@ import com.eviware.soapui.support.resolver.CreateMissingPropertyResolver;
 import com.eviware.soapui.support.resolver.DisablePropertyTransferResolver;
 import com.eviware.soapui.support.resolver.ResolveContext;
 import com.eviware.soapui.support.resolver.ResolveContext.PathToResolve;
+import com.eviware.soapui.support.xml.XPathExpressionCache;
 import com.eviware.soapui.support.xml.XmlUtils;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.apache.log4j.Logger;
@@ -345,7 +346,7 @@ public class PropertyTransfer implements PropertyChangeNotifier {
         if (!hasSourcePath()) {
             return sourceValue;
         } else if (getSourcePathLanguage() == PathLanguage.JSONPATH) {
-            return new JsonPathFacade(sourceValue).readObjectValue(getSourcePath());
+            return JsonPathFacade.forContent(context, sourceValue).readObjectValue(getSourcePath());
         } else {
             XmlObject sourceXml = XmlUtils.createXmlObject(sourceValue);
             XmlCursor sourceCursor = sourceXml.newCursor();
@@ -363,7 +364,7 @@ public class PropertyTransfer implements PropertyChangeNotifier {
                         throw new Exception("Missing match for Source XQuery [" + pathExpression + "]");
                     }
                 } else {
-                    sourceCursor.selectPath(pathExpression);
+                    XPathExpressionCache.selectPath(sourceCursor, pathExpression);
                 }
 
                 if (!usingXQuery && !sourceCursor.toNextSelection()) {
@@ -422,7 +423,7 @@ public class PropertyTransfer implements PropertyChangeNotifier {
                 try {
                     List<String> result = new ArrayList<String>();
 
-                    targetCursor.selectPath(targetPath);
+                    XPathExpressionCache.selectPath(targetCursor, targetPath);
 
                     if (!targetCursor.toNextSelection()) {
                         throw new Exception("Missing match for Target XPath [" + targetPath + "]");
@@ -500,7 +501,7 @@ public class PropertyTransfer implements PropertyChangeNotifier {
             List<String> result = new ArrayList<String>();
 
             String tp = PropertyExpander.expandProperties(context, getTargetPath());
-            targetXml.selectPath(tp);
+            XPathExpressionCache.selectPath(targetXml, tp);
 
             if (!targetXml.hasNextSelection()) {
                 throw new Exception("Missing match for Target XPath [" + tp + "]");
@@ -542,7 +543,7 @@ public class PropertyTransfer implements PropertyChangeNotifier {
                 }
             } else {
                 String sp = PropertyExpander.expandProperties(context, getSourcePath());
-                sourceXml.selectPath(sp);
+                XPathExpressionCache.selectPath(sourceXml, sp);
 
                 if (!sourceXml.hasNextSelection()) {
                     if (getSetNullOnMissingSource()) {
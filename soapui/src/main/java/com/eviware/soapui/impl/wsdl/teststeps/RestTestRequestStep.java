@@ -428,9 +428,8 @@ public class RestTestRequestStep extends WsdlTestStepWithProperties implements R
             if (event.getNewValue() instanceof SinglePartHttpResponse) {
                 SinglePartHttpResponse response = (SinglePartHttpResponse) event.getNewValue();
                 firePropertyValueChanged("Response", String.valueOf(response), null);
-                String XMLContent = response.getContentAsXml();
                 // FIXME The value should not be hard coded
-                firePropertyValueChanged("ResponseAsXml", null, XMLContent);
+                firePropertyValueChanged("ResponseAsXml");
             }
 
             if (event.getPropertyName().equals("domain")) {
@@ -28,6 +28,7 @@ import com.eviware.soapui.impl.wsdl.submit.transports.http.HttpResponse;
 import com.eviware.soapui.impl.wsdl.submit.transports.jms.JMSResponse;
 import com.eviware.soapui.impl.wsdl.support.assertions.AssertableConfig;
 import com.eviware.soapui.impl.wsdl.support.assertions.AssertionsSupport;
+import com.eviware.soapui.impl.wsdl.support.assertions.ParsedContentCache;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestRunContext;
 import com.eviware.soapui.impl.wsdl.teststeps.assertions.TestAssertionRegistry.AssertableType;
@@ -171,8 +172,13 @@ public class WsdlTestRequest extends WsdlRequest implements Assertable, TestRequ
 
         if (messageExchange != null) {
             // assert!
-            for (WsdlMessageAssertion assertion : assertionsSupport.getAssertionList()) {
-                assertion.assertResponse(messageExchange, context);
+            ParsedContentCache cache = ParsedContentCache.attach(context);
+            try {
+                for (WsdlMessageAssertion assertion : assertionsSupport.getAssertionList()) {
+                    assertion.assertResponse(messageExchange, context);
+                }
+            } finally {
+                ParsedContentCache.detach(context, cache);
             }
         }
 
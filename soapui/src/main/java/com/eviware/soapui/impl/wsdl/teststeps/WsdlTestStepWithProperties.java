@@ -209,6 +209,18 @@ abstract public class WsdlTestStepWithProperties extends WsdlTestStep {
         }
     }
 
+    /**
+     * Notifies listeners of a changed value without passing it, for virtual
+     * properties like ResponseAsXml that are expensive to create and are read
+     * from the property when needed
+     */
+    protected void firePropertyValueChanged(String name) {
+        TestPropertyListener[] array = listeners.toArray(new TestPropertyListener[listeners.size()]);
+        for (TestPropertyListener listener : array) {
+            listener.propertyValueChanged(name, null, null);
+        }
+    }
+
     public void firePropertyValueChanged(String name, String oldValue, String newValue) {
         if (oldValue == null && newValue == null) {
             return;
@@ -23,6 +23,7 @@ import com.eviware.soapui.impl.wsdl.panels.assertions.AssertionListEntry;
 import com.eviware.soapui.impl.wsdl.support.HelpUrls;
 import com.eviware.soapui.impl.wsdl.support.assertions.AssertedXPathImpl;
 import com.eviware.soapui.impl.wsdl.support.assertions.AssertedXPathsContainer;
+import com.eviware.soapui.impl.wsdl.support.assertions.ParsedContentCache;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestRunContext;
 import com.eviware.soapui.impl.wsdl.teststeps.WsdlMessageAssertion;
 import com.eviware.soapui.impl.wsdl.teststeps.assertions.AbstractTestAssertionFactory;
@@ -35,6 +36,7 @@ import com.eviware.soapui.model.testsuite.AssertionException;
 import com.eviware.soapui.support.Tools;
 import com.eviware.soapui.support.UISupport;
 import com.eviware.soapui.support.types.StringList;
+import com.eviware.soapui.support.xml.XPathExpressionCache;
 import com.eviware.soapui.support.xml.XmlUtils;
 import junit.framework.ComparisonFailure;
 import org.apache.xmlbeans.XmlAnySimpleType;
@@ -82,10 +84,10 @@ public class XPathContainsAssertion extends AbstractXmlContainsAssertion {
                 options.setLoadStripComments();
             }
 
-            // XmlObject xml = XmlObject.Factory.parse( response, options );
-            XmlObject xml = XmlUtils.createXmlObject(response, options);
+            // parsed once for all assertions on this exchange
+            XmlObject xml = ParsedContentCache.getXmlObject(context, response, ignoreComments);
             String expandedPath = PropertyExpander.expandProperties(context, path);
-            XmlObject[] items = xml.selectPath(expandedPath);
+            XmlObject[] items = XPathExpressionCache.selectPath(xml, expandedPath);
             AssertedXPathsContainer assertedXPathsContainer = (AssertedXPathsContainer) context
                     .getProperty(AssertedXPathsContainer.ASSERTEDXPATHSCONTAINER_PROPERTY);
 
@@ -21,6 +21,7 @@ import com.eviware.soapui.config.TestAssertionConfig;
 import com.eviware.soapui.impl.wsdl.panels.assertions.AssertionCategoryMapping;
 import com.eviware.soapui.impl.wsdl.panels.assertions.AssertionListEntry;
 import com.eviware.soapui.impl.wsdl.support.HelpUrls;
+import com.eviware.soapui.impl.wsdl.support.assertions.ParsedContentCache;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestRunContext;
 import com.eviware.soapui.impl.wsdl.teststeps.WsdlMessageAssertion;
 import com.eviware.soapui.impl.wsdl.teststeps.assertions.AbstractTestAssertionFactory;
@@ -75,8 +76,8 @@ public class XQueryContainsAssertion extends AbstractXmlContainsAssertion {
                 options.setLoadStripComments();
             }
 
-            // XmlObject xml = XmlObject.Factory.parse( response, options );
-            XmlObject xml = XmlUtils.createXmlObject(response, options);
+            // parsed once for all assertions on this exchange
+            XmlObject xml = ParsedContentCache.getXmlObject(context, response, ignoreComments);
             String expandedPath = PropertyExpander.expandProperties(context, path);
             XmlObject[] items = xml.execQuery(expandedPath);
 
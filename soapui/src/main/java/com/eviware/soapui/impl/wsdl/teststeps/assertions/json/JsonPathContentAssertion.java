@@ -166,7 +166,7 @@ public class JsonPathContentAssertion extends JsonPathAssertionBase implements R
                 return "Missing content for JsonPath assertion";
             }
             String expandedPath = PropertyExpander.expandProperties(context, getPath());
-            JsonPathFacade jsonPathFacade = new JsonPathFacade(assertableContent);
+            JsonPathFacade jsonPathFacade = JsonPathFacade.forContent(context, assertableContent);
             String result = jsonPathFacade.readStringValue(expandedPath);
             String expandedResult = PropertyExpander.expandProperties(context, result);
 
@@ -123,7 +123,7 @@ public class JsonPathCountAssertion extends JsonPathAssertionBase implements Req
                 return "Missing content for JsonPath assertion";
             }
             String expandedPath = PropertyExpander.expandProperties(context, path);
-            Object result = new JsonPathFacade(assertableContent).readObjectValue(expandedPath);
+            Object result = JsonPathFacade.forContent(context, assertableContent).readObjectValue(expandedPath);
             String resultSize = getResultSize(result).toString();
 
             String expandedContent = PropertyExpander.expandProperties(context, getExpectedContent());
@@ -106,7 +106,7 @@ public class JsonPathExistenceAssertion extends JsonPathAssertionBase implements
                 return "Missing content for JsonPath assertion";
             }
             String expandedPath = PropertyExpander.expandProperties(context, path);
-            JsonPathFacade jsonPathFacade = new JsonPathFacade(assertableContent);
+            JsonPathFacade jsonPathFacade = JsonPathFacade.forContent(context, assertableContent);
             Object result = jsonPathFacade.readObjectValue(expandedPath);
             String expandedExpectedValue = PropertyExpander.expandProperties(context, getExpectedContent());
             Assert.assertEquals(expandedExpectedValue, Boolean.toString(result != null));
@@ -21,6 +21,7 @@ import com.eviware.soapui.impl.wsdl.WsdlRequest;
 import com.eviware.soapui.impl.wsdl.panels.assertions.AssertionCategoryMapping;
 import com.eviware.soapui.impl.wsdl.panels.assertions.AssertionListEntry;
 import com.eviware.soapui.impl.wsdl.submit.WsdlMessageExchange;
+import com.eviware.soapui.impl.wsdl.support.assertions.ParsedContentCache;
 import com.eviware.soapui.impl.wsdl.support.soap.SoapUtils;
 import com.eviware.soapui.impl.wsdl.support.soap.SoapVersion;
 import com.eviware.soapui.impl.wsdl.teststeps.WsdlMessageAssertion;
@@ -56,7 +57,9 @@ public class SoapFaultAssertion extends WsdlMessageAssertion implements Response
             SoapVersion soapVersion = ((WsdlMessageExchange) messageExchange).getOperation().getInterface()
                     .getSoapVersion();
 
-            if (!SoapUtils.isSoapFault(responseContent, soapVersion)) {
+            if (!SoapUtils.mayBeSoapFault(responseContent)
+                    || !SoapUtils.isSoapFault(ParsedContentCache.getXmlObject(context, responseContent, false),
+                    soapVersion)) {
                 throw new AssertionException(new AssertionError("Response is not a SOAP Fault"));
             }
         } catch (Exception e) {
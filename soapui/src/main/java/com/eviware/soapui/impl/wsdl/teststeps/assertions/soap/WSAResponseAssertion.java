@@ -24,6 +24,7 @@ import com.eviware.soapui.impl.wsdl.panels.assertions.AssertionListEntry;
 import com.eviware.soapui.impl.wsdl.panels.teststeps.support.WsaAssertionConfiguration;
 import com.eviware.soapui.impl.wsdl.submit.WsdlMessageExchange;
 import com.eviware.soapui.impl.wsdl.support.HelpUrls;
+import com.eviware.soapui.impl.wsdl.support.assertions.ParsedContentCache;
 import com.eviware.soapui.impl.wsdl.support.wsa.WsaValidator;
 import com.eviware.soapui.impl.wsdl.teststeps.WsdlMessageAssertion;
 import com.eviware.soapui.impl.wsdl.teststeps.assertions.AbstractTestAssertionFactory;
@@ -145,8 +146,10 @@ public class WSAResponseAssertion extends WsdlMessageAssertion implements Reques
     protected String internalAssertResponse(MessageExchange messageExchange, SubmitContext context)
             throws AssertionException {
         try {
+            // the validator adds a Header if there is none, so it gets a copy of the shared document
             new WsaValidator((WsdlMessageExchange) messageExchange, wsaAssertionConfiguration)
-                    .validateWsAddressingResponse();
+                    .validateWsAddressingResponse(ParsedContentCache.getXmlObject(context,
+                            messageExchange.getResponseContent(), false).copy());
         } catch (AssertionException e) {
             throw new AssertionException(new AssertionError(e.getMessage()));
         } catch (XmlException e) {
@@ -52,6 +52,8 @@ import java.util.Map;
 
 public class PropertyExpander implements SoapUIFactoryRegistryListener {
     private List<PropertyResolver> propertyResolvers = new ArrayList<PropertyResolver>();
+    private volatile PropertyResolver[][] resolverBindings;
+    private PropertyExpansionTemplateCache templateCache = PropertyExpansionTemplateCache.getInstance();
     private static List<PropertyResolver> defaultResolvers = new ArrayList<PropertyResolver>();
     private static PropertyExpander defaultExpander;
     private static boolean debuggingMode;
@@ -101,6 +103,16 @@ public class PropertyExpander implements SoapUIFactoryRegistryListener {
 
     public void addResolver(PropertyResolver propertyResolver) {
         propertyResolvers.add(propertyResolver);
+        resolverBindings = null;
+    }
+
+    /**
+     * Sets the cache of compiled content to use, null always scans the content
+     * while expanding
+     */
+
+    public void setTemplateCache(PropertyExpansionTemplateCache templateCache) {
+        this.templateCache = templateCache;
     }
 
     public void addResolverFactory( PropertyResolverFactory factory )
@@ -123,6 +135,7 @@ public class PropertyExpander implements SoapUIFactoryRegistryListener {
 
     private void removeResolver(PropertyResolver propertyResolver) {
         propertyResolvers.remove( propertyResolver );
+        resolverBindings = null;
     }
 
     public static String expandProperties(String content) {
@@ -146,20 +159,26 @@ public class PropertyExpander implements SoapUIFactoryRegistryListener {
     }
 
     public String expand(PropertyExpansionContext context, String content, boolean entitize) {
-        SoapUIClassLoaderState clState = SoapUIExtensionClassLoader.ensure();
+        if (StringUtils.isNullOrEmpty(content)) {
+            return content;
+        }
 
-        try {
+        int ix = content.indexOf("${");
+        if (ix == -1) {
+            return content;
+        }
 
-            if (StringUtils.isNullOrEmpty(content)) {
-                return content;
-            }
+        SoapUIClassLoaderState clState = SoapUIExtensionClassLoader.ensure();
 
-            int ix = content.indexOf("${");
-            if (ix == -1) {
-                return content;
+        try {
+            PropertyExpansionTemplateCache cache = templateCache;
+            PropertyExpansionTemplate template = cache == null ? null : cache.getTemplate(content);
+            if (template != null) {
+                return expand(context, content, template, entitize);
             }
 
             StringBuffer buf = new StringBuffer();
+            Boolean globalOverrideEnabled = null;
             int lastIx = 0;
             while (ix != -1) {
                 if (ix > lastIx && content.charAt(ix - 1) == '$') {
@@ -193,34 +212,17 @@ public class PropertyExpander implements SoapUIFactoryRegistryListener {
                 String propertyValue = null;
 
                 if (StringUtils.hasContent(propertyName)) {
-                    boolean globalOverrideEnabled = SoapUI.getSettings().getBoolean(GlobalPropertySettings.ENABLE_OVERRIDE);
-
-                    for (int c = 0; c < propertyResolvers.size() && propertyValue == null; c++) {
-                        propertyValue = propertyResolvers.get(c).resolveProperty(context, propertyName,
-                                globalOverrideEnabled);
+                    if (globalOverrideEnabled == null) {
+                        globalOverrideEnabled = isGlobalOverrideEnabled();
                     }
+
+                    propertyValue = resolveProperty(context, propertyName,
+                            PropertyExpansionTemplate.getPropertyKind(propertyName), globalOverrideEnabled);
                 }
 
                 // found a value?
                 if (propertyValue != null) {
-                    if (!content.equals(propertyValue)) {
-                        propertyValue = expand(context, propertyValue);
-                    }
-
-                    if (entitize) {
-                        propertyValue = XmlUtils.entitize(propertyValue);
-                    }
-
-                    TestCase testCase = ModelSupport.getModelItemTestCase(context.getModelItem());
-                    if (debuggingMode && testCase != null) {
-                        StringToStringMap props = debuggingExpandedProperties.get(testCase.getId());
-                        if (props == null) {
-                            props = new StringToStringMap();
-                        }
-                        props.put(propertyName, propertyValue);
-                        debuggingExpandedProperties.put(testCase.getId(), props);
-                    }
-                    buf.append(propertyValue);
+                    buf.append(expandValue(context, content, propertyName, propertyValue, entitize));
                 } else {
                     // if( log.isEnabledFor( Priority.WARN ))
                     // log.warn( "Missing property value for [" + propertyName + "]"
@@ -243,6 +245,118 @@ public class PropertyExpander implements SoapUIFactoryRegistryListener {
         }
     }
 
+    /**
+     * Expands content compiled into the specified template, with the same
+     * results as scanning the content
+     */
+
+    private String expand(PropertyExpansionContext context, String content, PropertyExpansionTemplate template,
+                          boolean entitize) {
+        int propertyCount = template.getPropertyCount();
+        StringBuilder buf = new StringBuilder(template.getLiteralLength() + propertyCount * 16);
+        boolean globalOverrideEnabled = propertyCount > 0 && isGlobalOverrideEnabled();
+
+        for (int c = 0; c < propertyCount; c++) {
+            buf.append(template.getLiteral(c));
+
+            String propertyName = template.getPropertyName(c);
+            String propertyValue = resolveProperty(context, propertyName, template.getPropertyKind(c),
+                    globalOverrideEnabled);
+            if (propertyValue != null) {
+                buf.append(expandValue(context, content, propertyName, propertyValue, entitize));
+            }
+        }
+
+        return buf.append(template.getLiteral(propertyCount)).toString();
+    }
+
+    private static boolean isGlobalOverrideEnabled() {
+        return SoapUI.getSettings().getBoolean(GlobalPropertySettings.ENABLE_OVERRIDE);
+    }
+
+    private String resolveProperty(PropertyExpansionContext context, String propertyName, int propertyKind,
+                                   boolean globalOverrideEnabled) {
+        PropertyResolver[] resolvers = getResolverBinding(propertyKind);
+
+        String propertyValue = null;
+        for (int c = 0; c < resolvers.length && propertyValue == null; c++) {
+            propertyValue = resolvers[c].resolveProperty(context, propertyName, globalOverrideEnabled);
+        }
+
+        return propertyValue;
+    }
+
+    /**
+     * Returns the resolvers to try, in order, for the specified kind of
+     * property name
+     */
+
+    private PropertyResolver[] getResolverBinding(int propertyKind) {
+        PropertyResolver[][] bindings = resolverBindings;
+        if (bindings == null) {
+            PropertyResolver[] resolvers = propertyResolvers.toArray(new PropertyResolver[propertyResolvers.size()]);
+
+            bindings = new PropertyResolver[PropertyExpansionTemplate.PROPERTY_KIND_COUNT][];
+            for (int kind = 0; kind < bindings.length; kind++) {
+                List<PropertyResolver> binding = new ArrayList<PropertyResolver>();
+                for (PropertyResolver resolver : resolvers) {
+                    if (canResolve(resolver, kind)) {
+                        binding.add(resolver);
+                    }
+                }
+
+                bindings[kind] = binding.toArray(new PropertyResolver[binding.size()]);
+            }
+
+            resolverBindings = bindings;
+        }
+
+        return bindings[propertyKind];
+    }
+
+    /**
+     * Some of the built-in resolvers only handle scoped (#...) or eval (=...)
+     * properties, and TestRunPropertyResolver never resolves anything
+     */
+
+    private static boolean canResolve(PropertyResolver resolver, int propertyKind) {
+        Class<?> resolverClass = resolver.getClass();
+        if (resolverClass == TestRunPropertyResolver.class) {
+            return false;
+        } else if (resolverClass == EvalPropertyResolver.class) {
+            return propertyKind == PropertyExpansionTemplate.EVAL_PROPERTY;
+        } else if (resolverClass == MockRunPropertyResolver.class || resolverClass == SubmitPropertyResolver.class) {
+            return propertyKind == PropertyExpansionTemplate.SCOPED_PROPERTY;
+        }
+
+        return true;
+    }
+
+    private String expandValue(PropertyExpansionContext context, String content, String propertyName,
+                               String propertyValue, boolean entitize) {
+        if (!content.equals(propertyValue)) {
+            propertyValue = expand(context, propertyValue);
+        }
+
+        if (entitize) {
+            propertyValue = XmlUtils.entitize(propertyValue);
+        }
+
+        if (debuggingMode) {
+            TestCase testCase = ModelSupport.getModelItemTestCase(context.getModelItem());
+            if (testCase != null) {
+                StringToStringMap props = debuggingExpandedProperties.get(testCase.getId());
+                if (props == null) {
+                    props = new StringToStringMap();
+                }
+                props.put(propertyName, propertyValue);
+                debuggingExpandedProperties.put(testCase.getId(), props);
+            }
+        }
+
+        return propertyValue;
+    }
+
     public String expand(ModelItem contextModelItem, String content) {
         return expand(new DefaultPropertyExpansionContext(contextModelItem), content);
     }
@@ -0,0 +1,149 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.model.propertyexpansion;
+
+import com.eviware.soapui.support.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Content with property expansions split into literal text and the names of
+ * the properties in between, so that content expanded over and over again
+ * (request bodies, headers, endpoints, assertion values) only has to be
+ * scanned once. Escaped expansions ($${...}) become literal text and empty
+ * ones are dropped, just like when expanding.
+ * <p/>
+ * Content with nested or unterminated property expansions is not compiled.
+ */
+
+public final class PropertyExpansionTemplate {
+    /**
+     * Kinds of property names, as far as the built-in PropertyResolvers care
+     */
+
+    public static final int PLAIN_PROPERTY = 0;
+    public static final int SCOPED_PROPERTY = 1;
+    public static final int EVAL_PROPERTY = 2;
+    public static final int PROPERTY_KIND_COUNT = 3;
+
+    private final String[] literals;
+    private final String[] propertyNames;
+    private final int[] propertyKinds;
+    private final int literalLength;
+
+    private PropertyExpansionTemplate(List<String> literals, List<String> propertyNames) {
+        this.literals = literals.toArray(new String[literals.size()]);
+        this.propertyNames = propertyNames.toArray(new String[propertyNames.size()]);
+
+        propertyKinds = new int[this.propertyNames.length];
+        for (int c = 0; c < propertyKinds.length; c++) {
+            propertyKinds[c] = getPropertyKind(this.propertyNames[c]);
+        }
+
+        int length = 0;
+        for (String literal : this.literals) {
+            length += literal.length();
+        }
+        literalLength = length;
+    }
+
+    /**
+     * Compiles the specified content, returning null if it contains nested or
+     * unterminated property expansions
+     */
+
+    public static PropertyExpansionTemplate compile(String content) {
+        List<String> literals = new ArrayList<String>();
+        List<String> propertyNames = new ArrayList<String>();
+        StringBuilder literal = new StringBuilder();
+
+        int lastIx = 0;
+        int ix = content.indexOf("${");
+        while (ix != -1) {
+            if (ix > lastIx && content.charAt(ix - 1) == '$') {
+                literal.append(content, lastIx, ix - 1);
+                lastIx = ix;
+                ix = content.indexOf("${", lastIx + 1);
+                continue;
+            }
+
+            if (ix > lastIx) {
+                literal.append(content, lastIx, ix);
+            }
+
+            int ix2 = content.indexOf('}', ix + 2);
+            if (ix2 == -1 || content.lastIndexOf("${", ix2) != ix) {
+                return null;
+            }
+
+            String propertyName = content.substring(ix + 2, ix2);
+            if (StringUtils.hasContent(propertyName)) {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                propertyNames.add(propertyName);
+            }
+
+            lastIx = ix2 + 1;
+            ix = content.indexOf("${", lastIx);
+        }
+
+        if (lastIx < content.length()) {
+            literal.append(content, lastIx, content.length());
+        }
+        literals.add(literal.toString());
+
+        return new PropertyExpansionTemplate(literals, propertyNames);
+    }
+
+    public static int getPropertyKind(String propertyName) {
+        char first = propertyName.length() == 0 ? 0 : propertyName.charAt(0);
+        if (first == PropertyExpansion.SCOPE_PREFIX) {
+            return SCOPED_PROPERTY;
+        }
+
+        return first == '=' ? EVAL_PROPERTY : PLAIN_PROPERTY;
+    }
+
+    public int getPropertyCount() {
+        return propertyNames.length;
+    }
+
+    /**
+     * Returns the literal text before the property at the specified index, or
+     * after the last property if index equals the property count
+     */
+
+    public String getLiteral(int index) {
+        return literals[index];
+    }
+
+    public String getPropertyName(int index) {
+        return propertyNames[index];
+    }
+
+    public int getPropertyKind(int index) {
+        return propertyKinds[index];
+    }
+
+    /**
+     * Total length of all literal text, for sizing the expanded content
+     */
+
+    public int getLiteralLength() {
+        return literalLength;
+    }
+}
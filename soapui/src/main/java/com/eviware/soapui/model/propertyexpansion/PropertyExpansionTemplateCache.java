@@ -0,0 +1,193 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.model.propertyexpansion;
+
+import com.eviware.soapui.support.CacheStatistics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache of compiled PropertyExpansionTemplates, keyed by the content
+ * they were compiled from. Content that can't be compiled is remembered as
+ * such, so that it is not scanned twice on every expansion.
+ * <p>
+ * Lookups don't lock; each entry only records when it was last used. The cache
+ * is bounded both by its number of entries and by the total length of the
+ * content it holds, content longer than the maximum content length is not
+ * cached at all. Once a bound is exceeded, the least recently used entries are
+ * evicted until the cache is down to three quarters of its bounds, so that
+ * eviction doesn't happen on every miss of a full cache.
+ */
+
+public class PropertyExpansionTemplateCache {
+    public static final String CACHE_SIZE_PROPERTY = "soapui.propertyexpansion.cache.size";
+    public static final int DEFAULT_CACHE_SIZE = 1000;
+    public static final String MAX_CONTENT_LENGTH_PROPERTY = "soapui.propertyexpansion.cache.maxContentLength";
+    public static final int DEFAULT_MAX_CONTENT_LENGTH = 64 * 1024;
+    public static final String MAX_CACHED_LENGTH_PROPERTY = "soapui.propertyexpansion.cache.maxCachedLength";
+    public static final long DEFAULT_MAX_CACHED_LENGTH = 8 * 1024 * 1024;
+
+    private final static PropertyExpansionTemplateCache instance = new PropertyExpansionTemplateCache(
+            Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE),
+            Integer.getInteger(MAX_CONTENT_LENGTH_PROPERTY, DEFAULT_MAX_CONTENT_LENGTH),
+            Long.getLong(MAX_CACHED_LENGTH_PROPERTY, DEFAULT_MAX_CACHED_LENGTH));
+
+    private final int maxSize;
+    private final int maxContentLength;
+    private final long maxCachedLength;
+    private final ConcurrentHashMap<String, CacheEntry> templates = new ConcurrentHashMap<String, CacheEntry>();
+    private final AtomicLong cachedLength = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public PropertyExpansionTemplateCache(int maxSize) {
+        this(maxSize, DEFAULT_MAX_CONTENT_LENGTH, DEFAULT_MAX_CACHED_LENGTH);
+    }
+
+    public PropertyExpansionTemplateCache(int maxSize, int maxContentLength, long maxCachedLength) {
+        this.maxSize = maxSize;
+        this.maxContentLength = maxContentLength;
+        this.maxCachedLength = maxCachedLength;
+    }
+
+    public static PropertyExpansionTemplateCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns the compiled template for the specified content, or null if it
+     * can't be compiled, is too long to be cached or caching is disabled
+     */
+
+    public PropertyExpansionTemplate getTemplate(String content) {
+        if (maxSize <= 0 || content == null) {
+            return null;
+        }
+
+        CacheEntry entry = templates.get(content);
+        if (entry != null) {
+            hitCount.incrementAndGet();
+            entry.lastAccess = System.nanoTime();
+            return entry.template;
+        }
+
+        missCount.incrementAndGet();
+        if (content.length() > maxContentLength) {
+            return null;
+        }
+
+        PropertyExpansionTemplate template = PropertyExpansionTemplate.compile(content);
+        if (templates.putIfAbsent(content, new CacheEntry(template)) == null
+                && (cachedLength.addAndGet(content.length()) > maxCachedLength || templates.size() > maxSize)) {
+            evict();
+        }
+
+        return template;
+    }
+
+    private void evict() {
+        // another thread is already evicting
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+
+        try {
+            List<EvictionCandidate> candidates = new ArrayList<EvictionCandidate>(templates.size());
+            for (Map.Entry<String, CacheEntry> entry : templates.entrySet()) {
+                candidates.add(new EvictionCandidate(entry.getKey(), entry.getValue()));
+            }
+
+            Collections.sort(candidates);
+
+            int targetSize = maxSize - maxSize / 4;
+            long targetLength = maxCachedLength - maxCachedLength / 4;
+            for (EvictionCandidate candidate : candidates) {
+                if (templates.size() <= targetSize && cachedLength.get() <= targetLength) {
+                    break;
+                }
+
+                remove(candidate.content, candidate.entry);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void remove(String content, CacheEntry entry) {
+        if (templates.remove(content, entry)) {
+            cachedLength.addAndGet(-content.length());
+        }
+    }
+
+    public void clear() {
+        for (Map.Entry<String, CacheEntry> entry : templates.entrySet()) {
+            remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public int size() {
+        return templates.size();
+    }
+
+    /**
+     * Returns the total length of the content that templates are cached for
+     */
+
+    public long getCachedLength() {
+        return cachedLength.get();
+    }
+
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics("Property expansion template cache", hitCount.get(), missCount.get());
+    }
+
+    private static final class CacheEntry {
+        private final PropertyExpansionTemplate template;
+        private volatile long lastAccess = System.nanoTime();
+
+        private CacheEntry(PropertyExpansionTemplate template) {
+            this.template = template;
+        }
+    }
+
+    /**
+     * Snapshot of the last access of an entry, which may change while sorting
+     */
+
+    private static final class EvictionCandidate implements Comparable<EvictionCandidate> {
+        private final String content;
+        private final CacheEntry entry;
+        private final long lastAccess;
+
+        private EvictionCandidate(String content, CacheEntry entry) {
+            this.content = content;
+            this.entry = entry;
+            this.lastAccess = entry.lastAccess;
+        }
+
+        public int compareTo(EvictionCandidate other) {
+            // nanoTime values may only be compared by their difference
+            return Long.signum(lastAccess - other.lastAccess);
+        }
+    }
+}
@@ -47,7 +47,7 @@ public class ContextPropertyResolver implements PropertyResolver {
 
         if (property != null && xpath != null) {
             property = ResolverUtils.extractXPathPropertyValue(property,
-                    PropertyExpander.expandProperties(context, xpath));
+                    PropertyExpander.expandProperties(context, xpath), context);
         }
 
         return property == null ? null : property.toString();
@@ -96,7 +96,7 @@ public class ModelItemPropertyResolver implements PropertyResolver {
 
                 if (property != null && xpath != null) {
                     property = ResolverUtils.extractXPathPropertyValue(property,
-                            PropertyExpander.expandProperties(context, xpath));
+                            PropertyExpander.expandProperties(context, xpath), context);
                 }
             }
 
@@ -62,7 +62,7 @@ public class ResolverUtils {
 
             if (property != null) {
                 return context == null ? ResolverUtils.extractXPathPropertyValue(property, xpath) : ResolverUtils
-                        .extractXPathPropertyValue(property, PropertyExpander.expandProperties(context, xpath));
+                        .extractXPathPropertyValue(property, PropertyExpander.expandProperties(context, xpath), context);
             }
         } else {
             if (globalOverride) {
@@ -82,11 +82,20 @@ public class ResolverUtils {
     }
 
     public static String extractXPathPropertyValue(Object property, String pathExpression) {
+        return extractXPathPropertyValue(property, pathExpression, null);
+    }
+
+    /**
+     * Same as extractXPathPropertyValue(Object, String), JSON content is taken
+     * from the ParsedContentCache attached to the context if there is one
+     */
+    public static String extractXPathPropertyValue(Object property, String pathExpression,
+                                                   PropertyExpansionContext context) {
         try {
             String value = property instanceof TestProperty ? ((TestProperty) property).getValue() : property
                     .toString();
             if (pathExpression.startsWith("$")) {
-                return new JsonPathFacade(value).readStringValue(pathExpression);
+                return JsonPathFacade.forContent(context, value).readStringValue(pathExpression);
             } else {
                 XmlObject xmlObject = XmlUtils.createXmlObject(value);
                 String ns = pathExpression.trim().startsWith("declare namespace") ? "" : XmlUtils.declareXPathNamespaces(xmlObject);
@@ -20,19 +20,18 @@ import com.eviware.soapui.impl.wsdl.mock.DispatchException;
 import com.eviware.soapui.impl.wsdl.mock.WsdlMockResult;
 import com.eviware.soapui.model.mock.MockDispatcher;
 import com.eviware.soapui.model.mock.MockResult;
-import org.apache.commons.collections.list.TreeList;
+import com.eviware.soapui.monitor.DelayableServletResponse;
+import com.eviware.soapui.support.types.RingBuffer;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.util.Collections;
-import java.util.List;
 
 public abstract class AbstractMockDispatcher implements MockDispatcher {
+    private static final int MAX_LOG_CAPACITY = 100000;
 
-    private final List<WsdlMockResult> mockResults = Collections.synchronizedList(new TreeList());
-    private long maxResults = 100;
-    private int removed = 0;
-    private boolean logEnabled = true;
+    private volatile RingBuffer<MockResultLogEntry> mockResults = new RingBuffer<MockResultLogEntry>(100);
+    private volatile long maxResults = 100;
+    private volatile boolean logEnabled = true;
 
 
     public MockResult dispatchGetRequest(HttpServletRequest request, HttpServletResponse response)
@@ -121,26 +120,57 @@ public abstract class AbstractMockDispatcher implements MockDispatcher {
         throw new DispatchException("Unsupported HTTP Method: " + method);
     }
 
-    public synchronized void addMockResult(WsdlMockResult mockResult) {
+    /**
+     * Adds the specified result to the log; results of responses delayed by
+     * the JettyMockEngine are added once they have been completed, so that the
+     * delay is included in their time taken and their headers are final
+     */
+
+    public void addMockResult(final WsdlMockResult mockResult) {
         if (maxResults > 0 && logEnabled) {
-            mockResults.add(mockResult);
+            HttpServletResponse httpResponse = mockResult.getMockRequest() == null ? null : mockResult.getMockRequest()
+                    .getHttpResponse();
+
+            if (httpResponse instanceof DelayableServletResponse
+                    && ((DelayableServletResponse) httpResponse).afterCompletion(new Runnable() {
+                public void run() {
+                    logMockResult(mockResult);
+                }
+            })) {
+                return;
+            }
+
+            logMockResult(mockResult);
         }
+    }
+
+    private void logMockResult(WsdlMockResult mockResult) {
+        long sequence = mockResults.add(new MockResultLogEntry(mockResult));
 
-        while (mockResults.size() > maxResults) {
-            mockResults.remove(0);
-            removed++;
+        MockResultSpooler spooler = MockResultSpooler.getInstance();
+        if (spooler != null) {
+            spooler.spool(sequence, mockResult);
         }
     }
 
+    /**
+     * Returns the summary of the logged result at the specified index, or null
+     * if it has been dropped from the log
+     */
+
     public MockResult getMockResultAt(int index) {
-        return index <= removed ? null : mockResults.get(index - removed);
+        return getMockResultLogEntryAt(index);
+    }
+
+    public MockResultLogEntry getMockResultLogEntryAt(int index) {
+        return mockResults.get(index);
     }
 
     public int getMockResultCount() {
-        return mockResults.size() + removed;
+        return (int) mockResults.getSequence();
     }
 
-    public synchronized void clearResults() {
+    public void clearResults() {
         mockResults.clear();
     }
 
@@ -151,9 +181,9 @@ public abstract class AbstractMockDispatcher implements MockDispatcher {
     public synchronized void setMaxResults(long maxNumberOfResults) {
         this.maxResults = maxNumberOfResults;
 
-        while (mockResults.size() > maxNumberOfResults) {
-            mockResults.remove(0);
-            removed++;
+        int capacity = (int) Math.max(1, Math.min(maxNumberOfResults, MAX_LOG_CAPACITY));
+        if (capacity != mockResults.getCapacity()) {
+            mockResults = mockResults.resize(capacity);
         }
     }
 
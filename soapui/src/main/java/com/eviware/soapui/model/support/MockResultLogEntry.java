@@ -0,0 +1,138 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.model.support;
+
+import com.eviware.soapui.model.mock.MockOperation;
+import com.eviware.soapui.model.mock.MockRequest;
+import com.eviware.soapui.model.mock.MockResponse;
+import com.eviware.soapui.model.mock.MockResult;
+import com.eviware.soapui.support.action.swing.ActionList;
+import com.eviware.soapui.support.action.swing.DefaultActionList;
+import com.eviware.soapui.support.types.StringToStringsMap;
+
+/**
+ * Compact summary of a MockResult kept in a mock dispatchers result log. Only
+ * the time, the MockOperation and MockResponse that handled the request and
+ * the size of the response are kept, not the request or response messages;
+ * set the soapui.mock.log.spoolDir system property to keep full exchanges on
+ * disk, see MockResultSpooler.
+ * <p/>
+ * Entries are returned as the MockResults of the log; they describe results
+ * that have already been sent, so they have no request or response content
+ * and can not be modified.
+ */
+
+public class MockResultLogEntry implements MockResult {
+    private final long timestamp;
+    private final long timeTaken;
+    private final MockOperation mockOperation;
+    private final MockResponse mockResponse;
+    private final int responseSize;
+
+    public MockResultLogEntry(MockResult mockResult) {
+        timestamp = mockResult.getTimestamp();
+        timeTaken = mockResult.getTimeTaken();
+        mockOperation = mockResult.getMockOperation();
+        mockResponse = mockResult.getMockResponse();
+
+        byte[] rawResponseData = mockResult.getRawResponseData();
+        responseSize = rawResponseData == null ? 0 : rawResponseData.length;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getTimeTaken() {
+        return timeTaken;
+    }
+
+    public String getMockOperationName() {
+        return mockOperation == null ? null : mockOperation.getName();
+    }
+
+    public String getMockResponseName() {
+        return mockResponse == null ? null : mockResponse.getName();
+    }
+
+    /**
+     * Size of the raw response data that was sent
+     */
+
+    public int getResponseSize() {
+        return responseSize;
+    }
+
+    public MockOperation getMockOperation() {
+        return mockOperation;
+    }
+
+    public MockResponse getMockResponse() {
+        return mockResponse;
+    }
+
+    /**
+     * Returns null, requests are not kept in the log
+     */
+
+    public MockRequest getMockRequest() {
+        return null;
+    }
+
+    public StringToStringsMap getResponseHeaders() {
+        return new StringToStringsMap();
+    }
+
+    /**
+     * Returns null, response content is not kept in the log
+     */
+
+    public String getResponseContent() {
+        return null;
+    }
+
+    public byte[] getRawResponseData() {
+        return null;
+    }
+
+    public ActionList getActions() {
+        return new DefaultActionList();
+    }
+
+    public void finish() {
+    }
+
+    public boolean isCommitted() {
+        return true;
+    }
+
+    public void addHeader(String name, String value) {
+        throw new IllegalStateException("Logged mock result has already been sent");
+    }
+
+    public void setResponseContent(String responseContent) {
+        throw new IllegalStateException("Logged mock result has already been sent");
+    }
+
+    public void setContentType(String contentTypeHttpHeader) {
+        throw new IllegalStateException("Logged mock result has already been sent");
+    }
+
+    public void writeRawResponseData(byte[] data) {
+        throw new IllegalStateException("Logged mock result has already been sent");
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.model.support;
+
+import com.eviware.soapui.model.mock.MockOperation;
+import com.eviware.soapui.model.mock.MockRequest;
+import com.eviware.soapui.model.mock.MockResult;
+import com.eviware.soapui.support.types.StringToStringsMap;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optionally writes full mock exchanges to disk from a single background
+ * thread, enabled by setting the soapui.mock.log.spoolDir system property to a
+ * directory. Exchanges are dropped rather than delaying the mock if the writer
+ * falls behind; dropped exchanges are counted and logged, see getDroppedCount.
+ */
+
+public class MockResultSpooler {
+    public static final String SPOOL_DIR_PROPERTY = "soapui.mock.log.spoolDir";
+    private static final int MAX_QUEUED_RESULTS = 1000;
+    private static final Logger log = Logger.getLogger(MockResultSpooler.class);
+    private static final MockResultSpooler instance = create();
+
+    private final File spoolDir;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private MockResultSpooler(File spoolDir) {
+        this.spoolDir = spoolDir;
+
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(
+                MAX_QUEUED_RESULTS), new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "MockResultSpooler");
+                thread.setDaemon(true);
+                return thread;
+            }
+        }, new RejectedExecutionHandler() {
+            public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+                long dropped = droppedCount.incrementAndGet();
+                if (dropped == 1 || dropped % MAX_QUEUED_RESULTS == 0) {
+                    log.warn("Mock result spooler is falling behind, " + dropped + " results have not been spooled");
+                }
+            }
+        });
+    }
+
+    private static MockResultSpooler create() {
+        String dir = System.getProperty(SPOOL_DIR_PROPERTY);
+        if (dir == null || dir.trim().length() == 0) {
+            return null;
+        }
+
+        File spoolDir = new File(dir);
+        if (!spoolDir.isDirectory() && !spoolDir.mkdirs()) {
+            log.warn("Failed to create mock log spool directory [" + spoolDir + "]");
+            return null;
+        }
+
+        return new MockResultSpooler(spoolDir);
+    }
+
+    /**
+     * Returns the spooler, or null if spooling has not been enabled
+     */
+
+    public static MockResultSpooler getInstance() {
+        return instance;
+    }
+
+    /**
+     * Number of results that were not spooled since the writer thread was
+     * falling behind
+     */
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public void spool(final long sequence, final MockResult mockResult) {
+        executor.execute(new Runnable() {
+            public void run() {
+                File file = new File(spoolDir, "mockresult-" + mockResult.getTimestamp() + "-" + sequence + ".txt");
+                try {
+                    write(file, mockResult);
+                } catch (Exception e) {
+                    log.warn("Failed to spool mock result to [" + file + "]: " + e);
+                }
+            }
+        });
+    }
+
+    private static void write(File file, MockResult mockResult) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            MockOperation mockOperation = mockResult.getMockOperation();
+            writer.write("Timestamp: " + mockResult.getTimestamp() + "\n");
+            writer.write("Time Taken: " + mockResult.getTimeTaken() + "\n");
+            writer.write("Operation: " + (mockOperation == null ? "" : mockOperation.getName()) + "\n");
+
+            MockRequest mockRequest = mockResult.getMockRequest();
+            writer.write("\n--- Request ---\n");
+            if (mockRequest != null) {
+                writeHeaders(writer, mockRequest.getRequestHeaders());
+                writer.write("\n");
+                writeContent(writer, mockRequest.getRequestContent());
+            }
+
+            writer.write("\n--- Response ---\n");
+            writeHeaders(writer, mockResult.getResponseHeaders());
+            writer.write("\n");
+            writeContent(writer, mockResult.getResponseContent());
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static void writeHeaders(Writer writer, StringToStringsMap headers) throws IOException {
+        if (headers == null) {
+            return;
+        }
+
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            for (String value : header.getValue()) {
+                writer.write(header.getKey() + ": " + value + "\n");
+            }
+        }
+    }
+
+    private static void writeContent(Writer writer, String content) throws IOException {
+        if (content != null) {
+            writer.write(content);
+            writer.write("\n");
+        }
+    }
+}
@@ -25,6 +25,7 @@ public interface TestRunContext extends SubmitContext, PropertyExpansionContext
     public static final String RUN_COUNT = "RunCount";
     public static final String TOTAL_RUN_COUNT = "TotalRunCount";
     public static final String LOAD_TEST_CONTEXT = "LoadTestContext";
+    public static final String INTENDED_START_TIME = "IntendedStartTime";
     public static final String INTERACTIVE = "Interactive";
 
     public String expand(String content);
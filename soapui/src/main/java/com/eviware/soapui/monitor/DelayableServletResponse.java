@@ -0,0 +1,246 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.monitor;
+
+import com.eviware.soapui.SoapUI;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response passed to MockRunners by the JettyMockEngine, allowing a
+ * MockResponse to delay its response without blocking the dispatching
+ * thread. Once a delay has been requested the response body, errors and
+ * redirects are kept in memory until the engine completes the response after
+ * the delay; status and headers are set on the wrapped response right away as
+ * it is not committed before that. MockRunListeners are notified of the
+ * results of delayed responses after the delay has been added to their time
+ * taken, see afterCompletion.
+ */
+
+public class DelayableServletResponse extends HttpServletResponseWrapper {
+    private long delay;
+    private ByteArrayOutputStream buffer;
+    private ServletOutputStream bufferOutputStream;
+    private PrintWriter bufferWriter;
+    private int errorStatus;
+    private String errorMessage;
+    private String redirectLocation;
+    private List<Runnable> completionTasks;
+
+    public DelayableServletResponse(HttpServletResponse response) {
+        super(response);
+    }
+
+    /**
+     * Requests the response to be delayed by the specified number of
+     * milliseconds. Returns false if the response can't be delayed anymore
+     * because it has already been committed, in which case the caller has to
+     * wait itself.
+     */
+
+    public synchronized boolean delay(long millis) {
+        if (getResponse().isCommitted()) {
+            return false;
+        }
+
+        if (buffer == null) {
+            buffer = new ByteArrayOutputStream();
+        }
+
+        delay += millis;
+        return true;
+    }
+
+    public synchronized long getDelay() {
+        return delay;
+    }
+
+    public synchronized boolean isDelayed() {
+        return buffer != null;
+    }
+
+    /**
+     * Schedules the specified task to be run by the engine once the delayed
+     * response has been completed. Returns false if the response is not
+     * delayed, in which case the caller has to run the task itself.
+     */
+
+    public synchronized boolean afterCompletion(Runnable task) {
+        if (buffer == null) {
+            return false;
+        }
+
+        if (completionTasks == null) {
+            completionTasks = new ArrayList<Runnable>();
+        }
+
+        completionTasks.add(task);
+        return true;
+    }
+
+    public void runCompletionTasks() {
+        List<Runnable> tasks;
+        synchronized (this) {
+            tasks = completionTasks;
+            completionTasks = null;
+        }
+
+        if (tasks != null) {
+            for (Runnable task : tasks) {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    SoapUI.logError(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes what has been kept back to the wrapped response
+     */
+
+    public synchronized void complete() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+
+        if (bufferWriter != null) {
+            bufferWriter.flush();
+        }
+
+        if (redirectLocation != null) {
+            super.sendRedirect(redirectLocation);
+        } else if (errorStatus > 0) {
+            if (errorMessage == null) {
+                super.sendError(errorStatus);
+            } else {
+                super.sendError(errorStatus, errorMessage);
+            }
+        } else if (buffer.size() > 0) {
+            super.getOutputStream().write(buffer.toByteArray());
+        }
+
+        buffer = null;
+    }
+
+    @Override
+    public synchronized ServletOutputStream getOutputStream() throws IOException {
+        if (buffer == null) {
+            return super.getOutputStream();
+        }
+
+        if (bufferOutputStream == null) {
+            bufferOutputStream = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    buffer.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    buffer.write(b, off, len);
+                }
+            };
+        }
+
+        return bufferOutputStream;
+    }
+
+    @Override
+    public synchronized PrintWriter getWriter() throws IOException {
+        if (buffer == null) {
+            return super.getWriter();
+        }
+
+        if (bufferWriter == null) {
+            bufferWriter = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+
+        return bufferWriter;
+    }
+
+    @Override
+    public synchronized void flushBuffer() throws IOException {
+        if (buffer == null) {
+            super.flushBuffer();
+        } else if (bufferWriter != null) {
+            bufferWriter.flush();
+        }
+    }
+
+    @Override
+    public synchronized void resetBuffer() {
+        if (buffer == null) {
+            super.resetBuffer();
+        } else {
+            buffer.reset();
+        }
+    }
+
+    @Override
+    public synchronized void reset() {
+        super.reset();
+        if (buffer != null) {
+            buffer.reset();
+            errorStatus = 0;
+            errorMessage = null;
+            redirectLocation = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isCommitted() {
+        return buffer == null ? super.isCommitted() : errorStatus > 0 || redirectLocation != null;
+    }
+
+    @Override
+    public synchronized void sendError(int status, String message) throws IOException {
+        if (buffer == null) {
+            super.sendError(status, message);
+        } else {
+            errorStatus = status;
+            errorMessage = message;
+        }
+    }
+
+    @Override
+    public synchronized void sendError(int status) throws IOException {
+        if (buffer == null) {
+            super.sendError(status);
+        } else {
+            errorStatus = status;
+            errorMessage = null;
+        }
+    }
+
+    @Override
+    public synchronized void sendRedirect(String location) throws IOException {
+        if (buffer == null) {
+            super.sendRedirect(location);
+        } else {
+            redirectLocation = location;
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package com.eviware.soapui.monitor;
 
 import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.impl.support.BaseMockResult;
 import com.eviware.soapui.impl.wsdl.mock.DispatchException;
 import com.eviware.soapui.impl.wsdl.support.soap.SoapMessageBuilder;
 import com.eviware.soapui.impl.wsdl.support.soap.SoapVersion;
@@ -45,6 +46,8 @@ import org.mortbay.jetty.handler.AbstractHandler;
 import org.mortbay.jetty.handler.RequestLogHandler;
 import org.mortbay.jetty.nio.SelectChannelConnector;
 import org.mortbay.jetty.security.SslSocketConnector;
+import org.mortbay.util.ajax.Continuation;
+import org.mortbay.util.ajax.ContinuationSupport;
 
 import javax.servlet.ServletException;
 import javax.servlet.ServletInputStream;
@@ -60,11 +63,13 @@ import java.io.PrintWriter;
 import java.io.StringReader;
 import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
@@ -77,7 +82,7 @@ public class JettyMockEngine implements MockEngine {
     public final static Logger log = Logger.getLogger(JettyMockEngine.class);
 
     private Server server;
-    private Map<Integer, Map<String, List<MockRunner>>> runners = new HashMap<Integer, Map<String, List<MockRunner>>>();
+    private Map<Integer, PathTrie<List<MockRunner>>> runners = new ConcurrentHashMap<Integer, PathTrie<List<MockRunner>>>();
     private Map<Integer, SoapUIConnector> connectors = new HashMap<Integer, SoapUIConnector>();
     private List<MockRunner> mockRunners = new CopyOnWriteArrayList<MockRunner>();
 
@@ -156,15 +161,18 @@ public class JettyMockEngine implements MockEngine {
                 }
 
                 connectors.put(port, connector);
-                runners.put(port, new HashMap<String, List<MockRunner>>());
+                runners.put(port, new PathTrie<List<MockRunner>>());
             }
 
-            Map<String, List<MockRunner>> map = runners.get(port);
+            // runner lists are replaced rather than modified since requests iterate them without locking
+            PathTrie<List<MockRunner>> paths = runners.get(port);
             String path = mockService.getPath();
-            if (!map.containsKey(path)) {
-                map.put(path, new ArrayList<MockRunner>());
+            List<MockRunner> pathRunners = new ArrayList<MockRunner>();
+            if (paths.get(path) != null) {
+                pathRunners.addAll(paths.get(path));
             }
-            map.get(path).add(runner);
+            pathRunners.add(runner);
+            paths.put(path, Collections.unmodifiableList(pathRunners));
             mockRunners.add(runner);
 
             log.info("Started mockService [" + mockService.getName() + "] on port [" + port + "] at path [" + path + "]");
@@ -202,22 +210,25 @@ public class JettyMockEngine implements MockEngine {
         synchronized (server) {
             MockService mockService = runner.getMockContext().getMockService();
             final Integer port = mockService.getPort();
-            Map<String, List<MockRunner>> map = runners.get(port);
+            PathTrie<List<MockRunner>> paths = runners.get(port);
 
-            if (map == null || !map.containsKey(mockService.getPath())) {
+            if (paths == null || paths.get(mockService.getPath()) == null) {
                 return;
             }
 
-            map.get(mockService.getPath()).remove(runner);
-            if (map.get(mockService.getPath()).isEmpty()) {
-                map.remove(mockService.getPath());
+            List<MockRunner> pathRunners = new ArrayList<MockRunner>(paths.get(mockService.getPath()));
+            pathRunners.remove(runner);
+            if (pathRunners.isEmpty()) {
+                paths.remove(mockService.getPath());
+            } else {
+                paths.put(mockService.getPath(), Collections.unmodifiableList(pathRunners));
             }
 
             mockRunners.remove(runner);
 
             log.info("Stopped MockService [" + mockService.getName() + "] on port [" + port + "]");
 
-            if (map.isEmpty() && !SoapUI.getSettings().getBoolean(HttpSettings.LEAVE_MOCKENGINE)) {
+            if (paths.isEmpty() && !SoapUI.getSettings().getBoolean(HttpSettings.LEAVE_MOCKENGINE)) {
                 SoapUIConnector connector = connectors.get(port);
                 if (connector == null) {
                     log.warn("Missing connectors on port [" + port + "]");
@@ -564,38 +575,38 @@ public class JettyMockEngine implements MockEngine {
     }
 
     private class ServerHandler extends AbstractHandler {
-        public void handle(String target, HttpServletRequest request, HttpServletResponse response, int dispatch)
+        public void handle(String target, HttpServletRequest request, HttpServletResponse httpResponse, int dispatch)
                 throws IOException, ServletException {
+            Continuation continuation = ContinuationSupport.getContinuation(request, null);
+            if (continuation.getObject() instanceof DelayedResult) {
+                completeDelayedResult(request, continuation);
+                return;
+            }
+
+            DelayableServletResponse response = new DelayableServletResponse(httpResponse);
+            MockResult result = null;
+
             // find mockService
-            Map<String, List<MockRunner>> map = runners.get(request.getLocalPort());
+            PathTrie<List<MockRunner>> paths = runners.get(request.getLocalPort());
+            String pathInfo = request.getPathInfo();
 
             // ssl?
-            if (map == null && sslConnector != null && request.getLocalPort() == sslConnector.getPort()) {
-                for (Map<String, List<MockRunner>> runnerMap : runners.values()) {
-                    if (runnerMap.containsKey(request.getPathInfo())) {
-                        map = runnerMap;
+            if (paths == null && sslConnector != null && request.getLocalPort() == sslConnector.getPort()) {
+                for (PathTrie<List<MockRunner>> portPaths : runners.values()) {
+                    if (portPaths.get(pathInfo) != null) {
+                        paths = portPaths;
                         break;
                     }
                 }
             }
 
-            if (map != null) {
-                List<MockRunner> wsdlMockRunners = map.get(request.getPathInfo());
-                if (wsdlMockRunners == null) {
-                    String bestMatchedRootPath = "";
-
-                    for (String root : map.keySet()) {
-                        if (request.getPathInfo().startsWith(root) && root.length() > bestMatchedRootPath.length()) {
-                            bestMatchedRootPath = root;
-                            wsdlMockRunners = map.get(root);
-                        }
-                    }
-                }
+            if (paths != null) {
+                // exact match or longest matching root path
+                List<MockRunner> wsdlMockRunners = paths.getLongestPrefixMatch(pathInfo);
 
                 if (wsdlMockRunners != null) {
                     try {
                         DispatchException ex = null;
-                        MockResult result = null;
 
                         for (MockRunner wsdlMockRunner : wsdlMockRunners) {
                             if (!wsdlMockRunner.isRunning()) {
@@ -605,7 +616,6 @@ public class JettyMockEngine implements MockEngine {
                             try {
                                 result = wsdlMockRunner.dispatchRequest(request, response);
                                 if (result != null) {
-                                    result.finish();
                                     break;
                                 }
                             } catch (DispatchException e) {
@@ -633,6 +643,49 @@ public class JettyMockEngine implements MockEngine {
                 printMockServiceList(response);
             }
 
+            if (response.isDelayed()) {
+                // throws a RetryRequest to release this thread on connectors supporting it; others wait here
+                continuation.setObject(new DelayedResult(response, result));
+                continuation.suspend(response.getDelay());
+                continuation.setObject(null);
+            }
+
+            completeResult(response, result);
+        }
+
+        /**
+         * Called when a request is retried after its response delay has passed
+         */
+
+        private void completeDelayedResult(HttpServletRequest request, Continuation continuation) throws IOException {
+            DelayedResult delayedResult = (DelayedResult) continuation.getObject();
+
+            // returns right away since the continuation has expired
+            continuation.suspend(delayedResult.response.getDelay());
+            continuation.setObject(null);
+
+            if (request instanceof Request) {
+                ((Request) request).setHandled(true);
+            }
+
+            completeResult(delayedResult.response, delayedResult.result);
+        }
+
+        private void completeResult(DelayableServletResponse response, MockResult result) throws IOException {
+            response.complete();
+
+            if (response.getDelay() > 0 && result instanceof BaseMockResult) {
+                BaseMockResult<?, ?> mockResult = (BaseMockResult<?, ?>) result;
+                mockResult.setTimeTaken(mockResult.getTimeTaken() + response.getDelay());
+            }
+
+            // notifies MockRunListeners of delayed results, now that their time taken is known
+            response.runCompletionTasks();
+
+            if (result != null) {
+                result.finish();
+            }
+
             response.flushBuffer();
         }
 
@@ -654,6 +707,16 @@ public class JettyMockEngine implements MockEngine {
         }
     }
 
+    private static class DelayedResult {
+        private final DelayableServletResponse response;
+        private final MockResult result;
+
+        public DelayedResult(DelayableServletResponse response, MockResult result) {
+            this.response = response;
+            this.result = result;
+        }
+    }
+
     public MockRunner[] getMockRunners() {
         return mockRunners.toArray(new MockRunner[mockRunners.size()]);
     }
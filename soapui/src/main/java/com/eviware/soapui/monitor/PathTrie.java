@@ -0,0 +1,173 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.monitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Character trie of request paths for looking up the value registered for a
+ * path, or for its longest registered prefix. Lookups are lock-free and work
+ * on an immutable snapshot of the trie that is rebuilt whenever a path is
+ * added or removed, which only happens when MockServices are started or
+ * stopped.
+ * <p/>
+ * Prefixes are plain string prefixes, just like String.startsWith; the value
+ * for the empty path is only returned for an empty path.
+ */
+
+public class PathTrie<V> {
+    private final TreeMap<String, V> values = new TreeMap<String, V>();
+    private volatile Node<V> root = new Node<V>();
+
+    public synchronized void put(String path, V value) {
+        values.put(path, value);
+        root = build();
+    }
+
+    public synchronized V remove(String path) {
+        V result = values.remove(path);
+        root = build();
+        return result;
+    }
+
+    /**
+     * Returns a copy of the registered paths and their values
+     */
+
+    public synchronized Map<String, V> getValues() {
+        return new TreeMap<String, V>(values);
+    }
+
+    public boolean isEmpty() {
+        return root.isEmpty();
+    }
+
+    /**
+     * Returns the value registered for exactly the specified path
+     */
+
+    public V get(String path) {
+        if (path == null) {
+            return null;
+        }
+
+        Node<V> node = root;
+        for (int c = 0; c < path.length() && node != null; c++) {
+            node = node.getChild(path.charAt(c));
+        }
+
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Returns the value registered for the longest path that the specified
+     * path starts with, which is the value for the path itself if there is one
+     */
+
+    public V getLongestPrefixMatch(String path) {
+        if (path == null) {
+            return null;
+        }
+
+        Node<V> node = root;
+        V result = path.length() == 0 ? node.value : null;
+
+        for (int c = 0; c < path.length(); c++) {
+            node = node.getChild(path.charAt(c));
+            if (node == null) {
+                break;
+            }
+
+            if (node.value != null) {
+                result = node.value;
+            }
+        }
+
+        return result;
+    }
+
+    private Node<V> build() {
+        List<String> paths = new ArrayList<String>(values.keySet());
+        return build(paths, 0, paths.size(), 0);
+    }
+
+    /**
+     * Builds the node for the paths in [from, to) which all share their first
+     * depth characters; the paths are sorted so children are in order as well
+     */
+
+    private Node<V> build(List<String> paths, int from, int to, int depth) {
+        Node<V> node = new Node<V>();
+
+        if (from < to && paths.get(from).length() == depth) {
+            node.value = values.get(paths.get(from));
+            from++;
+        }
+
+        List<Character> labels = new ArrayList<Character>();
+        List<Node<V>> children = new ArrayList<Node<V>>();
+
+        while (from < to) {
+            char label = paths.get(from).charAt(depth);
+            int end = from + 1;
+            while (end < to && paths.get(end).charAt(depth) == label) {
+                end++;
+            }
+
+            labels.add(label);
+            children.add(build(paths, from, end, depth + 1));
+            from = end;
+        }
+
+        node.setChildren(labels, children);
+        return node;
+    }
+
+    private static class Node<V> {
+        private static final char[] NO_LABELS = new char[0];
+
+        private V value;
+        private char[] labels = NO_LABELS;
+        private Node<V>[] children;
+
+        @SuppressWarnings("unchecked")
+        private void setChildren(List<Character> labelList, List<Node<V>> childList) {
+            if (labelList.isEmpty()) {
+                return;
+            }
+
+            labels = new char[labelList.size()];
+            for (int c = 0; c < labels.length; c++) {
+                labels[c] = labelList.get(c);
+            }
+
+            children = childList.toArray(new Node[childList.size()]);
+        }
+
+        private Node<V> getChild(char label) {
+            int ix = Arrays.binarySearch(labels, label);
+            return ix < 0 ? null : children[ix];
+        }
+
+        private boolean isEmpty() {
+            return value == null && labels.length == 0;
+        }
+    }
+}
@@ -62,6 +62,7 @@ public class SecurityTest extends AbstractTestPropertyHolderWsdlModelItem<Securi
     public final static String FAIL_ON_SCANS_ERRORS_PROPERTY = SecurityTest.class.getName() + "@failOnScansErrors";
     public final static String FAIL_ON_ERROR_PROPERTY = SecurityTest.class.getName() + "@failOnError";
     public final static String SKIP_DATASOURCE_LOOP_PROPERTY = SecurityTest.class.getName() + "@skipDataSourceLoop";
+    public final static String MUTATION_CONCURRENCY_PROPERTY = SecurityTest.class.getName() + "@mutationConcurrency";
     public static final String ICON_NAME = "/security_test.gif";
     private WsdlTestCase testCase;
     private Set<SecurityTestRunListener> securityTestRunListeners = Collections
@@ -636,6 +637,28 @@ public class SecurityTest extends AbstractTestPropertyHolderWsdlModelItem<Securi
         }
     }
 
+    /**
+     * Returns the maximum number of mutated requests a SecurityScan sends at the
+     * same time, defaulting to the soapui.security.mutationConcurrency system
+     * property or 1 if not set
+     */
+
+    public int getMutationConcurrency() {
+        if (getConfig().isSetMutationConcurrency()) {
+            return getConfig().getMutationConcurrency();
+        }
+
+        return Integer.getInteger(SecurityTestRunnerImpl.MUTATION_CONCURRENCY_PROPERTY, 1);
+    }
+
+    public void setMutationConcurrency(int mutationConcurrency) {
+        int old = getMutationConcurrency();
+        if (old != mutationConcurrency) {
+            getConfig().setMutationConcurrency(mutationConcurrency);
+            notifyPropertyChanged(MUTATION_CONCURRENCY_PROPERTY, old, mutationConcurrency);
+        }
+    }
+
     public void addTestStepRunListener(TestStep testStep, SecurityTestRunListener listener) {
         if (listener == null) {
             throw new RuntimeException("listener must not be null");
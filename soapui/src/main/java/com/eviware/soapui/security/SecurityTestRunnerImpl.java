@@ -43,6 +43,13 @@ import java.util.Map;
 public class SecurityTestRunnerImpl extends AbstractTestCaseRunner<SecurityTest, SecurityTestRunContext> implements
         SecurityTestRunner {
 
+    /**
+     * Maximum number of mutated requests a SecurityScan sends at the same time,
+     * overriding the option of the SecurityTest when set as run property. Also
+     * read from the system properties if the SecurityTest has no such option.
+     */
+    public static final String MUTATION_CONCURRENCY_PROPERTY = "soapui.security.mutationConcurrency";
+
     private SecurityTest securityTest;
     // private boolean stopped;
     private SecurityTestRunListener[] securityTestListeners = new SecurityTestRunListener[0];
@@ -396,4 +403,17 @@ public class SecurityTestRunnerImpl extends AbstractTestCaseRunner<SecurityTest,
         return super.getTimeTaken();
     }
 
+    public int getMutationConcurrency() {
+        Object value = getRunContext() == null ? null : getRunContext().getProperty(MUTATION_CONCURRENCY_PROPERTY);
+        if (value == null) {
+            return Math.max(1, securityTest.getMutationConcurrency());
+        }
+
+        try {
+            return value == null ? 1 : Math.max(1, Integer.parseInt(value.toString().trim()));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
 }
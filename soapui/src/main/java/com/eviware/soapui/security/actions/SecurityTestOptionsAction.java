@@ -22,6 +22,7 @@ import com.eviware.soapui.support.UISupport;
 import com.eviware.soapui.support.action.support.AbstractSoapUIAction;
 import com.eviware.soapui.support.types.StringToStringMap;
 import com.eviware.x.form.XForm;
+import com.eviware.x.form.XForm.FieldType;
 import com.eviware.x.form.XFormDialog;
 import com.eviware.x.form.XFormDialogBuilder;
 import com.eviware.x.form.XFormFactory;
@@ -37,6 +38,7 @@ import com.eviware.x.form.XFormFieldListener;
 public class SecurityTestOptionsAction extends AbstractSoapUIAction<SecurityTest> {
     private static final String FAIL_ON_ERROR = "Abort on Error";
     private static final String FAIL_SECURITYTEST_ON_ERROR = "Fail SecurityTest on Error";
+    private static final String MUTATION_CONCURRENCY = "Concurrent Requests";
     public static final String SOAPUI_ACTION_ID = "SecurityTestOptionsAction";
 
     private XFormDialog dialog;
@@ -57,6 +59,8 @@ public class SecurityTestOptionsAction extends AbstractSoapUIAction<SecurityTest
                 }
             });
             form.addCheckBox(FAIL_SECURITYTEST_ON_ERROR, "Fail SecurityTest if it has failed TestSteps");
+            form.addTextField(MUTATION_CONCURRENCY,
+                    "Maximum number of mutated requests a SecurityScan sends at the same time", FieldType.TEXT);
 
             dialog = builder.buildDialog(builder.buildOkCancelHelpActions(HelpUrls.SECURITYTESTEDITOR_HELP_URL),
                     "Specify general options for this SecurityTest", UISupport.OPTIONS_ICON);
@@ -66,6 +70,7 @@ public class SecurityTestOptionsAction extends AbstractSoapUIAction<SecurityTest
 
         values.put(FAIL_ON_ERROR, String.valueOf(securityTest.getFailOnError()));
         values.put(FAIL_SECURITYTEST_ON_ERROR, String.valueOf(securityTest.getFailSecurityTestOnScanErrors()));
+        values.put(MUTATION_CONCURRENCY, String.valueOf(securityTest.getMutationConcurrency()));
         values = dialog.show(values);
 
         if (dialog.getReturnValue() == XFormDialog.OK_OPTION) {
@@ -73,6 +78,7 @@ public class SecurityTestOptionsAction extends AbstractSoapUIAction<SecurityTest
                 securityTest.setFailOnError(Boolean.parseBoolean(values.get(FAIL_ON_ERROR)));
                 securityTest.setFailSecurityTestOnScanErrors(Boolean
                         .parseBoolean(values.get(FAIL_SECURITYTEST_ON_ERROR)));
+                securityTest.setMutationConcurrency(Math.max(1, Integer.parseInt(values.get(MUTATION_CONCURRENCY))));
 
             } catch (Exception e1) {
                 UISupport.showErrorMessage(e1.getMessage());
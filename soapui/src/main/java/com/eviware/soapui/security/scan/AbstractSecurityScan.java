@@ -17,6 +17,7 @@
 package com.eviware.soapui.security.scan;
 
 import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.SoapUIThreadCreator;
 import com.eviware.soapui.config.SecurityScanConfig;
 import com.eviware.soapui.config.StrategyTypeConfig;
 import com.eviware.soapui.config.TestAssertionConfig;
@@ -40,6 +41,7 @@ import com.eviware.soapui.model.testsuite.AssertionsListener;
 import com.eviware.soapui.model.testsuite.ResponseAssertion;
 import com.eviware.soapui.model.testsuite.SamplerTestStep;
 import com.eviware.soapui.model.testsuite.TestAssertion;
+import com.eviware.soapui.model.testsuite.TestCaseRunner;
 import com.eviware.soapui.model.testsuite.TestStep;
 import com.eviware.soapui.security.ExecutionStrategyHolder;
 import com.eviware.soapui.security.Securable;
@@ -52,14 +54,21 @@ import com.eviware.soapui.security.result.SecurityScanRequestResult;
 import com.eviware.soapui.security.result.SecurityScanResult;
 import com.eviware.soapui.security.support.FailedSecurityMessageExchange;
 import com.eviware.soapui.security.support.SecurityTestRunListener;
+import com.eviware.soapui.support.types.StringToStringMap;
 
 import javax.swing.JComponent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Implementation that is common for all security scans. Support for security
@@ -182,6 +191,12 @@ public abstract class AbstractSecurityScan extends AbstractWsdlModelItem<Securit
     public SecurityScanResult run(TestStep testStep, SecurityTestRunContext context,
                                   SecurityTestRunner securityTestRunner) {
         securityScanResult = new SecurityScanResult(this);
+
+        int concurrency = ((SecurityTestRunnerImpl) securityTestRunner).getMutationConcurrency();
+        if (concurrency > 1 && this instanceof ConcurrentMutationScan) {
+            return runConcurrently((ConcurrentMutationScan) this, testStep, context, securityTestRunner, concurrency);
+        }
+
         SecurityTestRunListener[] securityTestListeners = ((SecurityTest) getParent()).getSecurityTestRunListeners();
 
         PropertyChangeNotifier notifier = new PropertyChangeNotifier();
@@ -200,16 +215,7 @@ public abstract class AbstractSecurityScan extends AbstractWsdlModelItem<Securit
             execute(securityTestRunner, originalTestStepClone, context);
             notifier.notifyChange();
             securityScanRequestResult.stopTimer();
-            assertResponse(getSecurityScanRequestResult().getMessageExchange(), context);
-            // add to summary result
-            securityScanResult.addSecurityRequestResult(getSecurityScanRequestResult());
-            for (int i = 0; i < securityTestListeners.length; i++) {
-                if (Arrays.asList(((SecurityTest) getParent()).getSecurityTestRunListeners()).contains(
-                        securityTestListeners[i])) {
-                    securityTestListeners[i].afterSecurityScanRequest((SecurityTestRunnerImpl) securityTestRunner,
-                            context, securityScanRequestResult);
-                }
-            }
+            addSecurityScanRequestResult(securityTestRunner, context, securityTestListeners);
 
             try {
                 Thread.sleep(getExecutionStrategy().getDelay());
@@ -224,6 +230,153 @@ public abstract class AbstractSecurityScan extends AbstractWsdlModelItem<Securit
         return securityScanResult;
     }
 
+    /**
+     * Mutates the requests one by one like {@link #run}, but sends up to
+     * concurrency of them at the same time. Each request gets its own TestStep
+     * clone and run context, while mutating, asserting and notifying listeners
+     * stays on the calling thread so results are added in mutation order.
+     */
+    private SecurityScanResult runConcurrently(ConcurrentMutationScan scan, TestStep testStep,
+                                               SecurityTestRunContext context, SecurityTestRunner securityTestRunner,
+                                               int concurrency) {
+        SecurityTestRunListener[] securityTestListeners = ((SecurityTest) getParent()).getSecurityTestRunListeners();
+        SecurityTestRunnerImpl runner = (SecurityTestRunnerImpl) securityTestRunner;
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, new SoapUIThreadCreator());
+        LinkedList<MutatedRequest> pendingRequests = new LinkedList<MutatedRequest>();
+
+        PropertyChangeNotifier notifier = new PropertyChangeNotifier();
+        boolean noMutations = true;
+        try {
+            while (hasNext(testStep, context)) {
+                noMutations = false;
+                if (runner.isCanceled()) {
+                    for (MutatedRequest request : pendingRequests) {
+                        request.cancel();
+                    }
+                    securityScanResult.setStatus(ResultStatus.CANCELED);
+                    clear();
+                    return securityScanResult;
+                }
+
+                MutatedRequest request = new MutatedRequest(runner,
+                        runner.cloneForSecurityScan((WsdlTestStep) this.testStep));
+                setSecurityScanRequestResult(request.requestResult);
+                try {
+                    request.mutatedParameters = scan.mutate(request.testStep, context);
+                    if (request.mutatedParameters != null) {
+                        request.submit(executor, context);
+                    }
+                } catch (Exception e) {
+                    SoapUI.logError(e, "[" + getType() + "] Failed to mutate request");
+                    reportSecurityScanException("Failed to mutate request: " + e.getMessage());
+                }
+                pendingRequests.add(request);
+
+                while (!pendingRequests.isEmpty()
+                        && (pendingRequests.size() >= concurrency || pendingRequests.getFirst().isDone())) {
+                    completeRequest(pendingRequests.removeFirst(), runner, context, securityTestListeners, notifier);
+                }
+
+                try {
+                    Thread.sleep(getExecutionStrategy().getDelay());
+                } catch (InterruptedException e) {
+                    SoapUI.logError(e, "Security Scan Request Delay Interrupted!");
+                }
+            }
+
+            while (!pendingRequests.isEmpty()) {
+                completeRequest(pendingRequests.removeFirst(), runner, context, securityTestListeners, notifier);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (noMutations) {
+            securityScanResult.setStatus(ResultStatus.SKIPPED);
+        }
+        return securityScanResult;
+    }
+
+    private void completeRequest(MutatedRequest request, SecurityTestRunner securityTestRunner,
+                                 SecurityTestRunContext context, SecurityTestRunListener[] securityTestListeners,
+                                 PropertyChangeNotifier notifier) {
+        setSecurityScanRequestResult(request.requestResult);
+        if (request.future != null) {
+            try {
+                MessageExchange message = request.future.get();
+                createMessageExchange(request.mutatedParameters, message, context);
+            } catch (InterruptedException e) {
+                request.cancel();
+                SoapUI.logError(e, "Security Scan Request Interrupted!");
+                reportSecurityScanException("Request was interrupted");
+            } catch (ExecutionException e) {
+                SoapUI.logError(e.getCause(), "[" + getType() + "] Failed to send request");
+                reportSecurityScanException("Failed to send request: " + e.getCause());
+            }
+        }
+
+        notifier.notifyChange();
+        addSecurityScanRequestResult(securityTestRunner, context, securityTestListeners);
+    }
+
+    private void addSecurityScanRequestResult(SecurityTestRunner securityTestRunner, SecurityTestRunContext context,
+                                              SecurityTestRunListener[] securityTestListeners) {
+        assertResponse(getSecurityScanRequestResult().getMessageExchange(), context);
+        // add to summary result
+        securityScanResult.addSecurityRequestResult(getSecurityScanRequestResult());
+        for (int i = 0; i < securityTestListeners.length; i++) {
+            if (Arrays.asList(((SecurityTest) getParent()).getSecurityTestRunListeners()).contains(
+                    securityTestListeners[i])) {
+                securityTestListeners[i].afterSecurityScanRequest((SecurityTestRunnerImpl) securityTestRunner,
+                        context, getSecurityScanRequestResult());
+            }
+        }
+    }
+
+    /**
+     * A mutated TestStep clone sent on a thread of its own
+     */
+    private class MutatedRequest implements Callable<MessageExchange> {
+        private final SecurityTestRunnerImpl runner;
+        private final TestStep testStep;
+        private final SecurityScanRequestResult requestResult;
+        private StringToStringMap mutatedParameters;
+        private SecurityTestRunContext requestContext;
+        private Future<MessageExchange> future;
+
+        public MutatedRequest(SecurityTestRunnerImpl runner, TestStep testStep) {
+            this.runner = runner;
+            this.testStep = testStep;
+            requestResult = new SecurityScanRequestResult(AbstractSecurityScan.this);
+        }
+
+        public void submit(ExecutorService executor, SecurityTestRunContext context) {
+            // transports keep per-request state in the context
+            requestContext = new SecurityTestRunContext(runner, context.getProperties());
+            requestContext.setCurrentStep(context.getCurrentStepIndex());
+            future = executor.submit(this);
+        }
+
+        public MessageExchange call() throws Exception {
+            requestResult.startTimer();
+            try {
+                return (MessageExchange) testStep.run((TestCaseRunner) runner, requestContext);
+            } finally {
+                requestResult.stopTimer();
+            }
+        }
+
+        public boolean isDone() {
+            return future == null || future.isDone();
+        }
+
+        public void cancel() {
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+
     protected void clear() {
 
     }
@@ -243,6 +396,16 @@ public abstract class AbstractSecurityScan extends AbstractWsdlModelItem<Securit
      */
     abstract protected boolean hasNext(TestStep testStep2, SecurityTestRunContext context);
 
+    /**
+     * Adds the response of a request mutated by
+     * {@link ConcurrentMutationScan#mutate} to the current
+     * SecurityScanRequestResult
+     */
+    protected void createMessageExchange(StringToStringMap mutatedParameters, MessageExchange message,
+                                         SecurityTestRunContext context) {
+        getSecurityScanRequestResult().setMessageExchange(message);
+    }
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -128,6 +128,7 @@ public abstract class AbstractSecurityScanWithProperties extends AbstractSecurit
         }
     }
 
+    @Override
     protected void createMessageExchange(StringToStringMap updatedParams, MessageExchange message,
                                          SecurityTestRunContext context) {
         for (Map.Entry<String, String> param : updatedParams.entrySet()) {
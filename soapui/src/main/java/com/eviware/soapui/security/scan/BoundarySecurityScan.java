@@ -48,7 +48,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Stack;
 
-public class BoundarySecurityScan extends AbstractSecurityScanWithProperties {
+public class BoundarySecurityScan extends AbstractSecurityScanWithProperties implements ConcurrentMutationScan {
 
     public static final String TYPE = "BoundaryScan";
     public static final String NAME = "Boundary Scan";
@@ -75,13 +75,22 @@ public class BoundarySecurityScan extends AbstractSecurityScanWithProperties {
 
     @Override
     protected void execute(SecurityTestRunner securityTestRunner, TestStep testStep, SecurityTestRunContext context) {
-        PropertyMutation mutation = popMutation(context);
-        if (mutation != null) {
-
-            updateRequestProperty(testStep, mutation);
+        StringToStringMap mutatedParameters = mutate(testStep, context);
+        if (mutatedParameters != null) {
             MessageExchange message = (MessageExchange) testStep.run((TestCaseRunner) securityTestRunner, context);
-            createMessageExchange(mutation.getMutatedParameters(), message, context);
+            createMessageExchange(mutatedParameters, message, context);
+        }
+    }
+
+    @Override
+    public StringToStringMap mutate(TestStep testStep, SecurityTestRunContext context) {
+        PropertyMutation mutation = popMutation(context);
+        if (mutation == null) {
+            return null;
         }
+
+        updateRequestProperty(testStep, mutation);
+        return mutation.getMutatedParameters();
     }
 
     @SuppressWarnings("unchecked")
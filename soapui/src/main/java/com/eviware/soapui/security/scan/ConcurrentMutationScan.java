@@ -0,0 +1,40 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.security.scan;
+
+import com.eviware.soapui.model.testsuite.TestStep;
+import com.eviware.soapui.security.SecurityTestRunContext;
+import com.eviware.soapui.support.types.StringToStringMap;
+
+/**
+ * Implemented by SecurityScans whose mutated requests can be sent
+ * concurrently. Scans that do not implement it always send their requests one
+ * by one.
+ *
+ * @see AbstractSecurityScan#run
+ * @see com.eviware.soapui.security.SecurityTest#getMutationConcurrency()
+ */
+
+public interface ConcurrentMutationScan {
+    /**
+     * Applies the next mutation to the given TestStep clone without sending
+     * it; called on the runner thread, one mutation at a time
+     *
+     * @return the mutated parameters, or null if there was nothing to send
+     */
+
+    StringToStringMap mutate(TestStep testStep, SecurityTestRunContext context) throws Exception;
+}
@@ -49,7 +49,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-public class InvalidTypesSecurityScan extends AbstractSecurityScanWithProperties {
+public class InvalidTypesSecurityScan extends AbstractSecurityScanWithProperties implements ConcurrentMutationScan {
 
     public final static String TYPE = "InvalidTypesSecurityScan";
     public final static String NAME = "Invalid Types";
@@ -133,7 +133,7 @@ public class InvalidTypesSecurityScan extends AbstractSecurityScanWithProperties
     @Override
     protected void execute(SecurityTestRunner securityTestRunner, TestStep testStep, SecurityTestRunContext context) {
         try {
-            StringToStringMap updatedParams = updateRequestContent(testStep, context);
+            StringToStringMap updatedParams = mutate(testStep, context);
             MessageExchange message = (MessageExchange) testStep.run((TestCaseRunner) securityTestRunner, context);
 
             createMessageExchange(updatedParams, message, context);
@@ -149,8 +149,8 @@ public class InvalidTypesSecurityScan extends AbstractSecurityScanWithProperties
     /*
      * Set new value for request
      */
-    private StringToStringMap updateRequestContent(TestStep testStep, SecurityTestRunContext context)
-            throws XmlException, Exception {
+    @Override
+    public StringToStringMap mutate(TestStep testStep, SecurityTestRunContext context) throws Exception {
 
         StringToStringMap params = new StringToStringMap();
 
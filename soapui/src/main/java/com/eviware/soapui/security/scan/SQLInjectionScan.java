@@ -58,7 +58,7 @@ import java.util.Map;
  * @author soapui team
  */
 
-public class SQLInjectionScan extends AbstractSecurityScanWithProperties {
+public class SQLInjectionScan extends AbstractSecurityScanWithProperties implements ConcurrentMutationScan {
 
     public static final String TYPE = "SQLInjectionScan";
     public static final String NAME = "SQL Injection";
@@ -115,7 +115,7 @@ public class SQLInjectionScan extends AbstractSecurityScanWithProperties {
     @Override
     protected void execute(SecurityTestRunner securityTestRunner, TestStep testStep, SecurityTestRunContext context) {
         try {
-            StringToStringMap updatedParams = update(testStep, context);
+            StringToStringMap updatedParams = mutate(testStep, context);
             MessageExchange message = (MessageExchange) testStep.run((TestCaseRunner) securityTestRunner, context);
             createMessageExchange(updatedParams, message, context);
         } catch (XmlException e) {
@@ -127,7 +127,8 @@ public class SQLInjectionScan extends AbstractSecurityScanWithProperties {
         }
     }
 
-    private StringToStringMap update(TestStep testStep, SecurityTestRunContext context) throws XmlException, Exception {
+    @Override
+    public StringToStringMap mutate(TestStep testStep, SecurityTestRunContext context) throws Exception {
         StringToStringMap params = new StringToStringMap();
 
         if (parameterMutations.size() == 0) {
@@ -31,11 +31,15 @@ public interface HttpSettings {
     public static final String HTTP_VERSION_0_9 = "0.9";
     public static final String HTTP_VERSION_1_0 = "1.0";
     public static final String HTTP_VERSION_1_1 = "1.1";
+    public static final String HTTP_VERSION_2_0 = "2.0";
 
     @Setting(name = "HTTP Version", description = "Select HTTP Version to use", type = SettingType.ENUMERATION, values = {
-            HTTP_VERSION_1_0, HTTP_VERSION_1_1})
+            HTTP_VERSION_1_0, HTTP_VERSION_1_1, HTTP_VERSION_2_0})
     public static final String HTTP_VERSION = HttpSettings.class.getSimpleName() + "@" + "http_version";
 
+    @Setting(name = "HTTP/2 Prior Knowledge", description = "Use HTTP/2 without upgrade (h2c) for plain http endpoints", type = SettingType.BOOLEAN)
+    public static final String HTTP2_PRIOR_KNOWLEDGE = HttpSettings.class.getSimpleName() + "@" + "http2_prior_knowledge";
+
     @Setting(name = "User-Agent Header", description = "User-Agent HTTP header to send, blank will send default")
     public final static String USER_AGENT = HttpSettings.class.getSimpleName() + "@" + "user-agent";
 
@@ -99,6 +103,10 @@ public interface HttpSettings {
     public static final String MAX_TOTAL_CONNECTIONS = HttpSettings.class.getSimpleName() + "@"
             + "max_total_connections";
 
+    @Setting(name = "Non-blocking Transport", description = "Sends HTTP requests with the non-blocking NIO client", type = SettingType.BOOLEAN)
+    public static final String NON_BLOCKING_TRANSPORT = HttpSettings.class.getSimpleName() + "@"
+            + "non_blocking_transport";
+
     @Setting(name = "Leave MockEngine", description = "Leave MockEngine running when stopping MockServices", type = SettingType.BOOLEAN)
     public static final String LEAVE_MOCKENGINE = HttpSettings.class.getSimpleName() + "@" + "leave_mockengine";
 
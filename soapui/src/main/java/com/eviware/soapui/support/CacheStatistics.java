@@ -0,0 +1,73 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.support;
+
+/**
+ * Snapshot of the hit and miss counts of one of the shared compilation
+ * caches, for reporting in LoadTest logs
+ */
+
+public final class CacheStatistics {
+    private final String name;
+    private final long hitCount;
+    private final long missCount;
+
+    public CacheStatistics(String name, long hitCount, long missCount) {
+        this.name = name;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    public double getHitRatio() {
+        long requests = getRequestCount();
+        return requests == 0 ? 0 : (double) hitCount / requests;
+    }
+
+    /**
+     * Returns the counts recorded since the specified earlier snapshot
+     */
+
+    public CacheStatistics since(CacheStatistics earlier) {
+        if (earlier == null) {
+            return this;
+        }
+
+        return new CacheStatistics(name, hitCount - earlier.hitCount, missCount - earlier.missCount);
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + hitCount + " hits, " + missCount + " misses ("
+                + Math.round(getHitRatio() * 1000) / 10.0 + "% hit rate)";
+    }
+}
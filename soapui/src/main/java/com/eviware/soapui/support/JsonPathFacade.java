@@ -11,6 +11,8 @@
  */
 package com.eviware.soapui.support;
 
+import com.eviware.soapui.impl.wsdl.support.assertions.ParsedContentCache;
+import com.eviware.soapui.model.propertyexpansion.PropertyExpansionContext;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -59,6 +61,7 @@ public class JsonPathFacade {
 
     private String currentJson;
     private JsonNode jsonObject;
+    private boolean shared;
     private static ObjectMapper mapper;
 
     static {
@@ -73,6 +76,32 @@ public class JsonPathFacade {
         this.currentJson = targetJson;
     }
 
+    private JsonPathFacade(String targetJson, JsonNode jsonObject) {
+        this.jsonObject = jsonObject;
+        this.currentJson = targetJson;
+        this.shared = true;
+    }
+
+    /**
+     * Returns a facade for reading the specified JSON; while the assertions of
+     * a TestStep are run the parsed tree is shared through the ParsedContentCache
+     * attached to the context, so a response checked by several JSONPath
+     * assertions is parsed once. The tree returned by getJSON must not be
+     * modified, writeValue works on a copy.
+     */
+    public static JsonPathFacade forContent(PropertyExpansionContext context, String targetJson) {
+        if (ParsedContentCache.get(context) == null) {
+            return new JsonPathFacade(targetJson);
+        }
+
+        JsonNode jsonObject = ParsedContentCache.getJsonNode(context, targetJson);
+        if (jsonObject == null) {
+            throw new IllegalArgumentException("Invalid JSON: " + targetJson);
+        }
+
+        return new JsonPathFacade(targetJson, jsonObject);
+    }
+
     private static void initObjectMapper() {
         mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
         mapper.configure(JsonParser.Feature.ALLOW_UNQUOTED_FIELD_NAMES, true);
@@ -172,6 +201,10 @@ public class JsonPathFacade {
     public void writeValue(String jsonPathExpression, Object value) {
         String allowedPathExpression = wrapForbiddenCharactersInBrackets(addQuotes(jsonPathExpression));
         Configuration configuration = JsonUtil.getDefaultConfiguration();
+        if (shared) {
+            jsonObject = jsonObject.deepCopy();
+            shared = false;
+        }
         DocumentContext documentContext = JsonPath.using(configuration).parse(jsonObject);
         JsonNode newJson = documentContext.set(allowedPathExpression, value).json();
         currentJson = newJson.toString();
@@ -0,0 +1,389 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.support.jdbc;
+
+import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.impl.wsdl.panels.teststeps.support.NamedParameterStatement;
+import com.eviware.soapui.model.propertyexpansion.PropertyExpander;
+import com.eviware.soapui.model.propertyexpansion.PropertyExpansionContext;
+import com.eviware.soapui.support.SoapUIException;
+import org.apache.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TimerTask;
+
+/**
+ * Bounded pool of JDBC connections keyed by driver and expanded connection
+ * string. Connections in use are not limited, but at most maxIdle connections
+ * per key are kept for reuse; each caches its prepared statements by SQL.
+ * <p/>
+ * Idle connections are closed once they have not been used for the idle
+ * timeout, by a task on the SoapUI timer that runs while there are idle
+ * connections. Pooling can be switched off with -Dsoapui.jdbc.pool=false.
+ */
+
+public class JdbcConnectionPool {
+    /**
+     * Set to false to open a new connection for every JDBC request. Pooled
+     * connections keep their session state between requests and steps: a SET
+     * SCHEMA, session variables or temporary tables created by one request are
+     * still there for the next request that gets the same connection.
+     */
+    public static final String POOL_ENABLED_PROPERTY = "soapui.jdbc.pool";
+    public static final String MAX_IDLE_PROPERTY = "soapui.jdbc.pool.maxIdle";
+    public static final String MAX_STATEMENTS_PROPERTY = "soapui.jdbc.pool.maxStatements";
+    public static final String IDLE_TIMEOUT_PROPERTY = "soapui.jdbc.pool.idleTimeout";
+    public static final int DEFAULT_MAX_IDLE = 4;
+    public static final int DEFAULT_MAX_STATEMENTS = 32;
+    public static final long DEFAULT_IDLE_TIMEOUT = 60000;
+
+    // connections idle for a shorter time are handed out without a validity check
+    private static final long VALIDATION_INTERVAL = 5000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long MIN_REAPER_PERIOD = 1000;
+
+    private static final Logger log = Logger.getLogger(JdbcConnectionPool.class);
+    private static final JdbcConnectionPool instance = new JdbcConnectionPool(Integer.getInteger(MAX_IDLE_PROPERTY,
+            DEFAULT_MAX_IDLE), Integer.getInteger(MAX_STATEMENTS_PROPERTY, DEFAULT_MAX_STATEMENTS), Long.getLong(
+            IDLE_TIMEOUT_PROPERTY, DEFAULT_IDLE_TIMEOUT));
+
+    private final Map<String, LinkedList<PooledConnection>> idleConnections =
+            new HashMap<String, LinkedList<PooledConnection>>();
+    private final int maxIdle;
+    private final int maxStatements;
+    private final long idleTimeout;
+    private TimerTask reaper;
+
+    public JdbcConnectionPool(int maxIdle, int maxStatements, long idleTimeout) {
+        this.maxIdle = maxIdle;
+        this.maxStatements = maxStatements;
+        this.idleTimeout = idleTimeout;
+    }
+
+    public static JdbcConnectionPool getInstance() {
+        return instance;
+    }
+
+    public static boolean isPoolingEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty(POOL_ENABLED_PROPERTY));
+    }
+
+    /**
+     * Expands the connection settings like JdbcUtils.initConnection does and
+     * returns an idle connection for them, or a new one if there is none
+     */
+
+    public PooledConnection getConnection(PropertyExpansionContext context, String driver, String connectionString,
+                                          String password) throws SQLException, SoapUIException {
+        if (JdbcUtils.missingConnSettings(driver, connectionString)) {
+            throw new SoapUIException("Some connections settings are missing");
+        }
+        String drvr = PropertyExpander.expandProperties(context, driver).trim();
+        String connStr = PropertyExpander.expandProperties(context, connectionString).trim();
+        String masskedPass = connStr.replace(JdbcUtils.PASS_TEMPLATE, "#####");
+        connStr = JdbcUtils.insertPassword(context, connStr, password);
+
+        String key = drvr + "|" + connStr;
+        PooledConnection pooledConnection = isPoolingEnabled() ? borrow(key) : null;
+        if (pooledConnection == null) {
+            JdbcUtils.initDriver(drvr, connStr, masskedPass);
+            pooledConnection = new PooledConnection(key, DriverManager.getConnection(connStr));
+        }
+
+        return pooledConnection;
+    }
+
+    private PooledConnection borrow(String key) {
+        List<PooledConnection> expired = new ArrayList<PooledConnection>();
+        try {
+            while (true) {
+                PooledConnection pooledConnection;
+                synchronized (idleConnections) {
+                    removeExpired(expired);
+
+                    LinkedList<PooledConnection> connections = idleConnections.get(key);
+                    if (connections == null) {
+                        return null;
+                    }
+
+                    pooledConnection = connections.removeFirst();
+                    if (connections.isEmpty()) {
+                        idleConnections.remove(key);
+                    }
+                }
+
+                if (pooledConnection.isValid()) {
+                    return pooledConnection;
+                }
+
+                expired.add(pooledConnection);
+            }
+        } finally {
+            for (PooledConnection pooledConnection : expired) {
+                pooledConnection.close();
+            }
+        }
+    }
+
+    private void removeExpired(List<PooledConnection> expired) {
+        long now = System.currentTimeMillis();
+        Iterator<LinkedList<PooledConnection>> iterator = idleConnections.values().iterator();
+        while (iterator.hasNext()) {
+            LinkedList<PooledConnection> connections = iterator.next();
+            Iterator<PooledConnection> connectionIterator = connections.iterator();
+            while (connectionIterator.hasNext()) {
+                PooledConnection pooledConnection = connectionIterator.next();
+                if (now - pooledConnection.lastUsed > idleTimeout) {
+                    connectionIterator.remove();
+                    expired.add(pooledConnection);
+                }
+            }
+
+            if (connections.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void release(PooledConnection pooledConnection, boolean discard) {
+        boolean keep = false;
+        if (!discard && isPoolingEnabled() && pooledConnection.isReusable()) {
+            synchronized (idleConnections) {
+                LinkedList<PooledConnection> connections = idleConnections.get(pooledConnection.key);
+                if (connections == null) {
+                    connections = new LinkedList<PooledConnection>();
+                    idleConnections.put(pooledConnection.key, connections);
+                }
+
+                if (connections.size() < maxIdle) {
+                    pooledConnection.lastUsed = System.currentTimeMillis();
+                    connections.addFirst(pooledConnection);
+                    keep = true;
+                    scheduleReaper();
+                }
+            }
+        }
+
+        if (!keep) {
+            pooledConnection.close();
+        }
+    }
+
+    /**
+     * Starts the task closing expired idle connections unless it is running;
+     * called while holding the idleConnections lock
+     */
+
+    private void scheduleReaper() {
+        if (reaper != null) {
+            return;
+        }
+
+        reaper = new TimerTask() {
+            @Override
+            public void run() {
+                closeExpiredConnections();
+            }
+        };
+
+        long period = Math.max(idleTimeout, MIN_REAPER_PERIOD);
+        try {
+            SoapUI.getSoapUITimer().schedule(reaper, period, period);
+        } catch (IllegalStateException e) {
+            // the timer has been cancelled while shutting down
+            log.debug("Failed to schedule closing of idle JDBC connections: " + e.getMessage());
+            reaper = null;
+        }
+    }
+
+    /**
+     * Closes the idle connections that have not been used for the idle
+     * timeout, and stops the reaper task once no idle connections are left
+     */
+
+    void closeExpiredConnections() {
+        List<PooledConnection> expired = new ArrayList<PooledConnection>();
+        synchronized (idleConnections) {
+            removeExpired(expired);
+            if (idleConnections.isEmpty()) {
+                cancelReaper();
+            }
+        }
+
+        for (PooledConnection pooledConnection : expired) {
+            pooledConnection.close();
+        }
+    }
+
+    private void cancelReaper() {
+        if (reaper != null) {
+            reaper.cancel();
+            reaper = null;
+        }
+    }
+
+    public int getIdleConnectionCount() {
+        synchronized (idleConnections) {
+            int count = 0;
+            for (LinkedList<PooledConnection> connections : idleConnections.values()) {
+                count += connections.size();
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Closes all idle connections; connections in use are closed when released
+     */
+
+    public void closeAll() {
+        List<PooledConnection> closed = new ArrayList<PooledConnection>();
+        synchronized (idleConnections) {
+            for (LinkedList<PooledConnection> connections : idleConnections.values()) {
+                closed.addAll(connections);
+            }
+            idleConnections.clear();
+            cancelReaper();
+        }
+
+        for (PooledConnection pooledConnection : closed) {
+            pooledConnection.close();
+        }
+    }
+
+    /**
+     * A connection borrowed from the pool with its cached statements; it is
+     * used by one request at a time and must be released or discarded
+     */
+
+    public final class PooledConnection {
+        private final String key;
+        private final Connection connection;
+        private final Map<String, NamedParameterStatement> statements =
+                new LinkedHashMap<String, NamedParameterStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, NamedParameterStatement> eldest) {
+                if (size() > maxStatements) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+
+                return false;
+            }
+        };
+        private long lastUsed = System.currentTimeMillis();
+
+        private PooledConnection(String key, Connection connection) {
+            this.key = key;
+            this.connection = connection;
+        }
+
+        public Connection getConnection() {
+            return connection;
+        }
+
+        /**
+         * Returns the cached statement for the SQL with its parameters cleared,
+         * or prepares a new one
+         */
+
+        public NamedParameterStatement prepareStatement(String sql) throws SQLException {
+            NamedParameterStatement statement = statements.get(sql);
+            if (statement == null) {
+                statement = new NamedParameterStatement(connection, sql);
+                statements.put(sql, statement);
+            } else {
+                statement.clearParameters();
+            }
+
+            return statement;
+        }
+
+        /**
+         * Returns the connection to the pool
+         */
+
+        public void release() {
+            JdbcConnectionPool.this.release(this, false);
+        }
+
+        /**
+         * Closes the connection, for example after it failed
+         */
+
+        public void discard() {
+            JdbcConnectionPool.this.release(this, true);
+        }
+
+        private boolean isReusable() {
+            try {
+                // an open transaction must not leak into the next request
+                return !connection.isClosed() && connection.getAutoCommit();
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private boolean isValid() {
+            if (System.currentTimeMillis() - lastUsed < VALIDATION_INTERVAL) {
+                return true;
+            }
+
+            try {
+                return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                return false;
+            } catch (AbstractMethodError e) {
+                // pre JDBC 4 driver
+                try {
+                    return !connection.isClosed();
+                } catch (SQLException e1) {
+                    return false;
+                }
+            }
+        }
+
+        private void close() {
+            for (NamedParameterStatement statement : statements.values()) {
+                closeQuietly(statement);
+            }
+            statements.clear();
+
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.debug("Failed to close JDBC connection: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void closeQuietly(NamedParameterStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            log.debug("Failed to close JDBC statement: " + e.getMessage());
+        }
+    }
+}
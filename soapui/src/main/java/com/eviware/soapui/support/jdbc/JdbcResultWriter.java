@@ -0,0 +1,215 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.support.jdbc;
+
+import com.eviware.soapui.support.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Writes the results of an executed statement as indented XML while reading
+ * the rows, instead of building a DOM of the whole result first. The format
+ * is the one of XmlUtils.createJdbcXmlResult; rows beyond the row limit are
+ * not read, which is marked by a Truncated element after the last row.
+ */
+
+public class JdbcResultWriter {
+    public static final String MAX_ROWS_PROPERTY = "soapui.jdbc.maxResultRows";
+    public static final int DEFAULT_MAX_ROWS = 100000;
+
+    private static final String TABLE_COLUMN_DELIMITER = ".";
+    private static final String INDENT = "   ";
+    private static final Logger log = Logger.getLogger(JdbcResultWriter.class);
+
+    private final Writer out;
+    private final boolean uppercase;
+    private final int maxRows;
+
+    public JdbcResultWriter(Writer out, boolean uppercase) {
+        this(out, uppercase, Integer.getInteger(MAX_ROWS_PROPERTY, DEFAULT_MAX_ROWS));
+    }
+
+    /**
+     * @param maxRows the maximum number of rows written per result set, 0 or less for no limit
+     */
+
+    public JdbcResultWriter(Writer out, boolean uppercase, int maxRows) {
+        this.out = out;
+        this.uppercase = uppercase;
+        this.maxRows = maxRows;
+    }
+
+    public void write(Statement statement) throws SQLException, IOException {
+        if (statement == null) {
+            out.write("<Results/>");
+            return;
+        }
+
+        out.write("<Results>");
+
+        ResultSet resultSet = statement.getResultSet();
+        if (resultSet != null) {
+            try {
+                resultSet.setFetchSize(statement.getFetchSize());
+                writeResultSet(resultSet);
+            } finally {
+                resultSet.close();
+            }
+
+            while (statement.getMoreResults()) {
+                ResultSet moreResults = statement.getResultSet();
+                try {
+                    writeResultSet(moreResults);
+                } finally {
+                    moreResults.close();
+                }
+            }
+        } else {
+            newLine(1);
+            out.write("<UpdateCount>");
+            out.write(String.valueOf(statement.getUpdateCount()));
+            out.write("</UpdateCount>");
+        }
+
+        newLine(0);
+        out.write("</Results>");
+    }
+
+    private void writeResultSet(ResultSet resultSet) throws SQLException, IOException {
+        String[] columnNames = getColumnNames(resultSet.getMetaData());
+
+        newLine(1);
+        out.write("<ResultSet fetchSize=\"");
+        out.write(String.valueOf(resultSet.getFetchSize()));
+        out.write('"');
+
+        int rowCount = 0;
+        boolean truncated = false;
+        while (resultSet.next()) {
+            if (maxRows > 0 && rowCount >= maxRows) {
+                truncated = true;
+                break;
+            }
+
+            if (rowCount++ == 0) {
+                out.write('>');
+            }
+
+            writeRow(resultSet, columnNames);
+        }
+
+        if (truncated) {
+            log.warn("JDBC result truncated after " + maxRows + " rows, see " + MAX_ROWS_PROPERTY);
+            newLine(2);
+            out.write("<Truncated rowLimit=\"");
+            out.write(String.valueOf(maxRows));
+            out.write("\"/>");
+        }
+
+        if (rowCount == 0) {
+            out.write("/>");
+        } else {
+            newLine(1);
+            out.write("</ResultSet>");
+        }
+    }
+
+    private void writeRow(ResultSet resultSet, String[] columnNames) throws SQLException, IOException {
+        newLine(2);
+        out.write("<Row rowNumber=\"");
+        out.write(String.valueOf(resultSet.getRow()));
+        out.write("\">");
+
+        for (int i = 0; i < columnNames.length; i++) {
+            newLine(3);
+            out.write('<');
+            out.write(columnNames[i]);
+
+            String value = resultSet.getString(i + 1);
+            if (StringUtils.hasContent(value)) {
+                out.write('>');
+                writeEscaped(value);
+                out.write("</");
+                out.write(columnNames[i]);
+                out.write('>');
+            } else {
+                out.write("/>");
+            }
+        }
+
+        newLine(2);
+        out.write("</Row>");
+    }
+
+    private String[] getColumnNames(ResultSetMetaData metaData) throws SQLException {
+        String[] columnNames = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columnNames.length; i++) {
+            StringBuilder resultColumnName = new StringBuilder();
+            String tableName = metaData.getTableName(i + 1);
+            String columnName = metaData.getColumnName(i + 1);
+            if (uppercase) {
+                tableName = tableName.toUpperCase();
+                columnName = columnName.toUpperCase();
+            }
+            if (StringUtils.hasContent(tableName)) {
+                resultColumnName.append(tableName);
+                resultColumnName.append(TABLE_COLUMN_DELIMITER);
+            }
+            resultColumnName.append(columnName);
+            columnNames[i] = StringUtils.createXmlName(resultColumnName.toString());
+        }
+
+        return columnNames;
+    }
+
+    private void writeEscaped(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&':
+                    out.write("&amp;");
+                    break;
+                case '<':
+                    out.write("&lt;");
+                    break;
+                case '>':
+                    out.write("&gt;");
+                    break;
+                case '\r':
+                    out.write("&#13;");
+                    break;
+                default:
+                    // characters that are not allowed in XML 1.0 are left out
+                    if (c >= 0x20 || c == '\t' || c == '\n') {
+                        out.write(c);
+                    }
+            }
+        }
+    }
+
+    private void newLine(int depth) throws IOException {
+        out.write('\n');
+        for (int i = 0; i < depth; i++) {
+            out.write(INDENT);
+        }
+    }
+}
@@ -39,13 +39,31 @@ public class JdbcUtils {
         }
         String drvr = PropertyExpander.expandProperties(context, driver).trim();
         String connStr = PropertyExpander.expandProperties(context, connectionString).trim();
+        String masskedPass = connStr.replace(PASS_TEMPLATE, "#####");
+        connStr = insertPassword(context, connStr, password);
+        initDriver(drvr, connStr, masskedPass);
+        return DriverManager.getConnection(connStr);
+
+    }
+
+    /**
+     * Replaces the password template in an expanded connection string with the
+     * expanded password
+     */
+    public static String insertPassword(PropertyExpansionContext context, String connStr, String password) {
         String pass = StringUtils.hasContent(password) ? PropertyExpander.expandProperties(context, password).trim()
                 : "";
-        String masskedPass = connStr.replace(PASS_TEMPLATE, "#####");
         if (connStr.contains(PASS_TEMPLATE)) {
             pass = Matcher.quoteReplacement(pass);
             connStr = connStr.replaceFirst(PASS_TEMPLATE, pass);
         }
+        return connStr;
+    }
+
+    /**
+     * Makes sure a driver for the connection string is registered
+     */
+    public static void initDriver(String drvr, String connStr, String masskedPass) throws SoapUIException {
         try {
             GroovyUtils.registerJdbcDriver(drvr);
             DriverManager.getDriver(connStr);
@@ -59,8 +77,6 @@ public class JdbcUtils {
                         + masskedPass + "]");
             }
         }
-        return DriverManager.getConnection(connStr);
-
     }
 
     public static boolean hasMasskedPass(String connStr) {
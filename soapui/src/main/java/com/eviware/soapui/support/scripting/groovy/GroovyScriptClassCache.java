@@ -0,0 +1,274 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.support.scripting.groovy;
+
+import com.eviware.soapui.support.CacheStatistics;
+import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.Script;
+import org.apache.log4j.Logger;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.runtime.InvokerHelper;
+
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.net.URLClassLoader;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide cache of compiled Groovy script classes, so that script
+ * engines running the same script text (for example one per LoadTest thread)
+ * compile it once and only create new Script instances from the shared class.
+ * <p/>
+ * Entries are keyed by the script text and the state of the classloader the
+ * script is compiled against, and are evicted least-recently-used when the
+ * cache is full; a script engine that replaces its script text leaves the
+ * previous class cached, since other engines and threads may be running the
+ * same text (property expansions reuse one engine for many scripts). The size
+ * is set with the soapui.scripting.groovy.classcache.size system property, 0
+ * disables caching.
+ * <p/>
+ * The cache must not keep project or extension classloaders alive after their
+ * owner has been closed: keys only reference the classloader weakly, and since
+ * a compiled class references its classloader and thereby the parent, compiled
+ * classes are held softly. Entries whose classloader has been collected are
+ * purged when new scripts are added.
+ */
+
+public class GroovyScriptClassCache {
+    public static final String CACHE_SIZE_PROPERTY = "soapui.scripting.groovy.classcache.size";
+    public static final int DEFAULT_CACHE_SIZE = 500;
+
+    private final static Logger log = Logger.getLogger(GroovyScriptClassCache.class);
+    private final static GroovyScriptClassCache instance = new GroovyScriptClassCache(Integer.getInteger(
+            CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE));
+
+    private final int maxSize;
+    private final Map<ScriptKey, CacheEntry> entries;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public GroovyScriptClassCache(final int maxSize) {
+        this.maxSize = maxSize;
+
+        entries = new LinkedHashMap<ScriptKey, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ScriptKey, CacheEntry> eldest) {
+                if (size() > maxSize) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    public static GroovyScriptClassCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Creates a new Script instance for the specified text, compiling it only
+     * if no class for the text and classloader is cached yet
+     */
+
+    public Script createScript(String scriptText, ClassLoader parentClassLoader, CompilerConfiguration config,
+                               Binding binding) {
+        if (maxSize <= 0) {
+            missCount.incrementAndGet();
+            return InvokerHelper.createScript(compile(scriptText, parentClassLoader, config), binding);
+        }
+
+        ScriptKey key = new ScriptKey(scriptText, parentClassLoader);
+        CacheEntry entry;
+        boolean hit;
+
+        synchronized (entries) {
+            entry = entries.get(key);
+            hit = entry != null;
+            if (!hit) {
+                purgeCollectedEntries();
+                entry = new CacheEntry();
+                entries.put(key, entry);
+            }
+        }
+
+        Class<?> scriptClass;
+        try {
+            scriptClass = entry.getScriptClass(scriptText, parentClassLoader, config);
+        } catch (RuntimeException e) {
+            // don't keep scripts that failed to compile
+            synchronized (entries) {
+                if (entries.get(key) == entry) {
+                    entries.remove(key);
+                }
+            }
+
+            throw e;
+        }
+
+        if (hit) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+        }
+
+        return InvokerHelper.createScript(scriptClass, binding);
+    }
+
+    private void purgeCollectedEntries() {
+        Iterator<ScriptKey> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().isCollected()) {
+                keys.remove();
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public double getHitRatio() {
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics("Groovy script class cache", hitCount.get(), missCount.get());
+    }
+
+    public void resetStatistics() {
+        hitCount.set(0);
+        missCount.set(0);
+        evictionCount.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "GroovyScriptClassCache [size=" + getSize() + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+                + ", evictions=" + getEvictionCount() + "]";
+    }
+
+    private static Class<?> compile(String scriptText, ClassLoader parentClassLoader, CompilerConfiguration config) {
+        long start = System.nanoTime();
+
+        // each script gets its own loader so an evicted class can be collected
+        GroovyClassLoader classLoader = new GroovyClassLoader(parentClassLoader, config);
+        Class<?> scriptClass = classLoader.parseClass(scriptText);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Compiled script class [" + scriptClass.getName() + "] in "
+                    + ((System.nanoTime() - start) / 1000000) + "ms");
+        }
+
+        return scriptClass;
+    }
+
+    /**
+     * Compiles its script on first use, and again if the class has been
+     * cleared by the garbage collector; concurrent callers wait for that
+     * compilation instead of compiling the same text again
+     */
+
+    private static class CacheEntry {
+        private Reference<Class<?>> scriptClass;
+
+        public synchronized Class<?> getScriptClass(String scriptText, ClassLoader parentClassLoader,
+                                                    CompilerConfiguration config) {
+            Class<?> result = scriptClass == null ? null : scriptClass.get();
+            if (result == null) {
+                result = compile(scriptText, parentClassLoader, config);
+                scriptClass = new SoftReference<Class<?>>(result);
+            }
+
+            return result;
+        }
+    }
+
+    private static class ScriptKey {
+        private final String scriptText;
+        private final Reference<ClassLoader> classLoader;
+        private final int classPathSize;
+        private final int hashCode;
+
+        public ScriptKey(String scriptText, ClassLoader classLoader) {
+            this.scriptText = scriptText;
+            this.classLoader = new WeakReference<ClassLoader>(classLoader);
+
+            // jars added to an extension classloader invalidate classes compiled before
+            classPathSize = classLoader instanceof URLClassLoader ? ((URLClassLoader) classLoader).getURLs().length : 0;
+            hashCode = 31 * (31 * scriptText.hashCode() + System.identityHashCode(classLoader)) + classPathSize;
+        }
+
+        public boolean isCollected() {
+            return classLoader.get() == null;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+
+            if (!(obj instanceof ScriptKey)) {
+                return false;
+            }
+
+            ScriptKey other = (ScriptKey) obj;
+            ClassLoader loader = classLoader.get();
+            return loader != null && loader == other.classLoader.get() && classPathSize == other.classPathSize
+                    && hashCode == other.hashCode && scriptText.equals(other.scriptText);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
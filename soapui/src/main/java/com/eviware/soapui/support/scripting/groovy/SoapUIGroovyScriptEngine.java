@@ -33,6 +33,8 @@ import org.codehaus.groovy.control.CompilerConfiguration;
  */
 
 public class SoapUIGroovyScriptEngine implements SoapUIScriptEngine {
+    private final ClassLoader parentClassLoader;
+    private final CompilerConfiguration config;
     private GroovyClassLoader classLoader;
     private GroovyShell shell;
     private Binding binding;
@@ -41,9 +43,10 @@ public class SoapUIGroovyScriptEngine implements SoapUIScriptEngine {
     protected ScriptSaver saver = new ScriptSaver();
 
     public SoapUIGroovyScriptEngine(ClassLoader parentClassLoader) {
+        this.parentClassLoader = parentClassLoader;
         classLoader = new GroovyClassLoader(parentClassLoader);
         binding = new Binding();
-        CompilerConfiguration config = new CompilerConfiguration();
+        config = new CompilerConfiguration();
         config.setDebug(true);
         config.setVerbose(true);
         shell = new GroovyShell(classLoader, binding, config);
@@ -112,6 +115,7 @@ public class SoapUIGroovyScriptEngine implements SoapUIScriptEngine {
             classLoader.clearCache();
         }
 
+        // the previous class stays cached, other engines may still run it
         this.scriptText = scriptText;
     }
 
@@ -133,8 +137,9 @@ public class SoapUIGroovyScriptEngine implements SoapUIScriptEngine {
         if (script == null) {
             SoapUIClassLoaderState state = SoapUIExtensionClassLoader.ensure();
             try {
-                script = shell.parse(scriptText);
-                script.setBinding(binding);
+                // engines running the same script share one compiled class
+                script = GroovyScriptClassCache.getInstance().createScript(scriptText, parentClassLoader, config,
+                        binding);
             } finally {
                 state.restore();
             }
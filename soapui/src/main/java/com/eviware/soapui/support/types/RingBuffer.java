@@ -0,0 +1,167 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.support.types;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free, fixed-capacity log that overwrites its oldest entries. Every added
+ * value gets an increasing sequence number which can later be used to look it
+ * up again for as long as it has not been overwritten or cleared.
+ */
+
+public class RingBuffer<T> {
+    private final AtomicReferenceArray<Slot<T>> slots;
+    private final AtomicLong sequence;
+    private final int capacity;
+    private volatile long clearedSequence;
+
+    public RingBuffer(int capacity) {
+        this(capacity, 0);
+    }
+
+    private RingBuffer(int capacity, long firstSequence) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive [" + capacity + "]");
+        }
+
+        this.capacity = capacity;
+        slots = new AtomicReferenceArray<Slot<T>>(capacity);
+        sequence = new AtomicLong(firstSequence);
+        clearedSequence = firstSequence;
+    }
+
+    /**
+     * Adds a value, overwriting the oldest one if the buffer is full
+     *
+     * @return the sequence number of the added value
+     */
+
+    public long add(T value) {
+        long seq = sequence.getAndIncrement();
+        slots.set(indexOf(seq), new Slot<T>(seq, value));
+        return seq;
+    }
+
+    /**
+     * Returns the value with the specified sequence number, or null if it has
+     * been overwritten, cleared or not yet been added
+     */
+
+    public T get(long seq) {
+        if (seq < getFirstSequence() || seq >= sequence.get()) {
+            return null;
+        }
+
+        Slot<T> slot = slots.get(indexOf(seq));
+        return slot != null && slot.sequence == seq ? slot.value : null;
+    }
+
+    /**
+     * The sequence number the next added value will get, which is also the
+     * total number of values added so far
+     */
+
+    public long getSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * The sequence number of the oldest value still available
+     */
+
+    public long getFirstSequence() {
+        return Math.max(clearedSequence, sequence.get() - capacity);
+    }
+
+    public int size() {
+        return (int) (getSequence() - getFirstSequence());
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Makes all values added so far unavailable; sequence numbers keep
+     * increasing
+     */
+
+    public void clear() {
+        long seq = sequence.get();
+        for (int c = 0; c < capacity; c++) {
+            slots.set(c, null);
+        }
+
+        clearedSequence = seq;
+    }
+
+    /**
+     * Snapshot of the available values, oldest first
+     */
+
+    public List<T> getValues() {
+        long last = sequence.get();
+        List<T> result = new ArrayList<T>((int) Math.min(capacity, last));
+
+        for (long seq = Math.max(clearedSequence, last - capacity); seq < last; seq++) {
+            Slot<T> slot = slots.get(indexOf(seq));
+            if (slot != null && slot.sequence == seq) {
+                result.add(slot.value);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a buffer with a new capacity that continues the sequence of this
+     * one and holds its most recent values. Values added to this buffer while
+     * resizing may not be carried over.
+     */
+
+    public RingBuffer<T> resize(int capacity) {
+        long last = sequence.get();
+        RingBuffer<T> result = new RingBuffer<T>(capacity, clearedSequence);
+        result.sequence.set(last);
+
+        for (long seq = Math.max(getFirstSequence(), last - capacity); seq < last; seq++) {
+            Slot<T> slot = slots.get(indexOf(seq));
+            if (slot != null && slot.sequence == seq) {
+                result.slots.set(result.indexOf(seq), slot);
+            }
+        }
+
+        return result;
+    }
+
+    private int indexOf(long seq) {
+        return (int) (seq % capacity);
+    }
+
+    private static final class Slot<T> {
+        private final long sequence;
+        private final T value;
+
+        private Slot(long sequence, T value) {
+            this.sequence = sequence;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,472 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.support.xml;
+
+import com.eviware.soapui.support.CacheStatistics;
+import net.sf.saxon.Configuration;
+import net.sf.saxon.xpath.XPathFactoryImpl;
+import org.apache.log4j.Logger;
+import org.apache.xmlbeans.XmlBeans;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded cache of compiled XPath expressions. XmlBeans hands every
+ * selectPath call that its own simple path engine can't handle to Saxon,
+ * which compiles the expression again for each evaluation; paths selected
+ * through this class are compiled once with Saxon and evaluated against the
+ * DOM of the XmlObject instead. Simple location paths (names, wildcards,
+ * attributes and the child and descendant axes, without predicates or
+ * functions) are left to the XmlBeans path engine, which evaluates them on
+ * its own store faster than Saxon does through the DOM.
+ * <p/>
+ * Expressions are keyed by their full text, including the "declare namespace"
+ * prolog. Expressions that can't be evaluated this way (variables, default
+ * element namespaces, non-node results) are marked as such and always
+ * evaluated by XmlBeans, so the results are the same as with selectPath.
+ * <p/>
+ * Compiled XPathExpressions are not thread-safe, so each thread evaluating a
+ * cached path compiles its own copy on first use, which is counted as a miss;
+ * the cache only spares the compilations of later evaluations on the same
+ * thread.
+ */
+
+public class XPathExpressionCache {
+    public static final String CACHE_SIZE_PROPERTY = "soapui.xpath.cache.size";
+    public static final int DEFAULT_CACHE_SIZE = 1000;
+
+    private final static Logger log = Logger.getLogger(XPathExpressionCache.class);
+    private final static XPathExpressionCache instance = new XPathExpressionCache(Integer.getInteger(
+            CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE));
+
+    private static final Pattern NAMESPACE_DECLARATION = Pattern
+            .compile("^\\s*declare\\s+namespace\\s+([\\w.\\-]+)\\s*=\\s*(['\"])(.*?)\\2\\s*;");
+
+    private static final String NAME_TEST = "(\\*|[\\w.\\-]+(:(\\*|[\\w.\\-]+))?)";
+    private static final String STEP = "(\\.|@?" + NAME_TEST + ")";
+    private static final Pattern SIMPLE_PATH = Pattern.compile("^\\s*(//?)?" + STEP + "(//?" + STEP + ")*\\s*$");
+
+    private final int maxSize;
+    private final Map<String, CompiledPath> paths;
+    private final XPathFactoryImpl factory;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong fallbackCount = new AtomicLong();
+    private final AtomicLong nativeCount = new AtomicLong();
+
+    public XPathExpressionCache(final int maxSize) {
+        this.maxSize = maxSize;
+
+        paths = new LinkedHashMap<String, CompiledPath>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledPath> eldest) {
+                return size() > maxSize;
+            }
+        };
+
+        // XmlBeans only implements DOM level 2
+        Configuration config = new Configuration();
+        config.setDOMLevel(2);
+        factory = new XPathFactoryImpl(config);
+    }
+
+    public static XPathExpressionCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Replacement for XmlObject.selectPath
+     */
+
+    public static XmlObject[] selectPath(XmlObject xmlObject, String path) {
+        return instance.select(xmlObject, path);
+    }
+
+    /**
+     * Replacement for XmlCursor.selectPath; the selections are added to the
+     * cursor, which stays where it is
+     */
+
+    public static void selectPath(XmlCursor cursor, String path) {
+        instance.select(cursor, path);
+    }
+
+    public XmlObject[] select(XmlObject xmlObject, String path) {
+        CompiledPath compiledPath = getCompiledPath(path);
+        if (compiledPath != null && compiledPath.isSimple()) {
+            nativeCount.incrementAndGet();
+            return xmlObject.selectPath(path);
+        }
+
+        if (compiledPath != null) {
+            XmlObject[] result = toXmlObjects(compiledPath.evaluate(xmlObject.getDomNode()));
+            if (result != null) {
+                return result;
+            }
+
+            compiledPath.setUnsupported();
+        }
+
+        fallbackCount.incrementAndGet();
+        return xmlObject.selectPath(path);
+    }
+
+    public void select(XmlCursor cursor, String path) {
+        CompiledPath compiledPath = getCompiledPath(path);
+        if (compiledPath != null && compiledPath.isSimple()) {
+            nativeCount.incrementAndGet();
+            cursor.selectPath(path);
+            return;
+        }
+
+        if (compiledPath != null) {
+            XmlCursor[] nodeCursors = toCursors(compiledPath.evaluate(cursor.getDomNode()));
+            if (nodeCursors != null) {
+                cursor.clearSelections();
+                cursor.push();
+                try {
+                    for (XmlCursor nodeCursor : nodeCursors) {
+                        cursor.toCursor(nodeCursor);
+                        cursor.addToSelection();
+                    }
+                } finally {
+                    cursor.pop();
+                    dispose(nodeCursors);
+                }
+
+                return;
+            }
+
+            compiledPath.setUnsupported();
+        }
+
+        fallbackCount.incrementAndGet();
+        cursor.selectPath(path);
+    }
+
+    /**
+     * Returns the XmlObjects for the specified nodes, or null if any of them
+     * has none (text nodes) or is not an XmlBeans node
+     */
+
+    private static XmlObject[] toXmlObjects(NodeList nodes) {
+        if (nodes == null) {
+            return null;
+        }
+
+        try {
+            XmlObject[] result = new XmlObject[nodes.getLength()];
+            for (int c = 0; c < result.length; c++) {
+                result[c] = XmlBeans.nodeToXmlObject(nodes.item(c));
+                if (result[c] == null) {
+                    return null;
+                }
+            }
+
+            return result;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static XmlCursor[] toCursors(NodeList nodes) {
+        if (nodes == null) {
+            return null;
+        }
+
+        XmlCursor[] result = new XmlCursor[nodes.getLength()];
+        try {
+            for (int c = 0; c < result.length; c++) {
+                result[c] = XmlBeans.nodeToCursor(nodes.item(c));
+                if (result[c] == null) {
+                    dispose(result);
+                    return null;
+                }
+            }
+
+            return result;
+        } catch (RuntimeException e) {
+            dispose(result);
+            return null;
+        }
+    }
+
+    private static void dispose(XmlCursor[] cursors) {
+        for (XmlCursor cursor : cursors) {
+            if (cursor != null) {
+                cursor.dispose();
+            }
+        }
+    }
+
+    /**
+     * Returns the compiled path for the specified expression, with an
+     * expression compiled for the calling thread unless the path is simple,
+     * or null if it has to be evaluated by XmlBeans
+     */
+
+    private CompiledPath getCompiledPath(String path) {
+        if (maxSize <= 0 || path == null) {
+            return null;
+        }
+
+        CompiledPath compiledPath;
+        synchronized (paths) {
+            compiledPath = paths.get(path);
+        }
+
+        if (compiledPath == null) {
+            compiledPath = compile(path);
+            if (!compiledPath.isSimple()) {
+                missCount.incrementAndGet();
+            }
+
+            synchronized (paths) {
+                paths.put(path, compiledPath);
+            }
+        } else if (!compiledPath.isUnsupported() && !compiledPath.isSimple()) {
+            if (compiledPath.hasThreadExpression()) {
+                hitCount.incrementAndGet();
+            } else {
+                missCount.incrementAndGet();
+                compiledPath.compileThreadExpression();
+            }
+        }
+
+        return compiledPath.isUnsupported() ? null : compiledPath;
+    }
+
+    private CompiledPath compile(String path) {
+        Map<String, String> namespaces = new HashMap<String, String>();
+        String expression = path;
+
+        Matcher matcher = NAMESPACE_DECLARATION.matcher(expression);
+        while (matcher.find()) {
+            namespaces.put(matcher.group(1), matcher.group(3));
+            expression = expression.substring(matcher.end());
+            matcher = NAMESPACE_DECLARATION.matcher(expression);
+        }
+
+        // variables ($this) and other declarations are only known to XmlBeans
+        if (expression.trim().startsWith("declare") || expression.indexOf('$') >= 0) {
+            return new CompiledPath(factory, expression, namespaces, null);
+        }
+
+        if (SIMPLE_PATH.matcher(expression).matches()) {
+            return CompiledPath.createSimple(factory, expression, namespaces);
+        }
+
+        try {
+            return new CompiledPath(factory, expression, namespaces, compile(factory, expression, namespaces));
+        } catch (Exception e) {
+            log.debug("Failed to compile XPath [" + path + "], using XmlBeans instead: " + e);
+            return new CompiledPath(factory, expression, namespaces, null);
+        }
+    }
+
+    private static XPathExpression compile(XPathFactoryImpl factory, String expression, Map<String, String> namespaces)
+            throws XPathExpressionException {
+        synchronized (factory) {
+            XPath xpath = factory.newXPath();
+            xpath.setNamespaceContext(new MapNamespaceContext(namespaces));
+            return xpath.compile(expression);
+        }
+    }
+
+    public void clear() {
+        synchronized (paths) {
+            paths.clear();
+        }
+    }
+
+    public int getSize() {
+        synchronized (paths) {
+            return paths.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Number of evaluations that were handed to XmlBeans since the path could
+     * not be evaluated with Saxon
+     */
+
+    public long getFallbackCount() {
+        return fallbackCount.get();
+    }
+
+    /**
+     * Number of evaluations of simple paths that were left to the XmlBeans
+     * path engine
+     */
+
+    public long getNativeCount() {
+        return nativeCount.get();
+    }
+
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics("XPath expression cache", hitCount.get(), missCount.get());
+    }
+
+    private static class CompiledPath {
+        private final XPathFactoryImpl factory;
+        private final String expression;
+        private final Map<String, String> namespaces;
+        private final ThreadLocal<XPathExpression> compiledExpressions = new ThreadLocal<XPathExpression>();
+        private final boolean simple;
+        private volatile boolean unsupported;
+
+        /**
+         * Creates a path for the specified expression, which has been compiled
+         * by the calling thread; pass null if the expression is unsupported
+         */
+
+        public CompiledPath(XPathFactoryImpl factory, String expression, Map<String, String> namespaces,
+                            XPathExpression compiledExpression) {
+            this.factory = factory;
+            this.expression = expression;
+            this.namespaces = namespaces;
+            compiledExpressions.set(compiledExpression);
+            unsupported = compiledExpression == null;
+            simple = false;
+        }
+
+        private CompiledPath(XPathFactoryImpl factory, String expression, Map<String, String> namespaces) {
+            this.factory = factory;
+            this.expression = expression;
+            this.namespaces = namespaces;
+            simple = true;
+        }
+
+        /**
+         * Creates a path that is evaluated by the XmlBeans path engine and
+         * therefore never compiled
+         */
+
+        public static CompiledPath createSimple(XPathFactoryImpl factory, String expression,
+                                                Map<String, String> namespaces) {
+            return new CompiledPath(factory, expression, namespaces);
+        }
+
+        public boolean isSimple() {
+            return simple;
+        }
+
+        public boolean isUnsupported() {
+            return unsupported;
+        }
+
+        public boolean hasThreadExpression() {
+            return compiledExpressions.get() != null;
+        }
+
+        /**
+         * Compiles the expression for the calling thread, marks the path as
+         * unsupported if that fails
+         */
+
+        public void compileThreadExpression() {
+            try {
+                compiledExpressions.set(compile(factory, expression, namespaces));
+            } catch (Exception e) {
+                setUnsupported();
+            }
+        }
+
+        public void setUnsupported() {
+            unsupported = true;
+        }
+
+        /**
+         * Returns the selected nodes, or null if the result is not a node-set
+         * of nodes from the context document
+         */
+
+        public NodeList evaluate(Node contextNode) {
+            if (contextNode == null) {
+                return null;
+            }
+
+            XPathExpression compiledExpression = compiledExpressions.get();
+            if (compiledExpression == null) {
+                return null;
+            }
+
+            try {
+                return (NodeList) compiledExpression.evaluate(contextNode, XPathConstants.NODESET);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+
+    private static class MapNamespaceContext implements NamespaceContext {
+        private final Map<String, String> namespaces;
+
+        public MapNamespaceContext(Map<String, String> namespaces) {
+            this.namespaces = namespaces;
+        }
+
+        public String getNamespaceURI(String prefix) {
+            if (XMLConstants.XML_NS_PREFIX.equals(prefix)) {
+                return XMLConstants.XML_NS_URI;
+            }
+
+            String namespace = namespaces.get(prefix);
+            return namespace == null ? XMLConstants.NULL_NS_URI : namespace;
+        }
+
+        public String getPrefix(String namespaceURI) {
+            for (Map.Entry<String, String> entry : namespaces.entrySet()) {
+                if (entry.getValue().equals(namespaceURI)) {
+                    return entry.getKey();
+                }
+            }
+
+            return null;
+        }
+
+        public Iterator getPrefixes(String namespaceURI) {
+            String prefix = getPrefix(namespaceURI);
+            return prefix == null ? Collections.emptyList().iterator() : Collections.singletonList(prefix).iterator();
+        }
+    }
+}
@@ -21,13 +21,12 @@ import com.eviware.soapui.impl.wsdl.WsdlInterface;
 import com.eviware.soapui.impl.wsdl.support.Constants;
 import com.eviware.soapui.impl.wsdl.support.soap.SoapVersion;
 import com.eviware.soapui.support.StringUtils;
+import com.eviware.soapui.support.jdbc.JdbcResultWriter;
 import com.eviware.soapui.support.types.StringToStringMap;
 import net.sf.saxon.expr.Token;
 import net.sf.saxon.expr.Tokenizer;
 import org.apache.log4j.Logger;
 import org.apache.xerces.util.SecurityManager;
-import org.apache.xml.serialize.OutputFormat;
-import org.apache.xml.serialize.XMLSerializer;
 import org.apache.xmlbeans.SchemaType;
 import org.apache.xmlbeans.XmlAnySimpleType;
 import org.apache.xmlbeans.XmlCursor;
@@ -58,7 +57,6 @@ import javax.xml.parsers.SAXParserFactory;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PrintWriter;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
@@ -1179,7 +1177,7 @@ public final class XmlUtils {
     public static Node selectFirstDomNode(XmlObject xmlObject, String xpath) {
         XmlCursor cursor = xmlObject.newCursor();
         try {
-            cursor.selectPath(xpath);
+            XPathExpressionCache.selectPath(cursor, xpath);
 
             if (cursor.toNextSelection()) {
                 return cursor.getDomNode();
@@ -1196,7 +1194,7 @@ public final class XmlUtils {
 
         XmlCursor cursor = xmlObject.newCursor();
         try {
-            cursor.selectPath(xpath);
+            XPathExpressionCache.selectPath(cursor, xpath);
 
             while (cursor.toNextSelection()) {
                 result.add(cursor.getDomNode());
@@ -1371,7 +1369,7 @@ public final class XmlUtils {
     public static String getXPathValue(String value, String xpath) {
         try {
             XmlObject xmlObject = XmlObject.Factory.parse(value);
-            XmlObject[] nodes = xmlObject.selectPath(xpath);
+            XmlObject[] nodes = XPathExpressionCache.selectPath(xmlObject, xpath);
             if (nodes.length > 0) {
                 return getNodeValue(nodes[0].getDomNode());
             }
@@ -1387,46 +1385,10 @@ public final class XmlUtils {
     }
 
     public static String createJdbcXmlResultEx(Statement statement, boolean makeUpperCased) throws SQLException, ParserConfigurationException {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        org.w3c.dom.Document xmlDocumentResult = builder.newDocument();
-        Element resultsElement = xmlDocumentResult.createElement("Results");
-        xmlDocumentResult.appendChild(resultsElement);
-
-        if (statement != null) {
-            try (ResultSet resultSet = statement.getResultSet()) {
-                if (resultSet != null) {
-                    resultSet.setFetchSize(statement.getFetchSize());
-                    xmlDocumentResult = addResultSetXmlPart(resultsElement, resultSet, xmlDocumentResult, makeUpperCased);
-                    while (statement.getMoreResults()) {
-                        try (ResultSet moreResults = statement.getResultSet()) {
-                            xmlDocumentResult = addResultSetXmlPart(resultsElement, moreResults, xmlDocumentResult, makeUpperCased);
-                        }
-                    }
-                } else {
-                    Element errorElement = xmlDocumentResult.createElement("UpdateCount");
-                    errorElement.appendChild(xmlDocumentResult.createTextNode(String.valueOf(statement.getUpdateCount())));
-                    resultsElement.appendChild(errorElement);
-                }
-            }
-        }
-
         StringWriter out = new StringWriter();
 
-        OutputFormat outputFormat = new OutputFormat(xmlDocumentResult);
-        outputFormat.setOmitComments(true);
-        outputFormat.setOmitDocumentType(true);
-        outputFormat.setOmitXMLDeclaration(true);
-        // outputFormat.setLineSeparator( "\n" );
-        // add this line //
-        // outputFormat.setPreserveSpace( true );
-        outputFormat.setIndent(3);
-        outputFormat.setIndenting(true);
-
         try {
-            XMLSerializer serializer = new XMLSerializer(new PrintWriter(out), outputFormat);
-            serializer.asDOMSerializer();
-            serializer.serialize(xmlDocumentResult);
+            new JdbcResultWriter(out, makeUpperCased).write(statement);
         } catch (IOException e) {
             SoapUI.logError(e);
         }
@@ -0,0 +1,393 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.tools;
+
+import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTest;
+import com.eviware.soapui.impl.wsdl.loadtest.agent.LoadTestAgentProtocol;
+import com.eviware.soapui.impl.wsdl.loadtest.agent.LoadTestAssignment;
+import com.eviware.soapui.impl.wsdl.loadtest.strategy.ArrivalRateLoadStrategy;
+import com.eviware.soapui.impl.wsdl.loadtest.strategy.LoadStrategy;
+import com.eviware.soapui.model.testsuite.LoadTestRunContext;
+import com.eviware.soapui.model.testsuite.LoadTestRunner;
+import com.eviware.soapui.model.testsuite.TestRunner.Status;
+import com.eviware.soapui.support.StringUtils;
+import org.apache.commons.cli.CommandLine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+
+/**
+ * Headless LoadTest agent that runs LoadTests of its project file on request
+ * of a controller (see SoapUILoadTestRunner -A), streaming statistics back
+ * while running. Several agents can be started on different nodes, or on
+ * the same node with different ports, to generate more load than a single JVM
+ * can.
+ * <p/>
+ * Agents listen on the loopback interface unless a bind address is given with
+ * -b, and only accept controllers that send the token given with -k or the
+ * soapui.loadtest.agent.token system property; an agent without token does not
+ * start.
+ */
+
+public class SoapUILoadTestAgent extends SoapUILoadTestRunner {
+    public static String TITLE = "SoapUI " + SoapUI.SOAPUI_VERSION + " LoadTest Agent";
+
+    private static final int STATISTICS_INTERVAL = 1000;
+
+    private int port = LoadTestAgentProtocol.DEFAULT_PORT;
+    private String bindAddress;
+    private String token = LoadTestAgentProtocol.getDefaultToken();
+    private volatile ServerSocket serverSocket;
+    private volatile boolean stopped;
+    private volatile int localPort = -1;
+    private LoadTestAssignment assignment;
+    private DataOutputStream out;
+    private volatile LoadTestRunner currentRunner;
+    private volatile boolean stopRequested;
+    private Status status;
+    private String reason;
+
+    /**
+     * Starts an agent for the specified soapUI project file, see SoapUI xdocs
+     * for details.
+     *
+     * @param args
+     */
+
+    public static void main(String[] args) {
+        final SoapUILoadTestAgent agent = new SoapUILoadTestAgent();
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            public void run() {
+                agent.stop();
+            }
+        }, "LoadTest agent shutdown"));
+
+        System.exit(agent.runFromCommandLine(args));
+    }
+
+    public SoapUILoadTestAgent() {
+        super(TITLE);
+    }
+
+    protected SoapUIOptions initCommandLineOptions() {
+        SoapUIOptions options = super.initCommandLineOptions();
+        options.addOption("a", true, "Sets the port to listen for controllers on");
+        options.addOption("b", true, "Sets the address to listen for controllers on, defaults to loopback");
+        options.addOption("k", true, "Sets the token controllers must send");
+        return options;
+    }
+
+    protected boolean processCommandLine(CommandLine cmd) {
+        if (cmd.hasOption("a")) {
+            setPort(Integer.parseInt(cmd.getOptionValue("a")));
+        }
+
+        if (cmd.hasOption("b")) {
+            setBindAddress(cmd.getOptionValue("b"));
+        }
+
+        if (cmd.hasOption("k")) {
+            setToken(cmd.getOptionValue("k"));
+        }
+
+        return super.processCommandLine(cmd);
+    }
+
+    /**
+     * Sets the port to listen on, 0 for any free port
+     */
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Sets the address to listen on; null (the default) for the loopback
+     * interface only
+     */
+
+    public void setBindAddress(String bindAddress) {
+        this.bindAddress = bindAddress;
+    }
+
+    /**
+     * Sets the token controllers must send, required
+     */
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    /**
+     * @return the port this agent listens on, or -1 if it is not listening yet
+     */
+
+    public int getLocalPort() {
+        return localPort;
+    }
+
+    InetAddress getLocalAddress() {
+        ServerSocket socket = serverSocket;
+        return socket == null ? null : socket.getInetAddress();
+    }
+
+    /**
+     * Stops accepting controllers and cancels a running LoadTest
+     */
+
+    public void stop() {
+        stopped = true;
+
+        ServerSocket socket = serverSocket;
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                log.warn("Failed to close agent socket: " + e);
+            }
+        }
+
+        LoadTestRunner runner = currentRunner;
+        if (runner != null) {
+            runner.cancel("Agent stopped");
+        }
+    }
+
+    /**
+     * Accepts controller connections until the agent is stopped, running one
+     * LoadTest at a time
+     */
+
+    public boolean runRunner() throws Exception {
+        if (!StringUtils.hasContent(token)) {
+            throw new Exception("No agent token specified, use -k or -D" + LoadTestAgentProtocol.TOKEN_PROPERTY);
+        }
+
+        InetAddress address = bindAddress == null ? InetAddress.getLoopbackAddress() : InetAddress
+                .getByName(bindAddress);
+        ServerSocket serverSocket = new ServerSocket(port, 50, address);
+        this.serverSocket = serverSocket;
+        localPort = serverSocket.getLocalPort();
+        log.info("LoadTest agent listening on " + address.getHostAddress() + ":" + localPort);
+
+        try {
+            while (!stopped) {
+                Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (SocketException e) {
+                    if (stopped) {
+                        break;
+                    }
+                    throw e;
+                }
+
+                try {
+                    handleController(socket);
+                } catch (Exception e) {
+                    log.error("Error handling controller [" + socket.getRemoteSocketAddress() + "]: " + e);
+                } finally {
+                    socket.close();
+                }
+            }
+        } finally {
+            serverSocket.close();
+            log.info("LoadTest agent stopped");
+        }
+
+        return true;
+    }
+
+    private void handleController(Socket socket) throws IOException {
+        socket.setTcpNoDelay(true);
+
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+        LoadTestAgentProtocol.readHeader(in);
+        if (!LoadTestAgentProtocol.isValidToken(token, LoadTestAgentProtocol.readString(in))) {
+            log.warn("Rejected controller [" + socket.getRemoteSocketAddress() + "], invalid token");
+            synchronized (out) {
+                LoadTestAgentProtocol.writeHeader(out);
+                out.writeByte(LoadTestAgentProtocol.FINISHED);
+                out.writeUTF(Status.FAILED.name());
+                LoadTestAgentProtocol.writeString(out, "Invalid agent token");
+                out.flush();
+            }
+            return;
+        }
+
+        if (in.readByte() != LoadTestAgentProtocol.START) {
+            throw new IOException("Expected START from controller");
+        }
+
+        assignment = LoadTestAssignment.read(in);
+        log.info("Controller [" + socket.getRemoteSocketAddress() + "] requested " + assignment);
+
+        synchronized (out) {
+            LoadTestAgentProtocol.writeHeader(out);
+            out.flush();
+        }
+
+        status = null;
+        reason = null;
+        currentRunner = null;
+        stopRequested = false;
+
+        // a STOP message or a closed connection cancels the run
+        Thread controlThread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    while (in.readByte() != LoadTestAgentProtocol.STOP) {
+                    }
+                } catch (IOException e) {
+                    // connection closed
+                }
+
+                stopRequested = true;
+                LoadTestRunner runner = currentRunner;
+                if (runner != null) {
+                    runner.cancel("Stopped by controller");
+                }
+            }
+        }, "LoadTest agent control");
+        controlThread.setDaemon(true);
+        controlThread.start();
+
+        if (assignment.hasWork()) {
+            setTestSuite(assignment.getTestSuite());
+            setTestCase(assignment.getTestCase());
+            setLoadTest(assignment.getLoadTest());
+            setThreadCount(assignment.getThreadCount());
+            setLimit((int) assignment.getTestLimit());
+
+            try {
+                super.runRunner();
+            } catch (Exception e) {
+                if (status == null) {
+                    status = Status.FAILED;
+                    reason = e.getMessage();
+                }
+            }
+        } else {
+            // a limit of 0 would run without limit, controllers do not send these
+            status = Status.FINISHED;
+            reason = "Nothing assigned";
+        }
+
+        if (status == null) {
+            status = Status.FAILED;
+            reason = "No LoadTest matching " + assignment;
+        }
+
+        synchronized (out) {
+            out.writeByte(LoadTestAgentProtocol.FINISHED);
+            out.writeUTF(status.name());
+            LoadTestAgentProtocol.writeString(out, reason);
+            out.flush();
+        }
+
+        log.info("Finished " + assignment + " with status " + status);
+    }
+
+    protected void runWsdlLoadTest(final WsdlLoadTest loadTest) {
+        if (stopRequested) {
+            return;
+        }
+
+        LoadStrategy loadStrategy = loadTest.getLoadStrategy();
+        if (assignment.getArrivalRate() >= 0 && loadStrategy instanceof ArrivalRateLoadStrategy) {
+            ArrivalRateLoadStrategy arrivalRateStrategy = (ArrivalRateLoadStrategy) loadStrategy;
+            arrivalRateStrategy.setArrivalRate(assignment.getArrivalRate());
+            arrivalRateStrategy.setMaxThreadCount(assignment.getMaxThreadCount());
+        }
+
+        final boolean[] streaming = {true};
+        Thread streamer = new Thread(new Runnable() {
+            public void run() {
+                while (streaming[0]) {
+                    try {
+                        Thread.sleep(STATISTICS_INTERVAL);
+                        if (streaming[0]) {
+                            sendStatistics(loadTest);
+                        }
+                    } catch (Exception e) {
+                        log.error("Failed to send statistics: " + e);
+                        break;
+                    }
+                }
+            }
+        }, "LoadTest agent statistics");
+        streamer.setDaemon(true);
+        streamer.start();
+
+        try {
+            super.runWsdlLoadTest(loadTest);
+        } finally {
+            streaming[0] = false;
+        }
+
+        try {
+            streamer.join();
+            loadTest.getStatisticsModel().finish();
+            sendStatistics(loadTest);
+        } catch (Exception e) {
+            log.error("Failed to send statistics: " + e);
+        }
+    }
+
+    private void sendStatistics(WsdlLoadTest loadTest) throws IOException {
+        LoadTestRunner runner = currentRunner;
+
+        synchronized (out) {
+            out.writeByte(LoadTestAgentProtocol.STATISTICS);
+            out.writeFloat(runner == null ? 0 : runner.getProgress());
+            out.writeInt(runner == null ? 0 : runner.getRunningThreadCount());
+            loadTest.getStatisticsModel().createAgentStatistics().write(out);
+            out.flush();
+        }
+    }
+
+    public void beforeLoadTest(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
+        super.beforeLoadTest(loadTestRunner, context);
+        currentRunner = loadTestRunner;
+    }
+
+    public void loadTestStarted(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
+        super.loadTestStarted(loadTestRunner, context);
+
+        // stop may have been requested before the runner could be canceled
+        if (stopRequested) {
+            loadTestRunner.cancel("Stopped by controller");
+        }
+    }
+
+    public void afterLoadTest(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
+        super.afterLoadTest(loadTestRunner, context);
+
+        status = loadTestRunner.getStatus();
+        reason = loadTestRunner.getReason();
+    }
+}
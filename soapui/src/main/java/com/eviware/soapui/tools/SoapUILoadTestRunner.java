@@ -21,6 +21,10 @@ import com.eviware.soapui.analytics.Analytics;
 import com.eviware.soapui.analytics.AnalyticsHelper;
 import com.eviware.soapui.impl.wsdl.WsdlProject;
 import com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTest;
+import com.eviware.soapui.impl.wsdl.loadtest.agent.LoadTestAgentController;
+import com.eviware.soapui.impl.wsdl.loadtest.agent.LoadTestAgentProtocol;
+import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatistics;
+import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatistics.Statistic;
 import com.eviware.soapui.impl.wsdl.loadtest.data.actions.ExportLoadTestLogAction;
 import com.eviware.soapui.impl.wsdl.loadtest.data.actions.ExportStatisticsAction;
 import com.eviware.soapui.impl.wsdl.loadtest.log.LoadTestLog;
@@ -72,6 +76,8 @@ public class SoapUILoadTestRunner extends AbstractSoapUITestRunner implements Lo
     private int limit = -1;
     private long threadCount = -1;
     private boolean saveAfterRun;
+    private String agents;
+    private String agentToken = LoadTestAgentProtocol.getDefaultToken();
 
     public static String TITLE = "SoapUI " + SoapUI.SOAPUI_VERSION + " LoadTest Runner";
 
@@ -167,6 +173,14 @@ public class SoapUILoadTestRunner extends AbstractSoapUITestRunner implements Lo
             setProjectProperties(cmd.getOptionValues("P"));
         }
 
+        if (cmd.hasOption("A")) {
+            setAgents(cmd.getOptionValue("A"));
+        }
+
+        if (cmd.hasOption("K")) {
+            setAgentToken(cmd.getOptionValue("K"));
+        }
+
         if (message.length() > 0) {
             log.error(message);
             return false;
@@ -183,6 +197,26 @@ public class SoapUILoadTestRunner extends AbstractSoapUITestRunner implements Lo
         this.threadCount = threadCount;
     }
 
+    /**
+     * Sets the agents to distribute LoadTests to instead of running them in this
+     * JVM
+     *
+     * @param agents comma-separated list of host[:port] of running SoapUILoadTestAgents
+     */
+
+    public void setAgents(String agents) {
+        this.agents = agents;
+    }
+
+    /**
+     * Sets the shared token the agents were started with, defaults to the
+     * soapui.loadtest.agent.token system property
+     */
+
+    public void setAgentToken(String agentToken) {
+        this.agentToken = agentToken;
+    }
+
     protected SoapUIOptions initCommandLineOptions() {
         SoapUIOptions options = new SoapUIOptions("loadtestrunner");
         options.addOption("e", true, "Sets the endpoint");
@@ -205,6 +239,8 @@ public class SoapUILoadTestRunner extends AbstractSoapUITestRunner implements Lo
         options.addOption("G", true, "Sets global property with name=value");
         options.addOption("P", true, "Sets or overrides project property with name=value");
         options.addOption("S", false, "Saves the project after running the tests");
+        options.addOption("A", true, "Runs the LoadTests on the specified agents (host:port,host:port..)");
+        options.addOption("K", true, "Sets the token the agents were started with");
 
         return options;
     }
@@ -366,8 +402,16 @@ public class SoapUILoadTestRunner extends AbstractSoapUITestRunner implements Lo
                 loadTest.setThreadCount(threadCount);
             }
 
-            loadTest.addLoadTestRunListener(this);
-            LoadTestRunner runner = loadTest.run();
+            LoadTestRunner runner;
+            if (StringUtils.hasContent(agents)) {
+                log.info("Distributing LoadTest [" + loadTest.getName() + "] to agents [" + agents + "]");
+                runner = new LoadTestAgentController(loadTest, LoadTestAgentController.parseAgentAddresses(agents),
+                        agentToken);
+                runner.start(true);
+            } else {
+                loadTest.addLoadTestRunListener(this);
+                runner = loadTest.run();
+            }
 
             // wait for test to finish
             while (!runner.hasStopped()) {
@@ -379,6 +423,11 @@ public class SoapUILoadTestRunner extends AbstractSoapUITestRunner implements Lo
             }
 
             log.info("LoadTest [" + loadTest.getName() + "] finished with status " + runner.getStatus().toString());
+            if (runner instanceof LoadTestAgentController && runner.getStatus() == Status.FAILED) {
+                failedTests.add(runner);
+            }
+
+            logPercentiles(loadTest);
 
             if (printReport) {
                 log.info("Exporting log and statistics for LoadTest [" + loadTest.getName() + "]");
@@ -394,6 +443,24 @@ public class SoapUILoadTestRunner extends AbstractSoapUITestRunner implements Lo
         }
     }
 
+    private void logPercentiles(WsdlLoadTest loadTest) {
+        LoadTestStatistics statistics = loadTest.getStatisticsModel();
+
+        StringBuilder buf = new StringBuilder();
+        for (Statistic statistic : Statistic.values()) {
+            if (statistic.isPercentile()) {
+                if (buf.length() > 0) {
+                    buf.append(", ");
+                }
+
+                buf.append(statistic.getName()).append(": ")
+                        .append(statistics.getStatistic(LoadTestStatistics.TOTAL, statistic)).append("ms");
+            }
+        }
+
+        log.info("LoadTest [" + loadTest.getName() + "] TestCase time percentiles: " + buf);
+    }
+
     private void exportStatistics(WsdlLoadTest loadTest) throws IOException {
         ExportStatisticsAction exportStatisticsAction = new ExportStatisticsAction(loadTest.getStatisticsModel());
         String statisticsFileName = StringUtils.createFileName(loadTest.getName(), '_') + "-statistics.txt";
@@ -17,6 +17,8 @@
 package com.eviware.soapui.tools;
 
 import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.config.TestCaseConfig;
+import com.eviware.soapui.config.TestSuiteConfig;
 import com.eviware.soapui.analytics.Analytics;
 import com.eviware.soapui.analytics.AnalyticsHelper;
 import com.eviware.soapui.impl.wsdl.WsdlProject;
@@ -375,6 +377,10 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
         // start by listening to all testcases.. (since one testcase can call
         // another)
         for (int c = 0; c < project.getTestSuiteCount(); c++) {
+            if (!isTestSuiteToLoad(project, c)) {
+                continue;
+            }
+
             TestSuite suite = project.getTestSuiteAt(c);
             for (int i = 0; i < suite.getTestCaseCount(); i++) {
                 TestCase tc = suite.getTestCaseAt(i);
@@ -438,6 +444,10 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
             return true;
         } finally {
             for (int c = 0; c < project.getTestSuiteCount(); c++) {
+                if (!isTestSuiteToLoad(project, c)) {
+                    continue;
+                }
+
                 TestSuite suite = project.getTestSuiteAt(c);
                 for (int i = 0; i < suite.getTestCaseCount(); i++) {
                     TestCase tc = suite.getTestCaseAt(i);
@@ -447,6 +457,31 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
         }
     }
 
+    /**
+     * Lazily loaded projects only load the testsuites that may contain the
+     * testcases to run; testcases in other testsuites that are called from
+     * these are run but not reported on their own
+     */
+
+    private boolean isTestSuiteToLoad(WsdlProject project, int index) {
+        if (!project.isLazyLoading() || (testSuite == null && testCase == null)) {
+            return true;
+        }
+
+        TestSuiteConfig config = project.getConfig().getTestSuiteArray(index);
+        if (testSuite != null) {
+            return testSuite.equals(config.getName());
+        }
+
+        for (TestCaseConfig testCaseConfig : config.getTestCaseList()) {
+            if (testCase.equals(testCaseConfig.getName())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     protected void removeListeners(TestCase tc) {
         tc.removeTestRunListener(this);
         if (junitReport) {
@@ -0,0 +1,169 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.impl.wsdl;
+
+import com.eviware.soapui.config.InterfaceConfig;
+import com.eviware.soapui.config.ProjectConfig;
+import com.eviware.soapui.config.SoapuiProjectDocumentConfig;
+import com.eviware.soapui.config.TestSuiteConfig;
+import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
+import com.eviware.soapui.impl.wsdl.teststeps.WsdlTestRequestStep;
+import com.eviware.soapui.model.testsuite.TestStep;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from opening a large project to having the first request of one of its
+ * testcases, with and without lazy project loading; main also prints the heap
+ * retained by the loaded project in both modes. The project is built from
+ * copies of the interfaces and testsuites in sample-soapui-project.xml. Not run
+ * as part of the build; start with main or through the JMH runner.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class WsdlProjectLoadBenchmark {
+    private static final String SAMPLE_PROJECT = "/sample-soapui-project.xml";
+
+    @Param({"20", "100"})
+    public int copies;
+
+    @Param({"false", "true"})
+    public boolean lazy;
+
+    private File projectFile;
+    private String testSuiteName;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        projectFile = createLargeProject(copies);
+        testSuiteName = getLastTestSuiteName(copies);
+        System.setProperty(WsdlProject.LAZY_LOADING_PROPERTY, String.valueOf(lazy));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.clearProperty(WsdlProject.LAZY_LOADING_PROPERTY);
+        projectFile.delete();
+    }
+
+    @Benchmark
+    public Object timeToFirstRequest() throws Exception {
+        WsdlProject project = new WsdlProject(projectFile.getAbsolutePath());
+        try {
+            return getFirstRequest(project, testSuiteName);
+        } finally {
+            project.release();
+        }
+    }
+
+    private static Object getFirstRequest(WsdlProject project, String testSuiteName) {
+        WsdlTestCase testCase = project.getTestSuiteByName(testSuiteName).getTestCaseAt(0);
+        for (TestStep testStep : testCase.getTestStepList()) {
+            if (testStep instanceof WsdlTestRequestStep) {
+                return ((WsdlTestRequestStep) testStep).getTestRequest();
+            }
+        }
+
+        return null;
+    }
+
+    private static String getLastTestSuiteName(int copies) {
+        return "Test Suite " + copies;
+    }
+
+    private static File createLargeProject(int copies) throws Exception {
+        SoapuiProjectDocumentConfig document = SoapuiProjectDocumentConfig.Factory.parse(WsdlProjectLoadBenchmark.class
+                .getResource(SAMPLE_PROJECT));
+        ProjectConfig projectConfig = document.getSoapuiProject();
+        InterfaceConfig[] interfaces = projectConfig.getInterfaceArray();
+        TestSuiteConfig[] testSuites = projectConfig.getTestSuiteArray();
+
+        for (int c = 1; c <= copies; c++) {
+            for (InterfaceConfig iface : interfaces) {
+                InterfaceConfig copy = projectConfig.addNewInterface();
+                copy.set(iface);
+                copy.setName(iface.getName() + " " + c);
+            }
+
+            for (TestSuiteConfig testSuite : testSuites) {
+                TestSuiteConfig copy = projectConfig.addNewTestSuite();
+                copy.set(testSuite);
+                copy.setName(testSuite.getName() + " " + c);
+            }
+        }
+
+        File file = File.createTempFile("large-soapui-project", ".xml");
+        document.save(file);
+        return file;
+    }
+
+    private static long getUsedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int c = 0; c < 5; c++) {
+            System.gc();
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void printRetainedHeap(int copies, boolean lazy) throws Exception {
+        File file = createLargeProject(copies);
+        System.setProperty(WsdlProject.LAZY_LOADING_PROPERTY, String.valueOf(lazy));
+
+        try {
+            long before = getUsedHeap();
+            WsdlProject project = new WsdlProject(file.getAbsolutePath());
+            getFirstRequest(project, getLastTestSuiteName(copies));
+            long retained = getUsedHeap() - before;
+
+            System.out.println("copies: " + copies + ", lazy: " + lazy + ", retained heap: " + retained / 1024 + " kB");
+            project.release();
+        } finally {
+            System.clearProperty(WsdlProject.LAZY_LOADING_PROPERTY);
+            file.delete();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(WsdlProjectLoadBenchmark.class.getSimpleName()).build()).run();
+
+        for (int copies : new int[]{20, 100}) {
+            printRetainedHeap(copies, false);
+            printRetainedHeap(copies, true);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.impl.wsdl.loadtest;
+
+import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.impl.wsdl.WsdlProject;
+import com.eviware.soapui.impl.wsdl.WsdlTestSuite;
+import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
+import com.eviware.soapui.impl.wsdl.testcase.WsdlTestSuiteRunner;
+import com.eviware.soapui.model.support.TestRunListenerAdapter;
+import com.eviware.soapui.model.testsuite.TestCaseRunContext;
+import com.eviware.soapui.model.testsuite.TestCaseRunner;
+import com.eviware.soapui.model.testsuite.TestRunner.Status;
+import com.eviware.soapui.model.testsuite.TestSuite.TestSuiteRunType;
+import com.eviware.soapui.support.types.StringToObjectMap;
+import com.eviware.soapui.utils.ModelItemFactory;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LoadTestExecutorTest {
+
+    private LoadTestExecutor executor;
+
+    @After
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void dedicatedModeRunsOnOwnDaemonThreads() throws Exception {
+        executor = LoadTestExecutor.create("Test", LoadTestExecutor.Mode.DEDICATED);
+        assertEquals(LoadTestExecutor.Mode.DEDICATED, executor.getMode());
+
+        final Set<String> threadNames = Collections.synchronizedSet(new HashSet<String>());
+        final Set<Boolean> daemon = Collections.synchronizedSet(new HashSet<Boolean>());
+        final CountDownLatch started = new CountDownLatch(3);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        for (int c = 0; c < 3; c++) {
+            executor.execute(new Runnable() {
+                public void run() {
+                    threadNames.add(Thread.currentThread().getName());
+                    daemon.add(Thread.currentThread().isDaemon());
+                    started.countDown();
+                    awaitQuietly(release);
+                }
+            });
+        }
+
+        // the pool is unbounded, so all users run at the same time
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        release.countDown();
+
+        assertEquals(3, threadNames.size());
+        for (String name : threadNames) {
+            assertTrue(name, name.startsWith("Test thread "));
+        }
+        assertEquals(Collections.singleton(true), daemon);
+    }
+
+    @Test
+    public void shutdownLetsRunningUsersFinishAndRejectsNewOnes() throws Exception {
+        executor = LoadTestExecutor.create("Test", LoadTestExecutor.Mode.DEDICATED);
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            public void run() {
+                started.countDown();
+                awaitQuietly(release);
+                finished.countDown();
+            }
+        });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        try {
+            executor.execute(new Runnable() {
+                public void run() {
+                }
+            });
+            fail("Expected a stopped executor to reject new users");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+
+        assertFalse(executor.awaitTermination(100, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void canceledUserIsInterrupted() throws Exception {
+        executor = LoadTestExecutor.create("Test", LoadTestExecutor.Mode.DEDICATED);
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        Future<?> future = executor.submit(new Runnable() {
+            public void run() {
+                started.countDown();
+                try {
+                    Thread.sleep(10000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+        });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(future.cancel(true));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void sharedPoolIsNotShutDown() throws Exception {
+        executor = LoadTestExecutor.create("Test", LoadTestExecutor.Mode.SHARED);
+        executor.shutdown();
+
+        assertFalse(SoapUI.getThreadPool().isShutdown());
+        assertTrue(executor.awaitTermination(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void virtualModeRunsOnAnyRuntime() throws Exception {
+        // falls back to a dedicated pool before Java 21
+        executor = LoadTestExecutor.create("Test", LoadTestExecutor.Mode.VIRTUAL);
+
+        final CountDownLatch done = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            public void run() {
+                done.countDown();
+            }
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void parallelTestSuiteRunsTestCasesOnDedicatedThreads() throws Exception {
+        WsdlProject project = ModelItemFactory.makeWsdlProject();
+        WsdlTestSuite testSuite = project.addNewTestSuite("TestSuite");
+        testSuite.setRunType(TestSuiteRunType.PARALLEL);
+        testSuite.setExecutionMode(LoadTestExecutor.Mode.DEDICATED);
+
+        final Set<String> threadNames = Collections.synchronizedSet(new HashSet<String>());
+        for (int c = 0; c < 4; c++) {
+            WsdlTestCase testCase = testSuite.addNewTestCase("TestCase " + c);
+            testCase.addTestRunListener(new TestRunListenerAdapter() {
+                @Override
+                public void beforeRun(TestCaseRunner testRunner, TestCaseRunContext runContext) {
+                    threadNames.add(Thread.currentThread().getName());
+                }
+            });
+        }
+
+        WsdlTestSuiteRunner runner = testSuite.run(new StringToObjectMap(), false);
+
+        assertEquals(Status.FINISHED, runner.getStatus());
+        assertEquals(4, runner.getResults().size());
+        assertFalse(threadNames.isEmpty());
+        for (String name : threadNames) {
+            assertTrue(name, name.startsWith("TestSuite [TestSuite] thread "));
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
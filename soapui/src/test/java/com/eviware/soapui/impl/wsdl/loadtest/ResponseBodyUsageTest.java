@@ -0,0 +1,132 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.impl.wsdl.loadtest;
+
+import com.eviware.soapui.impl.wsdl.WsdlProject;
+import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
+import com.eviware.soapui.impl.wsdl.teststeps.HttpTestRequestStep;
+import com.eviware.soapui.impl.wsdl.teststeps.WsdlMessageAssertion;
+import com.eviware.soapui.impl.wsdl.teststeps.WsdlTestRequestStep;
+import com.eviware.soapui.impl.wsdl.teststeps.assertions.basic.ResponseSLAAssertion;
+import com.eviware.soapui.impl.wsdl.teststeps.assertions.basic.SimpleContainsAssertion;
+import com.eviware.soapui.impl.wsdl.teststeps.registry.GroovyScriptStepFactory;
+import com.eviware.soapui.impl.wsdl.teststeps.registry.HttpRequestStepFactory;
+import com.eviware.soapui.impl.wsdl.teststeps.registry.PropertyTransfersStepFactory;
+import com.eviware.soapui.model.testsuite.TestAssertion;
+import com.eviware.soapui.security.assertion.ValidHttpStatusCodesAssertion;
+import com.eviware.soapui.utils.ModelItemFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ResponseBodyUsageTest {
+
+    private WsdlTestCase testCase;
+    private HttpTestRequestStep requestStep;
+
+    @Before
+    public void setUp() throws Exception {
+        testCase = ModelItemFactory.makeTestCase();
+        requestStep = addRequestStep("Request", "http://localhost:8080/");
+    }
+
+    @Test
+    public void requestWithoutAssertionsQualifies() {
+        assertTrue(ResponseBodyUsage.findUnusedResponseBodySteps(testCase).contains("Request"));
+    }
+
+    @Test
+    public void slaAndStatusAssertionsQualify() {
+        requestStep.addAssertion(ResponseSLAAssertion.LABEL);
+        requestStep.addAssertion(ValidHttpStatusCodesAssertion.LABEL);
+
+        assertTrue(ResponseBodyUsage.findUnusedResponseBodySteps(testCase).contains("Request"));
+    }
+
+    @Test
+    public void disabledContentAssertionQualifies() {
+        ((WsdlMessageAssertion) requestStep.addAssertion(SimpleContainsAssertion.LABEL)).setDisabled(true);
+
+        assertTrue(ResponseBodyUsage.findUnusedResponseBodySteps(testCase).contains("Request"));
+    }
+
+    @Test
+    public void contentAssertionExcludes() {
+        requestStep.addAssertion(SimpleContainsAssertion.LABEL);
+
+        assertFalse(ResponseBodyUsage.findUnusedResponseBodySteps(testCase).contains("Request"));
+    }
+
+    @Test
+    public void scriptStepExcludesAllSteps() {
+        testCase.addTestStep(GroovyScriptStepFactory.GROOVY_TYPE, "Script");
+
+        assertTrue(ResponseBodyUsage.findUnusedResponseBodySteps(testCase).isEmpty());
+    }
+
+    @Test
+    public void setupScriptExcludesAllSteps() {
+        testCase.setSetupScript("log.info 'setup'");
+
+        assertTrue(ResponseBodyUsage.findUnusedResponseBodySteps(testCase).isEmpty());
+    }
+
+    @Test
+    public void propertyTransferExcludesAllSteps() {
+        testCase.addTestStep(PropertyTransfersStepFactory.TRANSFER_TYPE, "Transfer");
+
+        assertTrue(ResponseBodyUsage.findUnusedResponseBodySteps(testCase).isEmpty());
+    }
+
+    @Test
+    public void referenceFromOtherStepExcludesReferencedStep() {
+        addRequestStep("Next", "http://localhost:8080/${Request#Response}");
+
+        assertFalse(ResponseBodyUsage.findUnusedResponseBodySteps(testCase).contains("Request"));
+        assertTrue(ResponseBodyUsage.findUnusedResponseBodySteps(testCase).contains("Next"));
+    }
+
+    @Test
+    public void dumpFileExcludes() {
+        requestStep.getTestRequest().setDumpFile("response.txt");
+
+        assertFalse(ResponseBodyUsage.findUnusedResponseBodySteps(testCase).contains("Request"));
+    }
+
+    @Test
+    public void incomingWssExcludes() throws Exception {
+        WsdlProject project = new WsdlProject(
+                ResponseBodyUsageTest.class.getResource("/sample-soapui-project.xml").getPath());
+        WsdlTestCase soapTestCase = project.getTestSuiteByName("Test Suite").getTestCaseByName("Test Conversions");
+        WsdlTestRequestStep soapStep = (WsdlTestRequestStep) soapTestCase.getTestStepByName("SEK to USD Test");
+        for (TestAssertion assertion : soapStep.getAssertionList()) {
+            ((WsdlMessageAssertion) assertion).setDisabled(true);
+        }
+
+        assertTrue(ResponseBodyUsage.findUnusedResponseBodySteps(soapTestCase).contains("SEK to USD Test"));
+
+        soapStep.getTestRequest().setIncomingWss("incoming");
+
+        assertFalse(ResponseBodyUsage.findUnusedResponseBodySteps(soapTestCase).contains("SEK to USD Test"));
+    }
+
+    private HttpTestRequestStep addRequestStep(String name, String endpoint) {
+        return (HttpTestRequestStep) testCase.addTestStep(HttpRequestStepFactory.HTTPREQUEST_TYPE, name, endpoint,
+                "GET");
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.impl.wsdl.loadtest;
+
+import com.eviware.soapui.config.TestCaseConfig;
+import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
+import com.eviware.soapui.impl.wsdl.teststeps.WsdlDelayTestStep;
+import com.eviware.soapui.impl.wsdl.teststeps.WsdlGroovyScriptTestStep;
+import com.eviware.soapui.impl.wsdl.teststeps.WsdlTestRequestStep;
+import com.eviware.soapui.impl.wsdl.teststeps.assertions.basic.GroovyScriptAssertion;
+import com.eviware.soapui.model.testsuite.TestAssertion;
+import com.eviware.soapui.model.testsuite.TestStep;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class VirtualUserPlanTest {
+
+    private WsdlTestCase testCase;
+    private List<TestStep> testSteps;
+    private WsdlTestRequestStep requestStep;
+
+    @Before
+    public void setUp() {
+        TestCaseConfig config = TestCaseConfig.Factory.newInstance();
+        config.setName("TestCase");
+        config.addNewLoadTest().setName("LoadTest");
+
+        testCase = mock(WsdlTestCase.class);
+        when(testCase.getConfig()).thenReturn(config);
+        testSteps = new ArrayList<TestStep>();
+        when(testCase.getTestStepList()).thenReturn(testSteps);
+
+        requestStep = mock(WsdlTestRequestStep.class);
+        when(requestStep.getAssertionList()).thenReturn(new ArrayList<TestAssertion>());
+        testSteps.add(requestStep);
+        testSteps.add(mock(WsdlDelayTestStep.class));
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(VirtualUserPlan.SHARE_CONFIG_PROPERTY);
+    }
+
+    @Test
+    public void requestAndDelayStepsAreReadOnly() {
+        assertTrue(VirtualUserPlan.isConfigReadOnly(testCase));
+    }
+
+    @Test
+    public void setupScriptIsNotReadOnly() {
+        when(testCase.getSetupScript()).thenReturn("context.count = 0");
+
+        assertFalse(VirtualUserPlan.isConfigReadOnly(testCase));
+    }
+
+    @Test
+    public void scriptStepIsNotReadOnly() {
+        testSteps.add(mock(WsdlGroovyScriptTestStep.class));
+
+        assertFalse(VirtualUserPlan.isConfigReadOnly(testCase));
+    }
+
+    @Test
+    public void disabledScriptStepIsIgnored() {
+        WsdlGroovyScriptTestStep scriptStep = mock(WsdlGroovyScriptTestStep.class);
+        when(scriptStep.isDisabled()).thenReturn(true);
+        testSteps.add(scriptStep);
+
+        assertTrue(VirtualUserPlan.isConfigReadOnly(testCase));
+    }
+
+    @Test
+    public void scriptAssertionIsNotReadOnly() {
+        TestAssertion assertion = mock(GroovyScriptAssertion.class);
+        when(requestStep.getAssertionList()).thenReturn(Arrays.asList(assertion));
+
+        assertFalse(VirtualUserPlan.isConfigReadOnly(testCase));
+    }
+
+    @Test
+    public void readOnlyTestCaseSharesConfigWithoutLoadTests() throws Exception {
+        VirtualUserPlan plan = new VirtualUserPlan(testCase);
+
+        TestCaseConfig config = plan.createTestCaseConfig();
+        assertTrue(plan.accept(config));
+
+        assertTrue(plan.isShared());
+        assertSame(config, plan.createTestCaseConfig());
+        assertEquals(0, config.sizeOfLoadTestArray());
+        assertEquals(1, testCase.getConfig().sizeOfLoadTestArray());
+    }
+
+    @Test
+    public void sharingCanBeDisabled() throws Exception {
+        System.setProperty(VirtualUserPlan.SHARE_CONFIG_PROPERTY, "false");
+        VirtualUserPlan plan = new VirtualUserPlan(testCase);
+
+        assertFalse(plan.isShared());
+        assertNotSame(plan.createTestCaseConfig(), plan.createTestCaseConfig());
+    }
+
+    @Test
+    public void firstVirtualUserMayFillInDefaults() throws Exception {
+        VirtualUserPlan plan = new VirtualUserPlan(testCase);
+
+        TestCaseConfig config = plan.createTestCaseConfig();
+        config.setMaxResults(0);
+
+        assertTrue(plan.accept(config));
+        assertFalse(plan.isStale(config));
+    }
+
+    @Test
+    public void changingSharedConfigCopiesBlueprintForEachVirtualUser() throws Exception {
+        VirtualUserPlan plan = new VirtualUserPlan(testCase);
+        TestCaseConfig shared = plan.createTestCaseConfig();
+        plan.accept(shared);
+
+        shared.setName("Changed");
+
+        assertTrue(plan.isStale(shared));
+        assertFalse(plan.isShared());
+
+        TestCaseConfig first = plan.createTestCaseConfig();
+        TestCaseConfig second = plan.createTestCaseConfig();
+        assertNotSame(shared, first);
+        assertNotSame(first, second);
+        assertEquals("TestCase", first.getName());
+        assertFalse(plan.isStale(first));
+    }
+
+    @Test
+    public void virtualUserChangingSharedConfigWhileBuildingIsRejected() throws Exception {
+        VirtualUserPlan plan = new VirtualUserPlan(testCase);
+        plan.accept(plan.createTestCaseConfig());
+
+        TestCaseConfig config = plan.createTestCaseConfig();
+        config.setMaxResults(10);
+
+        assertFalse(plan.accept(config));
+        assertNotSame(config, plan.createTestCaseConfig());
+    }
+}
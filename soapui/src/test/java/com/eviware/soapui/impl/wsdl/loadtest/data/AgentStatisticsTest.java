@@ -0,0 +1,58 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import static org.junit.Assert.assertEquals;
+
+public class AgentStatisticsTest {
+
+    @Test
+    public void survivesRoundTrip() throws Exception {
+        long[][] values = {{1, 2, 3}, {4, 5, 6}};
+        LatencyHistogram[] histograms = {new LatencyHistogram(), new LatencyHistogram(10000)};
+        histograms[0].recordValue(12, 3);
+        histograms[1].recordValue(5000);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new AgentStatistics(values, histograms).write(new DataOutputStream(bytes));
+
+        AgentStatistics result = AgentStatistics.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(2, result.getRowCount());
+        assertEquals(6, result.getValue(1, 2));
+        assertEquals(3, result.getHistogram(0).getTotalCount());
+        assertEquals(12, result.getHistogram(0).getValueAtPercentile(50));
+        assertEquals(10000, result.getHistogram(1).getHighestTrackableValue());
+        assertEquals(histograms[1].getValueAtPercentile(100), result.getHistogram(1).getValueAtPercentile(100));
+    }
+
+    @Test
+    public void copiesValues() {
+        long[][] values = {{1}};
+        AgentStatistics statistics = new AgentStatistics(values, new LatencyHistogram[]{new LatencyHistogram()});
+        values[0][0] = 2;
+
+        assertEquals(1, statistics.getValue(0, 0));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void returnsZeroWhenEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void resolvesSmallValuesExactly() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int c = 1; c <= 100; c++) {
+            histogram.recordValue(c);
+        }
+
+        assertEquals(50, histogram.getValueAtPercentile(50));
+        assertEquals(90, histogram.getValueAtPercentile(90));
+        assertEquals(100, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void keepsRelativeErrorBelowOnePercent() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int c = 1; c <= 100000; c++) {
+            histogram.recordValue(c);
+        }
+
+        assertWithinOnePercent(50000, histogram.getValueAtPercentile(50));
+        assertWithinOnePercent(99000, histogram.getValueAtPercentile(99));
+        assertWithinOnePercent(99900, histogram.getValueAtPercentile(99.9));
+    }
+
+    @Test
+    public void keepsRelativeErrorBelowOnePercentAtBucketBoundaries() {
+        for (long boundary = 128; boundary <= LatencyHistogram.DEFAULT_HIGHEST_TRACKABLE_VALUE / 2; boundary *= 2) {
+            for (long value = boundary - 1; value <= boundary + 1; value++) {
+                LatencyHistogram histogram = new LatencyHistogram();
+                histogram.recordValue(value);
+
+                long actual = histogram.getValueAtPercentile(100);
+                assertTrue("expected ~" + value + " but was " + actual, Math.abs(actual - value) * 100 < value);
+            }
+        }
+    }
+
+    @Test
+    public void clampsValuesAboveHighestTrackableValue() {
+        LatencyHistogram histogram = new LatencyHistogram(10000);
+        histogram.recordValue(1000000);
+
+        assertEquals(10000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void memoryDoesNotGrowWithSamples() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int bucketCount = histogram.getBucketCount();
+
+        for (int c = 0; c < 1000000; c++) {
+            histogram.recordValue(c % 50000);
+        }
+
+        assertEquals(bucketCount, histogram.getBucketCount());
+        assertEquals(1000000, histogram.getTotalCount());
+    }
+
+    @Test
+    public void resetClearsAllCounts() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordValue(42, 10);
+        histogram.reset();
+
+        assertEquals(0, histogram.getTotalCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+
+    @Test
+    public void addMergesCounts() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.recordValue(10, 50);
+        second.recordValue(20, 50);
+
+        first.add(second);
+
+        assertEquals(100, first.getTotalCount());
+        assertEquals(10, first.getValueAtPercentile(50));
+        assertEquals(20, first.getValueAtPercentile(51));
+    }
+
+    private static void assertWithinOnePercent(long expected, long actual) {
+        assertTrue("expected ~" + expected + " but was " + actual, Math.abs(expected - actual) <= expected / 100);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SampleBufferTest {
+
+    @Test
+    public void drainsPublishedSlotsInOrder() {
+        SampleBuffer buffer = new SampleBuffer(2, 0, 4);
+        for (int c = 0; c < 3; c++) {
+            int slot = buffer.claim();
+            buffer.getSamples(slot)[1] = c;
+            buffer.getSampleCounts(slot)[1] = 1;
+            buffer.publish(slot, c, 10, true);
+        }
+
+        final List<Long> startTimes = new ArrayList<Long>();
+        buffer.drain(new SampleBuffer.Consumer() {
+            public void consume(long[] samples, long[] sizes, long[] sampleCounts, long startTime, long timeTaken,
+                                boolean complete) {
+                assertEquals(startTime, samples[1]);
+                startTimes.add(startTime);
+            }
+        });
+
+        assertEquals(3, startTimes.size());
+        assertEquals(Long.valueOf(2), startTimes.get(2));
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void refusesToClaimWhenFull() {
+        SampleBuffer buffer = new SampleBuffer(1, 0, 2);
+        buffer.publish(buffer.claim(), 0, 0, false);
+        buffer.publish(buffer.claim(), 0, 0, false);
+
+        assertEquals(-1, buffer.claim());
+
+        buffer.clear();
+        assertTrue(buffer.claim() >= 0);
+    }
+
+    @Test
+    public void allocatesSlotsOnFirstUse() {
+        SampleBuffer buffer = new SampleBuffer(3, 0, 4);
+        int slot = buffer.claim();
+
+        assertNotNull(buffer.getSamples(slot));
+        assertEquals(3, buffer.getSamples(slot).length);
+        assertNull(buffer.getSamples(slot + 1));
+    }
+
+    @Test
+    public void retiredBufferKeepsPublishedSlots() {
+        SampleBuffer buffer = new SampleBuffer(1, 0, 2);
+        buffer.publish(buffer.claim(), 0, 0, true);
+        buffer.retire();
+
+        assertTrue(buffer.isRetired());
+        assertFalse(buffer.isEmpty());
+    }
+
+    @Test
+    public void clearsReusedSlots() {
+        SampleBuffer buffer = new SampleBuffer(1, 0, 1);
+        int slot = buffer.claim();
+        buffer.getSizes(slot)[0] = 42;
+        buffer.publish(slot, 0, 0, false);
+        buffer.clear();
+
+        assertEquals(0, buffer.getSizes(buffer.claim())[0]);
+    }
+}
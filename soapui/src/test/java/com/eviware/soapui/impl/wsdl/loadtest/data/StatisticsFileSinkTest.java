@@ -0,0 +1,114 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatistics.Statistic;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StatisticsFileSinkTest {
+
+    @Test
+    public void readsBackRollingFiles() throws Exception {
+        File folder = createTempFolder();
+        StatisticsFileSink sink = new StatisticsFileSink(folder, "test", true, 200, 3);
+        sink.open("LoadTest 1", new String[]{"Step 1", "TestCase"}, Statistic.values());
+
+        for (int c = 0; c < 20; c++) {
+            long[][] values = new long[2][Statistic.values().length];
+            values[0][Statistic.COUNT.getIndex()] = c * 10;
+            values[1][Statistic.P99.getIndex()] = 1000 - c;
+            sink.write(1000000L + c * 1000, c % 5, values);
+        }
+
+        sink.close();
+
+        assertTrue(StatisticsFileSink.getBinaryFile(folder, "test", 1).exists());
+        assertTrue(StatisticsFileSink.getCsvFile(folder, "test", 0).exists());
+
+        StatisticsFileReader reader = StatisticsFileReader.open(folder, "test");
+        List<StatisticsRecord> records = reader.readAll();
+        reader.close();
+
+        assertEquals("LoadTest 1", reader.getLoadTestName());
+        assertEquals(20, records.size());
+        for (int c = 0; c < 20; c++) {
+            StatisticsRecord record = records.get(c);
+            assertEquals(1000000L + c * 1000, record.getTimestamp());
+            assertEquals(c % 5, record.getThreadCount());
+            assertEquals(c * 10, record.getValue(0, Statistic.COUNT));
+            assertEquals(1000 - c, record.getValue(LoadTestStatistics.TOTAL, Statistic.P99));
+        }
+    }
+
+    @Test
+    public void partialBlockIsWrittenOnceItReachesMaxAge() throws Exception {
+        File folder = createTempFolder();
+        StatisticsFileSink sink = new StatisticsFileSink(folder, "open", false,
+                StatisticsFileSink.DEFAULT_MAX_FILE_SIZE, StatisticsFileSink.DEFAULT_BLOCK_SIZE, 1000);
+        sink.open("LoadTest 1", new String[]{"Step 1", "TestCase"}, Statistic.values());
+
+        long[][] values = new long[2][Statistic.values().length];
+        values[0][Statistic.COUNT.getIndex()] = 42;
+        sink.write(1000000L, 1, values);
+        sink.write(1000500L, 1, values);
+        assertEquals(0, readRecords(folder, "open").size());
+
+        sink.write(1001000L, 1, values);
+        List<StatisticsRecord> records = readRecords(folder, "open");
+        sink.close();
+
+        assertEquals(3, records.size());
+        assertEquals(42, records.get(2).getValue(0, Statistic.COUNT));
+    }
+
+    @Test
+    public void partialBlockIsWrittenOnClose() throws Exception {
+        File folder = createTempFolder();
+        StatisticsFileSink sink = new StatisticsFileSink(folder, "close", false);
+        sink.open("LoadTest 1", new String[]{"Step 1", "TestCase"}, Statistic.values());
+
+        for (int c = 0; c < 10; c++) {
+            sink.write(1000000L + c * 1000, 1, new long[2][Statistic.values().length]);
+        }
+
+        sink.close();
+        assertEquals(10, readRecords(folder, "close").size());
+    }
+
+    private static List<StatisticsRecord> readRecords(File folder, String baseName) throws Exception {
+        StatisticsFileReader reader = StatisticsFileReader.open(folder, baseName);
+        try {
+            return reader.readAll();
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static File createTempFolder() throws Exception {
+        File folder = File.createTempFile("statistics", "");
+        folder.delete();
+        folder.mkdirs();
+        folder.deleteOnExit();
+        return folder;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.impl.wsdl.mock;
+
+import com.eviware.soapui.impl.WsdlInterfaceFactory;
+import com.eviware.soapui.impl.wsdl.WsdlInterface;
+import com.eviware.soapui.impl.wsdl.WsdlOperation;
+import com.eviware.soapui.impl.wsdl.WsdlProject;
+import com.eviware.soapui.impl.wsdl.support.soap.SoapEnvelopePeek;
+import com.eviware.soapui.impl.wsdl.support.soap.SoapUtils;
+import com.eviware.soapui.impl.wsdl.support.soap.SoapVersion;
+import com.eviware.soapui.model.iface.Attachment;
+import com.eviware.soapui.support.xml.XmlUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class WsdlMockOperationIndexTest {
+    private static final String[] ACTIONS = {null, "", "urn:GetA", "urn:GetB", "urn:GetC", "urn:Ping"};
+    private static final String[] BODIES = {"", "<m:GetA>a</m:GetA>", "<m:Shared>s</m:Shared>",
+            "<m:Unknown>u</m:Unknown>"};
+
+    private List<WsdlOperation> operations;
+    private SoapVersion soapVersion;
+    private WsdlMockOperationIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        String wsdlUrl = WsdlMockOperationIndexTest.class.getResource("/mock-dispatch.wsdl").toString();
+        WsdlInterface iface = WsdlInterfaceFactory.importWsdl(new WsdlProject(), wsdlUrl, false)[0];
+
+        operations = new ArrayList<WsdlOperation>();
+        for (String name : new String[]{"GetA", "GetB", "GetC", "Ping"}) {
+            operations.add(iface.getOperationByName(name));
+        }
+
+        soapVersion = iface.getSoapVersion();
+        index = new WsdlMockOperationIndex(operations);
+    }
+
+    @Test
+    public void dispatchesBySoapActionOnly() throws Exception {
+        assertDispatchedTo("Ping", "urn:Ping", "", false, true);
+        assertDispatchedTo("Ping", "urn:Ping", "", false, false);
+        assertDispatchedTo(null, "urn:GetA", "", false, true);
+        assertDispatchedTo(null, null, "", false, false);
+    }
+
+    @Test
+    public void dispatchesByBodyElementOnly() throws Exception {
+        assertDispatchedTo("GetA", null, "<m:GetA>a</m:GetA>", false, false);
+        assertDispatchedTo("GetA", "urn:GetC", "<m:GetA>a</m:GetA>", false, false);
+        assertDispatchedTo(null, "urn:GetC", "<m:GetA>a</m:GetA>", false, true);
+        assertDispatchedTo(null, null, "<m:Unknown>u</m:Unknown>", false, false);
+    }
+
+    @Test
+    public void dispatchesAmbiguousBodyElementToFirstMatch() throws Exception {
+        assertDispatchedTo("GetB", null, "<m:Shared>s</m:Shared>", false, false);
+        assertDispatchedTo("GetB", "urn:GetC", "<m:Shared>s</m:Shared>", false, false);
+        assertDispatchedTo("GetC", "urn:GetC", "<m:Shared>s</m:Shared>", true, true);
+        assertDispatchedTo(null, "urn:Other", "<m:Shared>s</m:Shared>", false, true);
+    }
+
+    @Test
+    public void agreesWithSoapUtilsForAllCombinations() throws Exception {
+        for (String action : ACTIONS) {
+            for (String body : BODIES) {
+                for (int flags = 0; flags < 4; flags++) {
+                    boolean requireSoapVersionMatch = (flags & 1) != 0;
+                    boolean requireSoapActionMatch = (flags & 2) != 0;
+
+                    String envelope = createEnvelope(body);
+                    WsdlOperation expected = SoapUtils.findOperationForRequest(soapVersion, action,
+                            XmlUtils.createXmlObject(envelope), operations, requireSoapVersionMatch,
+                            requireSoapActionMatch, new Attachment[0]);
+
+                    assertEquals("action [" + action + "], body [" + body + "], flags " + flags, expected,
+                            findIndexedOperation(action, envelope, requireSoapVersionMatch, requireSoapActionMatch));
+                }
+            }
+        }
+    }
+
+    private void assertDispatchedTo(String operationName, String action, String body,
+                                    boolean requireSoapVersionMatch, boolean requireSoapActionMatch) throws Exception {
+        String envelope = createEnvelope(body);
+        WsdlOperation expected = SoapUtils.findOperationForRequest(soapVersion, action,
+                XmlUtils.createXmlObject(envelope), operations, requireSoapVersionMatch, requireSoapActionMatch,
+                new Attachment[0]);
+        WsdlOperation indexed = findIndexedOperation(action, envelope, requireSoapVersionMatch, requireSoapActionMatch);
+
+        assertEquals(operationName, expected == null ? null : expected.getName());
+        assertEquals(expected, indexed);
+    }
+
+    private WsdlOperation findIndexedOperation(String action, String envelope, boolean requireSoapVersionMatch,
+                                               boolean requireSoapActionMatch) throws Exception {
+        SoapEnvelopePeek peek = SoapEnvelopePeek.peek(envelope);
+        return index.findOperationForRequest(peek.getSoapVersion(), action, peek.getContentElementName(),
+                requireSoapVersionMatch, requireSoapActionMatch);
+    }
+
+    private String createEnvelope(String body) {
+        return "<s:Envelope xmlns:s=\"" + soapVersion.getEnvelopeNamespace() + "\" xmlns:m=\"urn:mock-dispatch\">"
+                + "<s:Body>" + body + "</s:Body></s:Envelope>";
+    }
+}
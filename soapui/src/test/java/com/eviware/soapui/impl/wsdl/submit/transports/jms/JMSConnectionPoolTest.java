@@ -0,0 +1,296 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.impl.wsdl.submit.transports.jms;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.jms.TemporaryQueue;
+import javax.jms.TextMessage;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs the pool against an embedded, non-persistent ActiveMQ broker
+ */
+public class JMSConnectionPoolTest {
+
+    private static final String BROKER_URL = "vm://pooltest?broker.persistent=false&broker.useJmx=false";
+
+    private ActiveMQConnectionFactory connectionFactory;
+    private JMSConnectionPool pool;
+    private Object hermes;
+
+    @Before
+    public void setUp() {
+        connectionFactory = new ActiveMQConnectionFactory(BROKER_URL);
+        pool = new JMSConnectionPool(2, JMSConnectionPool.DEFAULT_IDLE_TIMEOUT);
+        hermes = new Object();
+    }
+
+    @After
+    public void tearDown() {
+        pool.closeAll();
+    }
+
+    @Test
+    public void sameKeySharesOneConnection() throws Exception {
+        JMSConnectionPool.PooledConnection connection = getConnection(false, null);
+
+        assertThat(getConnection(false, null), is(sameInstance(connection)));
+        assertThat(getConnection(true, "client"), is(not(sameInstance(connection))));
+        assertThat(pool.getConnection(new Object(), connectionFactory, false, null, null, null),
+                is(not(sameInstance(connection))));
+        assertThat(pool.getConnectionCount(), is(3));
+    }
+
+    @Test
+    public void returnedSessionIsReusedWithItsProducers() throws Exception {
+        JMSConnectionPool.PooledConnection connection = getConnection(false, null);
+        JMSConnectionPool.PooledSession session = connection.borrowSession();
+        Queue queue = session.getSession().createQueue("pool.producers");
+        MessageProducer producer = session.getProducer(queue);
+        connection.returnSession(session, false);
+
+        JMSConnectionPool.PooledSession reused = connection.borrowSession();
+        assertThat(reused, is(sameInstance(session)));
+        assertThat(reused.getProducer(queue), is(sameInstance(producer)));
+        connection.returnSession(reused, false);
+    }
+
+    @Test
+    public void idleSessionsAreBounded() throws Exception {
+        JMSConnectionPool.PooledConnection connection = getConnection(false, null);
+        JMSConnectionPool.PooledSession first = connection.borrowSession();
+        JMSConnectionPool.PooledSession second = connection.borrowSession();
+        JMSConnectionPool.PooledSession third = connection.borrowSession();
+
+        connection.returnSession(first, false);
+        connection.returnSession(second, false);
+        connection.returnSession(third, false);
+
+        assertThat(connection.getIdleSessionCount(), is(2));
+    }
+
+    @Test
+    public void discardedSessionIsClosed() throws Exception {
+        JMSConnectionPool.PooledConnection connection = getConnection(false, null);
+        JMSConnectionPool.PooledSession session = connection.borrowSession();
+        connection.returnSession(session, true);
+
+        assertThat(connection.getIdleSessionCount(), is(0));
+        try {
+            session.getSession().createQueue("pool.discarded");
+            fail("Discarded session should be closed");
+        } catch (JMSException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void brokenConnectionIsReplaced() throws Exception {
+        JMSConnectionPool.PooledConnection connection = getConnection(false, null);
+        connection.onException(new JMSException("Connection reset"));
+
+        JMSConnectionPool.PooledConnection replacement = getConnection(false, null);
+
+        assertThat(replacement, is(not(sameInstance(connection))));
+        assertThat(pool.getConnectionCount(), is(1));
+        try {
+            connection.borrowSession();
+            fail("Broken connection should be closed");
+        } catch (JMSException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void idleConnectionIsClosed() throws Exception {
+        pool = new JMSConnectionPool(2, 0);
+        JMSConnectionPool.PooledConnection connection = getConnection(false, null);
+        connection.returnSession(connection.borrowSession(), false);
+        Thread.sleep(10);
+
+        assertThat(pool.getConnection(new Object(), connectionFactory, false, null, null, null),
+                is(notNullValue()));
+        assertThat(pool.getConnectionCount(), is(1));
+        assertThat(getConnection(false, null), is(not(sameInstance(connection))));
+    }
+
+    @Test
+    public void reaperClosesIdleConnection() throws Exception {
+        pool = new JMSConnectionPool(2, 0);
+        JMSConnectionPool.PooledConnection connection = getConnection(false, null);
+        JMSConnectionPool.PooledSession session = connection.borrowSession();
+        connection.returnSession(session, false);
+
+        for (int c = 0; c < 50 && pool.getConnectionCount() > 0; c++) {
+            Thread.sleep(100);
+        }
+
+        assertThat(pool.getConnectionCount(), is(0));
+        try {
+            connection.borrowSession();
+            fail("Idle connection should be closed");
+        } catch (JMSException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void sendReceiveUsesSharedReplyConsumer() throws Exception {
+        Connection responderConnection = connectionFactory.createConnection();
+        try {
+            startResponder(responderConnection, "pool.requests");
+
+            JMSConnectionPool.PooledConnection connection = getConnection(false, null);
+            JMSConnectionPool.PooledSession session = connection.borrowSession();
+            TemporaryQueue replyQueue = session.getTemporaryQueue();
+            MessageConsumer replyConsumer = session.getReplyConsumer(replyQueue, null);
+
+            assertThat(request(session, replyQueue, replyConsumer, "first"), is("reply:first"));
+            connection.returnSession(session, false);
+
+            JMSConnectionPool.PooledSession reused = connection.borrowSession();
+            assertThat(reused.getTemporaryQueue(), is(sameInstance(replyQueue)));
+            MessageConsumer reusedConsumer = reused.getReplyConsumer(replyQueue, null);
+            assertThat(reusedConsumer, is(sameInstance(replyConsumer)));
+            assertThat(request(reused, replyQueue, reusedConsumer, "second"), is("reply:second"));
+            connection.returnSession(reused, false);
+        } finally {
+            responderConnection.close();
+        }
+    }
+
+    @Test
+    public void sessionIsNotReusedAfterReplyTimeout() throws Exception {
+        JMSConnectionPool.PooledConnection connection = getConnection(false, null);
+        JMSConnectionPool.PooledSession session = connection.borrowSession();
+        MessageConsumer replyConsumer = session.getReplyConsumer(session.getTemporaryQueue(), null);
+
+        assertThat(replyConsumer.receive(10), is(nullValue()));
+        assertThat(session.hasMissedReply(), is(true));
+        connection.returnSession(session, false);
+
+        assertThat(connection.getIdleSessionCount(), is(0));
+        JMSConnectionPool.PooledSession next = connection.borrowSession();
+        assertThat(next, is(not(sameInstance(session))));
+        connection.returnSession(next, false);
+    }
+
+    @Test
+    public void repliesToOtherMessagesAreDiscarded() throws Exception {
+        JMSConnectionPool.PooledConnection connection = getConnection(false, null);
+        JMSConnectionPool.PooledSession session = connection.borrowSession();
+        Session jmsSession = session.getSession();
+        TemporaryQueue replyQueue = session.getTemporaryQueue();
+        MessageConsumer replyConsumer = session.getReplyConsumer(replyQueue, null);
+
+        TextMessage request = jmsSession.createTextMessage("request");
+        request.setJMSReplyTo(replyQueue);
+        session.getProducer(jmsSession.createQueue("pool.correlation")).send(request);
+
+        MessageProducer replyProducer = session.getProducer(replyQueue);
+        TextMessage staleReply = jmsSession.createTextMessage("stale");
+        staleReply.setJMSCorrelationID("ID:earlier-request");
+        replyProducer.send(staleReply);
+        TextMessage reply = jmsSession.createTextMessage("reply");
+        reply.setJMSCorrelationID(request.getJMSMessageID());
+        replyProducer.send(reply);
+        replyProducer.send(jmsSession.createTextMessage("uncorrelated"));
+
+        Message received = HermesJmsRequestTransport.receiveReply(replyConsumer, request, 5000);
+        assertThat(((TextMessage) received).getText(), is("reply"));
+        received = HermesJmsRequestTransport.receiveReply(replyConsumer, request, 5000);
+        assertThat(((TextMessage) received).getText(), is("uncorrelated"));
+
+        replyProducer.send(staleReply);
+        assertThat(HermesJmsRequestTransport.receiveReply(replyConsumer, request, 100), is(nullValue()));
+        connection.returnSession(session, false);
+    }
+
+    @Test
+    public void repliesOnUnpooledTemporaryQueueAreNotFiltered() throws Exception {
+        Connection connection = connectionFactory.createConnection();
+        try {
+            connection.start();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            TemporaryQueue replyQueue = session.createTemporaryQueue();
+            MessageConsumer replyConsumer = session.createConsumer(replyQueue);
+
+            TextMessage request = session.createTextMessage("request");
+            request.setJMSReplyTo(replyQueue);
+            session.createProducer(session.createQueue("pool.unpooled")).send(request);
+
+            TextMessage reply = session.createTextMessage("reply");
+            reply.setJMSCorrelationID("ID:set-by-responder");
+            session.createProducer(replyQueue).send(reply);
+
+            Message received = HermesJmsRequestTransport.receiveReply(replyConsumer, request, 5000);
+            assertThat(((TextMessage) received).getText(), is("reply"));
+        } finally {
+            connection.close();
+        }
+    }
+
+    private JMSConnectionPool.PooledConnection getConnection(boolean isTopicDomain, String clientID)
+            throws JMSException {
+        return pool.getConnection(hermes, connectionFactory, isTopicDomain, clientID, null, null);
+    }
+
+    private String request(JMSConnectionPool.PooledSession session, TemporaryQueue replyQueue,
+                           MessageConsumer replyConsumer, String text) throws JMSException {
+        TextMessage message = session.getSession().createTextMessage(text);
+        message.setJMSReplyTo(replyQueue);
+        session.getProducer(session.getSession().createQueue("pool.requests")).send(message);
+
+        Message reply = replyConsumer.receive(5000);
+        assertThat(reply, is(notNullValue()));
+        return ((TextMessage) reply).getText();
+    }
+
+    private static void startResponder(Connection connection, String queueName) throws JMSException {
+        final Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        final MessageProducer producer = session.createProducer(null);
+        session.createConsumer(session.createQueue(queueName)).setMessageListener(new MessageListener() {
+            public void onMessage(Message message) {
+                try {
+                    TextMessage reply = session.createTextMessage("reply:" + ((TextMessage) message).getText());
+                    producer.send(message.getJMSReplyTo(), reply);
+                } catch (JMSException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        connection.start();
+    }
+}
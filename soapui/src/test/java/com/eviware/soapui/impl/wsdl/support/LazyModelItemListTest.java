@@ -0,0 +1,89 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.impl.wsdl.support;
+
+import com.eviware.soapui.model.ModelItem;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LazyModelItemListTest {
+    private List<String> built;
+    private LazyModelItemList<ModelItem, String> list;
+
+    @Before
+    public void setUp() {
+        built = new ArrayList<String>();
+        list = new LazyModelItemList<ModelItem, String>(Arrays.asList("first", "second", "third")) {
+            protected ModelItem build(String config) {
+                built.add(config);
+                return createModelItem(config);
+            }
+
+            protected String getName(String config) {
+                return config;
+            }
+        };
+    }
+
+    private static ModelItem createModelItem(String name) {
+        ModelItem modelItem = mock(ModelItem.class);
+        when(modelItem.getName()).thenReturn(name);
+        return modelItem;
+    }
+
+    @Test
+    public void buildsItemsOnFirstAccessOnly() {
+        assertThat(list.size(), is(3));
+        assertThat(built.size(), is(0));
+
+        ModelItem second = list.get(1);
+        assertThat(second.getName(), is("second"));
+        assertThat(list.get(1), is(second));
+        assertThat(built, is(Arrays.asList("second")));
+        assertThat(list.isLoaded(0), is(false));
+        assertThat(list.getLoadedItems(), is(Arrays.asList(second)));
+    }
+
+    @Test
+    public void findsItemsByNameWithoutBuildingOthers() {
+        assertThat(list.getByName("third").getName(), is("third"));
+        assertThat(list.getByName("missing"), is(nullValue()));
+        assertThat(built, is(Arrays.asList("third")));
+    }
+
+    @Test
+    public void indexOfOnlyConsidersBuiltItems() {
+        ModelItem first = list.get(0);
+        ModelItem added = createModelItem("added");
+        list.add(added);
+
+        assertThat(list.indexOf(first), is(0));
+        assertThat(list.indexOf(added), is(3));
+        assertThat(list.remove(added), is(true));
+        assertThat(list.size(), is(3));
+        assertThat(built, is(Arrays.asList("first")));
+    }
+}
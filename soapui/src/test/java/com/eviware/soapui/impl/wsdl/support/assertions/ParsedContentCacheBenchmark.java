@@ -0,0 +1,89 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.support.assertions;
+
+import com.eviware.soapui.impl.wsdl.WsdlSubmitContext;
+import org.apache.xmlbeans.XmlObject;
+
+/**
+ * Compares running eight XPath assertions on a large response with and
+ * without a ParsedContentCache, just as WsdlTestRequest does for every
+ * response received by a LoadTest thread. Not run as part of the build; start
+ * with main and optional arguments [response size in kb] [exchanges].
+ */
+
+public class ParsedContentCacheBenchmark {
+    private static final int ASSERTIONS = 8;
+
+    public static void main(String[] args) throws Exception {
+        int sizeInKb = args.length > 0 ? Integer.parseInt(args[0]) : 2048;
+        int exchanges = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        String response = createResponse(sizeInKb * 1024);
+        WsdlSubmitContext context = new WsdlSubmitContext(null);
+
+        // warm up both paths
+        runExchanges(context, response, 2, false);
+        runExchanges(context, response, 2, true);
+
+        long uncached = runExchanges(context, response, exchanges, false);
+        long cached = runExchanges(context, response, exchanges, true);
+
+        System.out.println(exchanges + " exchanges with " + ASSERTIONS + " assertions on a " + sizeInKb
+                + "kb response");
+        System.out.println("  without cache: " + uncached + "ms");
+        System.out.println("  with cache:    " + cached + "ms");
+        System.out.println("  speedup:       " + String.format("%.1f", (double) uncached / Math.max(cached, 1)) + "x");
+    }
+
+    private static long runExchanges(WsdlSubmitContext context, String response, int exchanges, boolean cached)
+            throws Exception {
+        long start = System.nanoTime();
+
+        for (int e = 0; e < exchanges; e++) {
+            // a new String per exchange, as for every received response
+            String content = new String(response);
+            ParsedContentCache cache = cached ? ParsedContentCache.attach(context) : null;
+            try {
+                for (int c = 0; c < ASSERTIONS; c++) {
+                    XmlObject xml = ParsedContentCache.getXmlObject(context, content, false);
+                    if (xml.selectPath("declare namespace ns='http://benchmark';//ns:item[@id='" + c + "']").length != 1) {
+                        throw new IllegalStateException("Missing item " + c);
+                    }
+                }
+            } finally {
+                ParsedContentCache.detach(context, cache);
+            }
+        }
+
+        return (System.nanoTime() - start) / 1000000;
+    }
+
+    private static String createResponse(int size) {
+        StringBuilder builder = new StringBuilder(size + 256);
+        builder.append("<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\">");
+        builder.append("<soapenv:Body><ns:response xmlns:ns=\"http://benchmark\">");
+
+        for (int c = 0; builder.length() < size; c++) {
+            builder.append("<ns:item id=\"").append(c).append("\"><ns:name>Item ").append(c)
+                    .append("</ns:name><ns:value>").append(c * 31).append("</ns:value></ns:item>");
+        }
+
+        builder.append("</ns:response></soapenv:Body></soapenv:Envelope>");
+        return builder.toString();
+    }
+}
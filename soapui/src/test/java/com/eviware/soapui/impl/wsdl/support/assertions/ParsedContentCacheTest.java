@@ -0,0 +1,104 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.support.assertions;
+
+import com.eviware.soapui.impl.wsdl.WsdlSubmitContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class ParsedContentCacheTest {
+    private static final String CONTENT = "<root><!-- comment --><item>1</item></root>";
+
+    private WsdlSubmitContext context;
+
+    @Before
+    public void setUp() {
+        context = new WsdlSubmitContext(null);
+    }
+
+    @Test
+    public void parsesContentOnceWhileAttached() throws Exception {
+        ParsedContentCache cache = ParsedContentCache.attach(context);
+        assertNotNull(cache);
+
+        XmlObject first = ParsedContentCache.getXmlObject(context, CONTENT, false);
+        assertSame(first, ParsedContentCache.getXmlObject(context, new String(CONTENT), false));
+        assertNotSame(first, ParsedContentCache.getXmlObject(context, CONTENT, true));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+
+        ParsedContentCache.detach(context, cache);
+        assertFalse(context.hasProperty(ParsedContentCache.PARSED_CONTENT_CACHE_PROPERTY));
+    }
+
+    @Test
+    public void parsesEveryTimeWithoutCache() throws Exception {
+        assertNotSame(ParsedContentCache.getXmlObject(context, CONTENT, false),
+                ParsedContentCache.getXmlObject(context, CONTENT, false));
+    }
+
+    @Test
+    public void onlyOutermostAttachOwnsTheCache() {
+        ParsedContentCache cache = ParsedContentCache.attach(context);
+        assertNull(ParsedContentCache.attach(context));
+
+        ParsedContentCache.detach(context, null);
+        assertSame(cache, ParsedContentCache.get(context));
+    }
+
+    @Test
+    public void remembersContentThatIsNotXml() throws Exception {
+        ParsedContentCache cache = ParsedContentCache.attach(context);
+
+        for (int c = 0; c < 2; c++) {
+            try {
+                ParsedContentCache.getXmlObject(context, "{ \"not\" : \"xml\" }", false);
+                fail("Expected content not to parse");
+            } catch (XmlException e) {
+                // expected
+            }
+        }
+
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void parsesJsonOnceWhileAttached() {
+        ParsedContentCache cache = ParsedContentCache.attach(context);
+
+        JsonNode first = ParsedContentCache.getJsonNode(context, "{ \"item\" : 1 }");
+        assertSame(first, ParsedContentCache.getJsonNode(context, "{ \"item\" : 1 }"));
+        assertNull(ParsedContentCache.getJsonNode(context, CONTENT));
+        assertNull(ParsedContentCache.getJsonNode(context, CONTENT));
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.support.http;
+
+import com.eviware.soapui.impl.wsdl.submit.transports.http.support.methods.ExtendedGetMethod;
+import okhttp3.Protocol;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.params.ConnRouteParams;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class Http2ClientSupportTest {
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setProtocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void onlyMarkedMethodsAreSentOverHttp2() {
+        ExtendedGetMethod method = new ExtendedGetMethod();
+        assertFalse(Http2ClientSupport.isHttp2(method));
+
+        Http2ClientSupport.setHttp2(method, true);
+        assertTrue(Http2ClientSupport.isHttp2(method));
+    }
+
+    @Test
+    public void executesRequestWithPriorKnowledge() throws Exception {
+        server.enqueue(new MockResponse().setBody("hello").setHeader("Content-Type", "text/plain"));
+
+        ExtendedGetMethod method = createMethod("/hello");
+        HttpResponse response = Http2ClientSupport.execute(method, null);
+
+        assertEquals(200, response.getStatusLine().getStatusCode());
+        assertEquals(Http2ClientSupport.HTTP_2_0, response.getStatusLine().getProtocolVersion());
+        assertEquals("hello", EntityUtils.toString(response.getEntity()));
+        assertEquals(response, method.getHttpResponse());
+        assertTrue(method.getMetrics().getTimeToFirstByteTimer().isStopped());
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/hello", request.getPath());
+    }
+
+    @Test
+    public void multiplexesConcurrentRequestsOverOneConnection() throws Exception {
+        int count = 8;
+        for (int c = 0; c < count; c++) {
+            server.enqueue(new MockResponse().setBody("response"));
+        }
+
+        // warm up the connection so the concurrent requests don't race to open one each
+        server.enqueue(new MockResponse().setBody("warmup"));
+        Http2ClientSupport.execute(createMethod("/warmup"), null).getEntity().getContent().close();
+
+        ExecutorService executor = Executors.newFixedThreadPool(count);
+        try {
+            List<Future<String>> results = new ArrayList<Future<String>>();
+            for (int c = 0; c < count; c++) {
+                results.add(executor.submit(new Callable<String>() {
+                    public String call() throws Exception {
+                        return EntityUtils.toString(Http2ClientSupport.execute(createMethod("/concurrent"), null)
+                                .getEntity());
+                    }
+                }));
+            }
+
+            for (Future<String> result : results) {
+                assertEquals("response", result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // sequence numbers restart with every new connection
+        Set<Integer> sequenceNumbers = new HashSet<Integer>();
+        for (int c = 0; c <= count; c++) {
+            sequenceNumbers.add(server.takeRequest().getSequenceNumber());
+        }
+
+        assertEquals(count + 1, sequenceNumbers.size());
+    }
+
+    @Test
+    public void sendsAndStoresCookiesOfTheContext() throws Exception {
+        server.enqueue(new MockResponse().setBody("first").setHeader("Set-Cookie", "session=abc; Path=/"));
+        server.enqueue(new MockResponse().setBody("second"));
+
+        HttpContext httpContext = HttpClientSupport.createEmptyContext();
+        EntityUtils.consume(Http2ClientSupport.execute(createMethod("/first"), httpContext).getEntity());
+        EntityUtils.consume(Http2ClientSupport.execute(createMethod("/second"), httpContext).getEntity());
+
+        assertEquals(null, server.takeRequest().getHeader("Cookie"));
+        assertEquals("session=abc", server.takeRequest().getHeader("Cookie"));
+    }
+
+    @Test
+    public void proxiedMethodsAreNotSentOverHttp2() throws Exception {
+        ExtendedGetMethod method = createMethod("/proxied");
+        assertTrue(Http2ClientSupport.canExecute(method, HttpClientSupport.createEmptyContext()));
+
+        ConnRouteParams.setDefaultProxy(method.getParams(), new HttpHost("localhost", 8888));
+        assertFalse(Http2ClientSupport.canExecute(method, HttpClientSupport.createEmptyContext()));
+    }
+
+    private ExtendedGetMethod createMethod(String path) throws Exception {
+        ExtendedGetMethod method = new ExtendedGetMethod();
+        method.setURI(server.url(path).uri());
+        Http2ClientSupport.setHttp2(method, true);
+        return method;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.impl.wsdl.support.http;
+
+import com.eviware.soapui.impl.wsdl.submit.transports.http.support.methods.ExtendedGetMethod;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.support.methods.ExtendedPostMethod;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.params.ConnRoutePNames;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NioHttpClientSupportTest {
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void executesGetRequest() throws Exception {
+        server.enqueue(new MockResponse().setBody("hello").setHeader("Content-Type", "text/plain"));
+
+        ExtendedGetMethod method = new ExtendedGetMethod();
+        method.setURI(server.url("/hello?name=value").uri());
+        method.addHeader("X-Test", "test");
+        HttpResponse response = NioHttpClientSupport.getInstance().execute(method, new BasicHttpContext());
+
+        assertEquals(200, response.getStatusLine().getStatusCode());
+        assertEquals("hello", EntityUtils.toString(response.getEntity()));
+        assertEquals(response, method.getHttpResponse());
+        assertTrue(method.getMetrics().getTimeToFirstByteTimer().isStopped());
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/hello?name=value", request.getPath());
+        assertEquals("test", request.getHeader("X-Test"));
+    }
+
+    @Test
+    public void executesPostRequestWithBody() throws Exception {
+        server.enqueue(new MockResponse().setBody("<response/>"));
+
+        ExtendedPostMethod method = new ExtendedPostMethod();
+        method.setURI(server.url("/service").uri());
+        method.setEntity(new StringEntity("<request/>", "UTF-8"));
+        HttpResponse response = NioHttpClientSupport.getInstance().execute(method, new BasicHttpContext());
+
+        assertEquals("<response/>", EntityUtils.toString(response.getEntity()));
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("POST", request.getMethod());
+        assertEquals("<request/>", request.getBody().readUtf8());
+    }
+
+    @Test
+    public void keepsManyRequestsInFlight() throws Exception {
+        int count = 16;
+        for (int c = 0; c < count; c++) {
+            server.enqueue(new MockResponse().setBody("response"));
+        }
+
+        List<Future<HttpResponse>> results = new ArrayList<Future<HttpResponse>>();
+        for (int c = 0; c < count; c++) {
+            ExtendedGetMethod method = new ExtendedGetMethod();
+            method.setURI(server.url("/concurrent").uri());
+            results.add(NioHttpClientSupport.getInstance().executeAsync(method, new BasicHttpContext()));
+        }
+
+        for (Future<HttpResponse> result : results) {
+            assertEquals("response", EntityUtils.toString(result.get().getEntity()));
+        }
+
+        assertEquals(count, server.getRequestCount());
+    }
+
+    @Test
+    public void leavesProxiedRequestsToBlockingClient() throws Exception {
+        ExtendedGetMethod method = new ExtendedGetMethod();
+        method.setURI(server.url("/").uri());
+        assertTrue(NioHttpClientSupport.canExecute(method, new BasicHttpContext()));
+
+        method.getParams().setParameter(ConnRoutePNames.DEFAULT_PROXY, new HttpHost("localhost", 8888));
+        assertFalse(NioHttpClientSupport.canExecute(method, new BasicHttpContext()));
+    }
+
+    @Test
+    public void leavesChallengeAuthenticationToBlockingClient() throws Exception {
+        ExtendedGetMethod method = new ExtendedGetMethod();
+        method.setURI(server.url("/").uri());
+
+        HttpContext httpContext = new BasicHttpContext();
+        httpContext.setAttribute(HttpClientContext.CREDS_PROVIDER, new HttpCredentialsProvider());
+        assertFalse(NioHttpClientSupport.canExecute(method, httpContext));
+
+        // preemptive authentication is sent as a plain header
+        method.addHeader("Authorization", "Basic dXNlcjpwYXNz");
+        assertTrue(NioHttpClientSupport.canExecute(method, httpContext));
+    }
+}
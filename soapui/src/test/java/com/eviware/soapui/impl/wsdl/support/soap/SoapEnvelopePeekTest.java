@@ -0,0 +1,79 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.impl.wsdl.support.soap;
+
+import org.junit.Test;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SoapEnvelopePeekTest {
+    private static final String SOAP11 = "http://schemas.xmlsoap.org/soap/envelope/";
+    private static final String SOAP12 = "http://www.w3.org/2003/05/soap-envelope";
+
+    @Test
+    public void readsFirstBodyElementAfterHeader() throws Exception {
+        SoapEnvelopePeek peek = SoapEnvelopePeek.peek("<?xml version=\"1.0\"?><!-- request -->"
+                + "<soapenv:Envelope xmlns:soapenv=\"" + SOAP11 + "\" xmlns:ns=\"urn:test\">"
+                + "<soapenv:Header><ns:Body>not this one</ns:Body></soapenv:Header>"
+                + "<soapenv:Body>\n  <!-- comment --><ns:getQuote><symbol>ACME</symbol></ns:getQuote>"
+                + "</soapenv:Body></soapenv:Envelope>");
+
+        assertEquals(SOAP11, peek.getEnvelopeNamespace());
+        assertTrue(peek.hasBody());
+        assertEquals(new QName("urn:test", "getQuote"), peek.getContentElementName());
+    }
+
+    @Test
+    public void handlesEmptyBodyAndUnqualifiedElements() throws Exception {
+        SoapEnvelopePeek peek = SoapEnvelopePeek.peek("<env:Envelope xmlns:env=\"" + SOAP12 + "\">"
+                + "<env:Body/></env:Envelope>");
+        assertEquals(SOAP12, peek.getEnvelopeNamespace());
+        assertTrue(peek.hasBody());
+        assertNull(peek.getContentElementName());
+
+        peek = SoapEnvelopePeek.peek("<env:Envelope xmlns:env=\"" + SOAP12 + "\">"
+                + "<env:Body><request/></env:Body></env:Envelope>");
+        assertEquals(new QName("", "request"), peek.getContentElementName());
+    }
+
+    @Test
+    public void stopsReadingAtFirstBodyElement() throws Exception {
+        SoapEnvelopePeek peek = SoapEnvelopePeek.peek("<env:Envelope xmlns:env=\"" + SOAP11 + "\">"
+                + "<env:Body><request><unclosed></env:Body>");
+        assertEquals(new QName("", "request"), peek.getContentElementName());
+    }
+
+    @Test
+    public void returnsNullForOtherDocuments() throws Exception {
+        assertNull(SoapEnvelopePeek.peek(""));
+        assertNull(SoapEnvelopePeek.peek("<Envelope><Body/></Envelope>"));
+        assertNull(SoapEnvelopePeek.peek("<request xmlns=\"" + SOAP11 + "\"/>"));
+
+        SoapEnvelopePeek peek = SoapEnvelopePeek.peek("<env:Envelope xmlns:env=\"" + SOAP11 + "\"/>");
+        assertFalse(peek.hasBody());
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void failsForMalformedContent() throws Exception {
+        SoapEnvelopePeek.peek("<env:Envelope xmlns:env=\"" + SOAP11 + "\"><env:Body></env:Envelope>");
+    }
+}
@@ -20,6 +20,7 @@ import com.eviware.soapui.config.KeyMaterialCryptoConfig;
 import com.eviware.soapui.impl.wsdl.WsdlProject;
 import com.eviware.soapui.impl.wsdl.support.wss.DefaultWssContainer;
 import com.eviware.soapui.support.SoapUIException;
+import org.apache.ws.security.components.crypto.Merlin;
 import org.apache.xmlbeans.XmlException;
 import org.junit.Before;
 import org.junit.Test;
@@ -30,7 +31,9 @@ import java.io.IOException;
 import java.security.KeyStore;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.when;
 
@@ -102,6 +105,19 @@ public class KeyMaterialWssCryptoTest {
         loadCryptoUnsucessfully(CryptoType.KEYSTORE, "pkcs12-test-key.p12", INCORRECT_PASSWORD);
     }
 
+    @Test
+    public void testCryptoIsReusedUntilConfigurationChanges() throws Exception {
+        initLoad(CryptoType.KEYSTORE, "jks-test-key.jks", CORRECT_PASSWORD);
+
+        Merlin merlin = crypto.getCrypto();
+        assertNotNull(merlin);
+        assertSame(merlin, crypto.getCrypto());
+        assertSame(merlin.getKeyStore(), crypto.load());
+
+        crypto.setPassword(CORRECT_PASSWORD);
+        assertNotSame(merlin, crypto.getCrypto());
+    }
+
     private void loadCryptoSucessfully(CryptoType type, String filename, String password) {
         String path = initLoad(type, filename, password);
 
@@ -0,0 +1,121 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.impl.wsdl.support.xsd;
+
+import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.impl.wsdl.support.wsdl.UrlWsdlLoader;
+import org.apache.xmlbeans.SchemaTypeSystem;
+import org.apache.xmlbeans.XmlObject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.xml.namespace.QName;
+import java.io.File;
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SchemaTypeSystemCacheTest {
+    private static final String FOREX_NS = "http://localhost:5723/Forex.wsdl";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private SchemaTypeSystem compiled;
+    private SchemaTypeSystemCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        SoapUI.initDefaultCore();
+        String wsdlUrl = SchemaTypeSystemCacheTest.class.getResource("/another.wsdl").toString();
+        compiled = SchemaUtils.buildSchemaTypes(new ArrayList<XmlObject>(SchemaUtils.getSchemas(wsdlUrl,
+                new UrlWsdlLoader(wsdlUrl)).values()));
+        cache = new SchemaTypeSystemCache(temporaryFolder.newFolder("schemacache"));
+    }
+
+    @Test
+    public void reloadsSavedTypeSystemFromDisk() throws Exception {
+        cache.put("forex", compiled);
+        SchemaTypeSystem loaded = cache.get("forex");
+
+        assertNotNull(loaded);
+        assertNotSame(compiled, loaded);
+        assertEquals(compiled.getName(), loaded.getName());
+        assertNotNull(loaded.findElement(new QName(FOREX_NS, "tradeList")));
+        assertEquals(1, cache.getStatistics().getHitCount());
+    }
+
+    @Test
+    public void validatesMessagesWithReloadedTypeSystem() throws Exception {
+        cache.put("forex", compiled);
+        SchemaTypeSystem loaded = cache.get("forex");
+
+        String valid = "<f:tradeList xmlns:f=\"" + FOREX_NS + "\"><trade time=\"1\" balance=\"2.5\"/></f:tradeList>";
+        String invalid = "<f:tradeList xmlns:f=\"" + FOREX_NS + "\"><trade time=\"now\"/></f:tradeList>";
+
+        assertTrue(compiled.parse(valid, null, null).validate());
+        assertTrue(loaded.parse(valid, null, null).validate());
+        assertFalse(compiled.parse(invalid, null, null).validate());
+        assertFalse(loaded.parse(invalid, null, null).validate());
+    }
+
+    @Test
+    public void prunesLeastRecentlyUsedEntriesThatAreNotLoaded() throws Exception {
+        File cacheDir = temporaryFolder.newFolder("bounded");
+        cache = new SchemaTypeSystemCache(cacheDir, 1);
+
+        cache.put("first", compiled);
+        SchemaTypeSystem first = cache.get("first");
+        cache.put("second", compiled);
+        cache.put("third", compiled);
+
+        assertNotNull(first.findElement(new QName(FOREX_NS, "tradeList")));
+        assertTrue(new File(cacheDir, "first").exists());
+        assertFalse(new File(cacheDir, "second").exists());
+        assertTrue(new File(cacheDir, "third").exists());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void deletesAbandonedTemporaryDirectories() throws Exception {
+        File cacheDir = temporaryFolder.newFolder("abandoned");
+        File abandoned = new File(cacheDir, "old.tmp123");
+        File recent = new File(cacheDir, "new.tmp456");
+        assertTrue(abandoned.mkdirs());
+        assertTrue(recent.mkdirs());
+        abandoned.setLastModified(System.currentTimeMillis() - 2 * 60 * 60 * 1000);
+
+        cache = new SchemaTypeSystemCache(cacheDir);
+        cache.put("forex", compiled);
+
+        assertFalse(abandoned.exists());
+        assertTrue(recent.exists());
+        assertNotNull(cache.get("forex"));
+    }
+
+    @Test
+    public void returnsNullForUnknownKey() throws Exception {
+        assertNull(cache.get("unknown"));
+        assertEquals(1, cache.getStatistics().getMissCount());
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.impl.wsdl.teststeps.assertions.soap;
+
+import com.eviware.soapui.config.TestAssertionConfig;
+import com.eviware.soapui.impl.wsdl.WsdlOperation;
+import com.eviware.soapui.impl.wsdl.WsdlProject;
+import com.eviware.soapui.impl.wsdl.WsdlSubmitContext;
+import com.eviware.soapui.impl.wsdl.submit.WsdlMessageExchange;
+import com.eviware.soapui.impl.wsdl.support.assertions.ParsedContentCache;
+import com.eviware.soapui.impl.wsdl.teststeps.WsdlTestRequestStep;
+import com.eviware.soapui.impl.wsdl.teststeps.assertions.basic.XPathContainsAssertion;
+import com.eviware.soapui.model.testsuite.AssertionException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WSAResponseAssertionTest {
+    private WsdlOperation operation;
+    private String envelopeNamespace;
+
+    @Before
+    public void setUp() throws Exception {
+        File sampleProjectFile = new File(WSAResponseAssertionTest.class.getResource("/sample-soapui-project.xml")
+                .toURI());
+        WsdlProject project = new WsdlProject(sampleProjectFile.getAbsolutePath());
+        WsdlTestRequestStep testStep = (WsdlTestRequestStep) project.getTestSuiteByName("Test Suite")
+                .getTestCaseByName("Test Conversions").getTestStepByName("SEK to USD Test");
+
+        operation = testStep.getTestRequest().getOperation();
+        envelopeNamespace = operation.getInterface().getSoapVersion().getEnvelopeNamespace();
+    }
+
+    @Test
+    public void doesNotAddHeaderToSharedResponse() throws Exception {
+        String response = "<s:Envelope xmlns:s=\"" + envelopeNamespace + "\"><s:Body><result>42</result></s:Body>"
+                + "</s:Envelope>";
+
+        WsdlMessageExchange messageExchange = mock(WsdlMessageExchange.class);
+        when(messageExchange.getOperation()).thenReturn(operation);
+        when(messageExchange.getRequestContent()).thenReturn(operation.createRequest(true));
+        when(messageExchange.getResponseContent()).thenReturn(response);
+
+        WsdlSubmitContext context = new WsdlSubmitContext(null);
+        ParsedContentCache cache = ParsedContentCache.attach(context);
+        assertNotNull(cache);
+
+        WSAResponseAssertion wsaAssertion = new WSAResponseAssertion(TestAssertionConfig.Factory.newInstance(), null);
+        try {
+            wsaAssertion.internalAssertResponse(messageExchange, context);
+            fail("Expected missing WS-A Action to fail");
+        } catch (AssertionException e) {
+            // expected, the response has no WS-A headers
+        }
+
+        // an inserted Header would be the first child of the Envelope
+        XPathContainsAssertion xpathAssertion = new XPathContainsAssertion(TestAssertionConfig.Factory.newInstance(),
+                null);
+        xpathAssertion.setPath("declare namespace s='" + envelopeNamespace + "'; /s:Envelope/*[1]/result/text()");
+        xpathAssertion.setExpectedContent("42");
+
+        assertNotNull(xpathAssertion.assertContent(response, context, "Response"));
+        assertEquals(1, cache.getHitCount());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.model.propertyexpansion;
+
+import com.eviware.soapui.impl.wsdl.WsdlSubmitContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expansion of a SOAP request body with 60 properties from the submit context,
+ * with compiled templates and with scanning the body on every expansion like
+ * before. Not run as part of the build; start with main or through the JMH
+ * runner.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PropertyExpanderBenchmark {
+    private static final int LINE_ITEMS = 20;
+
+    @Param({"true", "false"})
+    public boolean compiled;
+
+    private PropertyExpander expander;
+    private WsdlSubmitContext context;
+    private String requestBody;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        expander = new PropertyExpander(true);
+        expander.setTemplateCache(compiled ? new PropertyExpansionTemplateCache(
+                PropertyExpansionTemplateCache.DEFAULT_CACHE_SIZE) : null);
+
+        context = new WsdlSubmitContext(null);
+        context.setProperty("orderId", "ORD-2019-000123");
+        context.setProperty("customerId", "C-4711");
+        for (int c = 0; c < LINE_ITEMS; c++) {
+            context.setProperty("sku" + c, "SKU-" + (1000 + c));
+            context.setProperty("quantity" + c, String.valueOf(c + 1));
+            context.setProperty("price" + c, (c + 1) + ".95");
+        }
+
+        requestBody = createRequestBody();
+    }
+
+    @Benchmark
+    public String expandRequestBody() {
+        return expander.expand(context, requestBody, true);
+    }
+
+    private static String createRequestBody() {
+        StringBuilder body = new StringBuilder();
+        body.append("<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\"")
+                .append(" xmlns:ord=\"http://example.com/orders\">\n");
+        body.append("   <soapenv:Header/>\n   <soapenv:Body>\n      <ord:PlaceOrder>\n");
+        body.append("         <ord:orderId>${orderId}</ord:orderId>\n");
+        body.append("         <ord:customerId>${customerId}</ord:customerId>\n");
+        body.append("         <ord:items>\n");
+        for (int c = 0; c < LINE_ITEMS; c++) {
+            body.append("            <ord:item>\n");
+            body.append("               <ord:sku>${sku").append(c).append("}</ord:sku>\n");
+            body.append("               <ord:quantity>${quantity").append(c).append("}</ord:quantity>\n");
+            body.append("               <ord:price currency=\"EUR\">${price").append(c).append("}</ord:price>\n");
+            body.append("            </ord:item>\n");
+        }
+        body.append("         </ord:items>\n");
+        body.append("         <ord:comment>Unit prices in $${currency}</ord:comment>\n");
+        body.append("      </ord:PlaceOrder>\n   </soapenv:Body>\n</soapenv:Envelope>\n");
+
+        return body.toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(PropertyExpanderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.model.propertyexpansion;
+
+import com.eviware.soapui.impl.wsdl.WsdlProject;
+import com.eviware.soapui.impl.wsdl.WsdlTestSuite;
+import com.eviware.soapui.impl.wsdl.panels.support.MockTestRunContext;
+import com.eviware.soapui.impl.wsdl.panels.support.MockTestRunner;
+import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
+import com.eviware.soapui.impl.wsdl.teststeps.WsdlTestStep;
+import com.eviware.soapui.impl.wsdl.teststeps.registry.GroovyScriptStepFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks that expanding content compiled into a template gives the same
+ * results as scanning the content
+ */
+
+public class PropertyExpanderTest {
+    private static final String[] FRAGMENTS = {"${test}", "$${test}", "${}", "${ }", "${missing}", "${empty}",
+            "${testexp}", "${#Project#projectId}", "${#TestCase#testCaseId}", "${#test}", "${#testxml#//value/text()}",
+            "${=1+2}", "${", "}", "$", "{", "<a>", "</a>", " & ", "text"};
+
+    private PropertyExpansionTemplateCache templateCache;
+    private PropertyExpander templateExpander;
+    private PropertyExpander scanningExpander;
+    private MockTestRunContext context;
+
+    @Before
+    public void setUp() throws Exception {
+        templateCache = new PropertyExpansionTemplateCache(PropertyExpansionTemplateCache.DEFAULT_CACHE_SIZE);
+        templateExpander = new PropertyExpander(true);
+        templateExpander.setTemplateCache(templateCache);
+        scanningExpander = new PropertyExpander(true);
+        scanningExpander.setTemplateCache(null);
+
+        WsdlProject project = new WsdlProject();
+        project.addProperty("projectId").setValue("123");
+        WsdlTestSuite testSuite = project.addNewTestSuite("TestSuite");
+        WsdlTestCase testCase = testSuite.addNewTestCase("TestCase");
+        testCase.addProperty("testCaseId").setValue("<345>");
+        WsdlTestStep testStep = testCase.addTestStep(GroovyScriptStepFactory.GROOVY_TYPE, "GroovyScript");
+
+        context = new MockTestRunContext(new MockTestRunner(testCase), testStep);
+        context.setProperty("test", "value");
+        context.setProperty("empty", "");
+        context.setProperty("testexp", "${test}");
+        context.setProperty("exp", "exp");
+        context.setProperty("testxml", "<test><value>hello</value></test>");
+    }
+
+    @Test
+    public void escapedExpansions() {
+        assertSameExpansion("$${test}", true);
+        assertSameExpansion("${test}$${test}", true);
+        assertSameExpansion("$${${test}", true);
+        assertSameExpansion("$$${test}", true);
+    }
+
+    @Test
+    public void emptyExpansions() {
+        assertSameExpansion("a${}b${ }c", true);
+        assertSameExpansion("${empty}", true);
+        assertSameExpansion("${missing}", true);
+    }
+
+    @Test
+    public void nestedExpansions() {
+        assertSameExpansion("${test${exp}}", false);
+        assertSameExpansion("${testexp}", true);
+        assertSameExpansion("<a>${#testxml#//value[text()='${#testxml#//value/text()}']/text()}</a>", false);
+        assertSameExpansion("abc ${test", false);
+    }
+
+    @Test
+    public void evalAndScopedExpansions() {
+        assertSameExpansion("${=1+2}", true);
+        assertSameExpansion("${=\"a\" + \"b\"}${test}", true);
+        assertSameExpansion("${#Project#projectId}/${#TestCase#testCaseId}", true);
+        assertSameExpansion("${#test}", true);
+        assertSameExpansion("<a>${#testxml#//value/text()}</a>", true);
+    }
+
+    @Test
+    public void randomContent() {
+        Random random = new Random(4711);
+        for (int c = 0; c < 500; c++) {
+            StringBuilder content = new StringBuilder();
+            int fragments = 1 + random.nextInt(8);
+            for (int i = 0; i < fragments; i++) {
+                content.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+
+            String expected = scanningExpander.expand(context, content.toString(), false);
+            assertEquals(content.toString(), expected, templateExpander.expand(context, content.toString(), false));
+
+            expected = scanningExpander.expand(context, content.toString(), true);
+            assertEquals(content.toString(), expected, templateExpander.expand(context, content.toString(), true));
+        }
+    }
+
+    /**
+     * Expands the content both ways, with and without entitizing, after
+     * checking whether it is compiled into a template at all
+     */
+
+    private void assertSameExpansion(String content, boolean compiled) {
+        if (compiled) {
+            assertNotNull(content, templateCache.getTemplate(content));
+        } else {
+            assertNull(content, templateCache.getTemplate(content));
+        }
+
+        assertEquals(content, scanningExpander.expand(context, content, false),
+                templateExpander.expand(context, content, false));
+        assertEquals(content, scanningExpander.expand(context, content, true),
+                templateExpander.expand(context, content, true));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.model.propertyexpansion;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PropertyExpansionTemplateCacheTest {
+
+    @Test
+    public void returnsCachedTemplates() {
+        PropertyExpansionTemplateCache cache = new PropertyExpansionTemplateCache(10);
+
+        PropertyExpansionTemplate template = cache.getTemplate("<a>${one}</a>");
+
+        assertNotNull(template);
+        assertSame(template, cache.getTemplate("<a>${one}</a>"));
+        assertEquals(1, cache.getStatistics().getHitCount());
+        assertEquals(1, cache.getStatistics().getMissCount());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedTemplates() throws Exception {
+        PropertyExpansionTemplateCache cache = new PropertyExpansionTemplateCache(4);
+
+        for (int c = 0; c < 4; c++) {
+            cache.getTemplate("${" + c + "}");
+            Thread.sleep(1);
+        }
+
+        cache.getTemplate("${0}");
+        cache.getTemplate("${4}");
+
+        // evicted down to three quarters of the maximum size
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getStatistics().getHitCount());
+        cache.getTemplate("${0}");
+        cache.getTemplate("${4}");
+        assertEquals(3, cache.getStatistics().getHitCount());
+    }
+
+    @Test
+    public void evictsByCachedContentLength() {
+        PropertyExpansionTemplateCache cache = new PropertyExpansionTemplateCache(100, 100, 40);
+
+        for (int c = 0; c < 5; c++) {
+            cache.getTemplate("${property" + c + "}");
+        }
+
+        assertTrue(cache.getCachedLength() <= 40);
+        assertEquals(cache.size() * "${property0}".length(), cache.getCachedLength());
+    }
+
+    @Test
+    public void doesNotCacheLongContent() {
+        PropertyExpansionTemplateCache cache = new PropertyExpansionTemplateCache(10, 10, 1000);
+
+        assertNull(cache.getTemplate("<content>${property}</content>"));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getCachedLength());
+    }
+
+    @Test
+    public void clearsCachedContentLength() {
+        PropertyExpansionTemplateCache cache = new PropertyExpansionTemplateCache(10);
+        cache.getTemplate("${one}");
+        cache.getTemplate("no properties");
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getCachedLength());
+    }
+
+    @Test
+    public void staysWithinBoundsWhenUsedConcurrently() throws Exception {
+        final PropertyExpansionTemplateCache cache = new PropertyExpansionTemplateCache(50);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> futures = new ArrayList<Future<Object>>();
+            for (int t = 0; t < 8; t++) {
+                final int thread = t;
+                futures.add(executor.submit(new Callable<Object>() {
+                    public Object call() throws Exception {
+                        for (int c = 0; c < 2000; c++) {
+                            String content = "${property" + ((c * 7 + thread) % 200) + "}";
+                            assertEquals(content.substring(2, content.length() - 1),
+                                    cache.getTemplate(content).getPropertyName(0));
+                        }
+                        return null;
+                    }
+                }));
+            }
+
+            for (Future<Object> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // a thread adding while another one evicts may leave one entry too many
+        assertTrue(cache.size() <= 50 + 8);
+        assertTrue(cache.getCachedLength() >= cache.size() * "${property0}".length());
+        assertTrue(cache.getCachedLength() <= cache.size() * "${property100}".length());
+
+        cache.clear();
+        assertEquals(0, cache.getCachedLength());
+    }
+}
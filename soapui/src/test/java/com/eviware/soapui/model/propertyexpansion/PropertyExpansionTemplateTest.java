@@ -0,0 +1,89 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.model.propertyexpansion;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class PropertyExpansionTemplateTest {
+
+    @Test
+    public void splitsLiteralsAndProperties() {
+        PropertyExpansionTemplate template = PropertyExpansionTemplate.compile("<a>${one}</a><b>${#Project#two}</b>");
+
+        assertEquals(2, template.getPropertyCount());
+        assertEquals("<a>", template.getLiteral(0));
+        assertEquals("one", template.getPropertyName(0));
+        assertEquals("</a><b>", template.getLiteral(1));
+        assertEquals("#Project#two", template.getPropertyName(1));
+        assertEquals("</b>", template.getLiteral(2));
+        assertEquals("<a></a><b></b>".length(), template.getLiteralLength());
+    }
+
+    @Test
+    public void keepsEscapedExpansionsAsLiterals() {
+        PropertyExpansionTemplate template = PropertyExpansionTemplate.compile("${test}$${test}");
+
+        assertEquals(1, template.getPropertyCount());
+        assertEquals("", template.getLiteral(0));
+        assertEquals("${test}", template.getLiteral(1));
+
+        template = PropertyExpansionTemplate.compile("$${${test}");
+        assertEquals(1, template.getPropertyCount());
+        assertEquals("${", template.getLiteral(0));
+        assertEquals("test", template.getPropertyName(0));
+    }
+
+    @Test
+    public void dropsEmptyExpansions() {
+        PropertyExpansionTemplate template = PropertyExpansionTemplate.compile("a${}b${ }c");
+
+        assertEquals(0, template.getPropertyCount());
+        assertEquals("abc", template.getLiteral(0));
+    }
+
+    @Test
+    public void doesNotCompileNestedOrUnterminatedExpansions() {
+        assertNull(PropertyExpansionTemplate.compile("${test${exp}}"));
+        assertNull(PropertyExpansionTemplate.compile("abc ${test"));
+    }
+
+    @Test
+    public void classifiesPropertyNames() {
+        assertEquals(PropertyExpansionTemplate.PLAIN_PROPERTY, PropertyExpansionTemplate.getPropertyKind("test"));
+        assertEquals(PropertyExpansionTemplate.SCOPED_PROPERTY, PropertyExpansionTemplate.getPropertyKind("#Env#x"));
+        assertEquals(PropertyExpansionTemplate.EVAL_PROPERTY, PropertyExpansionTemplate.getPropertyKind("=1+1"));
+    }
+
+    @Test
+    public void cachesTemplatesAndFailures() {
+        PropertyExpansionTemplateCache cache = new PropertyExpansionTemplateCache(2);
+
+        PropertyExpansionTemplate template = cache.getTemplate("${a}");
+        assertSame(template, cache.getTemplate("${a}"));
+        assertNull(cache.getTemplate("${a${b}}"));
+        assertNull(cache.getTemplate("${a${b}}"));
+
+        assertEquals(2, cache.getStatistics().getHitCount());
+        assertEquals(2, cache.getStatistics().getMissCount());
+
+        cache.getTemplate("${c}");
+        assertEquals(2, cache.size());
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.model.support;
+
+import com.eviware.soapui.impl.wsdl.mock.WsdlMockRequest;
+import com.eviware.soapui.impl.wsdl.mock.WsdlMockResult;
+import com.eviware.soapui.model.mock.MockResult;
+import com.eviware.soapui.monitor.DelayableServletResponse;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletResponse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AbstractMockDispatcherTest {
+    private final AbstractMockDispatcher dispatcher = new AbstractMockDispatcher() {
+    };
+
+    @Test
+    public void logsSummaryOfResults() throws Exception {
+        dispatcher.addMockResult(createMockResult(mock(HttpServletResponse.class), 5));
+
+        assertEquals(1, dispatcher.getMockResultCount());
+
+        MockResult logged = dispatcher.getMockResultAt(0);
+        assertTrue(logged instanceof MockResultLogEntry);
+        assertEquals(1000L, logged.getTimestamp());
+        assertEquals(5L, logged.getTimeTaken());
+        assertEquals(7, ((MockResultLogEntry) logged).getResponseSize());
+        assertNull(logged.getMockRequest());
+        assertNull(logged.getResponseContent());
+    }
+
+    @Test
+    public void logsDelayedResultsOnceCompleted() throws Exception {
+        DelayableServletResponse response = new DelayableServletResponse(mock(HttpServletResponse.class));
+        response.delay(100);
+
+        WsdlMockResult mockResult = createMockResult(response, 5);
+        dispatcher.addMockResult(mockResult);
+
+        assertEquals(0, dispatcher.getMockResultCount());
+
+        // as the JettyMockEngine completes a delayed result
+        when(mockResult.getTimeTaken()).thenReturn(105L);
+        response.runCompletionTasks();
+
+        assertEquals(1, dispatcher.getMockResultCount());
+        assertEquals(105L, dispatcher.getMockResultAt(0).getTimeTaken());
+    }
+
+    private static WsdlMockResult createMockResult(HttpServletResponse response, long timeTaken) throws Exception {
+        WsdlMockRequest mockRequest = mock(WsdlMockRequest.class);
+        when(mockRequest.getHttpResponse()).thenReturn(response);
+
+        WsdlMockResult mockResult = mock(WsdlMockResult.class);
+        when(mockResult.getMockRequest()).thenReturn(mockRequest);
+        when(mockResult.getTimestamp()).thenReturn(1000L);
+        when(mockResult.getTimeTaken()).thenReturn(timeTaken);
+        when(mockResult.getRawResponseData()).thenReturn("content".getBytes("UTF-8"));
+        return mockResult;
+    }
+}
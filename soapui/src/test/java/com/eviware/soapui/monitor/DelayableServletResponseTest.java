@@ -0,0 +1,174 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.monitor;
+
+import com.eviware.soapui.impl.rest.mock.RestMockService;
+import com.eviware.soapui.impl.support.BaseMockResult;
+import com.eviware.soapui.model.mock.MockOperation;
+import com.eviware.soapui.model.mock.MockRequest;
+import com.eviware.soapui.model.mock.MockResult;
+import com.eviware.soapui.model.mock.MockRunListener;
+import com.eviware.soapui.model.support.MockRunListenerAdapter;
+import com.eviware.soapui.utils.ModelItemFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.mortbay.jetty.HttpFields;
+import org.mortbay.jetty.Response;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DelayableServletResponseTest {
+    private HttpServletResponse httpResponse;
+    private ByteArrayOutputStream written;
+
+    @Before
+    public void setUp() throws Exception {
+        written = new ByteArrayOutputStream();
+        httpResponse = mock(HttpServletResponse.class);
+        when(httpResponse.getCharacterEncoding()).thenReturn("UTF-8");
+        when(httpResponse.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                written.write(b);
+            }
+        });
+    }
+
+    @Test
+    public void writesThroughWhenNotDelayed() throws Exception {
+        DelayableServletResponse response = new DelayableServletResponse(httpResponse);
+
+        response.getOutputStream().write("content".getBytes("UTF-8"));
+
+        assertFalse(response.isDelayed());
+        assertEquals("content", written.toString("UTF-8"));
+    }
+
+    @Test
+    public void buffersBodyUntilCompleted() throws Exception {
+        DelayableServletResponse response = new DelayableServletResponse(httpResponse);
+        assertTrue(response.delay(100));
+        assertTrue(response.delay(50));
+
+        response.getWriter().print("delayed content");
+        response.flushBuffer();
+
+        assertTrue(response.isDelayed());
+        assertEquals(150, response.getDelay());
+        assertEquals(0, written.size());
+
+        response.complete();
+
+        assertFalse(response.isDelayed());
+        assertEquals("delayed content", written.toString("UTF-8"));
+    }
+
+    @Test
+    public void keepsBackErrorsUntilCompleted() throws Exception {
+        DelayableServletResponse response = new DelayableServletResponse(httpResponse);
+        response.delay(100);
+
+        response.sendError(503, "Unavailable");
+
+        assertTrue(response.isCommitted());
+        verify(httpResponse, never()).sendError(503, "Unavailable");
+
+        response.complete();
+
+        verify(httpResponse).sendError(503, "Unavailable");
+    }
+
+    @Test
+    public void cannotDelayCommittedResponse() throws Exception {
+        when(httpResponse.isCommitted()).thenReturn(true);
+        DelayableServletResponse response = new DelayableServletResponse(httpResponse);
+
+        assertFalse(response.delay(100));
+        assertFalse(response.isDelayed());
+        assertFalse(response.afterCompletion(new Runnable() {
+            public void run() {
+            }
+        }));
+    }
+
+    @Test
+    public void mockResultReadsHeadersThroughWrapper() throws Exception {
+        HttpFields httpFields = new HttpFields();
+        httpFields.put("X-Mock", "value");
+
+        Response jettyResponse = mock(Response.class);
+        when(jettyResponse.getHttpFields()).thenReturn(httpFields);
+
+        BaseMockResult<MockRequest, MockOperation> mockResult = createMockResult(new DelayableServletResponse(
+                jettyResponse));
+        mockResult.finish();
+
+        assertEquals("value", mockResult.getResponseHeaders().get("X-Mock", ""));
+    }
+
+    @Test
+    public void notifiesListenersOfDelayedResultsWithDelayedTimeTaken() throws Exception {
+        final List<Long> notifiedTimes = new ArrayList<Long>();
+        MockRunListener listener = new MockRunListenerAdapter() {
+            @Override
+            public void onMockResult(MockResult result) {
+                notifiedTimes.add(result.getTimeTaken());
+            }
+        };
+
+        RestMockService mockService = ModelItemFactory.makeRestMockService();
+        mockService.addMockRunListener(listener);
+
+        DelayableServletResponse response = new DelayableServletResponse(httpResponse);
+        response.delay(100);
+
+        BaseMockResult<MockRequest, MockOperation> mockResult = createMockResult(response);
+        mockResult.setTimeTaken(5);
+        mockService.fireOnMockResult(mockResult);
+
+        assertTrue(notifiedTimes.isEmpty());
+
+        // as the JettyMockEngine completes a delayed result
+        response.complete();
+        mockResult.setTimeTaken(mockResult.getTimeTaken() + response.getDelay());
+        response.runCompletionTasks();
+
+        assertEquals(1, notifiedTimes.size());
+        assertEquals(105L, (long) notifiedTimes.get(0));
+
+        response.runCompletionTasks();
+        assertEquals(1, notifiedTimes.size());
+    }
+
+    private static BaseMockResult<MockRequest, MockOperation> createMockResult(HttpServletResponse response) {
+        MockRequest mockRequest = mock(MockRequest.class);
+        when(mockRequest.getHttpResponse()).thenReturn(response);
+        return new BaseMockResult<MockRequest, MockOperation>(mockRequest);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.monitor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routing of request paths to mock services with many services registered on
+ * one port, comparing the PathTrie used by JettyMockEngine with the exact
+ * lookup and startsWith scan it replaced. Not run as part of the build; start
+ * with main or through the JMH runner.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathTrieBenchmark {
+    @Param({"10", "100", "500"})
+    public int services;
+
+    private PathTrie<String> trie;
+    private Map<String, String> map;
+    private String[] requestPaths;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        trie = new PathTrie<String>();
+        map = new HashMap<String, String>();
+
+        for (int c = 0; c < services; c++) {
+            String path = c % 2 == 0 ? "/mockService" + c + "SoapBinding" : "/api/v" + (c % 3) + "/resource" + c;
+            trie.put(path, path);
+            map.put(path, path);
+        }
+
+        // a mix of exact SOAP paths and REST paths below their root
+        requestPaths = new String[256];
+        for (int c = 0; c < requestPaths.length; c++) {
+            int service = (c * 31) % services;
+            requestPaths[c] = service % 2 == 0 ? "/mockService" + service + "SoapBinding" : "/api/v" + (service % 3)
+                    + "/resource" + service + "/items/" + c;
+        }
+    }
+
+    private String nextPath() {
+        next = (next + 1) & (requestPaths.length - 1);
+        return requestPaths[next];
+    }
+
+    @Benchmark
+    public String trie() {
+        return trie.getLongestPrefixMatch(nextPath());
+    }
+
+    @Benchmark
+    public String linearScan() {
+        String path = nextPath();
+        String result = map.get(path);
+        if (result == null) {
+            String bestMatchedRootPath = "";
+            for (String root : map.keySet()) {
+                if (path.startsWith(root) && root.length() > bestMatchedRootPath.length()) {
+                    bestMatchedRootPath = root;
+                    result = map.get(root);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(PathTrieBenchmark.class.getSimpleName()).build()).run();
+    }
+}
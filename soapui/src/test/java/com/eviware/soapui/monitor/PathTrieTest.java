@@ -0,0 +1,81 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.monitor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class PathTrieTest {
+    private PathTrie<String> trie;
+
+    @Before
+    public void setUp() {
+        trie = new PathTrie<String>();
+        trie.put("/", "root");
+        trie.put("/mockService", "soap");
+        trie.put("/mock", "mock");
+        trie.put("/rest/v1/orders", "orders");
+    }
+
+    @Test
+    public void findsExactMatches() {
+        assertThat(trie.get("/mockService"), is("soap"));
+        assertThat(trie.get("/mock"), is("mock"));
+        assertThat(trie.get("/moc"), is(nullValue()));
+        assertThat(trie.get("/mockServices"), is(nullValue()));
+        assertThat(trie.get(null), is(nullValue()));
+    }
+
+    @Test
+    public void prefersExactMatchOverPrefix() {
+        assertThat(trie.getLongestPrefixMatch("/mockService"), is("soap"));
+        assertThat(trie.getLongestPrefixMatch("/mock"), is("mock"));
+    }
+
+    @Test
+    public void findsLongestPrefixLikeStartsWith() {
+        assertThat(trie.getLongestPrefixMatch("/mockServiceSoapBinding"), is("soap"));
+        assertThat(trie.getLongestPrefixMatch("/mockery"), is("mock"));
+        assertThat(trie.getLongestPrefixMatch("/rest/v1/orders/42"), is("orders"));
+        assertThat(trie.getLongestPrefixMatch("/rest/v1/customers"), is("root"));
+        assertThat(trie.getLongestPrefixMatch("other"), is(nullValue()));
+    }
+
+    @Test
+    public void emptyPathOnlyMatchesExactly() {
+        trie.put("", "empty");
+
+        assertThat(trie.getLongestPrefixMatch(""), is("empty"));
+        assertThat(trie.getLongestPrefixMatch("other"), is(nullValue()));
+    }
+
+    @Test
+    public void updatesOnRemove() {
+        assertThat(trie.remove("/mock"), is("mock"));
+        assertThat(trie.getLongestPrefixMatch("/mockery"), is("root"));
+        assertThat(trie.getLongestPrefixMatch("/mockService"), is("soap"));
+
+        trie.remove("/");
+        trie.remove("/mockService");
+        trie.remove("/rest/v1/orders");
+        assertThat(trie.isEmpty(), is(true));
+        assertThat(trie.getLongestPrefixMatch("/mockService"), is(nullValue()));
+    }
+}
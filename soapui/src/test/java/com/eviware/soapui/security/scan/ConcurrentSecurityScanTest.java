@@ -0,0 +1,141 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.security.scan;
+
+import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.impl.rest.support.RestParamProperty;
+import com.eviware.soapui.impl.rest.support.RestParamsPropertyHolder;
+import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
+import com.eviware.soapui.impl.wsdl.teststeps.HttpTestRequestStep;
+import com.eviware.soapui.impl.wsdl.teststeps.registry.HttpRequestStepFactory;
+import com.eviware.soapui.model.iface.MessageExchange;
+import com.eviware.soapui.model.testsuite.TestCaseRunner;
+import com.eviware.soapui.security.SecurityTest;
+import com.eviware.soapui.security.SecurityTestRunContext;
+import com.eviware.soapui.security.result.SecurityScanRequestResult;
+import com.eviware.soapui.security.support.SecurityTestRunListenerAdapter;
+import com.eviware.soapui.support.types.StringToObjectMap;
+import com.eviware.soapui.utils.ModelItemFactory;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentSecurityScanTest {
+    private MockWebServer server;
+    private SlowEchoDispatcher dispatcher;
+    private SecurityTest securityTest;
+    private List<String> results;
+
+    @Before
+    public void setUp() throws Exception {
+        SoapUI.initDefaultCore();
+
+        dispatcher = new SlowEchoDispatcher();
+        server = new MockWebServer();
+        server.setDispatcher(dispatcher);
+        server.start();
+
+        WsdlTestCase testCase = ModelItemFactory.makeTestCase();
+        HttpTestRequestStep requestStep = (HttpTestRequestStep) testCase.addTestStep(
+                HttpRequestStepFactory.HTTPREQUEST_TYPE, "Request", server.url("/search").toString(), "GET");
+        RestParamProperty parameter = requestStep.getTestRequest().getParams().addProperty("q");
+        parameter.setStyle(RestParamsPropertyHolder.ParameterStyle.QUERY);
+        parameter.setValue("test");
+
+        securityTest = testCase.addNewSecurityTest("SecurityTest");
+        SQLInjectionScan scan = (SQLInjectionScan) securityTest.addNewSecurityScan(requestStep, SQLInjectionScan.NAME);
+        scan.getParameterHolder().addParameter("q", "q", "", true);
+        scan.getExecutionStrategy().setDelay(0);
+
+        results = new ArrayList<String>();
+        securityTest.addSecurityTestRunListener(new SecurityTestRunListenerAdapter() {
+            @Override
+            public void afterSecurityScanRequest(TestCaseRunner testRunner, SecurityTestRunContext runContext,
+                                                 SecurityScanRequestResult requestResult) {
+                MessageExchange messageExchange = requestResult.getMessageExchange();
+                results.add(messageExchange.getProperties().get(
+                        AbstractSecurityScanWithProperties.SECURITY_CHANGED_PARAMETERS)
+                        + " -> " + messageExchange.getResponseContent());
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void concurrentScanSendsSameRequestsInMutationOrder() throws Exception {
+        int sequentialRequests = runSecurityTest(1);
+        List<String> sequentialResults = new ArrayList<String>(results);
+        assertEquals(1, dispatcher.maxInFlight.get());
+
+        results.clear();
+        dispatcher.maxInFlight.set(0);
+        int concurrentRequests = runSecurityTest(4);
+
+        assertFalse(sequentialResults.isEmpty());
+        assertEquals(sequentialRequests, concurrentRequests);
+        assertEquals(sequentialResults, results);
+        assertTrue("requests were not sent concurrently", dispatcher.maxInFlight.get() > 1);
+    }
+
+    private int runSecurityTest(int concurrency) {
+        int requestCount = server.getRequestCount();
+
+        securityTest.setMutationConcurrency(concurrency);
+        securityTest.run(new StringToObjectMap(), false);
+
+        return server.getRequestCount() - requestCount;
+    }
+
+    /**
+     * Answers each request with its path after a delay, keeping track of how
+     * many requests are handled at the same time
+     */
+    private static class SlowEchoDispatcher extends Dispatcher {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            int current = inFlight.incrementAndGet();
+            try {
+                while (current > maxInFlight.get()) {
+                    maxInFlight.compareAndSet(maxInFlight.get(), current);
+                }
+
+                Thread.sleep(50);
+                return new MockResponse().setHeader("Content-Type", "text/plain").setBody(request.getPath());
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
@@ -16,6 +16,8 @@
 
 package com.eviware.soapui.support;
 
+import com.eviware.soapui.impl.wsdl.WsdlSubmitContext;
+import com.eviware.soapui.impl.wsdl.support.assertions.ParsedContentCache;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.jayway.jsonpath.JsonPath;
 import org.junit.Test;
@@ -24,6 +26,8 @@ import java.util.List;
 
 import static com.eviware.soapui.utils.CommonMatchers.aCollectionWithSize;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 public class JsonPathFacadeTest {
@@ -47,6 +51,31 @@ public class JsonPathFacadeTest {
         assertThat(arrayElements.size(), is(2));
     }
 
+    @Test
+    public void facadesShareParsedTreeWhileCacheIsAttached() throws Exception {
+        WsdlSubmitContext context = new WsdlSubmitContext(null);
+        ParsedContentCache cache = ParsedContentCache.attach(context);
+
+        JsonPathFacade first = JsonPathFacade.forContent(context, SIMPLE_JSON);
+        JsonPathFacade second = JsonPathFacade.forContent(context, SIMPLE_JSON);
+        assertThat(second.getJSON(), is(sameInstance(first.getJSON())));
+        assertThat(second.readStringValue("$.children[1].childProperty"), is("propValue"));
+
+        ParsedContentCache.detach(context, cache);
+        assertThat(JsonPathFacade.forContent(context, SIMPLE_JSON).getJSON(), is(not(sameInstance(first.getJSON()))));
+    }
+
+    @Test
+    public void writeDoesNotChangeSharedTree() throws Exception {
+        WsdlSubmitContext context = new WsdlSubmitContext(null);
+        ParsedContentCache.attach(context);
+
+        JsonPathFacade.forContent(context, SIMPLE_JSON).writeValue("$.children[1].childProperty", "newValue");
+
+        assertThat(JsonPathFacade.forContent(context, SIMPLE_JSON).readStringValue("$.children[1].childProperty"),
+                is("propValue"));
+    }
+
     @Test
     public void simpleWriteWorks() throws Exception {
         verifyJsonWrite(SIMPLE_JSON, "$.children[1].childProperty");
@@ -0,0 +1,167 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.support.jdbc;
+
+import com.eviware.soapui.impl.wsdl.panels.teststeps.support.NamedParameterStatement;
+import com.eviware.soapui.model.propertyexpansion.PropertyExpansionContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.ResultSet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the pool against an embedded H2 in-memory database
+ */
+public class JdbcConnectionPoolTest {
+
+    private static final String DRIVER = "org.h2.Driver";
+    private static final String CONNECTION_STRING = "jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1";
+
+    private JdbcConnectionPool pool;
+    private PropertyExpansionContext context;
+
+    @Before
+    public void setUp() {
+        pool = new JdbcConnectionPool(2, 8, JdbcConnectionPool.DEFAULT_IDLE_TIMEOUT);
+        context = mock(PropertyExpansionContext.class);
+    }
+
+    @After
+    public void tearDown() {
+        pool.closeAll();
+    }
+
+    @Test
+    public void releasedConnectionIsReused() throws Exception {
+        JdbcConnectionPool.PooledConnection connection = getConnection(CONNECTION_STRING);
+        connection.release();
+        assertThat(pool.getIdleConnectionCount(), is(1));
+
+        JdbcConnectionPool.PooledConnection reused = getConnection(CONNECTION_STRING);
+        assertThat(reused, is(sameInstance(connection)));
+        assertThat(pool.getIdleConnectionCount(), is(0));
+        reused.release();
+    }
+
+    @Test
+    public void connectionsAreKeyedByConnectionString() throws Exception {
+        JdbcConnectionPool.PooledConnection connection = getConnection(CONNECTION_STRING);
+        connection.release();
+
+        JdbcConnectionPool.PooledConnection other = getConnection("jdbc:h2:mem:otherpooltest");
+        assertThat(other, is(not(sameInstance(connection))));
+        other.release();
+    }
+
+    @Test
+    public void preparedStatementsAreReusedWithClearedParameters() throws Exception {
+        JdbcConnectionPool.PooledConnection connection = getConnection(CONNECTION_STRING);
+        String sql = "select cast(:value as varchar) from dual";
+
+        NamedParameterStatement statement = connection.prepareStatement(sql);
+        statement.setString("value", "first");
+        assertThat(queryString(statement), is("first"));
+        connection.release();
+
+        connection = getConnection(CONNECTION_STRING);
+        NamedParameterStatement reused = connection.prepareStatement(sql);
+        assertThat(reused, is(sameInstance(statement)));
+        reused.setString("value", "second");
+        assertThat(queryString(reused), is("second"));
+        connection.release();
+    }
+
+    @Test
+    public void discardedConnectionIsClosed() throws Exception {
+        JdbcConnectionPool.PooledConnection connection = getConnection(CONNECTION_STRING);
+        connection.discard();
+
+        assertThat(connection.getConnection().isClosed(), is(true));
+        assertThat(pool.getIdleConnectionCount(), is(0));
+    }
+
+    @Test
+    public void idleConnectionsAreBounded() throws Exception {
+        JdbcConnectionPool.PooledConnection first = getConnection(CONNECTION_STRING);
+        JdbcConnectionPool.PooledConnection second = getConnection(CONNECTION_STRING);
+        JdbcConnectionPool.PooledConnection third = getConnection(CONNECTION_STRING);
+
+        first.release();
+        second.release();
+        third.release();
+
+        assertThat(pool.getIdleConnectionCount(), is(2));
+        assertThat(third.getConnection().isClosed(), is(true));
+    }
+
+    @Test
+    public void connectionWithOpenTransactionIsNotPooled() throws Exception {
+        JdbcConnectionPool.PooledConnection connection = getConnection(CONNECTION_STRING);
+        connection.getConnection().setAutoCommit(false);
+        connection.release();
+
+        assertThat(pool.getIdleConnectionCount(), is(0));
+        assertThat(connection.getConnection().isClosed(), is(true));
+    }
+
+    @Test
+    public void expiredIdleConnectionIsClosedWithoutFurtherUse() throws Exception {
+        pool = new JdbcConnectionPool(2, 8, 0);
+        JdbcConnectionPool.PooledConnection connection = getConnection(CONNECTION_STRING);
+        connection.release();
+        Thread.sleep(10);
+
+        pool.closeExpiredConnections();
+
+        assertThat(pool.getIdleConnectionCount(), is(0));
+        assertThat(connection.getConnection().isClosed(), is(true));
+    }
+
+    @Test
+    public void reaperClosesExpiredIdleConnection() throws Exception {
+        pool = new JdbcConnectionPool(2, 8, 0);
+        JdbcConnectionPool.PooledConnection connection = getConnection(CONNECTION_STRING);
+        connection.release();
+
+        for (int c = 0; c < 50 && !connection.getConnection().isClosed(); c++) {
+            Thread.sleep(100);
+        }
+
+        assertThat(connection.getConnection().isClosed(), is(true));
+        assertThat(pool.getIdleConnectionCount(), is(0));
+    }
+
+    private JdbcConnectionPool.PooledConnection getConnection(String connectionString) throws Exception {
+        return pool.getConnection(context, DRIVER, connectionString, null);
+    }
+
+    private static String queryString(NamedParameterStatement statement) throws Exception {
+        ResultSet resultSet = statement.executeQuery();
+        try {
+            resultSet.next();
+            return resultSet.getString(1);
+        } finally {
+            resultSet.close();
+        }
+    }
+}
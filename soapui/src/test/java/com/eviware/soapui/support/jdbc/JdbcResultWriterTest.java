@@ -0,0 +1,101 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.support.jdbc;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Writes results of an embedded H2 in-memory database
+ */
+public class JdbcResultWriterTest {
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:resultwritertest");
+        Statement statement = connection.createStatement();
+        statement.execute("create table person (id int, name varchar(50))");
+        statement.execute("insert into person values (1, 'Ann & Bob'), (2, null), (3, '<three>')");
+        statement.close();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        connection.close();
+    }
+
+    @Test
+    public void writesRowsAsIndentedXml() throws Exception {
+        String xml = write("select id, name from person order by id", 0);
+
+        assertThat(xml, containsString("<Results>\n   <ResultSet fetchSize="));
+        assertThat(xml, containsString("\n      <Row rowNumber=\"1\">\n         <PERSON.ID>1</PERSON.ID>"
+                + "\n         <PERSON.NAME>Ann &amp; Bob</PERSON.NAME>\n      </Row>"));
+        assertThat(xml, containsString("<PERSON.NAME/>"));
+        assertThat(xml, containsString("<PERSON.NAME>&lt;three&gt;</PERSON.NAME>"));
+        assertThat(xml, containsString("\n   </ResultSet>\n</Results>"));
+        assertThat(xml, not(containsString("Truncated")));
+    }
+
+    @Test
+    public void stopsAtRowLimit() throws Exception {
+        String xml = write("select id from person order by id", 2);
+
+        assertThat(xml, containsString("<Row rowNumber=\"2\">"));
+        assertThat(xml, not(containsString("<Row rowNumber=\"3\">")));
+        assertThat(xml, containsString("<Truncated rowLimit=\"2\"/>"));
+    }
+
+    @Test
+    public void writesEmptyResultSet() throws Exception {
+        String xml = write("select id from person where id < 0", 0);
+
+        assertThat(xml, containsString("<ResultSet fetchSize="));
+        assertThat(xml, containsString("\"/>\n</Results>"));
+        assertThat(xml, not(containsString("<Row")));
+    }
+
+    @Test
+    public void writesUpdateCount() throws Exception {
+        assertThat(write("update person set name = 'x' where id > 1", 0),
+                is("<Results>\n   <UpdateCount>2</UpdateCount>\n</Results>"));
+    }
+
+    private String write(String sql, int maxRows) throws Exception {
+        Statement statement = connection.createStatement();
+        try {
+            statement.execute(sql);
+            StringWriter out = new StringWriter();
+            new JdbcResultWriter(out, true, maxRows).write(statement);
+            return out.toString();
+        } finally {
+            statement.close();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.support.scripting.groovy;
+
+import groovy.lang.Binding;
+import groovy.lang.Script;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class GroovyScriptClassCacheTest {
+    private final ClassLoader classLoader = getClass().getClassLoader();
+    private final CompilerConfiguration config = new CompilerConfiguration();
+
+    @Test
+    public void sharesCompiledClassBetweenScripts() {
+        GroovyScriptClassCache cache = new GroovyScriptClassCache(10);
+
+        Script first = cache.createScript("x * 2", classLoader, config, bindingWith(2));
+        Script second = cache.createScript("x * 2", classLoader, config, bindingWith(5));
+
+        assertNotSame(first, second);
+        assertSame(first.getClass(), second.getClass());
+        assertEquals(4, first.run());
+        assertEquals(10, second.run());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void keepsClassesWhenAlternatingBetweenScripts() {
+        GroovyScriptClassCache cache = new GroovyScriptClassCache(10);
+
+        Class<?> first = cache.createScript("x + 1", classLoader, config, bindingWith(1)).getClass();
+        cache.createScript("x + 2", classLoader, config, bindingWith(1));
+
+        assertSame(first, cache.createScript("x + 1", classLoader, config, bindingWith(1)).getClass());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedScripts() {
+        GroovyScriptClassCache cache = new GroovyScriptClassCache(2);
+
+        cache.createScript("1", classLoader, config, new Binding());
+        cache.createScript("2", classLoader, config, new Binding());
+        cache.createScript("1", classLoader, config, new Binding());
+        cache.createScript("3", classLoader, config, new Binding());
+
+        assertEquals(2, cache.getSize());
+        assertEquals(1, cache.getEvictionCount());
+
+        cache.createScript("1", classLoader, config, new Binding());
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void doesNotCacheFailedCompilations() {
+        GroovyScriptClassCache cache = new GroovyScriptClassCache(10);
+
+        try {
+            cache.createScript("def x = ", classLoader, config, new Binding());
+            fail("Expected compilation to fail");
+        } catch (CompilationFailedException e) {
+            assertEquals(0, cache.getSize());
+        }
+    }
+
+    private static Binding bindingWith(int x) {
+        Binding binding = new Binding();
+        binding.setVariable("x", x);
+        return binding;
+    }
+}
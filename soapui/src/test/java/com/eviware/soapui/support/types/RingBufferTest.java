@@ -0,0 +1,100 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.support.types;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class RingBufferTest {
+
+    @Test
+    public void keepsValuesUntilOverwritten() {
+        RingBuffer<String> buffer = new RingBuffer<String>(3);
+        for (String value : Arrays.asList("a", "b", "c", "d")) {
+            buffer.add(value);
+        }
+
+        assertThat(buffer.getSequence(), is(4L));
+        assertThat(buffer.getFirstSequence(), is(1L));
+        assertThat(buffer.size(), is(3));
+        assertThat(buffer.get(0), is(nullValue()));
+        assertThat(buffer.get(1), is("b"));
+        assertThat(buffer.get(3), is("d"));
+        assertThat(buffer.get(4), is(nullValue()));
+        assertThat(buffer.getValues(), is(Arrays.asList("b", "c", "d")));
+    }
+
+    @Test
+    public void clearKeepsSequence() {
+        RingBuffer<String> buffer = new RingBuffer<String>(3);
+        buffer.add("a");
+        buffer.add("b");
+        buffer.clear();
+
+        assertThat(buffer.size(), is(0));
+        assertThat(buffer.get(1), is(nullValue()));
+        assertThat(buffer.getValues(), is(Collections.<String>emptyList()));
+        assertThat(buffer.add("c"), is(2L));
+        assertThat(buffer.get(2), is("c"));
+    }
+
+    @Test
+    public void resizeContinuesSequence() {
+        RingBuffer<String> buffer = new RingBuffer<String>(4);
+        for (String value : Arrays.asList("a", "b", "c", "d")) {
+            buffer.add(value);
+        }
+
+        RingBuffer<String> smaller = buffer.resize(2);
+        assertThat(smaller.getValues(), is(Arrays.asList("c", "d")));
+        assertThat(smaller.get(3), is("d"));
+
+        RingBuffer<String> larger = smaller.resize(5);
+        assertThat(larger.add("e"), is(4L));
+        assertThat(larger.getValues(), is(Arrays.asList("c", "d", "e")));
+    }
+
+    @Test
+    public void keepsMostRecentValuesFromConcurrentWriters() throws InterruptedException {
+        final RingBuffer<Integer> buffer = new RingBuffer<Integer>(64);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(new Runnable() {
+                public void run() {
+                    for (int c = 0; c < 10000; c++) {
+                        buffer.add(c);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<Integer> values = buffer.getValues();
+        assertThat(buffer.getSequence(), is(40000L));
+        assertThat(values.size(), is(64));
+    }
+}
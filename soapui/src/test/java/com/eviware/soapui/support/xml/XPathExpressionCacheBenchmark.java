@@ -0,0 +1,86 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.support.xml;
+
+import org.apache.xmlbeans.XmlObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selection of a simple path and of a path with a predicate from a response
+ * with 50 items, through the XPathExpressionCache and directly with
+ * XmlObject.selectPath. Not run as part of the build; start with main or
+ * through the JMH runner.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class XPathExpressionCacheBenchmark {
+    private static final int ITEMS = 50;
+    private static final String NAMESPACES = "declare namespace ord='http://example.com/orders';";
+
+    @Param({NAMESPACES + "//ord:item/ord:sku", NAMESPACES + "//ord:item[ord:quantity > 25]/ord:sku"})
+    public String path;
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    private XPathExpressionCache cache;
+    private XmlObject response;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        cache = new XPathExpressionCache(XPathExpressionCache.DEFAULT_CACHE_SIZE);
+        response = XmlUtils.createXmlObject(createResponse());
+    }
+
+    @Benchmark
+    public XmlObject[] selectPath() {
+        return cached ? cache.select(response, path) : response.selectPath(path);
+    }
+
+    private static String createResponse() {
+        StringBuilder body = new StringBuilder("<ord:items xmlns:ord=\"http://example.com/orders\">");
+        for (int c = 0; c < ITEMS; c++) {
+            body.append("<ord:item><ord:sku>SKU-").append(1000 + c).append("</ord:sku><ord:quantity>").append(c + 1)
+                    .append("</ord:quantity></ord:item>");
+        }
+
+        return body.append("</ord:items>").toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(XPathExpressionCacheBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.support.xml;
+
+import org.apache.xmlbeans.XmlObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+public class XPathExpressionCacheTest {
+    private static final String NAMESPACES = "declare namespace t='urn:test'; declare namespace o='urn:other';";
+
+    private final XPathExpressionCache cache = new XPathExpressionCache(10);
+
+    @Test
+    public void selectsNamespacedElements() throws Exception {
+        XmlObject xml = createDocument(3);
+
+        assertSameAsXmlBeans(xml, NAMESPACES + "//t:item");
+        assertSameAsXmlBeans(xml, NAMESPACES + "/t:root/o:other");
+        assertEquals(3, cache.select(xml, NAMESPACES + "//t:item").length);
+        assertEquals(0, cache.getFallbackCount());
+    }
+
+    @Test
+    public void leavesSimplePathsToXmlBeans() throws Exception {
+        XmlObject xml = createDocument(3);
+
+        assertSameAsXmlBeans(xml, NAMESPACES + "//t:item");
+        assertSameAsXmlBeans(xml, NAMESPACES + "/t:root/o:other");
+        assertSameAsXmlBeans(xml, NAMESPACES + "//t:item/@o:ref");
+        assertSameAsXmlBeans(xml, NAMESPACES + "//t:item[2]");
+
+        assertEquals(3, cache.getNativeCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0, cache.getFallbackCount());
+    }
+
+    @Test
+    public void selectsAttributesAndText() throws Exception {
+        XmlObject xml = createDocument(3);
+
+        assertSameAsXmlBeans(xml, NAMESPACES + "//t:item/@id");
+        assertSameAsXmlBeans(xml, NAMESPACES + "//t:item[2]/text()");
+        assertSameAsXmlBeans(xml, NAMESPACES + "//t:item/@o:ref");
+    }
+
+    @Test
+    public void evaluatesFunctions() throws Exception {
+        XmlObject xml = createDocument(5);
+
+        assertSameAsXmlBeans(xml, NAMESPACES + "//t:item[contains(., '3')]");
+        assertSameAsXmlBeans(xml, NAMESPACES + "//t:item[position() > 2 and @id != '5']");
+        assertSameAsXmlBeans(xml, NAMESPACES + "//*[local-name() = 'item'][last()]");
+        assertSameAsXmlBeans(xml, NAMESPACES + "count(//t:item)");
+    }
+
+    @Test
+    public void evaluatesSharedPathsConcurrently() throws Exception {
+        final String path = NAMESPACES + "//t:item[@id mod 2 = 0]";
+        int threadCount = 8;
+
+        // compiled on this thread, every other thread compiles its own copy of the expression
+        cache.select(createDocument(1), path);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int c = 0; c < threadCount; c++) {
+                final int itemCount = 10 + c;
+                results.add(executor.submit(new Callable<Boolean>() {
+                    public Boolean call() throws Exception {
+                        for (int i = 0; i < 200; i++) {
+                            XmlObject xml = createDocument(itemCount);
+                            XmlObject[] items = cache.select(xml, path);
+                            if (items.length != itemCount / 2 || !texts(items).equals(texts(xml.selectPath(path)))) {
+                                return false;
+                            }
+                        }
+
+                        return true;
+                    }
+                }));
+            }
+
+            for (Future<Boolean> result : results) {
+                assertEquals(Boolean.TRUE, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // one compilation per thread, later evaluations on a thread are hits
+        assertEquals(1 + threadCount, cache.getMissCount());
+        assertEquals(threadCount * 199, cache.getHitCount());
+        assertEquals(0, cache.getFallbackCount());
+    }
+
+    private void assertSameAsXmlBeans(XmlObject xml, String path) {
+        assertEquals(path, texts(xml.selectPath(path)), texts(cache.select(xml, path)));
+    }
+
+    private static List<String> texts(XmlObject[] items) {
+        List<String> result = new ArrayList<String>();
+        for (XmlObject item : items) {
+            result.add(item.xmlText());
+        }
+
+        return result;
+    }
+
+    private static XmlObject createDocument(int itemCount) throws Exception {
+        StringBuilder builder = new StringBuilder("<t:root xmlns:t=\"urn:test\" xmlns:o=\"urn:other\">");
+        for (int c = 1; c <= itemCount; c++) {
+            builder.append("<t:item id=\"").append(c).append("\" o:ref=\"r").append(c).append("\">value ").append(c)
+                    .append("</t:item>");
+        }
+
+        builder.append("<o:other/></t:root>");
+        return XmlUtils.createXmlObject(builder.toString());
+    }
+}
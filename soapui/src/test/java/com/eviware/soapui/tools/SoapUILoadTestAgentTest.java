@@ -0,0 +1,295 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.tools;
+
+import com.eviware.soapui.config.LoadTestLimitTypesConfig;
+import com.eviware.soapui.impl.wsdl.WsdlProject;
+import com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTest;
+import com.eviware.soapui.impl.wsdl.loadtest.agent.LoadTestAgentController;
+import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatistics;
+import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatistics.Statistic;
+import com.eviware.soapui.model.testsuite.TestRunner.Status;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs a LoadTest on agents started as separate JVMs listening on localhost,
+ * and checks token and socket handling of agents started in this JVM
+ */
+public class SoapUILoadTestAgentTest {
+
+    private static final int AGENT_COUNT = 3;
+    private static final long TIMEOUT = 60000;
+    private static final String TOKEN = "agent-test-token";
+
+    private File projectFile;
+    private WsdlLoadTest loadTest;
+    private final List<Process> agentProcesses = new ArrayList<Process>();
+    private final List<File> agentLogs = new ArrayList<File>();
+    private final List<SoapUILoadTestAgent> agents = new ArrayList<SoapUILoadTestAgent>();
+    private final List<Thread> agentThreads = new ArrayList<Thread>();
+    private final AtomicReference<Throwable> agentError = new AtomicReference<Throwable>();
+
+    @Before
+    public void setUp() throws Exception {
+        WsdlProject project = new WsdlProject(
+                SoapUILoadTestAgentTest.class.getResource("/sample-soapui-project.xml").getPath());
+        loadTest = (WsdlLoadTest) project.getTestSuiteByName("TestSuite 2").getTestCaseByName("TestCase 1")
+                .getLoadTestByName("LoadTest 1");
+        loadTest.setThreadCount(AGENT_COUNT);
+        loadTest.setLimitType(LoadTestLimitTypesConfig.COUNT);
+        loadTest.setTestLimit(AGENT_COUNT - 1);
+
+        // agents load the project from file, so they need to see the count limit too
+        projectFile = File.createTempFile("agent-soapui-project", ".xml");
+        project.saveIn(projectFile);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (SoapUILoadTestAgent agent : agents) {
+            agent.stop();
+        }
+
+        for (Thread thread : agentThreads) {
+            thread.join(TIMEOUT);
+        }
+
+        for (Process process : agentProcesses) {
+            process.destroy();
+            process.waitFor();
+        }
+
+        for (File log : agentLogs) {
+            log.delete();
+        }
+
+        projectFile.delete();
+
+        if (agentError.get() != null) {
+            throw new AssertionError("Agent failed: " + agentError.get());
+        }
+    }
+
+    @Test
+    public void runLimitBelowAgentCountDoesNotRunUnlimited() throws Exception {
+        List<InetSocketAddress> addresses = new ArrayList<InetSocketAddress>();
+        for (int c = 0; c < AGENT_COUNT; c++) {
+            addresses.add(new InetSocketAddress("localhost", startAgentProcess()));
+        }
+
+        LoadTestAgentController controller = new LoadTestAgentController(loadTest, addresses, TOKEN);
+        runUntilStopped(controller);
+
+        assertThat(agentLogsText(), controller.getStatus(), is(Status.FINISHED));
+        assertThat(loadTest.getStatisticsModel().getStatistic(LoadTestStatistics.TOTAL, Statistic.COUNT),
+                is((long) AGENT_COUNT - 1));
+    }
+
+    @Test
+    public void rejectsControllerWithWrongToken() throws Exception {
+        SoapUILoadTestAgent agent = startAgent(TOKEN);
+
+        LoadTestAgentController controller = new LoadTestAgentController(loadTest,
+                Collections.singletonList(new InetSocketAddress("localhost", agent.getLocalPort())), "wrong-token");
+        runUntilStopped(controller);
+
+        assertThat(controller.getStatus(), is(Status.FAILED));
+        assertThat(controller.getReason(), containsString("Invalid agent token"));
+        assertThat(loadTest.getStatisticsModel().getStatistic(LoadTestStatistics.TOTAL, Statistic.COUNT), is(0L));
+    }
+
+    @Test
+    public void listensOnLoopbackByDefault() throws Exception {
+        SoapUILoadTestAgent agent = startAgent(TOKEN);
+
+        InetAddress address = agent.getLocalAddress();
+        assertTrue(String.valueOf(address), address.isLoopbackAddress());
+    }
+
+    @Test
+    public void stopClosesServerSocket() throws Exception {
+        SoapUILoadTestAgent agent = startAgent(TOKEN);
+        int port = agent.getLocalPort();
+
+        agent.stop();
+        agentThreads.get(0).join(TIMEOUT);
+        assertFalse(agentThreads.get(0).isAlive());
+
+        try {
+            new Socket(InetAddress.getLoopbackAddress(), port).close();
+            fail("Expected agent socket to be closed");
+        } catch (ConnectException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void doesNotStartWithoutToken() throws Exception {
+        SoapUILoadTestAgent agent = new SoapUILoadTestAgent();
+        agent.setProjectFile(projectFile.getAbsolutePath());
+        agent.setPort(0);
+        agent.setToken(null);
+
+        try {
+            agent.runRunner();
+            fail("Expected agent without token not to start");
+        } catch (Exception e) {
+            assertThat(e.getMessage(), containsString("token"));
+        }
+
+        assertThat(agent.getLocalPort(), is(-1));
+    }
+
+    private void runUntilStopped(LoadTestAgentController controller) throws InterruptedException {
+        controller.start(true);
+
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (!controller.hasStopped() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+
+        if (!controller.hasStopped()) {
+            controller.cancel("Timed out");
+        }
+    }
+
+    /**
+     * Starts an agent in this JVM, failures are reported by tearDown
+     */
+
+    private SoapUILoadTestAgent startAgent(String token) throws InterruptedException {
+        final SoapUILoadTestAgent agent = new SoapUILoadTestAgent();
+        agent.setProjectFile(projectFile.getAbsolutePath());
+        agent.setPort(0);
+        agent.setToken(token);
+        agents.add(agent);
+
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    agent.run();
+                } catch (Throwable e) {
+                    agentError.compareAndSet(null, e);
+                }
+            }
+        }, "LoadTest agent");
+        thread.setDaemon(true);
+        thread.start();
+        agentThreads.add(thread);
+
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (agent.getLocalPort() == -1 && agentError.get() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertTrue("Agent did not start: " + agentError.get(), agent.getLocalPort() != -1);
+        return agent;
+    }
+
+    /**
+     * Starts an agent in a separate JVM with the classpath of this one
+     *
+     * @return the port the agent listens on
+     */
+
+    private int startAgentProcess() throws Exception {
+        int port = findFreePort();
+        File log = File.createTempFile("soapui-agent", ".log");
+        agentLogs.add(log);
+
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                SoapUILoadTestAgent.class.getName(), "-a", String.valueOf(port), "-k", TOKEN,
+                projectFile.getAbsolutePath());
+        builder.redirectErrorStream(true);
+        builder.redirectOutput(log);
+        Process process = builder.start();
+        agentProcesses.add(process);
+
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (System.currentTimeMillis() < deadline) {
+            if (!isAlive(process)) {
+                fail("Agent process exited with " + process.exitValue() + ":\n" + FileUtils.readFileToString(log));
+            }
+
+            if (canConnect(port)) {
+                return port;
+            }
+
+            Thread.sleep(200);
+        }
+
+        fail("Agent process did not start listening:\n" + FileUtils.readFileToString(log));
+        return -1;
+    }
+
+    private String agentLogsText() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (File log : agentLogs) {
+            builder.append(FileUtils.readFileToString(log)).append('\n');
+        }
+        return builder.toString();
+    }
+
+    private static int findFreePort() throws IOException {
+        ServerSocket socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        try {
+            return socket.getLocalPort();
+        } finally {
+            socket.close();
+        }
+    }
+
+    private static boolean canConnect(int port) {
+        try {
+            new Socket(InetAddress.getLoopbackAddress(), port).close();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean isAlive(Process process) {
+        try {
+            process.exitValue();
+            return false;
+        } catch (IllegalThreadStateException e) {
+            return true;
+        }
+    }
+}